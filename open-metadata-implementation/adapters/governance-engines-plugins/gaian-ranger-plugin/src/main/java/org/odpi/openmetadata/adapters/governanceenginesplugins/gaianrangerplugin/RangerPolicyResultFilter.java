@@ -27,6 +27,7 @@ import static org.odpi.openmetadata.adapters.governanceenginesplugins.gaianrange
 public class RangerPolicyResultFilter extends SQLResultFilterX {
 
     private static final Logger logger = new Logger("RangerPolicyResultFilter", 25);
+    private static final RestTemplate restTemplate = new RestTemplate();
 
     private QueryContext queryContext = new QueryContext();
     private RangerGaianAuthorizer rangerGaianAuthorizer = new RangerGaianAuthorizer();
@@ -48,7 +49,6 @@ public class RangerPolicyResultFilter extends SQLResultFilterX {
      * @return information about the user
      */
     private RangerUser getRangerUser(String url) {
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
 
         try {
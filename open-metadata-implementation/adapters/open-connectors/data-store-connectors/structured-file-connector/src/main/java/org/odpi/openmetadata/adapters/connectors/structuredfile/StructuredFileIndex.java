@@ -0,0 +1,403 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.structuredfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * StructuredFileIndex records where each line of a structured file starts so that any line can be read
+ * without scanning the lines in front of it.  The index is built the first time the file is read and saved
+ * in a file next to the structured file (the name of the structured file followed by ".idx") together with
+ * the size and last modified time of the structured file.  A saved index is reused by later connector instances
+ * as long as the size and last modified time still match.  If the index can not be saved next to the
+ * structured file it is saved in a temporary file instead.
+ *
+ * Both the structured file and the index are read through memory-mapped buffers so lines are fetched
+ * straight from the operating system's page cache and the index does not occupy the Java heap.  The
+ * buffers are only read with absolute positions so one index can be shared by many threads.
+ *
+ * As with the original line-by-line scan, lines are separated by '\n' (a '\r' before it is dropped) and any
+ * blank lines at the end of the file are ignored.
+ */
+class StructuredFileIndex
+{
+    static final String  indexFileSuffix = ".idx";
+
+    private static final long indexFileIdentifier = 0x4567657269614958L;
+    private static final long indexFileVersion    = 1;
+    private static final int  lineCountPosition   = 32;
+    private static final int  indexHeaderSize     = 40;
+    private static final int  bufferSize          = 64 * 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(StructuredFileIndex.class);
+
+    private final long          dataFileLength;
+    private final long          dataFileLastModified;
+    private final long          lineCount;
+    private final MappedFile    dataFile;
+    private final MappedFile    indexFile;
+
+
+    /**
+     * Return the index for the structured file, reusing the saved index if it is still up to date
+     * and building a new one if it is not.
+     *
+     * @param structuredFile the structured file
+     * @return index
+     * @throws IOException the structured file can not be read or the index can not be saved
+     */
+    static StructuredFileIndex getIndex(File structuredFile) throws IOException
+    {
+        long dataFileLength       = structuredFile.length();
+        long dataFileLastModified = structuredFile.lastModified();
+        File savedIndexFile       = new File(structuredFile.getPath() + indexFileSuffix);
+
+        long lineCount = readIndexHeader(savedIndexFile, dataFileLength, dataFileLastModified);
+
+        if (lineCount < 0)
+        {
+            try
+            {
+                lineCount = buildIndex(structuredFile, savedIndexFile, dataFileLength, dataFileLastModified);
+            }
+            catch (IOException error)
+            {
+                log.debug("Unable to save the index next to " + structuredFile.getPath() + ": " + error.getMessage());
+
+                savedIndexFile = File.createTempFile(structuredFile.getName(), indexFileSuffix);
+                savedIndexFile.deleteOnExit();
+
+                lineCount = buildIndex(structuredFile, savedIndexFile, dataFileLength, dataFileLastModified);
+            }
+        }
+
+        return new StructuredFileIndex(structuredFile, savedIndexFile, dataFileLength, dataFileLastModified, lineCount);
+    }
+
+
+    /**
+     * Constructor maps the structured file and its index into memory.
+     *
+     * @param structuredFile the structured file
+     * @param savedIndexFile the file holding the index
+     * @param dataFileLength length of the structured file when the index was built
+     * @param dataFileLastModified last modified time of the structured file when the index was built
+     * @param lineCount number of lines in the structured file
+     * @throws IOException unable to map the files
+     */
+    private StructuredFileIndex(File  structuredFile,
+                                File  savedIndexFile,
+                                long  dataFileLength,
+                                long  dataFileLastModified,
+                                long  lineCount) throws IOException
+    {
+        this.dataFileLength = dataFileLength;
+        this.dataFileLastModified = dataFileLastModified;
+        this.lineCount = lineCount;
+        this.dataFile = new MappedFile(structuredFile, dataFileLength);
+        this.indexFile = new MappedFile(savedIndexFile, indexHeaderSize + ((lineCount + 1) * Long.BYTES));
+    }
+
+
+    /**
+     * Return whether the index still describes the structured file.
+     *
+     * @param structuredFile the structured file
+     * @return boolean flag
+     */
+    boolean isCurrent(File structuredFile)
+    {
+        return (structuredFile.length() == dataFileLength) && (structuredFile.lastModified() == dataFileLastModified);
+    }
+
+
+    /**
+     * Return the number of lines in the structured file.
+     *
+     * @return count
+     */
+    long getLineCount()
+    {
+        return lineCount;
+    }
+
+
+    /**
+     * Return the requested line of the structured file without its line terminator.  The first line is line 0.
+     *
+     * @param lineNumber line to read
+     * @return line contents or null if the file does not have the requested line
+     */
+    String getLine(long lineNumber)
+    {
+        if ((lineNumber < 0) || (lineNumber >= lineCount))
+        {
+            return null;
+        }
+
+        long lineStart = indexFile.getLong(indexHeaderSize + (lineNumber * Long.BYTES));
+        long lineEnd   = indexFile.getLong(indexHeaderSize + ((lineNumber + 1) * Long.BYTES));
+
+        /*
+         * Drop the line terminator.
+         */
+        if ((lineEnd > lineStart) && (dataFile.get(lineEnd - 1) == '\n'))
+        {
+            lineEnd--;
+        }
+
+        if ((lineEnd > lineStart) && (dataFile.get(lineEnd - 1) == '\r'))
+        {
+            lineEnd--;
+        }
+
+        byte[] line = new byte[(int)(lineEnd - lineStart)];
+
+        dataFile.get(lineStart, line);
+
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Read the header of a saved index and return the number of lines it records if it matches the
+     * current state of the structured file.
+     *
+     * @param savedIndexFile file holding the index
+     * @param dataFileLength current length of the structured file
+     * @param dataFileLastModified current last modified time of the structured file
+     * @return line count or -1 if the index is missing, damaged or out of date
+     */
+    private static long readIndexHeader(File savedIndexFile,
+                                        long dataFileLength,
+                                        long dataFileLastModified)
+    {
+        if (! savedIndexFile.isFile())
+        {
+            return -1;
+        }
+
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(savedIndexFile))))
+        {
+            long identifier   = header.readLong();
+            long version      = header.readLong();
+            long length       = header.readLong();
+            long lastModified = header.readLong();
+            long lineCount    = header.readLong();
+
+            if ((identifier == indexFileIdentifier) &&
+                (version == indexFileVersion) &&
+                (length == dataFileLength) &&
+                (lastModified == dataFileLastModified) &&
+                (lineCount >= 0) &&
+                (savedIndexFile.length() >= indexHeaderSize + ((lineCount + 1) * Long.BYTES)))
+            {
+                return lineCount;
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Ignoring unreadable index " + savedIndexFile.getPath() + ": " + error.getMessage());
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Scan the structured file recording the start of each line and save the offsets in the index file.
+     * The offset after the end of each line is also the start of the next line so the end of the last line
+     * is added if the file does not end with a line terminator.  The offsets are written to a working file that
+     * replaces the index file once it is complete so a partly written index is never used.
+     *
+     * @param structuredFile the structured file
+     * @param savedIndexFile file to hold the index
+     * @param dataFileLength length of the structured file
+     * @param dataFileLastModified last modified time of the structured file
+     * @return number of lines in the structured file
+     * @throws IOException unable to read the structured file or write the index
+     */
+    private static long buildIndex(File structuredFile,
+                                   File savedIndexFile,
+                                   long dataFileLength,
+                                   long dataFileLastModified) throws IOException
+    {
+        File workingFile = new File(savedIndexFile.getPath() + ".tmp");
+        long lineCount   = 0;
+
+        try (FileChannel       dataChannel = FileChannel.open(structuredFile.toPath(), StandardOpenOption.READ);
+             DataOutputStream  index       = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(workingFile), bufferSize)))
+        {
+            index.writeLong(indexFileIdentifier);
+            index.writeLong(indexFileVersion);
+            index.writeLong(dataFileLength);
+            index.writeLong(dataFileLastModified);
+            index.writeLong(0);
+
+            ByteBuffer buffer      = ByteBuffer.allocate(bufferSize);
+            long       position    = 0;
+            long       lineNumber  = 0;
+            boolean    lineIsBlank = true;
+
+            index.writeLong(0);
+
+            while (dataChannel.read(buffer) > 0)
+            {
+                buffer.flip();
+
+                while (buffer.hasRemaining())
+                {
+                    byte character = buffer.get();
+
+                    position++;
+
+                    if (character == '\n')
+                    {
+                        /*
+                         * Blank lines only count if a line with content follows them.
+                         */
+                        if (! lineIsBlank)
+                        {
+                            lineCount = lineNumber + 1;
+                        }
+
+                        index.writeLong(position);
+                        lineNumber++;
+                        lineIsBlank = true;
+                    }
+                    else if ((character != ' ') && (character != '\t') && (character != '\r') && (character != '\f'))
+                    {
+                        lineIsBlank = false;
+                    }
+                }
+
+                buffer.clear();
+            }
+
+            if (! lineIsBlank)
+            {
+                lineCount = lineNumber + 1;
+                index.writeLong(position);
+            }
+        }
+
+        try (RandomAccessFile index = new RandomAccessFile(workingFile, "rw"))
+        {
+            index.seek(lineCountPosition);
+            index.writeLong(lineCount);
+        }
+
+        try
+        {
+            Files.move(workingFile.toPath(), savedIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException error)
+        {
+            Files.move(workingFile.toPath(), savedIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return lineCount;
+    }
+
+
+    /**
+     * MappedFile maps a file into memory in segments because a single mapped buffer is limited to 2GB.
+     * The segments are read with absolute positions so they are never changed by a read.
+     */
+    private static class MappedFile
+    {
+        private static final int  segmentShift = 30;
+        private static final long segmentSize  = 1L << segmentShift;
+
+        private final MappedByteBuffer[] segments;
+
+
+        /**
+         * Constructor maps the requested length of the file.  The channel is closed once the segments
+         * are mapped since the mapping remains valid without it.
+         *
+         * @param file file to map
+         * @param length number of bytes to map
+         * @throws IOException unable to map the file
+         */
+        MappedFile(File file, long length) throws IOException
+        {
+            int segmentCount = (int)((length + segmentSize - 1) >>> segmentShift);
+
+            segments = new MappedByteBuffer[segmentCount];
+
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                for (int i = 0; i < segmentCount; i++)
+                {
+                    long segmentStart = i * segmentSize;
+
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                              segmentStart,
+                                              Math.min(segmentSize, length - segmentStart));
+                }
+            }
+        }
+
+
+        /**
+         * Return the byte at the requested position.
+         *
+         * @param position offset in the file
+         * @return byte
+         */
+        byte get(long position)
+        {
+            return segments[(int)(position >>> segmentShift)].get((int)(position & (segmentSize - 1)));
+        }
+
+
+        /**
+         * Return the long at the requested position.  The position must be a multiple of eight so the
+         * value does not span two segments.
+         *
+         * @param position offset in the file
+         * @return long value
+         */
+        long getLong(long position)
+        {
+            return segments[(int)(position >>> segmentShift)].getLong((int)(position & (segmentSize - 1)));
+        }
+
+
+        /**
+         * Copy bytes from the file starting at the requested position.
+         *
+         * @param position offset in the file
+         * @param destination array to fill
+         */
+        void get(long position, byte[] destination)
+        {
+            int copied = 0;
+
+            while (copied < destination.length)
+            {
+                long       current = position + copied;
+                ByteBuffer segment = segments[(int)(current >>> segmentShift)].duplicate();
+                int        offset  = (int)(current & (segmentSize - 1));
+                int        length  = Math.min(destination.length - copied, segment.limit() - offset);
+
+                segment.position(offset);
+                segment.get(destination, copied, length);
+                copied += length;
+            }
+        }
+    }
+}
@@ -6,7 +6,9 @@ package org.odpi.openmetadata.adapters.connectors.structuredfile;
 import org.odpi.openmetadata.adapters.connectors.structuredfile.ffdc.exception.FileReadException;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 /**
  * StructuredFileStore defines the specific connector api for working with
@@ -38,8 +40,8 @@ public interface StructuredFileStore
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The file is scanned to count the records the first time it is
+     * read (or after it changes); later calls are answered from the file's line index.
      *
      * @return count
      * @throws FileReadException unable to find, open or scan the file.
@@ -67,4 +69,22 @@ public interface StructuredFileStore
      * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
      */
     List<String>      readRecord(int  rowNumber) throws FileReadException;
+
+
+    /**
+     * Return an iterator that reads the data records of the file in order.
+     *
+     * @return iterator over the data records.  Each record is a list of column values.
+     * @throws FileReadException unable to find, open or index the file.
+     */
+    Iterator<List<String>>    getRecordIterator() throws FileReadException;
+
+
+    /**
+     * Return a spliterator over the data records of the file that can be split for parallel processing.
+     *
+     * @return spliterator over the data records.  Each record is a list of column values.
+     * @throws FileReadException unable to find, open or index the file.
+     */
+    Spliterator<List<String>> getRecordSpliterator() throws FileReadException;
 }
@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -30,6 +31,11 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
     private char           delimiterChar     = ',';
     private char           quoteChar         = '"';
 
+    /*
+     * Line index for the file - built on first use and rebuilt if the file changes.
+     */
+    private StructuredFileIndex fileIndex    = null;
+
     /*
      * Variables used for logging and debug.
      */
@@ -130,8 +136,8 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The records are counted when the file's line index is built
+     * so only the first call for a new or changed file scans the file.
      *
      * @return count
      * @throws FileReadException unable to find, open or scan the file.
@@ -140,40 +146,11 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
     {
         final String  methodName = "getRecordCount";
 
-        long    rowCount = 0;
-
-        File fileStore = validateFileStore(fileStoreName, methodName);
+        long rowCount = getFileIndex(methodName).getLineCount();
 
-        try
+        if ((rowCount > 0) && (columnNames == null))
         {
-            Scanner scanner  = new Scanner(fileStore);
-            while (scanner.hasNext())
-            {
-                scanner.nextLine();
-                rowCount ++;
-            }
-            scanner.close();
-
-            if ((rowCount > 0) && (columnNames == null))
-            {
-                rowCount = rowCount - 1;
-            }
-        }
-        catch (IOException  error)
-        {
-            StructuredFileConnectorErrorCode errorCode    = StructuredFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION;
-            String                           errorMessage = errorCode.getErrorMessageId()
-                                                          + errorCode.getFormattedErrorMessage(fileStoreName,
-                                                                                               error.getMessage());
-
-            throw new FileReadException(errorCode.getHTTPErrorCode(),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        errorMessage,
-                                        errorCode.getSystemAction(),
-                                        errorCode.getUserAction(),
-                                        error,
-                                        fileStoreName);
+            rowCount = rowCount - 1;
         }
 
         return rowCount;
@@ -228,6 +205,43 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
     }
 
 
+    /**
+     * Return an iterator that reads the data records of the file in order.  The file's line index is used to
+     * read each record so the iterator does not hold the file open.
+     *
+     * @return iterator over the data records.  Each record is a list of column values.
+     * @throws FileReadException unable to find, open or index the file.
+     */
+    public Iterator<List<String>> getRecordIterator() throws FileReadException
+    {
+        return Spliterators.iterator(this.getRecordSpliterator());
+    }
+
+
+    /**
+     * Return a spliterator over the data records of the file.  It can be split so that the records are
+     * processed in parallel - for example, by passing it to StreamSupport.stream(spliterator, true).
+     *
+     * @return spliterator over the data records.  Each record is a list of column values.
+     * @throws FileReadException unable to find, open or index the file.
+     */
+    public Spliterator<List<String>> getRecordSpliterator() throws FileReadException
+    {
+        final String  methodName = "getRecordSpliterator";
+
+        StructuredFileIndex index = getFileIndex(methodName);
+
+        if (columnNames == null)
+        {
+            return new RecordSpliterator(index, Math.min(1, index.getLineCount()), index.getLineCount());
+        }
+        else
+        {
+            return new RecordSpliterator(index, 0, index.getLineCount());
+        }
+    }
+
+
     /**
      * Return the requested row in the file.  The first record is record 0.
      *
@@ -239,64 +253,72 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
     private List<String>      readRow(int     recordLocation,
                                       String  methodName) throws FileReadException
     {
+        StructuredFileIndex index = getFileIndex(methodName);
 
-        File fileStore = validateFileStore(fileStoreName, methodName);
-
-        try
+        if ((recordLocation >= 0) && (recordLocation < index.getLineCount()))
         {
-            Scanner scanner        = new Scanner(fileStore);
+            return parseRecord(index.getLine(recordLocation));
+        }
 
-            int rowCounter = 0;
-            while (scanner.hasNext())
-            {
-                if (rowCounter == recordLocation)
-                {
-                    return parseRecord(scanner.nextLine());
-                }
-                else
-                {
-                    scanner.nextLine();
-                }
-                rowCounter ++;
-            }
-            scanner.close();
+        StructuredFileConnectorErrorCode errorCode    = StructuredFileConnectorErrorCode.FILE_TOO_SHORT;
+        String                           errorMessage = errorCode.getErrorMessageId()
+                                                      + errorCode.getFormattedErrorMessage(fileStoreName,
+                                                                                           Integer.toString(recordLocation));
+
+        throw new FileReadException(errorCode.getHTTPErrorCode(),
+                                    this.getClass().getName(),
+                                    methodName,
+                                    errorMessage,
+                                    errorCode.getSystemAction(),
+                                    errorCode.getUserAction(),
+                                    fileStoreName);
+    }
 
-            StructuredFileConnectorErrorCode errorCode    = StructuredFileConnectorErrorCode.FILE_TOO_SHORT;
-            String                           errorMessage = errorCode.getErrorMessageId()
-                                                          + errorCode.getFormattedErrorMessage(fileStoreName,
-                                                                                               Integer.toString(recordLocation));
 
-            throw new FileReadException(errorCode.getHTTPErrorCode(),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        errorMessage,
-                                        errorCode.getSystemAction(),
-                                        errorCode.getUserAction(),
-                                        fileStoreName);
+    /**
+     * Return the line index for the file, building it if this is the first request or the file has changed
+     * since the index was built.
+     *
+     * @param methodName name of calling method
+     * @return line index
+     * @throws FileReadException unable to find, open or index the file.
+     */
+    private synchronized StructuredFileIndex getFileIndex(String  methodName) throws FileReadException
+    {
+        File fileStore = validateFileStore(fileStoreName, methodName);
 
-        }
-        catch (IOException  error)
+        if ((fileIndex == null) || (! fileIndex.isCurrent(fileStore)))
         {
-            StructuredFileConnectorErrorCode errorCode    = StructuredFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION;
-            String                           errorMessage = errorCode.getErrorMessageId()
-                                                          + errorCode.getFormattedErrorMessage(fileStoreName,
-                                                                                               error.getMessage());
-
-            throw new FileReadException(errorCode.getHTTPErrorCode(),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        errorMessage,
-                                        errorCode.getSystemAction(),
-                                        errorCode.getUserAction(),
-                                        error,
-                                        fileStoreName);
+            try
+            {
+                fileIndex = StructuredFileIndex.getIndex(fileStore);
+            }
+            catch (IOException  error)
+            {
+                StructuredFileConnectorErrorCode errorCode    = StructuredFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION;
+                String                           errorMessage = errorCode.getErrorMessageId()
+                                                              + errorCode.getFormattedErrorMessage(fileStoreName,
+                                                                                                   error.getMessage());
+
+                throw new FileReadException(errorCode.getHTTPErrorCode(),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            errorMessage,
+                                            errorCode.getSystemAction(),
+                                            errorCode.getUserAction(),
+                                            error,
+                                            fileStoreName);
+            }
         }
+
+        return fileIndex;
     }
 
 
     /**
      * Step through the record, character by character, extracting each column and enduring that escaped double quotes
-     * and other tricks found in CSV files are handled.
+     * and other tricks found in CSV files are handled.  A record without any quote characters is simply split at
+     * each delimiter.
      *
      * @param fileRecord a single record from the CSV file store
      * @return an array of column values extracted from the record
@@ -309,16 +331,36 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
         }
 
         List<String> result = new ArrayList<>();
-        StringBuffer currentValue = new StringBuffer();
+
+        if ((fileRecord.indexOf(quoteChar) < 0) && (fileRecord.indexOf('"') < 0) && (fileRecord.indexOf('\r') < 0))
+        {
+            int columnStart = 0;
+            int columnEnd   = fileRecord.indexOf(delimiterChar);
+
+            while (columnEnd >= 0)
+            {
+                result.add(fileRecord.substring(columnStart, columnEnd));
+
+                columnStart = columnEnd + 1;
+                columnEnd = fileRecord.indexOf(delimiterChar, columnStart);
+            }
+
+            result.add(fileRecord.substring(columnStart));
+
+            return result;
+        }
+
+        StringBuilder currentValue = new StringBuilder(fileRecord.length());
 
         boolean inQuotes = false;
         boolean startCollectingCharacters = false;
         boolean doubleQuotesInColumn = false;
+        boolean firstCharacterIsQuote = (fileRecord.charAt(0) == '"');
 
-        char[] characters = fileRecord.toCharArray();
-
-        for (char character : characters)
+        for (int i = 0; i < fileRecord.length(); i++)
         {
+            char character = fileRecord.charAt(i);
+
             if (inQuotes)
             {
                 startCollectingCharacters = true;
@@ -351,7 +393,7 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
 
                     inQuotes = true;
 
-                    if (characters[0] != '"' && quoteChar == '\"')
+                    if (!firstCharacterIsQuote && quoteChar == '\"')
                     {
                         currentValue.append('"');
                     }
@@ -365,7 +407,7 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
                 {
                     result.add(currentValue.toString());
 
-                    currentValue = new StringBuffer();
+                    currentValue.setLength(0);
                     startCollectingCharacters = false;
 
                 }
@@ -387,6 +429,105 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
     }
 
 
+    /**
+     * RecordSpliterator reads a range of lines from the file's line index and parses each one into a record.
+     * Splitting divides the range in two so that the halves can be processed by different threads.
+     */
+    private class RecordSpliterator implements Spliterator<List<String>>
+    {
+        private final StructuredFileIndex index;
+        private long                      nextLine;
+        private final long                endLine;
+
+
+        /**
+         * Constructor
+         *
+         * @param index line index for the file
+         * @param startLine first line to return
+         * @param endLine line after the last line to return
+         */
+        RecordSpliterator(StructuredFileIndex index,
+                          long                startLine,
+                          long                endLine)
+        {
+            this.index = index;
+            this.nextLine = startLine;
+            this.endLine = endLine;
+        }
+
+
+        /**
+         * Pass the next record to the action.
+         *
+         * @param action action to perform on the record
+         * @return false if there are no more records
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super List<String>> action)
+        {
+            if (nextLine >= endLine)
+            {
+                return false;
+            }
+
+            action.accept(parseRecord(index.getLine(nextLine)));
+            nextLine++;
+
+            return true;
+        }
+
+
+        /**
+         * Split off the first half of the remaining records.
+         *
+         * @return spliterator for the first half or null if there are too few records to split
+         */
+        @Override
+        public Spliterator<List<String>> trySplit()
+        {
+            long remaining = endLine - nextLine;
+
+            if (remaining < 2)
+            {
+                return null;
+            }
+
+            long splitLine = nextLine + (remaining / 2);
+
+            RecordSpliterator firstHalf = new RecordSpliterator(index, nextLine, splitLine);
+
+            nextLine = splitLine;
+
+            return firstHalf;
+        }
+
+
+        /**
+         * Return the number of records remaining.
+         *
+         * @return count
+         */
+        @Override
+        public long estimateSize()
+        {
+            return endLine - nextLine;
+        }
+
+
+        /**
+         * Return the characteristics of this spliterator.
+         *
+         * @return characteristics flags
+         */
+        @Override
+        public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+
     /**
      * Close the config file
      */
@@ -401,6 +542,11 @@ public class StructuredFileStoreConnector extends ConnectorBase implements Struc
             log.debug("Ignoring unexpected exception " + exec.getClass().getSimpleName() + " with message " + exec.getMessage());
         }
 
+        synchronized (this)
+        {
+            fileIndex = null;
+        }
+
         log.debug("Closing Structured File Store");
     }
 
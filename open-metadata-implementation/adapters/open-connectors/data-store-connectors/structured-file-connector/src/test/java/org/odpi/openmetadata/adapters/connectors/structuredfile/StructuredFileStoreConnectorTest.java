@@ -9,8 +9,14 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -336,6 +342,84 @@ public class StructuredFileStoreConnectorTest
         }
     }
 
+    @Test public void testRecordIterators()
+    {
+        StructuredFileStoreConnector connector = new StructuredFileStoreConnector();
+
+        try
+        {
+            connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(resourcesDirectory + complexColumnsWithColumnNamesFile));
+            connector.start();
+
+            List<List<String>>     records  = new ArrayList<>();
+            Iterator<List<String>> iterator = connector.getRecordIterator();
+
+            for (int i=0; i<connector.getRecordCount(); i++)
+            {
+                records.add(connector.readRecord(i));
+                assertTrue(iterator.hasNext());
+                assertEquals(iterator.next(), records.get(i));
+            }
+
+            assertFalse(iterator.hasNext());
+            assertEquals(StreamSupport.stream(connector.getRecordSpliterator(), true).collect(Collectors.toList()), records);
+            assertTrue(records.get(3).size() == 7);
+
+            connector.disconnect();
+        }
+        catch (Throwable  error)
+        {
+            assertTrue(false);
+        }
+    }
+
+
+    @Test public void testChangedFile()
+    {
+        StructuredFileStoreConnector connector = new StructuredFileStoreConnector();
+
+        try
+        {
+            File testFile = File.createTempFile("ChangedFile", ".csv");
+
+            testFile.deleteOnExit();
+            writeFile(testFile, "Name,Value\r\nOne,1\r\n\r\n");
+
+            connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(testFile.getPath()));
+            connector.start();
+
+            assertTrue(connector.getRecordCount() == 1);
+            assertEquals(connector.readRecord(0), Arrays.asList("One", "1"));
+
+            File indexFile = new File(testFile.getPath() + StructuredFileIndex.indexFileSuffix);
+
+            indexFile.deleteOnExit();
+            assertTrue(indexFile.exists());
+
+            writeFile(testFile, "Name,Value\nOne,1\nTwo,2\nThree,\"3,0\"");
+            assertTrue(testFile.setLastModified(testFile.lastModified() + 2000));
+
+            assertTrue(connector.getRecordCount() == 3);
+            assertEquals(connector.readRecord(2), Arrays.asList("Three", "\"3,0"));
+
+            connector.disconnect();
+        }
+        catch (Throwable  error)
+        {
+            assertTrue(false);
+        }
+    }
+
+
+    private void writeFile(File file, String contents) throws IOException
+    {
+        try (FileWriter writer = new FileWriter(file))
+        {
+            writer.write(contents);
+        }
+    }
+
+
     @Test public void testLifecycle()
     {
         StructuredFileStoreConnector connector = new StructuredFileStoreConnector();
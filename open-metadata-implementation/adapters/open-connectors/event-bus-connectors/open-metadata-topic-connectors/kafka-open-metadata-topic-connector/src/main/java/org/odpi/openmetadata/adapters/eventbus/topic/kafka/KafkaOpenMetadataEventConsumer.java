@@ -2,8 +2,10 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -23,7 +25,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * KafkaOpenMetadataEventConsumer is used to process events from kafka topic and is part of native
- * Apache Kafka event/messaging infrastructure.
+ * Apache Kafka event/messaging infrastructure.  The offset of a record is only committed once the event it
+ * contains, and all of the events received before it, have been processed by the connector's listeners.
+ * This means events that were received but not processed before the server stopped are received again
+ * when it restarts.
  */
 public class KafkaOpenMetadataEventConsumer implements Runnable
 {
@@ -43,6 +48,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     private              KafkaOpenMetadataTopicConnector connector;
 
     private Map<TopicPartition, OffsetAndMetadata> currentOffsets = new HashMap<>();
+    private Deque<PendingOffset>                   pendingOffsets = new ArrayDeque<>();
     private long maxNextPollTimestampToAvoidConsumerTimeout = 0;
     private final long maxMsBetweenPolls;
     
@@ -148,6 +154,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
             		continue;
             	
             	}
+            	commitProcessedOffsets();
             	updateNextMaxPollTimestamp();
                 ConsumerRecords<String, String> records = consumer.poll(pollTimeout);
                 
@@ -188,10 +195,11 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                     }
 
                     /*
-                     * Acknowledge receipt of message.
+                     * The receipt of the message is acknowledged once the connector has processed all of the
+                     * events distributed so far.
                      */
                     TopicPartition partition = new TopicPartition(record.topic(), record.partition());
-                    currentOffsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    addPendingOffset(partition, record.offset() + 1, connector.getNumberOfDistributedEvents());
                 }
             }
             catch (WakeupException e)
@@ -216,16 +224,13 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                 }
                 recoverAfterError();
             }
-            finally
-            {
-                awaitNextPollingTime();
-            }
         }
 
         if (consumer != null)
         {
             try
             {
+                updateProcessedOffsets();
                 consumer.commitSync(currentOffsets);
             }
             finally
@@ -237,6 +242,75 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     }
 
 
+    /**
+     * Record the offset to commit for a partition once the connector has processed the requested number of events.
+     * Consecutive records from the same partition that wait for the same number of events share an entry.
+     *
+     * @param partition partition of the record
+     * @param offset offset to commit
+     * @param requiredEvents number of events that must be processed before the offset can be committed
+     */
+    private void addPendingOffset(TopicPartition partition,
+                                  long           offset,
+                                  long           requiredEvents)
+    {
+        PendingOffset lastPendingOffset = pendingOffsets.peekLast();
+
+        if ((lastPendingOffset != null) &&
+            (lastPendingOffset.requiredEvents == requiredEvents) &&
+            (lastPendingOffset.partition.equals(partition)))
+        {
+            lastPendingOffset.offset = offset;
+        }
+        else
+        {
+            pendingOffsets.addLast(new PendingOffset(partition, offset, requiredEvents));
+        }
+    }
+
+
+    /**
+     * Move the offsets of the records that have been processed into the current offsets.
+     *
+     * @return boolean flag - true means the current offsets have changed
+     */
+    private boolean updateProcessedOffsets()
+    {
+        long    processedEvents = connector.getNumberOfProcessedEvents();
+        boolean offsetsChanged  = false;
+
+        while ((! pendingOffsets.isEmpty()) && (pendingOffsets.peekFirst().requiredEvents <= processedEvents))
+        {
+            PendingOffset pendingOffset = pendingOffsets.pollFirst();
+
+            currentOffsets.put(pendingOffset.partition, new OffsetAndMetadata(pendingOffset.offset));
+            offsetsChanged = true;
+        }
+
+        return offsetsChanged;
+    }
+
+
+    /**
+     * Commit the offsets of the records that have been processed since the last commit.  The commit is
+     * asynchronous so that it does not hold up polling.  A failed commit is retried with the next commit
+     * since it includes all of the current offsets.
+     */
+    private void commitProcessedOffsets()
+    {
+        if (updateProcessedOffsets())
+        {
+            consumer.commitAsync(new HashMap<>(currentOffsets), (offsets, error) ->
+            {
+                if (error != null)
+                {
+                    log.warn(String.format("Unable to commit offsets %s: %s", offsets, error.getMessage()), error);
+                }
+            });
+        }
+    }
+
+
 	private void awaitNextPollingTime() {
 		try
 		{
@@ -309,8 +383,44 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
         public void onPartitionsRevoked(Collection<TopicPartition> partitions)
         {
+            updateProcessedOffsets();
             log.info("Lost partitions in rebalance. Committing current offsets:" + currentOffsets);
             consumer.commitSync(currentOffsets);
+
+            /*
+             * The events from these partitions that are still being processed will be received again by the
+             * new owner of the partition.  Their offsets must not be committed by this consumer.
+             */
+            currentOffsets.keySet().removeAll(partitions);
+            pendingOffsets.removeIf(pendingOffset -> partitions.contains(pendingOffset.partition));
+        }
+    }
+
+
+    /**
+     * PendingOffset is the offset to commit for a partition once the connector has processed a number of events.
+     */
+    private static class PendingOffset
+    {
+        private TopicPartition partition;
+        private long           offset;
+        private long           requiredEvents;
+
+
+        /**
+         * Constructor supplies the offset details.
+         *
+         * @param partition partition of the record
+         * @param offset offset to commit
+         * @param requiredEvents number of events that must be processed before the offset can be committed
+         */
+        PendingOffset(TopicPartition partition,
+                      long           offset,
+                      long           requiredEvents)
+        {
+            this.partition = partition;
+            this.offset = offset;
+            this.requiredEvents = requiredEvents;
         }
     }
 }
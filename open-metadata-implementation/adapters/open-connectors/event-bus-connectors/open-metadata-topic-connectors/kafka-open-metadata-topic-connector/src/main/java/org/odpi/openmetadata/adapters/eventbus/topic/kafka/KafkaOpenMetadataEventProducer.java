@@ -12,7 +12,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * KafkaOpenMetadataEventProducer manages the sending of events on Apache Kafka.  This is done through called to
@@ -21,10 +27,18 @@ import java.util.concurrent.ExecutionException;
  * Kafka is not always running.  When this occurs, the call to publish events hangs and this is disruptive to the
  * rest of the server.  So the role of this class is to manage the sending of events in a separate thread
  * and manage the logging of errors to alert the operations team that Kafka needs restarting.
+ *
+ * By default, events are pipelined: they are passed to Kafka without waiting for the previous event to be
+ * acknowledged.  The number of unacknowledged events is bounded and the producer is flushed when a batch of
+ * events has been sent or the flush interval has passed.  Each event's acknowledgement is checked in a callback.
+ * The events sent since the last flush are kept until the flush completes.  Once an event fails, no more
+ * events are passed to Kafka.  The producer is flushed and the failed event, together with every event that
+ * was sent after it, is resent one at a time in the original order.  This means a later event is never
+ * stored ahead of an earlier one, although an event that had already been acknowledged may be sent twice.
  */
 public class KafkaOpenMetadataEventProducer implements Runnable
 {
-    private volatile List<String> sendBuffer = new ArrayList<>();
+    private final BlockingDeque<String> sendBuffer = new LinkedBlockingDeque<>();
 
     private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventProducer.class);
 
@@ -35,15 +49,24 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     private OMRSAuditLog                    auditLog;
     private String                          listenerThreadName;
     private String                          topicName;
-    private int                             sleepTime            = 1000;
     private static final long               recoverySleepTimeSec = 10L;
 
+    private boolean                         pipelinedSend;
+    private int                             flushBatchSize;
+    private long                            flushInterval;
+    private Semaphore                       inFlightEvents;
+    private long                            nextEventSequenceNumber = 0;
+    private static final long               NO_FAILED_EVENT         = Long.MAX_VALUE;
+    private NavigableMap<Long, String>      unflushedEvents         = new ConcurrentSkipListMap<>();
+    private AtomicLong                      firstFailedEvent        = new AtomicLong(NO_FAILED_EVENT);
+    private volatile Exception              latestSendError         = null;
+
     private String                          localServerId;
     private Properties                      producerProperties;
     private Producer<String, String>        producer;
     private KafkaOpenMetadataTopicConnector connector;
 
-    private long    messageSendCount = 0;
+    private AtomicLong messageSendCount = new AtomicLong(0);
 
 
     /**
@@ -53,14 +76,16 @@ public class KafkaOpenMetadataEventProducer implements Runnable
      * @param topicName name of the topic to listen on.
      * @param localServerId identifier to enable receiver to identify that an event came from this server.
      * @param producerProperties properties for the consumer.
+     * @param producerConfig Egeria-specific configuration for the producer.
      * @param connector connector holding the inbound listeners.
      * @param auditLog  audit log for this component.
      */
-    KafkaOpenMetadataEventProducer(String                          topicName,
-                                   String                          localServerId,
-                                   Properties                      producerProperties,
-                                   KafkaOpenMetadataTopicConnector connector,
-                                   OMRSAuditLog                    auditLog)
+    KafkaOpenMetadataEventProducer(String                                      topicName,
+                                   String                                      localServerId,
+                                   Properties                                  producerProperties,
+                                   KafkaOpenMetadataEventProducerConfiguration producerConfig,
+                                   KafkaOpenMetadataTopicConnector             connector,
+                                   OMRSAuditLog                                auditLog)
     {
         this.auditLog = auditLog;
         this.topicName = topicName;
@@ -69,6 +94,11 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         this.producerProperties = producerProperties;
         this.listenerThreadName = defaultThreadName + topicName;
 
+        this.pipelinedSend = producerConfig.getBooleanProperty(KafkaOpenMetadataEventProducerProperty.PIPELINED_SEND);
+        this.flushBatchSize = Math.max(producerConfig.getIntProperty(KafkaOpenMetadataEventProducerProperty.FLUSH_BATCH_SIZE), 1);
+        this.flushInterval = Math.max(producerConfig.getLongProperty(KafkaOpenMetadataEventProducerProperty.FLUSH_INTERVAL), 1L);
+        this.inFlightEvents = new Semaphore(Math.max(producerConfig.getIntProperty(KafkaOpenMetadataEventProducerProperty.MAX_IN_FLIGHT_EVENTS), 1));
+
 
         final String           actionDescription = "new producer";
         KafkaOpenMetadataTopicConnectorAuditCode auditCode;
@@ -106,7 +136,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                 ProducerRecord<String, String> record = new ProducerRecord<>(topicName, localServerId, event);
                 producer.send(record).get();
                 eventSent = true;
-                messageSendCount++;
+                messageSendCount.incrementAndGet();
             }
             catch (ExecutionException error)
             {
@@ -129,7 +159,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                                            auditCode.getLogMessageId(),
                                            auditCode.getSeverity(),
                                            auditCode.getFormattedLogMessage(topicName,
-                                                                            Long.toString(messageSendCount),
+                                                                            Long.toString(messageSendCount.get()),
                                                                             Long.toString(this.getSendBufferSize()),
                                                                             error.getMessage()),
                                            null,
@@ -172,6 +202,195 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     }
 
 
+    /**
+     * Passes the supplied event to Kafka without waiting for it to be sent.  The result is checked in a callback.
+     * If the maximum number of events are already waiting to be acknowledged, this method waits for one
+     * of them to complete.
+     *
+     * @param event object containing the event properties.
+     * @throws InterruptedException the thread was interrupted while waiting for an acknowledgement
+     */
+    private void publishEventAsynchronously(String event) throws InterruptedException
+    {
+        final long eventSequenceNumber = nextEventSequenceNumber++;
+
+        inFlightEvents.acquire();
+        unflushedEvents.put(eventSequenceNumber, event);
+
+        try
+        {
+            log.debug("Sending message {0}" + event);
+            ProducerRecord<String, String> record = new ProducerRecord<>(topicName, localServerId, event);
+            producer.send(record, (metadata, error) ->
+            {
+                if (error == null)
+                {
+                    messageSendCount.incrementAndGet();
+                }
+                else
+                {
+                    log.debug("Kafka had trouble sending event: " + event + "exception message is " + error.getMessage());
+                    latestSendError = error;
+                    firstFailedEvent.accumulateAndGet(eventSequenceNumber, Math::min);
+                }
+
+                inFlightEvents.release();
+            });
+        }
+        catch (WakeupException error)
+        {
+            unflushedEvents.remove(eventSequenceNumber);
+            inFlightEvents.release();
+            throw error;
+        }
+        catch (RuntimeException error)
+        {
+            /*
+             * Kafka was not able to accept the event - for example because its buffer is full.
+             */
+            log.debug("Kafka had trouble sending event: " + event + "exception message is " + error.getMessage());
+            latestSendError = error;
+            firstFailedEvent.accumulateAndGet(eventSequenceNumber, Math::min);
+            inFlightEvents.release();
+        }
+    }
+
+
+    /**
+     * Send all of the events that are waiting in the send buffer using pipelined sends.  The producer is flushed
+     * when the batch size or the flush interval is reached.  As soon as a send fails, no new events are sent
+     * until the failed event and all of the events sent after it have been resent, so the events are stored
+     * in the order they were sent.
+     *
+     * @throws InterruptedException the thread was interrupted while waiting for events
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void publishBufferedEvents() throws InterruptedException,
+                                                ConnectorCheckedException
+    {
+        long lastFlushTime = System.currentTimeMillis();
+
+        while (isRunning())
+        {
+            if (firstFailedEvent.get() != NO_FAILED_EVENT)
+            {
+                this.flushSentEvents();
+                lastFlushTime = System.currentTimeMillis();
+            }
+
+            String bufferedEvent = sendBuffer.poll(flushInterval, TimeUnit.MILLISECONDS);
+
+            if (bufferedEvent != null)
+            {
+                try
+                {
+                    if (firstFailedEvent.get() != NO_FAILED_EVENT)
+                    {
+                        /*
+                         * An event failed while this thread was waiting - resend from the failed event before
+                         * this event is passed to Kafka.
+                         */
+                        this.flushSentEvents();
+                        lastFlushTime = System.currentTimeMillis();
+                    }
+
+                    publishEventAsynchronously(bufferedEvent);
+                }
+                catch (InterruptedException | ConnectorCheckedException | RuntimeException error)
+                {
+                    /*
+                     * The event was not passed to Kafka so it goes back to the head of the buffer to be sent
+                     * once the error has cleared.
+                     */
+                    sendBuffer.addFirst(bufferedEvent);
+                    throw error;
+                }
+            }
+
+            if ((! unflushedEvents.isEmpty()) &&
+                ((unflushedEvents.size() >= flushBatchSize) ||
+                 (bufferedEvent == null) ||
+                 (System.currentTimeMillis() - lastFlushTime >= flushInterval)))
+            {
+                this.flushSentEvents();
+                lastFlushTime = System.currentTimeMillis();
+            }
+        }
+
+        this.flushSentEvents();
+    }
+
+
+    /**
+     * Wait for all of the events passed to Kafka to be acknowledged.  If any of them failed, the first failed
+     * event and every event sent after it are resent in their original order.
+     *
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void flushSentEvents() throws ConnectorCheckedException
+    {
+        producer.flush();
+
+        long failedEventSequenceNumber = firstFailedEvent.getAndSet(NO_FAILED_EVENT);
+
+        if (failedEventSequenceNumber != NO_FAILED_EVENT)
+        {
+            /*
+             * The events before the failed event have been stored.  If the resend stops part way through,
+             * the remaining events are resent on the next flush.
+             */
+            unflushedEvents.headMap(failedEventSequenceNumber, false).clear();
+
+            try
+            {
+                this.retryFailedEvents(unflushedEvents);
+            }
+            catch (ConnectorCheckedException | RuntimeException error)
+            {
+                firstFailedEvent.accumulateAndGet(failedEventSequenceNumber, Math::min);
+                throw error;
+            }
+        }
+
+        unflushedEvents.clear();
+    }
+
+
+    /**
+     * Resend the events from the first failed event onwards in their original order.  Each event is sent
+     * synchronously and retried until it is sent.  The failure is recorded in the audit log.
+     *
+     * @param eventsToResend the failed event and all of the events that were sent after it
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void retryFailedEvents(Map<Long, String> eventsToResend) throws ConnectorCheckedException
+    {
+        final String methodName = "retryFailedEvents";
+
+        Exception error = latestSendError;
+
+        KafkaOpenMetadataTopicConnectorAuditCode auditCode = KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_IN_ERROR_LOOP;
+        auditLog.logRecord(methodName,
+                           auditCode.getLogMessageId(),
+                           auditCode.getSeverity(),
+                           auditCode.getFormattedLogMessage(topicName,
+                                                            Long.toString(messageSendCount.get()),
+                                                            Long.toString(this.getSendBufferSize() + eventsToResend.size()),
+                                                            (error == null) ? null : error.getMessage()),
+                           null,
+                           auditCode.getSystemAction(),
+                           auditCode.getUserAction());
+
+        Iterator<String> failedEventIterator = eventsToResend.values().iterator();
+
+        while (failedEventIterator.hasNext())
+        {
+            publishEvent(failedEventIterator.next());
+            failedEventIterator.remove();
+        }
+    }
+
+
     /**
      * This is the method that provides the behaviour of the thread.
      */
@@ -196,24 +415,30 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         {
             try
             {
-                String bufferedEvent = this.getEvent();
-
-                /*
-                 * If there are no events waiting then sleep
-                 */
-                if (bufferedEvent == null)
+                if (pipelinedSend)
                 {
-                    Thread.sleep(sleepTime);
+                    publishBufferedEvents();
                 }
                 else
                 {
                     /*
-                     * Send all waiting events
+                     * Wait for an event to arrive and then send all waiting events
                      */
+                    String bufferedEvent = sendBuffer.poll(flushInterval, TimeUnit.MILLISECONDS);
+
                     while (bufferedEvent != null)
                     {
-                        publishEvent(bufferedEvent);
-                        bufferedEvent = this.getEvent();
+                        try
+                        {
+                            publishEvent(bufferedEvent);
+                        }
+                        catch (ConnectorCheckedException | RuntimeException error)
+                        {
+                            sendBuffer.addFirst(bufferedEvent);
+                            throw error;
+                        }
+
+                        bufferedEvent = sendBuffer.poll();
                     }
                 }
             }
@@ -235,7 +460,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         auditLog.logRecord(listenerThreadName,
                            auditCode.getLogMessageId(),
                            auditCode.getSeverity(),
-                           auditCode.getFormattedLogMessage(topicName, Integer.toString(getSendBufferSize()), Long.toString(messageSendCount)),
+                           auditCode.getFormattedLogMessage(topicName, Integer.toString(getSendBufferSize()), Long.toString(messageSendCount.get())),
                            this.producerProperties.toString(),
                            auditCode.getSystemAction(),
                            auditCode.getUserAction());
@@ -247,7 +472,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
      *
      * @param newEvent  event to publish
      */
-    private synchronized void putEvent(String  newEvent)
+    private void putEvent(String  newEvent)
     {
         sendBuffer.add(newEvent);
     }
@@ -258,28 +483,12 @@ public class KafkaOpenMetadataEventProducer implements Runnable
      *
      * @return int
      */
-    private synchronized int getSendBufferSize()
+    private int getSendBufferSize()
     {
         return sendBuffer.size();
     }
 
 
-    /**
-     * Returns all of the events found on the in memory OMRS Topic.
-     *
-     * @return list of received events.
-     */
-    private synchronized String getEvent()
-    {
-        if (sendBuffer.isEmpty())
-        {
-            return null;
-        }
-
-        return sendBuffer.remove(0);
-    }
-
-
     /**
      * Sends the supplied event to the topic.
      *
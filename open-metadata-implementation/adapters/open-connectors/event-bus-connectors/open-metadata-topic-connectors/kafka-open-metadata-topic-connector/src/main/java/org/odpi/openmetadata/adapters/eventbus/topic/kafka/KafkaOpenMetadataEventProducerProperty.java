@@ -0,0 +1,50 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+/**
+ * Configurable properties for the KafkaOpenMetadataEventProducer
+ *
+ */
+public enum KafkaOpenMetadataEventProducerProperty
+{
+	/*
+	 * Controls whether events are sent without waiting for each one to be acknowledged by Kafka.
+	 * When this is false, each event is sent and flushed before the next one is sent.
+	 */
+	PIPELINED_SEND("pipelined_send", "true"),
+
+	/*
+	 * The maximum number of events that have been passed to Kafka but not yet acknowledged.
+	 * When this number is reached, the producer waits for acknowledgements before sending more events.
+	 */
+	MAX_IN_FLIGHT_EVENTS("max_in_flight_events", "1000"),
+
+	/*
+	 * The number of events sent since the last flush that causes the producer to flush again.
+	 */
+	FLUSH_BATCH_SIZE("flush_batch_size", "500"),
+
+	/*
+	 * The longest time (in ms) that sent events remain unflushed.  This is also how long the
+	 * producer waits for new events before checking whether it should stop.
+	 */
+	FLUSH_INTERVAL("flush_interval_ms", "1000");
+
+	private String propertyName;
+	private String defaultValue;
+
+	KafkaOpenMetadataEventProducerProperty(String name, String defaultValue)
+	{
+		this.propertyName = name;
+		this.defaultValue = defaultValue;
+	}
+	
+	public String getPropertyName() {
+		return propertyName;
+	}
+	
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+}
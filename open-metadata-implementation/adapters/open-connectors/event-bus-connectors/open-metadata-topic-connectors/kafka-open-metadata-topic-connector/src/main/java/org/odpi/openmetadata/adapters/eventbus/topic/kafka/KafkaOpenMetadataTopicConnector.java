@@ -10,6 +10,7 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -22,6 +23,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
     
     private Properties producerProperties = new Properties();
+    private Properties producerEgeriaProperties = new Properties();
     
     private Properties consumerEgeriaProperties = new Properties();
     private Properties consumerProperties = new Properties();
@@ -32,6 +34,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private String       topicName          = null;
     private String       serverId           = null;
     private List<String> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
+    private AtomicLong   distributedEvents  = new AtomicLong(0);
 
 
     /**
@@ -54,7 +57,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         producerProperties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
 
         consumerProperties.put("bootstrap.servers", "localhost:9092");
-        consumerProperties.put("enable.auto.commit", "true");
+        consumerProperties.put("enable.auto.commit", "false");
         consumerProperties.put("auto.commit.interval.ms", "1000");
         consumerProperties.put("session.timeout.ms", "30000");
         consumerProperties.put("max.partition.fetch.bytes",	10485760);
@@ -163,6 +166,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
                 }
             }
 
+            copyProperties(configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaProducerPropertyName),
+                           producerEgeriaProperties);
+
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.consumerPropertyName);
             if (propertiesObject != null)
             {
@@ -172,6 +178,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
                     consumerProperties.setProperty(entry.getKey(), (String) entry.getValue());
                 }
             }
+
+            copyProperties(configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaConsumerPropertyName),
+                           consumerEgeriaProperties);
         }
         catch (Throwable   error)
         {
@@ -220,7 +229,8 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         consumerThread = new Thread(consumer, threadHeader + "Consumer-" + topicName);
         consumerThread.start();
 
-        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, this, auditLog);
+        KafkaOpenMetadataEventProducerConfiguration producerConfig = new KafkaOpenMetadataEventProducerConfiguration(producerEgeriaProperties, auditLog);
+        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, producerConfig, this, auditLog);
         producerThread = new Thread(producer, threadHeader + "Producer-" + topicName);
         producerThread.start();
 
@@ -259,11 +269,14 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
         if ((incomingEventsList != null) && (!incomingEventsList.isEmpty()))
         {
-            log.debug("Checking for events.  Number of found events: {0}", incomingEventsList.size());
-            newEvents = new ArrayList<>(incomingEventsList);
+            synchronized (incomingEventsList)
+            {
+                log.debug("Checking for events.  Number of found events: {}", incomingEventsList.size());
+                newEvents = new ArrayList<>(incomingEventsList);
 
-            // empty incomingEventsList otherwise same events will be sent again
-            incomingEventsList.removeAll(newEvents);
+                // empty incomingEventsList otherwise same events will be sent again
+                incomingEventsList.clear();
+            }
         }
 
         return newEvents;
@@ -278,10 +291,34 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     void distributeToListeners(String event)
     {
         log.debug("distribute event to listeners" + event);
+        distributedEvents.incrementAndGet();
         incomingEventsList.add(event);
     }
 
 
+    /**
+     * Return the number of events passed to distributeToListeners() since the connector started.
+     *
+     * @return count of events
+     */
+    long getNumberOfDistributedEvents()
+    {
+        return distributedEvents.get();
+    }
+
+
+    /**
+     * Return the number of events passed to distributeToListeners() that have been processed by
+     * all of the listeners.  The events are counted in the order they were distributed.
+     *
+     * @return count of events
+     */
+    long getNumberOfProcessedEvents()
+    {
+        return super.getProcessedEventCount();
+    }
+
+
     /**
      * Free up any resources held since the connector is no longer needed.
      *
@@ -308,11 +345,12 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
     
     /**
-     * Gets the number of events that have not been processed yet.
+     * Gets the number of events that have not been processed yet.  This includes the events waiting in
+     * the listeners' dispatch lanes as well as the events that have not been dispatched.
      * 
      * @return int
      */
     public int getNumberOfUnprocessedEvents() {
-    	return incomingEventsList.size();
+    	return (int) (distributedEvents.get() - super.getProcessedEventCount());
     }
 }
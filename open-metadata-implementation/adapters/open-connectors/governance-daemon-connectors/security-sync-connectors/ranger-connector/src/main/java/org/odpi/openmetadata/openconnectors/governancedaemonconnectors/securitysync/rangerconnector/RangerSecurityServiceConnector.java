@@ -60,6 +60,7 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
 
     private static final Logger log = LoggerFactory.getLogger(RangerSecurityServiceConnector.class);
     private Connection connection;
+    private RestTemplate restTemplate = new RestTemplate();
 
     public RangerSecurityServiceConnector(Connection securityServerConnection) {
         this.connection = securityServerConnection;
@@ -108,7 +109,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
         String createAssociation = getRangerURL(SERVICE_TAGS_RESOURCES);
 
         String body = getBody(resource);
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(body, getHttpHeaders());
 
         try {
@@ -124,7 +124,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     public RangerServiceResource getResourceByGUID(String resourceGuid) {
         String resourceURL = getRangerURL(SERVICE_TAGS_RESOURCE_BY_GUID, resourceGuid);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
 
         try {
@@ -140,7 +139,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     @Override
     public void deleteResource(String resourceGuid) {
         String resourceURL = getRangerURL(SERVICE_TAGS_RESOURCE_BY_GUID, resourceGuid);
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
 
         try {
@@ -183,7 +181,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
         String rangerBaseURL = connection.getEndpoint().getAddress();
         String createAssociation = MessageFormat.format(SERVICE_TAGS_MAP_TAG_GUID_RESOURCE_GUI, rangerBaseURL, tagGUID, resourceGUID);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
         try {
             ResponseEntity<ResourceTagMapper> result = restTemplate.exchange(createAssociation, HttpMethod.POST, entity, ResourceTagMapper.class);
@@ -224,7 +221,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
 
         String createRangerTagDefURL = getRangerURL(SERVICE_TAGS_TAGDEF);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(body, getHttpHeaders());
 
         try {
@@ -240,7 +236,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
         String createTagURL = getRangerURL(SERVICE_TAGS);
         String body = getBody(rangerTag);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(body, getHttpHeaders());
 
         try {
@@ -295,7 +290,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     private List<ResourceTagMapper> getExistingAssociationResourceTags() {
         String allMappedResources = getRangerURL(SERVICE_TAGS_TAG_RESOURCE_MAPS);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
 
         try {
@@ -338,7 +332,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     private List<RangerServiceResource> getExistingResources() {
         String createAssociation = getRangerURL(SERVICE_TAGS_RESOURCES);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
         try {
             ResponseEntity<List<RangerServiceResource>> response =
@@ -358,7 +351,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     private Set<RangerTag> getExistingTags() {
         String createTagURL = getRangerURL(SERVICE_TAGS);
 
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<String> entity = new HttpEntity<>(getHttpHeaders());
 
         try {
@@ -502,7 +494,6 @@ public class RangerSecurityServiceConnector extends ConnectorBase implements Sec
     }
 
     private Boolean doDelete(String deleteAssociationURL) {
-        RestTemplate restTemplate = new RestTemplate();
         HttpHeaders headers = getHttpHeaders();
         headers.add("X-HTTP-Method-Override", "DELETE");
         HttpEntity<String> entity = new HttpEntity<>(headers);
@@ -0,0 +1,841 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * FileBasedAuditLogSegment is one of the files that make up a file based audit log.  Each audit log record is
+ * stored as a line of JSON and new records are only ever added to the end of the newest segment.  Once the segment
+ * reaches its maximum size it is sealed and a new segment is started.
+ *
+ * The segment keeps a small sparse index of its contents.  The records are grouped into blocks of consecutive
+ * records and for each block the index holds its position in the file, the range of time stamps of the records
+ * in it and the number of records of each severity and from each reporting component.  A query can then skip whole
+ * blocks (and whole segments) that can not contain matching records and count its way through the records it is
+ * asked to skip for paging without reading them.  When the segment is sealed its index is saved in a file next to
+ * it so it does not have to be rebuilt when the server restarts.
+ */
+class FileBasedAuditLogSegment
+{
+    static final String segmentFilePrefix = "auditlog-";
+    static final String segmentFileSuffix = ".json";
+    static final String indexFileSuffix   = ".idx";
+
+    private static final int  recordsPerBlock     = 128;
+    private static final long indexFileIdentifier = 0x4F4D5253414C4958L;  // "OMRSALIX"
+    private static final int  indexFileVersion    = 1;
+
+    private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogSegment.class);
+
+    private final long        sequenceNumber;
+    private final Path        segmentFile;
+    private final Path        indexFile;
+    private final List<Block> blocks        = new ArrayList<>();
+    private final Block       summary       = new Block(0);
+    private Block             openBlock     = null;
+    private FileChannel       appendChannel = null;
+    private long              length        = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param directory directory holding the audit log
+     * @param sequenceNumber position of the segment in the audit log
+     */
+    private FileBasedAuditLogSegment(Path directory,
+                                     long sequenceNumber)
+    {
+        String baseName = segmentFilePrefix + String.format("%010d", sequenceNumber);
+
+        this.sequenceNumber = sequenceNumber;
+        this.segmentFile = directory.resolve(baseName + segmentFileSuffix);
+        this.indexFile = directory.resolve(baseName + indexFileSuffix);
+    }
+
+
+    /**
+     * Start a new empty segment that records can be appended to.
+     *
+     * @param directory directory holding the audit log
+     * @param sequenceNumber position of the segment in the audit log
+     * @return new segment
+     * @throws IOException unable to create the segment file
+     */
+    static FileBasedAuditLogSegment createSegment(Path directory,
+                                                  long sequenceNumber) throws IOException
+    {
+        FileBasedAuditLogSegment segment = new FileBasedAuditLogSegment(directory, sequenceNumber);
+
+        Files.deleteIfExists(segment.indexFile);
+        segment.appendChannel = FileChannel.open(segment.segmentFile,
+                                                 StandardOpenOption.CREATE,
+                                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                                 StandardOpenOption.WRITE);
+
+        return segment;
+    }
+
+
+    /**
+     * Open an existing segment.  Its saved index is used if it matches the segment file.  Otherwise the index is
+     * rebuilt from the records in the file and saved.  A partly written record at the end of the file (left
+     * when the server stopped in the middle of a write) is removed.  The segment is sealed.
+     *
+     * @param directory directory holding the audit log
+     * @param sequenceNumber position of the segment in the audit log
+     * @return existing segment
+     * @throws IOException unable to read the segment file or save its index
+     */
+    static FileBasedAuditLogSegment openSegment(Path directory,
+                                                long sequenceNumber) throws IOException
+    {
+        FileBasedAuditLogSegment segment = new FileBasedAuditLogSegment(directory, sequenceNumber);
+
+        if (! segment.readIndex())
+        {
+            log.debug("Rebuilding the index for audit log segment " + segment.segmentFile);
+
+            segment.rebuildIndex();
+            segment.writeIndex();
+        }
+
+        return segment;
+    }
+
+
+    /**
+     * Return the sequence number of the segment file in the audit log.  This is taken from the segment's file name.
+     *
+     * @param fileName name of the file
+     * @return sequence number or -1 if this is not the name of a segment file
+     */
+    static long getSequenceNumber(String fileName)
+    {
+        if ((fileName.startsWith(segmentFilePrefix)) && (fileName.endsWith(segmentFileSuffix)))
+        {
+            try
+            {
+                return Long.parseLong(fileName.substring(segmentFilePrefix.length(),
+                                                         fileName.length() - segmentFileSuffix.length()));
+            }
+            catch (NumberFormatException error)
+            {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Return the position of the segment in the audit log.
+     *
+     * @return sequence number
+     */
+    long getSequenceNumber()
+    {
+        return sequenceNumber;
+    }
+
+
+    /**
+     * Return the number of bytes in the segment.
+     *
+     * @return file length
+     */
+    synchronized long getLength()
+    {
+        return length;
+    }
+
+
+    /**
+     * Return the summary of the whole segment.  It has the same form as the summary of a block.
+     *
+     * @return copy of the segment summary
+     */
+    synchronized Block getSummary()
+    {
+        return summary.copy();
+    }
+
+
+    /**
+     * Return the blocks of records in the segment in the order they were written.  Only the records that have
+     * been completely written are included.
+     *
+     * @return copy of the block list
+     */
+    synchronized List<Block> getBlocks()
+    {
+        List<Block> blockList = new ArrayList<>(blocks);
+
+        if (openBlock != null)
+        {
+            blockList.add(openBlock.copy());
+        }
+
+        return blockList;
+    }
+
+
+    /**
+     * Write a group of records to the end of the segment with a single write and then add them to the index.
+     * This is only called by the audit log writer thread.
+     *
+     * @param records records to write
+     * @param forceWrites should the records be forced to the storage device before the index is updated
+     * @throws IOException unable to write to the segment file
+     */
+    void append(List<FileBasedAuditLogStore.PendingRecord> records,
+                boolean                                    forceWrites) throws IOException
+    {
+        int recordBytes = 0;
+
+        for (FileBasedAuditLogStore.PendingRecord record : records)
+        {
+            recordBytes += record.getLine().length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(recordBytes);
+
+        for (FileBasedAuditLogStore.PendingRecord record : records)
+        {
+            buffer.put(record.getLine());
+        }
+
+        buffer.flip();
+
+        long position = this.getLength();
+
+        while (buffer.hasRemaining())
+        {
+            position += appendChannel.write(buffer, position);
+        }
+
+        if (forceWrites)
+        {
+            appendChannel.force(false);
+        }
+
+        synchronized (this)
+        {
+            for (FileBasedAuditLogStore.PendingRecord record : records)
+            {
+                this.addToIndex(record.getLine().length, record.getTimeStamp(), record.getSeverity(), record.getComponent());
+            }
+        }
+    }
+
+
+    /**
+     * Stop any more records being added to the segment and save its index.
+     *
+     * @throws IOException unable to close the segment file or save the index
+     */
+    void seal() throws IOException
+    {
+        if (appendChannel != null)
+        {
+            appendChannel.force(true);
+            appendChannel.close();
+            appendChannel = null;
+
+            synchronized (this)
+            {
+                if (openBlock != null)
+                {
+                    blocks.add(openBlock);
+                    openBlock = null;
+                }
+            }
+
+            this.writeIndex();
+        }
+    }
+
+
+    /**
+     * Remove the segment and its index from the audit log directory.
+     *
+     * @throws IOException unable to remove the files
+     */
+    void delete() throws IOException
+    {
+        this.seal();
+
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(segmentFile);
+    }
+
+
+    /**
+     * Read the records in a block.  Any line that is not a valid audit log record is skipped.
+     *
+     * @param block block to read
+     * @return list of records in the order they were written
+     * @throws IOException unable to read the segment file
+     */
+    List<OMRSAuditLogRecord> readBlock(Block block) throws IOException
+    {
+        List<OMRSAuditLogRecord> records = new ArrayList<>();
+        ObjectReader             reader  = OMRSJSONSerializer.getReader(OMRSAuditLogRecord.class);
+        byte[]                   content = this.readBytes(block.getStartOffset(), block.getEndOffset());
+        int                      lineStart = 0;
+
+        for (int i = 0; i < content.length; i++)
+        {
+            if (content[i] == '\n')
+            {
+                if (i > lineStart)
+                {
+                    try
+                    {
+                        records.add(reader.readValue(content, lineStart, i - lineStart));
+                    }
+                    catch (IOException error)
+                    {
+                        log.debug("Skipping damaged record in audit log segment " + segmentFile + ": " + error.getMessage());
+                    }
+                }
+
+                lineStart = i + 1;
+            }
+        }
+
+        return records;
+    }
+
+
+    /**
+     * Read a range of bytes from the segment file.
+     *
+     * @param startOffset position of the first byte
+     * @param endOffset position after the last byte
+     * @return bytes read
+     * @throws IOException unable to read the segment file
+     */
+    private byte[] readBytes(long startOffset,
+                             long endOffset) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int)(endOffset - startOffset));
+
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ))
+        {
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer, startOffset + buffer.position()) < 0)
+                {
+                    throw new EOFException("Audit log segment " + segmentFile + " is shorter than its index.");
+                }
+            }
+        }
+
+        return buffer.array();
+    }
+
+
+    /**
+     * Add a record to the index.  A new block is started when the current one is full.
+     *
+     * @param recordLength number of bytes in the record, including the line terminator
+     * @param timeStamp time the record was created
+     * @param severity severity of the record (may be null)
+     * @param component name of the reporting component (may be null)
+     */
+    private void addToIndex(int    recordLength,
+                            long   timeStamp,
+                            String severity,
+                            String component)
+    {
+        if (openBlock == null)
+        {
+            openBlock = new Block(length);
+        }
+
+        length += recordLength;
+
+        openBlock.addRecord(length, timeStamp, severity, component);
+        summary.addRecord(length, timeStamp, severity, component);
+
+        if (openBlock.getRecordCount() >= recordsPerBlock)
+        {
+            blocks.add(openBlock);
+            openBlock = null;
+        }
+    }
+
+
+    /**
+     * Scan the segment file building the index.  Lines that are not valid audit log records are left out of the
+     * index counts (they are skipped when the block is read) and an incomplete record at the end is removed.
+     *
+     * @throws IOException unable to read the segment file
+     */
+    private void rebuildIndex() throws IOException
+    {
+        ObjectReader reader = OMRSJSONSerializer.getReader(OMRSAuditLogRecord.class);
+
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(segmentFile)))
+        {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int                   nextByte;
+
+            while ((nextByte = input.read()) != -1)
+            {
+                line.write(nextByte);
+
+                if (nextByte == '\n')
+                {
+                    byte[] lineBytes = line.toByteArray();
+
+                    try
+                    {
+                        OMRSAuditLogRecord record = reader.readValue(lineBytes, 0, lineBytes.length - 1);
+
+                        this.addToIndex(lineBytes.length,
+                                        getTimeStamp(record),
+                                        record.getSeverity(),
+                                        getComponentName(record));
+                    }
+                    catch (IOException error)
+                    {
+                        log.debug("Skipping damaged record in audit log segment " + segmentFile + ": " + error.getMessage());
+
+                        if (openBlock == null)
+                        {
+                            openBlock = new Block(length);
+                        }
+
+                        length += lineBytes.length;
+                        openBlock.extendTo(length);
+                        summary.extendTo(length);
+                    }
+
+                    line.reset();
+                }
+            }
+        }
+
+        if (openBlock != null)
+        {
+            blocks.add(openBlock);
+            openBlock = null;
+        }
+
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE))
+        {
+            if (channel.size() > length)
+            {
+                log.debug("Removing incomplete record from the end of audit log segment " + segmentFile);
+
+                channel.truncate(length);
+            }
+        }
+    }
+
+
+    /**
+     * Load the saved index of the segment.
+     *
+     * @return true if the index was loaded, false if it is missing, damaged or does not match the segment file
+     */
+    private boolean readIndex()
+    {
+        if (! Files.isRegularFile(indexFile))
+        {
+            return false;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile))))
+        {
+            if ((input.readLong() != indexFileIdentifier) || (input.readInt() != indexFileVersion))
+            {
+                return false;
+            }
+
+            long savedLength = input.readLong();
+
+            if (savedLength != Files.size(segmentFile))
+            {
+                return false;
+            }
+
+            int         blockCount  = input.readInt();
+            List<Block> savedBlocks = new ArrayList<>(blockCount);
+
+            for (int i = 0; i < blockCount; i++)
+            {
+                savedBlocks.add(Block.read(input));
+            }
+
+            this.length = savedLength;
+            this.blocks.addAll(savedBlocks);
+
+            for (Block block : savedBlocks)
+            {
+                summary.addBlock(block);
+            }
+
+            return true;
+        }
+        catch (IOException error)
+        {
+            log.debug("Ignoring unreadable index for audit log segment " + segmentFile + ": " + error.getMessage());
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Save the index of the segment.  It is written to a working file that replaces the index file once it is
+     * complete so a partly written index is never used.
+     *
+     * @throws IOException unable to write the index file
+     */
+    private synchronized void writeIndex() throws IOException
+    {
+        Path workingFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(workingFile))))
+        {
+            output.writeLong(indexFileIdentifier);
+            output.writeInt(indexFileVersion);
+            output.writeLong(length);
+            output.writeInt(blocks.size());
+
+            for (Block block : blocks)
+            {
+                block.write(output);
+            }
+        }
+
+        try
+        {
+            Files.move(workingFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException error)
+        {
+            Files.move(workingFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+    /**
+     * Return the time stamp of a record as used in the index.
+     *
+     * @param record audit log record
+     * @return milliseconds since the epoch (zero if the record has no time stamp)
+     */
+    static long getTimeStamp(OMRSAuditLogRecord record)
+    {
+        Date timeStamp = record.getTimeStamp();
+
+        return (timeStamp == null) ? 0 : timeStamp.getTime();
+    }
+
+
+    /**
+     * Return the name of the component that wrote a record.
+     *
+     * @param record audit log record
+     * @return component name or null if not known
+     */
+    static String getComponentName(OMRSAuditLogRecord record)
+    {
+        if (record.getReportingComponent() == null)
+        {
+            return null;
+        }
+
+        return record.getReportingComponent().getComponentName();
+    }
+
+
+    /**
+     * Block describes a range of consecutive records in the segment file.
+     */
+    static class Block
+    {
+        private final long            startOffset;
+        private long                  endOffset;
+        private int                   recordCount     = 0;
+        private long                  earliest        = Long.MAX_VALUE;
+        private long                  latest          = Long.MIN_VALUE;
+        private Map<String, Integer>  severityCounts  = new HashMap<>();
+        private Map<String, Integer>  componentCounts = new HashMap<>();
+
+
+        /**
+         * Constructor
+         *
+         * @param startOffset position in the file of the first record in the block
+         */
+        Block(long startOffset)
+        {
+            this.startOffset = startOffset;
+            this.endOffset = startOffset;
+        }
+
+
+        /**
+         * Return the position in the file of the first record in the block.
+         *
+         * @return file offset
+         */
+        long getStartOffset()
+        {
+            return startOffset;
+        }
+
+
+        /**
+         * Return the position in the file after the last record in the block.
+         *
+         * @return file offset
+         */
+        long getEndOffset()
+        {
+            return endOffset;
+        }
+
+
+        /**
+         * Return the number of records in the block.
+         *
+         * @return count
+         */
+        int getRecordCount()
+        {
+            return recordCount;
+        }
+
+
+        /**
+         * Return the number of records in the block that have the requested severity and reporting component.
+         * If both are requested the count is an upper limit since the index does not record the combinations.
+         *
+         * @param severity severity to count or null for any severity
+         * @param component component to count or null for any component
+         * @return count
+         */
+        int getMatchingCount(String severity,
+                             String component)
+        {
+            int count = recordCount;
+
+            if (severity != null)
+            {
+                count = Math.min(count, severityCounts.getOrDefault(severity, 0));
+            }
+
+            if (component != null)
+            {
+                count = Math.min(count, componentCounts.getOrDefault(component, 0));
+            }
+
+            return count;
+        }
+
+
+        /**
+         * Return whether any record in the block could have a time stamp in the requested period.
+         *
+         * @param startTime start of the period
+         * @param endTime end of the period
+         * @return boolean flag
+         */
+        boolean overlaps(long startTime,
+                         long endTime)
+        {
+            return (recordCount > 0) && (earliest <= endTime) && (latest >= startTime);
+        }
+
+
+        /**
+         * Return whether every record in the block has a time stamp in the requested period.
+         *
+         * @param startTime start of the period
+         * @param endTime end of the period
+         * @return boolean flag
+         */
+        boolean isWithin(long startTime,
+                         long endTime)
+        {
+            return (earliest >= startTime) && (latest <= endTime);
+        }
+
+
+        /**
+         * Add a record to the end of the block.
+         *
+         * @param recordEndOffset position in the file after the record
+         * @param timeStamp time the record was created
+         * @param severity severity of the record (may be null)
+         * @param component name of the reporting component (may be null)
+         */
+        void addRecord(long   recordEndOffset,
+                       long   timeStamp,
+                       String severity,
+                       String component)
+        {
+            endOffset = recordEndOffset;
+            recordCount++;
+            earliest = Math.min(earliest, timeStamp);
+            latest = Math.max(latest, timeStamp);
+
+            if (severity != null)
+            {
+                severityCounts.merge(severity, 1, Integer::sum);
+            }
+
+            if (component != null)
+            {
+                componentCounts.merge(component, 1, Integer::sum);
+            }
+        }
+
+
+        /**
+         * Include the contents of another block in this one.  It is used to build the summary of a segment.
+         *
+         * @param block block to add
+         */
+        void addBlock(Block block)
+        {
+            endOffset = Math.max(endOffset, block.endOffset);
+            recordCount += block.recordCount;
+            earliest = Math.min(earliest, block.earliest);
+            latest = Math.max(latest, block.latest);
+
+            block.severityCounts.forEach((severity, count) -> severityCounts.merge(severity, count, Integer::sum));
+            block.componentCounts.forEach((component, count) -> componentCounts.merge(component, count, Integer::sum));
+        }
+
+
+        /**
+         * Extend the block over a line that is not a valid record.
+         *
+         * @param newEndOffset position in the file after the line
+         */
+        void extendTo(long newEndOffset)
+        {
+            endOffset = newEndOffset;
+        }
+
+
+        /**
+         * Return a copy of the block that does not change as more records are added to this one.
+         *
+         * @return copy of block
+         */
+        Block copy()
+        {
+            Block copy = new Block(startOffset);
+
+            copy.endOffset = endOffset;
+            copy.recordCount = recordCount;
+            copy.earliest = earliest;
+            copy.latest = latest;
+            copy.severityCounts = new HashMap<>(severityCounts);
+            copy.componentCounts = new HashMap<>(componentCounts);
+
+            return copy;
+        }
+
+
+        /**
+         * Write the block to a saved index.
+         *
+         * @param output index file
+         * @throws IOException unable to write the index
+         */
+        void write(DataOutputStream output) throws IOException
+        {
+            output.writeLong(startOffset);
+            output.writeLong(endOffset);
+            output.writeInt(recordCount);
+            output.writeLong(earliest);
+            output.writeLong(latest);
+            writeCounts(output, severityCounts);
+            writeCounts(output, componentCounts);
+        }
+
+
+        /**
+         * Read a block from a saved index.
+         *
+         * @param input index file
+         * @return block
+         * @throws IOException unable to read the index
+         */
+        static Block read(DataInputStream input) throws IOException
+        {
+            Block block = new Block(input.readLong());
+
+            block.endOffset = input.readLong();
+            block.recordCount = input.readInt();
+            block.earliest = input.readLong();
+            block.latest = input.readLong();
+            block.severityCounts = readCounts(input);
+            block.componentCounts = readCounts(input);
+
+            return block;
+        }
+
+
+        /**
+         * Write a map of counts to a saved index.
+         *
+         * @param output index file
+         * @param counts map of value to number of records
+         * @throws IOException unable to write the index
+         */
+        private static void writeCounts(DataOutputStream     output,
+                                        Map<String, Integer> counts) throws IOException
+        {
+            output.writeInt(counts.size());
+
+            for (Map.Entry<String, Integer> count : counts.entrySet())
+            {
+                output.writeUTF(count.getKey());
+                output.writeInt(count.getValue());
+            }
+        }
+
+
+        /**
+         * Read a map of counts from a saved index.
+         *
+         * @param input index file
+         * @return map of value to number of records
+         * @throws IOException unable to read the index
+         */
+        private static Map<String, Integer> readCounts(DataInputStream input) throws IOException
+        {
+            int                  size   = input.readInt();
+            Map<String, Integer> counts = new HashMap<>();
+
+            for (int i = 0; i < size; i++)
+            {
+                counts.put(input.readUTF(), input.readInt());
+            }
+
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,746 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileBasedAuditLogStore manages the directory of segment files that make up a file based audit log.
+ *
+ * Audit log records are added to a queue by the caller and written to the newest segment by a background
+ * writer thread so that the components writing to the audit log do not wait for the disk.  The writer takes all of
+ * the records that are waiting each time it wakes up and writes them with a single write (group commit).
+ * When the newest segment reaches its maximum size it is sealed and a new segment is started.  If a maximum
+ * number of segments is set, the oldest segments are removed as new ones are started.
+ *
+ * The queue holds at most maxPendingRecords records.  When it is full, callers wait for the writer to catch up.
+ * A group of records that can not be written is lost and reported with an audit code; the writer carries on with
+ * the next group.  If a new segment can not be started, the newest segment stays open and starting a new segment
+ * is tried again before the next group is written.
+ *
+ * Queries use the sparse index held for each segment to skip the segments and blocks of records that can not
+ * contain matching records.  Each query first waits for the records that were queued before it to be written so
+ * it sees every record that was stored before the query was issued.
+ */
+class FileBasedAuditLogStore
+{
+    static final long defaultMaxSegmentSize = 16L * 1024L * 1024L;
+    static final int  defaultMaxSegments    = 0;
+
+    private static final int  maxRecordsPerWrite = 1000;
+    private static final int  maxPendingRecords  = 100000;
+    private static final long writerPollTime     = 100;
+    private static final long writerStopTime     = 10000;
+
+    private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStore.class);
+
+    private final Path                               directory;
+    private final long                               maxSegmentSize;
+    private final int                                maxSegments;
+    private final boolean                            forceWrites;
+    private final LinkedBlockingQueue<PendingRecord> pendingRecords = new LinkedBlockingQueue<>(maxPendingRecords);
+    private final List<FileBasedAuditLogSegment>     segments       = new CopyOnWriteArrayList<>();
+    private final Object                             commitLock     = new Object();
+    private final Thread                             writerThread;
+
+    private FileBasedAuditLogSegment newestSegment    = null;
+    private boolean                  segmentFull      = false;
+    private long                     queuedRecords    = 0;
+    private long                     processedRecords = 0;
+    private volatile boolean         running          = true;
+
+
+    /**
+     * Open the audit log in the requested directory and start the writer thread.  The existing segments are
+     * sealed and new records are written to a new segment.
+     *
+     * @param directoryName directory for the segment files
+     * @param maxSegmentSize size in bytes at which a segment is sealed
+     * @param maxSegments number of segments to keep (zero means keep them all)
+     * @param forceWrites should each group of records be forced to the storage device as it is written
+     * @throws IOException unable to read the directory or create a new segment
+     */
+    FileBasedAuditLogStore(String   directoryName,
+                           long     maxSegmentSize,
+                           int      maxSegments,
+                           boolean  forceWrites) throws IOException
+    {
+        this.directory = Paths.get(directoryName);
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSegments = maxSegments;
+        this.forceWrites = forceWrites;
+
+        Files.createDirectories(directory);
+
+        List<Long> sequenceNumbers = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+        {
+            for (Path file : files)
+            {
+                long sequenceNumber = FileBasedAuditLogSegment.getSequenceNumber(file.getFileName().toString());
+
+                if (sequenceNumber >= 0)
+                {
+                    sequenceNumbers.add(sequenceNumber);
+                }
+            }
+        }
+
+        Collections.sort(sequenceNumbers);
+
+        long nextSequenceNumber = 1;
+
+        for (long sequenceNumber : sequenceNumbers)
+        {
+            segments.add(FileBasedAuditLogSegment.openSegment(directory, sequenceNumber));
+            nextSequenceNumber = sequenceNumber + 1;
+        }
+
+        this.startSegment(nextSequenceNumber);
+
+        writerThread = new Thread(this::writeRecords, "FileBasedAuditLogWriter-" + directory.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+
+    /**
+     * Queue a record to be written to the audit log.  The record is converted to JSON straight away so later
+     * changes to the record object are not seen in the log.
+     *
+     * @param logRecord record to write
+     * @throws IOException the record can not be converted to JSON or the audit log is closed
+     */
+    void storeRecord(OMRSAuditLogRecord logRecord) throws IOException
+    {
+        this.storeRecords(Collections.singletonList(logRecord));
+    }
+
+
+    /**
+     * Queue a batch of records to be written to the audit log.  The records are converted to JSON before any
+     * of them are queued so either the whole batch is queued or none of it is.  If the queue does not have room
+     * for the batch, the caller waits until the writer has made room.
+     *
+     * @param logRecords records to write
+     * @throws IOException a record can not be converted to JSON, the batch is too large, the audit log is closed
+     *                     or its writer has stopped
+     */
+    void storeRecords(List<OMRSAuditLogRecord> logRecords) throws IOException
+    {
+        if (logRecords.size() > maxPendingRecords)
+        {
+            throw new IOException("Unable to queue " + logRecords.size() + " records for the audit log in " + directory +
+                                          "; at most " + maxPendingRecords + " records can be queued.");
+        }
+
+        List<PendingRecord> batch = new ArrayList<>(logRecords.size());
+
+        for (OMRSAuditLogRecord logRecord : logRecords)
+        {
+            byte[] json = OMRSJSONSerializer.getWriter(OMRSAuditLogRecord.class).writeValueAsBytes(logRecord);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+
+            line[json.length] = '\n';
+
+            batch.add(new PendingRecord(line,
+                                        FileBasedAuditLogSegment.getTimeStamp(logRecord),
+                                        logRecord.getSeverity(),
+                                        FileBasedAuditLogSegment.getComponentName(logRecord)));
+        }
+
+        synchronized (commitLock)
+        {
+            while (true)
+            {
+                if (! running)
+                {
+                    throw new IOException("The audit log in directory " + directory + " is closed.");
+                }
+
+                if (! writerThread.isAlive())
+                {
+                    throw new IOException("The audit log writer for " + directory + " has stopped.");
+                }
+
+                /*
+                 * Only callers holding the commit lock add to the queue so the room can not be taken by another
+                 * caller once it is seen.  The writer notifies the commit lock after each group it takes.
+                 */
+                if (pendingRecords.remainingCapacity() >= batch.size())
+                {
+                    break;
+                }
+
+                try
+                {
+                    commitLock.wait(writerPollTime);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for room in the audit log queue.");
+                }
+            }
+
+            pendingRecords.addAll(batch);
+            queuedRecords = queuedRecords + batch.size();
+        }
+    }
+
+
+    /**
+     * Retrieve a specific audit log record.  The newest segments are searched first.
+     *
+     * @param logRecordId unique identifier of the record
+     * @return record or null if it is not in the audit log
+     * @throws IOException unable to read the audit log
+     */
+    OMRSAuditLogRecord getRecord(String logRecordId) throws IOException
+    {
+        this.waitForQueuedRecords();
+
+        List<FileBasedAuditLogSegment> segmentList = new ArrayList<>(segments);
+
+        Collections.reverse(segmentList);
+
+        for (FileBasedAuditLogSegment segment : segmentList)
+        {
+            List<FileBasedAuditLogSegment.Block> blocks = segment.getBlocks();
+
+            Collections.reverse(blocks);
+
+            for (FileBasedAuditLogSegment.Block block : blocks)
+            {
+                for (OMRSAuditLogRecord record : this.readBlock(segment, block))
+                {
+                    if (logRecordId.equals(record.getGUID()))
+                    {
+                        return record;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Retrieve the records that were created in a time period and, optionally, have a specific severity or come
+     * from a specific component.  The records are returned in the order they were written.
+     *
+     * @param startTime start of the time period in milliseconds since the epoch
+     * @param endTime end of the time period in milliseconds since the epoch
+     * @param severity severity of records to return or null for all severities
+     * @param component name of component whose records are to be returned or null for all components
+     * @param offset number of matching records to skip
+     * @param maximumRecords maximum number of records to return (zero means no limit)
+     * @return list of records
+     * @throws IOException unable to read the audit log
+     */
+    List<OMRSAuditLogRecord> getRecords(long    startTime,
+                                        long    endTime,
+                                        String  severity,
+                                        String  component,
+                                        int     offset,
+                                        int     maximumRecords) throws IOException
+    {
+        this.waitForQueuedRecords();
+
+        List<OMRSAuditLogRecord> results       = new ArrayList<>();
+        int                      recordsToSkip = offset;
+
+        for (FileBasedAuditLogSegment segment : segments)
+        {
+            FileBasedAuditLogSegment.Block summary = segment.getSummary();
+
+            /*
+             * Whole segments, and then whole blocks, are passed over if they can not contain matching records,
+             * or if all of their matching records are within the offset.
+             */
+            int skippedRecords = this.getSkippedRecords(summary, startTime, endTime, severity, component, recordsToSkip);
+
+            if (skippedRecords >= 0)
+            {
+                recordsToSkip -= skippedRecords;
+                continue;
+            }
+
+            for (FileBasedAuditLogSegment.Block block : segment.getBlocks())
+            {
+                skippedRecords = this.getSkippedRecords(block, startTime, endTime, severity, component, recordsToSkip);
+
+                if (skippedRecords >= 0)
+                {
+                    recordsToSkip -= skippedRecords;
+                    continue;
+                }
+
+                for (OMRSAuditLogRecord record : this.readBlock(segment, block))
+                {
+                    if (this.isMatchingRecord(record, startTime, endTime, severity, component))
+                    {
+                        if (recordsToSkip > 0)
+                        {
+                            recordsToSkip--;
+                        }
+                        else
+                        {
+                            results.add(record);
+
+                            if ((maximumRecords > 0) && (results.size() >= maximumRecords))
+                            {
+                                return results;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Stop the writer thread once the queued records are written and seal the newest segment.
+     *
+     * @throws IOException unable to seal the newest segment
+     */
+    void close() throws IOException
+    {
+        synchronized (commitLock)
+        {
+            running = false;
+        }
+
+        try
+        {
+            writerThread.join(writerStopTime);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive())
+        {
+            log.error("The audit log writer for " + directory + " did not stop; " + pendingRecords.size() + " records are not written.");
+        }
+        else if (newestSegment != null)
+        {
+            newestSegment.seal();
+        }
+    }
+
+
+    /**
+     * Return whether the records in a block (or a whole segment) can be skipped without reading them.  This is
+     * the case when none of its records can match, or when all of its records are in the time period and there are
+     * no more matching records in it than there are records still to skip.  In the second case the matching
+     * records count towards the offset of the query.
+     *
+     * @param block block or segment summary
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @param severity severity of records to return or null for all severities
+     * @param component name of component whose records are to be returned or null for all components
+     * @param recordsToSkip number of matching records still to skip
+     * @return number of matching records skipped or -1 if the block needs to be read
+     */
+    private int getSkippedRecords(FileBasedAuditLogSegment.Block block,
+                                  long                           startTime,
+                                  long                           endTime,
+                                  String                         severity,
+                                  String                         component,
+                                  int                            recordsToSkip)
+    {
+        if (! block.overlaps(startTime, endTime))
+        {
+            return 0;
+        }
+
+        int matchingCount = block.getMatchingCount(severity, component);
+
+        if (matchingCount == 0)
+        {
+            return 0;
+        }
+
+        /*
+         * The count is only exact when the records are filtered by at most one of severity and component.
+         */
+        if ((severity == null) || (component == null))
+        {
+            if ((block.isWithin(startTime, endTime)) && (matchingCount <= recordsToSkip))
+            {
+                return matchingCount;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Return whether a record matches the query.
+     *
+     * @param record record to test
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @param severity severity of records to return or null for all severities
+     * @param component name of component whose records are to be returned or null for all components
+     * @return boolean flag
+     */
+    private boolean isMatchingRecord(OMRSAuditLogRecord record,
+                                     long               startTime,
+                                     long               endTime,
+                                     String             severity,
+                                     String             component)
+    {
+        long timeStamp = FileBasedAuditLogSegment.getTimeStamp(record);
+
+        if ((timeStamp < startTime) || (timeStamp > endTime))
+        {
+            return false;
+        }
+
+        if ((severity != null) && (! severity.equals(record.getSeverity())))
+        {
+            return false;
+        }
+
+        return (component == null) || (component.equals(FileBasedAuditLogSegment.getComponentName(record)));
+    }
+
+
+    /**
+     * Read the records in a block.  A segment that has been removed since the query started is treated as empty.
+     *
+     * @param segment segment holding the block
+     * @param block block to read
+     * @return list of records
+     * @throws IOException unable to read the segment
+     */
+    private List<OMRSAuditLogRecord> readBlock(FileBasedAuditLogSegment       segment,
+                                               FileBasedAuditLogSegment.Block block) throws IOException
+    {
+        try
+        {
+            return segment.readBlock(block);
+        }
+        catch (NoSuchFileException error)
+        {
+            return new ArrayList<>();
+        }
+    }
+
+
+    /**
+     * Wait until the records queued before this call have been processed by the writer.  Records that could not
+     * be written have been reported by the writer so they are not waited for again.
+     *
+     * @throws IOException interrupted while waiting or the writer stopped before processing the records
+     */
+    private void waitForQueuedRecords() throws IOException
+    {
+        synchronized (commitLock)
+        {
+            long target = queuedRecords;
+
+            while (processedRecords < target)
+            {
+                if (! writerThread.isAlive())
+                {
+                    throw new IOException("The audit log writer for " + directory + " has stopped; " +
+                                                  (target - processedRecords) + " records are not written.");
+                }
+
+                try
+                {
+                    commitLock.wait(writerPollTime);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for the audit log to be written.");
+                }
+            }
+        }
+    }
+
+
+    /**
+     * The processing of the writer thread.  It waits for records to be queued and writes all of the records that
+     * are waiting together.  It stops once the audit log is closed and the queue is empty.  A failure writing one
+     * group does not stop the writer.  If the writer is stopped by an error, the records still queued are
+     * reported as lost and the callers waiting for them are released.
+     */
+    private void writeRecords()
+    {
+        List<PendingRecord> records = new ArrayList<>();
+
+        try
+        {
+            while ((running) || (! pendingRecords.isEmpty()))
+            {
+                try
+                {
+                    PendingRecord firstRecord = pendingRecords.poll(writerPollTime, TimeUnit.MILLISECONDS);
+
+                    if (firstRecord == null)
+                    {
+                        continue;
+                    }
+
+                    records.add(firstRecord);
+                    pendingRecords.drainTo(records, maxRecordsPerWrite - 1);
+
+                    this.writeGroup(records);
+                }
+                catch (InterruptedException error)
+                {
+                    log.debug("Audit log writer for " + directory + " interrupted.");
+                }
+                finally
+                {
+                    synchronized (commitLock)
+                    {
+                        processedRecords += records.size();
+                        commitLock.notifyAll();
+                    }
+
+                    records.clear();
+                }
+            }
+        }
+        catch (Error error)
+        {
+            this.logWriteError(pendingRecords.size(), error);
+
+            synchronized (commitLock)
+            {
+                commitLock.notifyAll();
+            }
+
+            throw error;
+        }
+    }
+
+
+    /**
+     * Write a group of records to the newest segment and start a new segment if it is full.  If the records
+     * can not be written they are lost, the error is reported and a new segment is started for the next group.
+     *
+     * @param records records to write
+     */
+    private void writeGroup(List<PendingRecord> records)
+    {
+        /*
+         * A new segment that could not be started after the last group is tried again first.
+         */
+        if (segmentFull)
+        {
+            this.rollSegment();
+        }
+
+        try
+        {
+            newestSegment.append(records, forceWrites);
+
+            segmentFull = (newestSegment.getLength() >= maxSegmentSize);
+        }
+        catch (IOException | RuntimeException error)
+        {
+            this.logWriteError(records.size(), error);
+
+            segmentFull = true;
+        }
+
+        if (segmentFull)
+        {
+            this.rollSegment();
+        }
+    }
+
+
+    /**
+     * Start a new segment and then seal the newest one.  The new segment is created first so that, if it can not
+     * be created, the newest segment is left open for the next group and no group is written to a sealed segment.
+     */
+    private void rollSegment()
+    {
+        FileBasedAuditLogSegment fullSegment = newestSegment;
+
+        try
+        {
+            this.startSegment(fullSegment.getSequenceNumber() + 1);
+        }
+        catch (IOException | RuntimeException error)
+        {
+            log.error("Unable to start a new audit log segment in " + directory + ": " + error.getMessage());
+            return;
+        }
+
+        segmentFull = false;
+
+        try
+        {
+            fullSegment.seal();
+        }
+        catch (IOException | RuntimeException error)
+        {
+            log.error("Unable to seal audit log segment " + fullSegment.getSequenceNumber() + " in " + directory + ": " + error.getMessage());
+        }
+
+        try
+        {
+            this.removeOldSegments();
+        }
+        catch (IOException | RuntimeException error)
+        {
+            log.error("Unable to remove old audit log segments from " + directory + ": " + error.getMessage());
+        }
+    }
+
+
+    /**
+     * Report records that the writer was unable to write.
+     *
+     * @param recordCount number of records lost
+     * @param error cause of the failure
+     */
+    private void logWriteError(int       recordCount,
+                               Throwable error)
+    {
+        OMRSAuditCode auditCode = OMRSAuditCode.AUDIT_LOG_STORE_WRITE_ERROR;
+
+        log.error(auditCode.getLogMessageId() + " " + auditCode.getFormattedLogMessage(directory.toString(),
+                                                                                       Integer.toString(recordCount),
+                                                                                       error.getClass().getName(),
+                                                                                       error.getMessage()));
+    }
+
+
+    /**
+     * Create a new segment for new records.
+     *
+     * @param sequenceNumber sequence number of the new segment
+     * @throws IOException unable to create the segment file
+     */
+    private void startSegment(long sequenceNumber) throws IOException
+    {
+        FileBasedAuditLogSegment segment = FileBasedAuditLogSegment.createSegment(directory, sequenceNumber);
+
+        segments.add(segment);
+        newestSegment = segment;
+    }
+
+
+    /**
+     * Remove the oldest segments if there are more than the maximum number of segments.
+     *
+     * @throws IOException unable to remove a segment
+     */
+    private void removeOldSegments() throws IOException
+    {
+        while ((maxSegments > 0) && (segments.size() > maxSegments))
+        {
+            FileBasedAuditLogSegment oldestSegment = segments.remove(0);
+
+            log.debug("Removing audit log segment " + oldestSegment.getSequenceNumber() + " from " + directory);
+
+            oldestSegment.delete();
+        }
+    }
+
+
+    /**
+     * PendingRecord is an audit log record waiting to be written.  It holds the JSON line that is written to the
+     * segment and the values that are needed for the segment index.
+     */
+    static class PendingRecord
+    {
+        private final byte[] line;
+        private final long   timeStamp;
+        private final String severity;
+        private final String component;
+
+
+        /**
+         * Constructor
+         *
+         * @param line JSON form of the record followed by a new line
+         * @param timeStamp time the record was created
+         * @param severity severity of the record (may be null)
+         * @param component name of the reporting component (may be null)
+         */
+        PendingRecord(byte[] line,
+                      long   timeStamp,
+                      String severity,
+                      String component)
+        {
+            this.line = line;
+            this.timeStamp = timeStamp;
+            this.severity = severity;
+            this.component = component;
+        }
+
+
+        /**
+         * Return the JSON form of the record followed by a new line.
+         *
+         * @return bytes to write
+         */
+        byte[] getLine()
+        {
+            return line;
+        }
+
+
+        /**
+         * Return the time the record was created.
+         *
+         * @return milliseconds since the epoch
+         */
+        long getTimeStamp()
+        {
+            return timeStamp;
+        }
+
+
+        /**
+         * Return the severity of the record.
+         *
+         * @return severity name or null
+         */
+        String getSeverity()
+        {
+            return severity;
+        }
+
+
+        /**
+         * Return the name of the component that wrote the record.
+         *
+         * @return component name or null
+         */
+        String getComponent()
+        {
+            return component;
+        }
+    }
+}
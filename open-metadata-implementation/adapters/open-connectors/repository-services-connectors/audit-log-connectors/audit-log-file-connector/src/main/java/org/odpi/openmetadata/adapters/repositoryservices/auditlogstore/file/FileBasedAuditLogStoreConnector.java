@@ -2,6 +2,9 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConnectorErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
@@ -11,18 +14,37 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorExcept
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in the directory named in the endpoint of the connection.  Each audit log record is
+ * stored as a line of JSON in a series of segment files that are started in turn as each one fills up.
+ * The records are written by a background thread so the components that write to the audit log are not
+ * delayed by the disk.  Each segment has a small index that allows the queries to go straight to the
+ * records they need.
+ *
+ * The following configuration properties may be set in the connection:
+ * <ul>
+ *     <li>maxSegmentSize - the size in bytes at which a new segment is started (default 16MB).</li>
+ *     <li>maxSegments - the number of segments to keep; the oldest are removed (default 0 which means keep them all).</li>
+ *     <li>forceWrites - should each group of records be forced to the storage device as it is written (default false).</li>
+ * </ul>
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
+    private static final String defaultDirectoryName = "omrs.auditlog";
+
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
+    private String                  directoryName = defaultDirectoryName;
+    private FileBasedAuditLogStore  logStore      = null;
+
 
     /**
      * Default constructor used by the connector provider.
@@ -33,7 +55,28 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Store the audit log record in the audit log store.
+     * Initialize the connector.
+     *
+     * @param connectorInstanceId unique id for the connector instance - useful for messages etc
+     * @param connectionProperties POJO for the configuration used to create the connector.
+     */
+    @Override
+    public void initialize(String connectorInstanceId, ConnectionProperties connectionProperties)
+    {
+        super.initialize(connectorInstanceId, connectionProperties);
+
+        EndpointProperties endpoint = connectionProperties.getEndpoint();
+
+        if ((endpoint != null) && (endpoint.getAddress() != null))
+        {
+            directoryName = endpoint.getAddress();
+        }
+    }
+
+
+    /**
+     * Store the audit log record in the audit log store.  The record is queued and written to the audit log
+     * by a background thread.
      *
      * @param logRecord  log record to store
      * @return unique identifier assigned to the log record
@@ -43,6 +86,70 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String   methodName = "storeLogRecord";
 
+        this.prepareLogRecord(logRecord, methodName);
+
+        try
+        {
+            this.getLogStore().storeRecord(logRecord);
+        }
+        catch (IOException error)
+        {
+            throw getConnectorErrorException(methodName, error);
+        }
+
+        return logRecord.getGUID();
+    }
+
+
+    /**
+     * Store a batch of audit log records in the audit log store.  The records are queued together so the
+     * background thread writes them to the audit log as one group.
+     *
+     * @param logRecords  log records to store
+     * @return unique identifiers assigned to the log records in the same order as the records
+     * @throws InvalidParameterException indicates that one of the log records is invalid.
+     */
+    @Override
+    public List<String> storeLogRecords(List<OMRSAuditLogRecord> logRecords) throws InvalidParameterException
+    {
+        final String   methodName = "storeLogRecords";
+
+        List<String> logRecordIds = new ArrayList<>();
+
+        if ((logRecords == null) || (logRecords.isEmpty()))
+        {
+            return logRecordIds;
+        }
+
+        for (OMRSAuditLogRecord logRecord : logRecords)
+        {
+            this.prepareLogRecord(logRecord, methodName);
+            logRecordIds.add(logRecord.getGUID());
+        }
+
+        try
+        {
+            this.getLogStore().storeRecords(logRecords);
+        }
+        catch (IOException error)
+        {
+            throw getConnectorErrorException(methodName, error);
+        }
+
+        return logRecordIds;
+    }
+
+
+    /**
+     * Validate a log record and assign it a unique identifier if it does not have one.
+     *
+     * @param logRecord  log record to store
+     * @param methodName calling method
+     * @throws InvalidParameterException the log record is null
+     */
+    private void prepareLogRecord(OMRSAuditLogRecord logRecord,
+                                  String             methodName) throws InvalidParameterException
+    {
         if (logRecord == null)
         {
             OMRSErrorCode errorCode    = OMRSErrorCode.NULL_LOG_RECORD;
@@ -56,9 +163,12 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                 errorCode.getUserAction());
         }
 
-        log.debug("AuditLogRecord: " + logRecord.toString());
+        if (logRecord.getGUID() == null)
+        {
+            logRecord.setGUID(UUID.randomUUID().toString());
+        }
 
-        return null;
+        log.debug("AuditLogRecord: " + logRecord.toString());
     }
 
 
@@ -71,8 +181,18 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
      */
     public OMRSAuditLogRecord  getAuditLogRecord(String     logRecordId) throws InvalidParameterException
     {
+        final String   methodName = "getAuditLogRecord";
+
+        validateParameter(logRecordId, "logRecordId", methodName);
 
-        return null;
+        try
+        {
+            return this.getLogStore().getRecord(logRecordId);
+        }
+        catch (IOException error)
+        {
+            throw getConnectorErrorException(methodName, error);
+        }
     }
 
 
@@ -94,7 +214,9 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                   int     maximumRecords) throws InvalidParameterException,
                                                                                                  PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsByTimeStamp";
+
+        return getAuditLogRecords(null, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
     /**
@@ -117,7 +239,11 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                  int      maximumRecords) throws InvalidParameterException,
                                                                                                  PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsBySeverity";
+
+        validateParameter(severity, "severity", methodName);
+
+        return getAuditLogRecords(severity, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
@@ -141,28 +267,266 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                   int    maximumRecords) throws InvalidParameterException,
                                                                                                 PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsByComponent";
+
+        validateParameter(component, "component", methodName);
+
+        return getAuditLogRecords(null, component, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
     /**
-     * Indicates that the connector is completely configured and can begin processing.
+     * Indicates that the connector is completely configured and can begin processing.  The audit log directory
+     * is opened.  (If start is not called, it is opened when it is first used.)
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
     public void start() throws ConnectorCheckedException
     {
+        final String   methodName = "start";
+
         super.start();
+
+        try
+        {
+            this.getLogStore();
+        }
+        catch (IOException error)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.AUDIT_LOG_STORE_IO_ERROR;
+            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(directoryName,
+                                                                                                            methodName,
+                                                                                                            error.getClass().getName(),
+                                                                                                            error.getMessage());
+
+            throw new ConnectorCheckedException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction(),
+                                                error);
+        }
     }
 
 
     /**
-     * Free up any resources held since the connector is no longer needed.
+     * Free up any resources held since the connector is no longer needed.  The records that are waiting
+     * are written to the audit log before it is closed.
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
     public  void disconnect() throws ConnectorCheckedException
     {
+        final String   methodName = "disconnect";
+
         super.disconnect();
+
+        FileBasedAuditLogStore closingLogStore;
+
+        synchronized (this)
+        {
+            closingLogStore = logStore;
+            logStore = null;
+        }
+
+        if (closingLogStore != null)
+        {
+            try
+            {
+                closingLogStore.close();
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to close the audit log in " + directoryName + ": " + error.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * Validate the parameters of a query and run it.
+     *
+     * @param severity  the severity value of messages to return (or null for all)
+     * @param component  name of the component to retrieve events from (or null for all)
+     * @param startDate  start of time period (or null for the beginning of the audit log)
+     * @param endDate  end of time period (or null for the end of the audit log)
+     * @param offset  offset of full collection to begin the return results
+     * @param maximumRecords  maximum number of log records to return (zero means no limit)
+     * @param methodName calling method
+     * @return list of log records
+     * @throws InvalidParameterException indicates that the start and/or end date parameters are invalid.
+     * @throws PagingErrorException indicates that the offset or the maximumRecords parameters are invalid.
+     */
+    private List<OMRSAuditLogRecord> getAuditLogRecords(String  severity,
+                                                        String  component,
+                                                        Date    startDate,
+                                                        Date    endDate,
+                                                        int     offset,
+                                                        int     maximumRecords,
+                                                        String  methodName) throws InvalidParameterException,
+                                                                                   PagingErrorException
+    {
+        long startTime = (startDate == null) ? Long.MIN_VALUE : startDate.getTime();
+        long endTime   = (endDate == null) ? Long.MAX_VALUE : endDate.getTime();
+
+        if (startTime > endTime)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.INVALID_LOG_RECORD_DATES;
+            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(startDate.toString(),
+                                                                                                            methodName,
+                                                                                                            endDate.toString());
+
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+
+        validatePaging(offset, "offset", methodName);
+        validatePaging(maximumRecords, "maximumRecords", methodName);
+
+        try
+        {
+            return this.getLogStore().getRecords(startTime, endTime, severity, component, offset, maximumRecords);
+        }
+        catch (IOException error)
+        {
+            throw getConnectorErrorException(methodName, error);
+        }
+    }
+
+
+    /**
+     * Validate that a parameter is not null.
+     *
+     * @param parameterValue value passed by the caller
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws InvalidParameterException the value is null
+     */
+    private void validateParameter(String parameterValue,
+                                   String parameterName,
+                                   String methodName) throws InvalidParameterException
+    {
+        if (parameterValue == null)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.NULL_LOG_RECORD_PARAMETER;
+            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(parameterName, methodName);
+
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Validate that a paging parameter is not negative.
+     *
+     * @param parameterValue value passed by the caller
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws PagingErrorException the value is negative
+     */
+    private void validatePaging(int    parameterValue,
+                                String parameterName,
+                                String methodName) throws PagingErrorException
+    {
+        if (parameterValue < 0)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.INVALID_LOG_RECORD_PAGING;
+            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(parameterName,
+                                                                                                            Integer.toString(parameterValue),
+                                                                                                            methodName);
+
+            throw new PagingErrorException(errorCode.getHTTPErrorCode(),
+                                           this.getClass().getName(),
+                                           methodName,
+                                           errorMessage,
+                                           errorCode.getSystemAction(),
+                                           errorCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Return the audit log, opening it if this is the first time it is used.
+     *
+     * @return audit log
+     * @throws IOException unable to open the audit log directory
+     */
+    private synchronized FileBasedAuditLogStore getLogStore() throws IOException
+    {
+        if (logStore == null)
+        {
+            Map<String, Object> configurationProperties = null;
+
+            if (connectionProperties != null)
+            {
+                configurationProperties = connectionProperties.getConfigurationProperties();
+            }
+
+            long    maxSegmentSize = FileBasedAuditLogStore.defaultMaxSegmentSize;
+            int     maxSegments    = FileBasedAuditLogStore.defaultMaxSegments;
+            boolean forceWrites    = false;
+
+            if (configurationProperties != null)
+            {
+                Object maxSegmentSizeProperty = configurationProperties.get(FileBasedAuditLogStoreProvider.maxSegmentSizePropertyName);
+                Object maxSegmentsProperty    = configurationProperties.get(FileBasedAuditLogStoreProvider.maxSegmentsPropertyName);
+                Object forceWritesProperty    = configurationProperties.get(FileBasedAuditLogStoreProvider.forceWritesPropertyName);
+
+                if (maxSegmentSizeProperty != null)
+                {
+                    maxSegmentSize = Long.parseLong(maxSegmentSizeProperty.toString());
+                }
+
+                if (maxSegmentsProperty != null)
+                {
+                    maxSegments = Integer.parseInt(maxSegmentsProperty.toString());
+                }
+
+                if (forceWritesProperty != null)
+                {
+                    forceWrites = Boolean.parseBoolean(forceWritesProperty.toString());
+                }
+            }
+
+            logStore = new FileBasedAuditLogStore(directoryName, maxSegmentSize, maxSegments, forceWrites);
+        }
+
+        return logStore;
+    }
+
+
+    /**
+     * Build the exception for a failure to read or write the audit log directory.
+     *
+     * @param methodName calling method
+     * @param error caught exception
+     * @return exception to throw
+     */
+    private OMRSConnectorErrorException getConnectorErrorException(String     methodName,
+                                                                   Throwable  error)
+    {
+        OMRSErrorCode errorCode    = OMRSErrorCode.AUDIT_LOG_STORE_IO_ERROR;
+        String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(directoryName,
+                                                                                                        methodName,
+                                                                                                        error.getClass().getName(),
+                                                                                                        error.getMessage());
+
+        return new OMRSConnectorErrorException(errorCode.getHTTPErrorCode(),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               errorMessage,
+                                               errorCode.getSystemAction(),
+                                               errorCode.getUserAction(),
+                                               error);
     }
 }
@@ -14,6 +14,14 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
     static final String  connectorTypeName = "File Based Audit Log Store Connector";
     static final String  connectorTypeDescription = "Connector supports storing of audit log messages in a file.";
 
+    /*
+     * Optional configuration properties for the audit log.  The endpoint address of the connection names the
+     * directory where the audit log files are stored.
+     */
+    public static final String  maxSegmentSizePropertyName = "maxSegmentSize";
+    public static final String  maxSegmentsPropertyName    = "maxSegments";
+    public static final String  forceWritesPropertyName    = "forceWrites";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * audit log store implementation.
@@ -0,0 +1,423 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecordOriginator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogReportingComponent;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that the FileBasedAuditLogStoreConnector stores audit log records, rotates its segment files and returns
+ * the same records through each of its queries, before and after it is restarted.
+ */
+public class FileBasedAuditLogStoreConnectorTest
+{
+    private static final String[] severities = { "Information", "Event", "Error" };
+    private static final String[] components = { "Audit Log", "Cohort Registry", "Event Manager", "Archive Manager" };
+    private static final long     firstTime  = 1000000L;
+
+
+    /**
+     * Create and initialize a connector for an audit log directory.
+     *
+     * @param directory directory for the audit log
+     * @param maxSegments maximum number of segments to keep
+     * @return connector
+     */
+    private FileBasedAuditLogStoreConnector getConnector(Path directory,
+                                                         int  maxSegments)
+    {
+        Endpoint   endpoint   = new Endpoint();
+        Connection connection = new Connection();
+
+        endpoint.setAddress(directory.toString());
+        connection.setEndpoint(endpoint);
+
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxSegmentSizePropertyName, 8192);
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxSegmentsPropertyName, maxSegments);
+        connection.setConfigurationProperties(configurationProperties);
+
+        FileBasedAuditLogStoreConnector connector = new FileBasedAuditLogStoreConnector();
+
+        connector.initialize("TestAuditLog", new ConnectionProperties(connection));
+
+        return connector;
+    }
+
+
+    /**
+     * Build a log record.  The time stamps go up one second at a time.
+     *
+     * @param recordNumber position of the record
+     * @return log record
+     */
+    private OMRSAuditLogRecord getLogRecord(int recordNumber)
+    {
+        OMRSAuditLogRecordOriginator originator = new OMRSAuditLogRecordOriginator();
+
+        originator.setServerName("TestServer");
+        originator.setServerType("Test");
+
+        OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord(originator,
+                                                              new OMRSAuditLogReportingComponent(recordNumber % components.length,
+                                                                                                 components[recordNumber % components.length],
+                                                                                                 "Test component",
+                                                                                                 null),
+                                                              severities[recordNumber % severities.length],
+                                                              "TEST-" + recordNumber,
+                                                              "Test message " + recordNumber,
+                                                              Collections.singletonList("Record " + recordNumber),
+                                                              null,
+                                                              null);
+
+        logRecord.setTimeStamp(new Date(firstTime + (recordNumber * 1000L)));
+
+        return logRecord;
+    }
+
+
+    /**
+     * Return the number of segment files in the audit log directory.
+     *
+     * @param directory audit log directory
+     * @return count
+     * @throws IOException unable to list the directory
+     */
+    private long countSegments(Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(file -> file.toString().endsWith(FileBasedAuditLogSegment.segmentFileSuffix)).count();
+        }
+    }
+
+
+    /**
+     * Check that the queries return the expected records.
+     *
+     * @param connector connector to test
+     * @param logRecords records that were stored
+     * @throws Exception unexpected exception
+     */
+    private void validateQueries(FileBasedAuditLogStoreConnector connector,
+                                 List<OMRSAuditLogRecord>        logRecords) throws Exception
+    {
+        int recordCount = logRecords.size();
+
+        assertEquals(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0), logRecords);
+        assertEquals(connector.getAuditLogRecord(logRecords.get(17).getGUID()), logRecords.get(17));
+        assertNull(connector.getAuditLogRecord("Unknown"));
+
+        /*
+         * Page through a time period.
+         */
+        Date startDate = logRecords.get(100).getTimeStamp();
+        Date endDate   = logRecords.get(299).getTimeStamp();
+
+        assertEquals(connector.getAuditLogRecordsByTimeStamp(startDate, endDate, 0, 50), logRecords.subList(100, 150));
+        assertEquals(connector.getAuditLogRecordsByTimeStamp(startDate, endDate, 150, 100), logRecords.subList(250, 300));
+        assertEquals(connector.getAuditLogRecordsByTimeStamp(startDate, endDate, 200, 100).size(), 0);
+
+        /*
+         * Page through the records of one severity and one component.
+         */
+        List<OMRSAuditLogRecord> errorRecords     = new ArrayList<>();
+        List<OMRSAuditLogRecord> componentRecords = new ArrayList<>();
+
+        for (OMRSAuditLogRecord logRecord : logRecords)
+        {
+            if ("Error".equals(logRecord.getSeverity()))
+            {
+                errorRecords.add(logRecord);
+            }
+
+            if ("Event Manager".equals(logRecord.getReportingComponent().getComponentName()))
+            {
+                componentRecords.add(logRecord);
+            }
+        }
+
+        assertEquals(connector.getAuditLogRecordsBySeverity("Error", null, null, 0, 0), errorRecords);
+        assertEquals(connector.getAuditLogRecordsBySeverity("Error", null, null, 200, 20), errorRecords.subList(200, 220));
+        assertEquals(connector.getAuditLogRecordsBySeverity("Unknown", null, null, 0, 0).size(), 0);
+        assertEquals(connector.getAuditLogRecordsByComponent("Event Manager", null, null, 0, 0), componentRecords);
+        assertEquals(connector.getAuditLogRecordsByComponent("Event Manager", startDate, null, 10, 5),
+                     componentRecords.subList(35, 40));
+        assertEquals(connector.getAuditLogRecordsByComponent("Event Manager", null, null, recordCount, 5).size(), 0);
+    }
+
+
+    /**
+     * Store enough records to fill several segments and check that they can be retrieved.  Then restart the
+     * connector, once with the saved indexes and once with them rebuilt, and check the records again.
+     *
+     * @throws Exception unexpected exception
+     */
+    @Test public void testStoreAndQuery() throws Exception
+    {
+        Path directory = Files.createTempDirectory("auditlog");
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector  = getConnector(directory, 0);
+            List<OMRSAuditLogRecord>        logRecords = new ArrayList<>();
+
+            connector.start();
+
+            for (int i = 0; i < 1000; i++)
+            {
+                OMRSAuditLogRecord logRecord = getLogRecord(i);
+
+                assertEquals(connector.storeLogRecord(logRecord), logRecord.getGUID());
+                logRecords.add(logRecord);
+            }
+
+            validateQueries(connector, logRecords);
+            connector.disconnect();
+
+            assertTrue(countSegments(directory) > 10);
+
+            /*
+             * Restart using the saved indexes.
+             */
+            connector = getConnector(directory, 0);
+            validateQueries(connector, logRecords);
+            connector.disconnect();
+
+            /*
+             * Restart after removing the indexes and adding a partly written record to the last segment.
+             */
+            try (Stream<Path> files = Files.list(directory))
+            {
+                Path lastSegment = null;
+
+                for (Path file : (Iterable<Path>) files::iterator)
+                {
+                    if (file.toString().endsWith(FileBasedAuditLogSegment.indexFileSuffix))
+                    {
+                        Files.delete(file);
+                    }
+                    else if ((lastSegment == null) || (file.compareTo(lastSegment) > 0))
+                    {
+                        lastSegment = file;
+                    }
+                }
+
+                assertTrue(lastSegment != null);
+                Files.write(lastSegment, "{\"guid\":\"Incomplete".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            }
+
+            connector = getConnector(directory, 0);
+            validateQueries(connector, logRecords);
+
+            OMRSAuditLogRecord newRecord = getLogRecord(1000);
+
+            connector.storeLogRecord(newRecord);
+            logRecords.add(newRecord);
+
+            assertEquals(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0), logRecords);
+            connector.disconnect();
+        }
+        finally
+        {
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Check that the oldest segments are removed once the maximum number of segments is reached.
+     *
+     * @throws Exception unexpected exception
+     */
+    @Test public void testSegmentLimit() throws Exception
+    {
+        Path directory = Files.createTempDirectory("auditlog");
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector = getConnector(directory, 3);
+            OMRSAuditLogRecord              lastRecord = null;
+
+            for (int i = 0; i < 1000; i++)
+            {
+                lastRecord = getLogRecord(i);
+                connector.storeLogRecord(lastRecord);
+            }
+
+            List<OMRSAuditLogRecord> remainingRecords = connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0);
+
+            assertTrue(remainingRecords.size() < 1000);
+            assertEquals(remainingRecords.get(remainingRecords.size() - 1), lastRecord);
+            assertTrue(countSegments(directory) <= 3);
+            assertNull(connector.getAuditLogRecordsBySeverity("Event", null, null, 0, 0).stream()
+                                .filter(logRecord -> "TEST-1".equals(logRecord.getMessageId()))
+                                .findFirst()
+                                .orElse(null));
+
+            connector.disconnect();
+        }
+        finally
+        {
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Check that records are still written when a new segment can not be started, and that the new segment is
+     * started once the problem is cleared.
+     *
+     * @throws Exception unexpected exception
+     */
+    @Test public void testSegmentStartFailure() throws Exception
+    {
+        Path directory = Files.createTempDirectory("auditlog");
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector  = getConnector(directory, 0);
+            List<OMRSAuditLogRecord>        logRecords = new ArrayList<>();
+
+            connector.start();
+
+            /*
+             * A directory with the name of the next segment file stops the segment from being created.
+             */
+            Path blockedSegment = directory.resolve(FileBasedAuditLogSegment.segmentFilePrefix +
+                                                            String.format("%010d", 2) +
+                                                            FileBasedAuditLogSegment.segmentFileSuffix);
+
+            Files.createDirectory(blockedSegment);
+
+            for (int i = 0; i < 200; i++)
+            {
+                OMRSAuditLogRecord logRecord = getLogRecord(i);
+
+                connector.storeLogRecord(logRecord);
+                logRecords.add(logRecord);
+            }
+
+            assertEquals(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0), logRecords);
+            assertTrue(Files.isDirectory(blockedSegment));
+
+            Files.delete(blockedSegment);
+
+            for (int i = 200; i < 400; i++)
+            {
+                OMRSAuditLogRecord logRecord = getLogRecord(i);
+
+                connector.storeLogRecord(logRecord);
+                logRecords.add(logRecord);
+            }
+
+            assertEquals(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0), logRecords);
+            assertTrue(Files.isRegularFile(blockedSegment));
+            assertTrue(countSegments(directory) > 2);
+
+            connector.disconnect();
+        }
+        finally
+        {
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Check that invalid query parameters are rejected.
+     *
+     * @throws Exception unexpected exception
+     */
+    @Test public void testInvalidParameters() throws Exception
+    {
+        Path directory = Files.createTempDirectory("auditlog");
+
+        try
+        {
+            FileBasedAuditLogStoreConnector connector = getConnector(directory, 0);
+
+            try
+            {
+                connector.storeLogRecord(null);
+                assertTrue(false);
+            }
+            catch (InvalidParameterException expected)
+            {
+            }
+
+            try
+            {
+                connector.getAuditLogRecordsBySeverity(null, null, null, 0, 0);
+                assertTrue(false);
+            }
+            catch (InvalidParameterException expected)
+            {
+            }
+
+            try
+            {
+                connector.getAuditLogRecordsByTimeStamp(new Date(2000), new Date(1000), 0, 0);
+                assertTrue(false);
+            }
+            catch (InvalidParameterException expected)
+            {
+            }
+
+            try
+            {
+                connector.getAuditLogRecordsByComponent("Audit Log", null, null, -1, 0);
+                assertTrue(false);
+            }
+            catch (PagingErrorException expected)
+            {
+            }
+
+            connector.disconnect();
+        }
+        finally
+        {
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Remove the test directory.
+     *
+     * @param directory directory to remove
+     */
+    private void deleteDirectory(Path directory)
+    {
+        File[] files = directory.toFile().listFiles();
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+
+        directory.toFile().delete();
+    }
+}
@@ -2,13 +2,14 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
-import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveJSONStream;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStream;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,7 +62,8 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
 
 
     /**
-     * Return the contents of the archive.
+     * Return the contents of the archive.  The archive is parsed straight from the file so the file contents
+     * are not held in memory as well as the archive.
      *
      * @return OpenMetadataArchive object
      */
@@ -72,21 +74,17 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
 
         try
         {
-            log.debug("Retrieving server configuration properties");
+            log.debug("Retrieving open metadata archive " + archiveStoreName);
 
-            String configStoreFileContents = FileUtils.readFileToString(archiveStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            newOpenMetadataArchive = objectMapper.readValue(configStoreFileContents, OpenMetadataArchive.class);
+            newOpenMetadataArchive = OMRSJSONSerializer.getReader(OpenMetadataArchive.class).readValue(archiveStoreFile);
         }
         catch (IOException ioException)
         {
             /*
-             * The config file is not found, create a new one ...
+             * The archive file is not found, return an empty archive ...
              */
 
-            log.debug("New server config Store", ioException);
+            log.debug("New open metadata archive", ioException);
 
             newOpenMetadataArchive = new OpenMetadataArchive();
         }
@@ -96,7 +94,30 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
 
 
     /**
-     * Set new contents into the archive.  This overrides any content previously stored.
+     * Return a stream that parses the archive file as its contents are requested so that archives that are
+     * larger than the heap can be loaded.
+     *
+     * @return stream over the archive contents
+     */
+    @Override
+    public OpenMetadataArchiveStream getArchiveStream()
+    {
+        File    archiveStoreFile = new File(archiveStoreName);
+
+        if (! archiveStoreFile.isFile())
+        {
+            log.debug("Open metadata archive " + archiveStoreName + " is not a file");
+
+            return super.getArchiveStream();
+        }
+
+        return new OpenMetadataArchiveJSONStream(archiveStoreFile);
+    }
+
+
+    /**
+     * Set new contents into the archive.  This overrides any content previously stored.  The archive is
+     * written straight to the file rather than being converted to a string first.
      *
      * @param archiveContents   OpenMetadataArchive object
      */
@@ -114,16 +135,12 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String archiveStoreFileContents = objectMapper.writeValueAsString(archiveContents);
-
-                FileUtils.writeStringToFile(archiveStoreFile, archiveStoreFileContents, false);
+                OMRSJSONSerializer.getWriter(OpenMetadataArchive.class).writeValue(archiveStoreFile, archiveContents);
             }
         }
         catch (IOException   ioException)
         {
-            log.debug("Unusable Server config Store :(", ioException);
+            log.debug("Unusable open metadata archive store :(", ioException);
         }
     }
 
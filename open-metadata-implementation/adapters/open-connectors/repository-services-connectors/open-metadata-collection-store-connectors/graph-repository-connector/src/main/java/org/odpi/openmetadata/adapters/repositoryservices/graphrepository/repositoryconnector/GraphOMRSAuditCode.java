@@ -44,6 +44,16 @@ public enum GraphOMRSAuditCode {
             "The OMRS Graph Repository has been opened.",
             "The local server has created and initialized the Local OMRS Graph Repository database.",
             "No action is required. This is part of the normal operation of the Graph Repository."),
+    GRAPH_REPOSITORY_BULK_LOAD_MODE("OMRS-GRAPH-REPOSITORY-0004",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The OMRS Graph Repository has been opened in bulk load mode.",
+            "The graph database does not check the consistency of, or lock, the elements it updates while in bulk load mode.",
+            "Restart the server without the bulkLoad configuration property once loading is complete."),
+    GRAPH_REPOSITORY_SCHEMA_CHECK_SKIPPED("OMRS-GRAPH-REPOSITORY-0005",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The OMRS Graph Repository has been opened without verifying its schema version {0}.",
+            "The graph schema was created by this version of the connector so its labels and indexes have not been checked.",
+            "No action is required. Remove the verifySchemaOnOpen configuration property if the graph schema needs to be repaired."),
     ;
 
     private String                     logMessageId;
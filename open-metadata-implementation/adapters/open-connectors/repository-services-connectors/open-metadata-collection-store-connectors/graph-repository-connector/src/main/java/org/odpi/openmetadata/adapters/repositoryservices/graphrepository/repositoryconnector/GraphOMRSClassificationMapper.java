@@ -3,31 +3,26 @@
 
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationOrigin;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
 
@@ -78,13 +73,14 @@ public class GraphOMRSClassificationMapper {
             InstanceProperties classificationProperties = classification.getProperties();
             if (classificationProperties != null) {
 
-                // First write properties as json - useful for handling collections and possibly for full text/string matching???
-                ObjectMapper objectMapper = new ObjectMapper();
-                String jsonString;
+                // Primitive properties are stored natively - to support searches and reads without parsing - and any others are serialized.
                 try {
-                    jsonString = objectMapper.writeValueAsString(classificationProperties);
-                    log.debug("{} classification has serialized properties {}", methodName, jsonString);
-                    vertex.property("classificationProperties", jsonString);
+                    String typeName = classification.getType().getTypeDefName();
+                    TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
+
+                    GraphOMRSMapperUtils.writeInstanceProperties(vertex, classificationProperties, typeDef,
+                            PROPERTY_KEY_CLASSIFICATION_SERIALIZED_PROPERTIES, PROPERTY_KEY_CLASSIFICATION_NON_PRIMITIVE_PROPERTIES,
+                            repositoryName, repositoryHelper, methodName);
                 } catch (Throwable exc) {
                     log.error("{} Caught exception from classification mapper", methodName);
                     GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.CLASSIFICATION_PROPERTIES_ERROR;
@@ -98,49 +94,6 @@ public class GraphOMRSClassificationMapper {
                             errorCode.getSystemAction(),
                             errorCode.getUserAction());
                 }
-
-                // Secondly add primitive properties to support searches
-
-                String typeName = classification.getType().getTypeDefName();
-                TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-                // For the type of the entity, walk its type hierarchy and construct a map of short prop name -> qualified prop name.
-                Map<String,String> qualifiedPropertyNames = GraphOMRSMapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
-
-                // This is a full property update - any defined properties that are not in the instanceProperties are cleared.
-
-                List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
-
-                for (TypeDefAttribute propertyDef : propertiesDef) {
-                    String propertyName = propertyDef.getAttributeName();
-                    String qualifiedPropName = qualifiedPropertyNames.get(propertyName);
-                    // Get the specified value for this property from classificationProperties - uses non-qualified name
-                    InstancePropertyValue ipv = classificationProperties.getPropertyValue(propertyName);
-                    if (ipv != null) {
-                        // a value has been specified
-
-                        // This uses the qualified property name - so that graph index property keys are finer grained which speeds up index enablement and
-                        // will also make lookups faster.
-                        InstancePropertyCategory ipvCat = ipv.getInstancePropertyCategory();
-                        if (ipvCat == InstancePropertyCategory.PRIMITIVE) {
-                            // Primitives are stored directly in the graph
-                            PrimitivePropertyValue ppv = (PrimitivePropertyValue) ipv;
-                            Object primValue = ppv.getPrimitiveValue();
-                            vertex.property(qualifiedPropName, primValue);
-                        }
-                        else {
-                            log.debug("{} non-primitive classification property {}", propertyName);
-                        }
-
-                    }
-                    else {
-                        // no value has been specified - remove the property from the vertex
-                        VertexProperty vp = vertex.property(qualifiedPropName);
-                        if (vp != null) {
-                            vp.remove();
-                        }
-                    }
-                }
             }
         }
 
@@ -309,10 +262,9 @@ public class GraphOMRSClassificationMapper {
 
             List<String> maintainedByList = classification.getMaintainedBy();
             if (maintainedByList != null && !maintainedByList.isEmpty()) {
-                ObjectMapper objectMapper = new ObjectMapper();
                 String jsonString;
                 try {
-                    jsonString = objectMapper.writeValueAsString(maintainedByList);
+                    jsonString = OMRSJSONSerializer.writeValueAsString(maintainedByList);
                     vertex.property(PROPERTY_KEY_CLASSIFICATION_MAINTAINED_BY, jsonString);
 
                 } catch (Throwable exc) {
@@ -363,27 +315,25 @@ public class GraphOMRSClassificationMapper {
             mapVertexToInstanceAuditHeader(vertex, classification);
 
             // properties
-            String stringProps = (String) getVertexProperty(vertex, "classificationProperties");
-
-            if (stringProps != null) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                try {
-                    InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
-                    log.debug("{} classification has deserialized properties {}", methodName, instanceProperties);
-                    classification.setProperties(instanceProperties);
-                } catch (Throwable exc) {
-                    log.error("{} caught exception {}", methodName, exc.getMessage());
-                    GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.CLASSIFICATION_PROPERTIES_ERROR;
-                    String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(classification.getName(), methodName,
-                            this.getClass().getName(),
-                            repositoryName);
-                    throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                            this.getClass().getName(),
-                            methodName,
-                            errorMessage,
-                            errorCode.getSystemAction(),
-                            errorCode.getUserAction());
-                }
+            try {
+                TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, classification.getType().getTypeDefName());
+                InstanceProperties instanceProperties = GraphOMRSMapperUtils.readInstanceProperties(vertex, typeDef, false,
+                        PROPERTY_KEY_CLASSIFICATION_SERIALIZED_PROPERTIES, PROPERTY_KEY_CLASSIFICATION_NON_PRIMITIVE_PROPERTIES,
+                        repositoryName, repositoryHelper, methodName);
+                log.debug("{} classification has properties {}", methodName, instanceProperties);
+                classification.setProperties(instanceProperties);
+            } catch (Throwable exc) {
+                log.error("{} caught exception {}", methodName, exc.getMessage());
+                GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.CLASSIFICATION_PROPERTIES_ERROR;
+                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(classification.getName(), methodName,
+                        this.getClass().getName(),
+                        repositoryName);
+                throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                        this.getClass().getName(),
+                        methodName,
+                        errorMessage,
+                        errorCode.getSystemAction(),
+                        errorCode.getUserAction());
             }
 
         }
@@ -453,9 +403,8 @@ public class GraphOMRSClassificationMapper {
             // maintainedBy
             String maintainedByString = (String) getVertexProperty(vertex, PROPERTY_KEY_CLASSIFICATION_MAINTAINED_BY);
             if (maintainedByString != null) {
-                ObjectMapper objectMapper = new ObjectMapper();
                 try {
-                    List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
+                    List<String> maintainedByList = (List<String>) OMRSJSONSerializer.readValue(maintainedByString, List.class);
                     log.debug("{} vertex has deserialized maintainedBy list {}", methodName, maintainedByList);
                     classification.setMaintainedBy(maintainedByList);
 
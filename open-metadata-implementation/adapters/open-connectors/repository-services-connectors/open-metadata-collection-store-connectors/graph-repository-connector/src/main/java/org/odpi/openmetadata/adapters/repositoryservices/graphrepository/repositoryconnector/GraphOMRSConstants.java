@@ -66,6 +66,24 @@ public class GraphOMRSConstants {
     }};
 
 
+    /*
+     *  INSTANCE PROPERTIES
+     *
+     *  Each primitive instance property is stored as a native graph property whose key is the property name
+     *  qualified by the name of the type that defines it.  Any other properties (enums, structs, maps and arrays)
+     *  and the effectivity dates are stored together as a serialized InstanceProperties.  Graphs written by
+     *  earlier versions of the connector hold all of an instance's properties in a single serialized
+     *  InstanceProperties; these are still read and are replaced when the instance is next updated.
+     */
+
+    public static final String PROPERTY_KEY_ENTITY_SERIALIZED_PROPERTIES               = "instanceProperties";
+    public static final String PROPERTY_KEY_ENTITY_NON_PRIMITIVE_PROPERTIES            = "instanceNonPrimitiveProperties";
+    public static final String PROPERTY_KEY_RELATIONSHIP_SERIALIZED_PROPERTIES         = "relationshipProperties";
+    public static final String PROPERTY_KEY_RELATIONSHIP_NON_PRIMITIVE_PROPERTIES      = "relationshipNonPrimitiveProperties";
+    public static final String PROPERTY_KEY_CLASSIFICATION_SERIALIZED_PROPERTIES       = "classificationProperties";
+    public static final String PROPERTY_KEY_CLASSIFICATION_NON_PRIMITIVE_PROPERTIES    = "classificationNonPrimitiveProperties";
+
+
 
 
     /*
@@ -3,7 +3,6 @@
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -13,20 +12,17 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityProxyOnlyException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,7 +30,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
 
@@ -86,13 +81,14 @@ public class GraphOMRSEntityMapper {
         InstanceProperties instanceProperties = entity.getProperties();
         if (instanceProperties != null) {
 
-            // First write properties as json - useful for handling collections and possibly for full text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonString;
+            // Primitive properties are stored natively - to support searches and reads without parsing - and any others are serialized.
             try {
-                jsonString = objectMapper.writeValueAsString(instanceProperties);
-                log.debug("{} entity has serialized properties {}", methodName, jsonString);
-                vertex.property("instanceProperties", jsonString);
+                String typeName = entity.getType().getTypeDefName();
+                TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
+
+                GraphOMRSMapperUtils.writeInstanceProperties(vertex, instanceProperties, typeDef,
+                        PROPERTY_KEY_ENTITY_SERIALIZED_PROPERTIES, PROPERTY_KEY_ENTITY_NON_PRIMITIVE_PROPERTIES,
+                        repositoryName, repositoryHelper, methodName);
             } catch (Throwable exc) {
                 log.error("{} Caught exception from entity mapper", methodName);
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
@@ -106,35 +102,6 @@ public class GraphOMRSEntityMapper {
                         errorCode.getSystemAction(),
                         errorCode.getUserAction());
             }
-
-            // Secondly add primitive properties to support searches
-
-            String typeName = entity.getType().getTypeDefName();
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // For the type of the entity, walk its type hierarchy and construct a map of short prop name -> qualified prop name.
-            Map<String,String> qualifiedPropertyNames = GraphOMRSMapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
-
-            // This is a full property update - any defined properties that are not in the instanceProperties are cleared.
-
-            List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
-
-            for (TypeDefAttribute propertyDef : propertiesDef) {
-                String propertyName = propertyDef.getAttributeName();
-                String qualifiedPropName = qualifiedPropertyNames.get(propertyName);
-                // Get the specified value for this property from instanceProperties - uses non-qualified name
-                InstancePropertyValue ipv = instanceProperties.getPropertyValue(propertyName);
-                if (ipv != null) {
-                    // a value has been specified
-
-                    // This uses the qualified property name - so that graph index property keys are finer grained which speeds up index enablement and
-                    // will also make lookups faster.
-                    addProperty(vertex, propertyName, qualifiedPropName, ipv);
-                }
-                else {
-                    removeProperty(vertex, qualifiedPropName);
-                }
-            }
         }
     }
 
@@ -158,13 +125,15 @@ public class GraphOMRSEntityMapper {
 
         InstanceProperties uniqueProperties = entity.getUniqueProperties();
         if (uniqueProperties != null) {
-            // First approach was to write properties as json - could be useful for text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonString;
+
+            // Primitive properties are stored natively - to support searches and reads without parsing - and any others are serialized.
             try {
-                jsonString = objectMapper.writeValueAsString(uniqueProperties);
-                log.debug("{} entity proxy has serialized unique properties {}", methodName, jsonString);
-                vertex.property("instanceProperties", jsonString);
+                String typeName = entity.getType().getTypeDefName();
+                TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
+
+                GraphOMRSMapperUtils.writeInstanceProperties(vertex, uniqueProperties, typeDef,
+                        PROPERTY_KEY_ENTITY_SERIALIZED_PROPERTIES, PROPERTY_KEY_ENTITY_NON_PRIMITIVE_PROPERTIES,
+                        repositoryName, repositoryHelper, methodName);
             } catch (Throwable exc) {
                 log.error("{} caught exception {}", methodName, exc.getMessage());
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
@@ -178,51 +147,6 @@ public class GraphOMRSEntityMapper {
                         errorCode.getSystemAction(),
                         errorCode.getUserAction());
             }
-
-            // Secondly write all primitive properties as-is to support searches
-
-            String typeName = entity.getType().getTypeDefName();
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // For the type of the entity, walk its type hierarchy and construct a map of short prop name -> qualified prop name.
-            Map<String,String> qualifiedPropertyNames = GraphOMRSMapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
-
-            // This is a full property update - any defined properties that are not in the instanceProperties are cleared.
-            List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
-            for (TypeDefAttribute propertyDef : propertiesDef) {
-                String propertyName = propertyDef.getAttributeName();
-                String qualifiedPropName = qualifiedPropertyNames.get(propertyName);
-                // Get the specified value for this property from instanceProperties - uses non-qualified name
-                InstancePropertyValue ipv = uniqueProperties.getPropertyValue(propertyName);
-                if (ipv != null) {
-                    // a value has been specified
-
-                    // This uses the qualified property name - so that graph index property keys are finer grained which speeds up index enablement and
-                    // will also make lookups faster.
-                    addProperty(vertex, propertyName, qualifiedPropName, ipv);
-
-                } else {
-                    // no value has been specified - remove the property from the vertex
-                    removeProperty(vertex, qualifiedPropName);
-
-                }
-            }
-        }
-    }
-
-    private void addProperty(Vertex vertex, String propertyName, String qualifiedPropName, InstancePropertyValue ipv) {
-        InstancePropertyCategory ipvCat = ipv.getInstancePropertyCategory();
-        if (ipvCat == InstancePropertyCategory.PRIMITIVE) {
-            // Primitives are stored directly in the graph
-            PrimitivePropertyValue ppv = (PrimitivePropertyValue) ipv;
-            Object primValue = ppv.getPrimitiveValue();
-            if (primValue != null) {
-                vertex.property(qualifiedPropName, primValue);
-            } else {
-                removeProperty(vertex, qualifiedPropName);
-            }
-        } else {
-            log.debug("{} non-primitive instance property {}", propertyName);
         }
     }
 
@@ -363,10 +287,9 @@ public class GraphOMRSEntityMapper {
         // can be indexed even on Relationships. Queries can use textRegex to search/retrieve.
         if (entity.getMaintainedBy() != null) {
             List<String> maintainers = entity.getMaintainedBy();
-            ObjectMapper objectMapper = new ObjectMapper();
             String jsonString;
             try {
-                jsonString = objectMapper.writeValueAsString(maintainers);
+                jsonString = OMRSJSONSerializer.writeValueAsString(maintainers);
                 log.debug("{} entity maintainedBy serialized to {}", methodName, jsonString);
                 vertex.property(PROPERTY_KEY_ENTITY_MAINTAINED_BY, jsonString);
             }
@@ -435,27 +358,25 @@ public class GraphOMRSEntityMapper {
         mapVertexToEntitySummary(vertex, entity);
 
         // properties
-        String stringProps = (String) getVertexProperty(vertex, "instanceProperties");
-
-        if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            try {
-                InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
-                log.debug("{} entity has deserialized properties {}", methodName, instanceProperties);
-                entity.setProperties(instanceProperties);
-            } catch (Throwable exc) {
-                log.error("{} caught exception {}", methodName, exc.getMessage());
-                GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
-                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(entity.getGUID(), methodName,
-                        this.getClass().getName(),
-                        repositoryName);
-                throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                        this.getClass().getName(),
-                        methodName,
-                        errorMessage,
-                        errorCode.getSystemAction(),
-                        errorCode.getUserAction());
-            }
+        try {
+            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, entity.getType().getTypeDefName());
+            InstanceProperties instanceProperties = GraphOMRSMapperUtils.readInstanceProperties(vertex, typeDef, false,
+                    PROPERTY_KEY_ENTITY_SERIALIZED_PROPERTIES, PROPERTY_KEY_ENTITY_NON_PRIMITIVE_PROPERTIES,
+                    repositoryName, repositoryHelper, methodName);
+            log.debug("{} entity has properties {}", methodName, instanceProperties);
+            entity.setProperties(instanceProperties);
+        } catch (Throwable exc) {
+            log.error("{} caught exception {}", methodName, exc.getMessage());
+            GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(entity.getGUID(), methodName,
+                    this.getClass().getName(),
+                    repositoryName);
+            throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                    this.getClass().getName(),
+                    methodName,
+                    errorMessage,
+                    errorCode.getSystemAction(),
+                    errorCode.getUserAction());
         }
 
     }
@@ -495,60 +416,30 @@ public class GraphOMRSEntityMapper {
                     errorCode.getUserAction());
         }
 
-        // properties
-        String stringProps = (String) getVertexProperty(vertex, "instanceProperties");
-
-        if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            try {
-                InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
-                log.debug("{} entity has deserialized properties {}", methodName, instanceProperties);
-                List<TypeDefAttribute> propertiesDefinition = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
-                InstanceProperties uniqueAttributes = new InstanceProperties();
-
-                if (propertiesDefinition != null)
-                {
-                    for (TypeDefAttribute typeDefAttribute : propertiesDefinition)
-                    {
-                        if (typeDefAttribute != null)
-                        {
-                            String propertyName = typeDefAttribute.getAttributeName();
-
-                            if ((typeDefAttribute.isUnique()) && (propertyName != null))
-                            {
-                                InstancePropertyValue propertyValue = instanceProperties.getPropertyValue(
-                                        propertyName);
-
-                                if (propertyValue != null)
-                                {
-                                    uniqueAttributes.setProperty(propertyName, propertyValue);
-                                }
-                            }
-                        }
-                    }
-                }
-
-                if (uniqueAttributes.getPropertyCount() > 0)
-                {
-                    entity.setUniqueProperties(uniqueAttributes);
-                }
+        // unique properties - these are normally all primitives so no serialized properties are parsed
+        try {
+            InstanceProperties uniqueAttributes = GraphOMRSMapperUtils.readInstanceProperties(vertex, typeDef, true,
+                    PROPERTY_KEY_ENTITY_SERIALIZED_PROPERTIES, PROPERTY_KEY_ENTITY_NON_PRIMITIVE_PROPERTIES,
+                    repositoryName, repositoryHelper, methodName);
 
-            } catch (Throwable exc) {
-                log.error("{} caught exception {}", methodName, exc.getMessage());
-                GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
-                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(entity.getGUID(), methodName,
-                        this.getClass().getName(),
-                        repositoryName);
-                throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                        this.getClass().getName(),
-                        methodName,
-                        errorMessage,
-                        errorCode.getSystemAction(),
-                        errorCode.getUserAction());
+            if (uniqueAttributes != null) {
+                entity.setUniqueProperties(uniqueAttributes);
+            } else {
+                log.debug("{} vertex has no unique properties", methodName);
             }
-        }
-        else {
-            log.debug("{} vertex has no instance properties {}", methodName);
+
+        } catch (Throwable exc) {
+            log.error("{} caught exception {}", methodName, exc.getMessage());
+            GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR;
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(entity.getGUID(), methodName,
+                    this.getClass().getName(),
+                    repositoryName);
+            throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                    this.getClass().getName(),
+                    methodName,
+                    errorMessage,
+                    errorCode.getSystemAction(),
+                    errorCode.getUserAction());
         }
 
     }
@@ -612,9 +503,8 @@ public class GraphOMRSEntityMapper {
 
         String maintainedByString = (String) getVertexProperty(vertex, PROPERTY_KEY_ENTITY_MAINTAINED_BY);
         if (maintainedByString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
             try {
-                List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
+                List<String> maintainedByList = (List<String>) OMRSJSONSerializer.readValue(maintainedByString, List.class);
                 log.debug("{} entity has deserialized maintainBy {}", methodName, maintainedByList);
                 entity.setMaintainedBy(maintainedByList);
             } catch (Throwable exc) {
@@ -43,6 +43,16 @@ public class GraphOMRSGraphFactory {
     private static OMRSAuditLog thisAuditLog                 = null;
     private static String       controlVertexIdPropertyName  = "ControlVertexIdentifier";
     private static String       controlVertexIdPropertyValue = "ControlVertexIdentifier";
+    private static final int    BULK_LOAD_ID_BLOCK_SIZE      = 1000000;
+    private static String       schemaVersionPropertyName    = "schemaVersion";
+
+    // Increase the schema version whenever initialize() changes the labels or core indexes that it creates.
+    private static final int    GRAPH_SCHEMA_VERSION         = 1;
+
+    private static final String DEFAULT_STORAGE_BACKEND      = "berkeleyje";
+    private static final String DEFAULT_STORAGE_PATH         = "./egeria-graph-repository/berkeley";
+    private static final String DEFAULT_INDEX_BACKEND        = "lucene";
+    private static final String DEFAULT_INDEX_PATH           = "./egeria-graph-repository/searchindex";
 
 
     public enum MixedIndexMapping {
@@ -51,9 +61,10 @@ public class GraphOMRSGraphFactory {
         String
     }
 
-    public static JanusGraph open(String       metadataCollectionId,
-                                  String       repositoryName,
-                                  OMRSAuditLog auditLog)
+    public static JanusGraph open(String              metadataCollectionId,
+                                  String              repositoryName,
+                                  OMRSAuditLog        auditLog,
+                                  Map<String, Object> configurationProperties)
             throws
             RepositoryErrorException
     {
@@ -69,16 +80,21 @@ public class GraphOMRSGraphFactory {
         // Use the JGF.Builder and construct the configuration in-line.
         // There is no synch yet on this.
 
-        // Run with a Lucene indexing backend for now - if you pull in ES you need to use JG-server
-        // or start your own ES cluster. If/when you pull the janusgraph-es module into the build
+        // Run with a BerkeleyDB store and a Lucene indexing backend by default - if you pull in ES you need to use
+        // JG-server or start your own ES cluster. If/when you pull the janusgraph-es module into the build
         // you will need to configure the component-scan otherwise Spring boot tries to autoconfigure a
         // REST client which fails (on HttpHost).
 
-        final String storageBackend = "berkeleyje";
-        final String storagePath = "./egeria-graph-repository/berkeley";
+        final String storageBackend = getStringProperty(configurationProperties, GraphOMRSRepositoryConnectorProvider.storageBackendPropertyName, DEFAULT_STORAGE_BACKEND);
+        final String storagePath    = getStringProperty(configurationProperties, GraphOMRSRepositoryConnectorProvider.storagePathPropertyName, DEFAULT_STORAGE_PATH);
+
+        final String indexBackend   = getStringProperty(configurationProperties, GraphOMRSRepositoryConnectorProvider.indexBackendPropertyName, DEFAULT_INDEX_BACKEND);
+        final String indexPath      = getStringProperty(configurationProperties, GraphOMRSRepositoryConnectorProvider.indexPathPropertyName, DEFAULT_INDEX_PATH);
 
-        final String indexBackend = "lucene";
-        final String indexPath = "./egeria-graph-repository/searchindex";
+        final boolean verifySchemaOnOpen = Boolean.parseBoolean(getStringProperty(configurationProperties,
+                GraphOMRSRepositoryConnectorProvider.verifySchemaOnOpenPropertyName, "true"));
+
+        log.debug("{} storage backend {} at {}, index backend {} at {}", methodName, storageBackend, storagePath, indexBackend, indexPath);
 
         JanusGraphFactory.Builder config = JanusGraphFactory.build().
                 set("storage.backend", storageBackend).
@@ -86,10 +102,48 @@ public class GraphOMRSGraphFactory {
                 set("index.search.backend", indexBackend).
                 set("index.search.directory", indexPath);
 
+        // Pass any tuning settings, such as the database cache, straight through to JanusGraph.
+        if (configurationProperties != null) {
+            Object graphConfiguration = configurationProperties.get(GraphOMRSRepositoryConnectorProvider.graphConfigurationPropertyName);
+            if (graphConfiguration instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) graphConfiguration).entrySet()) {
+                    if (entry.getKey() != null && entry.getValue() != null) {
+                        log.debug("{} set graph configuration {} to {}", methodName, entry.getKey(), entry.getValue());
+                        config = config.set(entry.getKey().toString(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        // In bulk load mode JanusGraph skips its consistency checks and locking, and each instance
+        // allocates ids from a much larger block so that it rarely has to go back to the id authority.
+        boolean bulkLoad = false;
+        if (configurationProperties != null) {
+            Object bulkLoadProperty = configurationProperties.get(GraphOMRSRepositoryConnectorProvider.bulkLoadPropertyName);
+            bulkLoad = (bulkLoadProperty != null) && Boolean.parseBoolean(bulkLoadProperty.toString());
+        }
+
+        if (bulkLoad) {
+            config = config.
+                    set("storage.batch-loading", true).
+                    set("ids.block-size", BULK_LOAD_ID_BLOCK_SIZE);
+        }
+
         try {
 
             graph = config.open();
 
+            if (bulkLoad) {
+                GraphOMRSAuditCode auditCode = GraphOMRSAuditCode.GRAPH_REPOSITORY_BULK_LOAD_MODE;
+                thisAuditLog.logRecord(methodName,
+                        auditCode.getLogMessageId(),
+                        auditCode.getSeverity(),
+                        auditCode.getFormattedLogMessage(),
+                        null,
+                        auditCode.getSystemAction(),
+                        auditCode.getUserAction());
+            }
+
         } catch (Exception e) {
             log.error("{} could not open graph stored at {}", methodName, storagePath);
             GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.CANNOT_OPEN_GRAPH_DB;
@@ -227,15 +281,31 @@ public class GraphOMRSGraphFactory {
 
 
         if (success) {
-            // Whether graph was new or existed, ensure the graph schema is up to date
-            try {
-                log.info("Updating graph schema, if necessary");
-                GraphOMRSGraphFactory.initialize(graph);
+            // Whether graph was new or existed, ensure the graph schema is up to date - unless the schema was
+            // created by this version of the connector and the configuration says it can be trusted.
+            if (!verifySchemaOnOpen && isSchemaCurrent(controlVertex)) {
+                log.info("Graph schema is at version {}, skipping schema verification", GRAPH_SCHEMA_VERSION);
+
+                GraphOMRSAuditCode auditCode = GraphOMRSAuditCode.GRAPH_REPOSITORY_SCHEMA_CHECK_SKIPPED;
+                thisAuditLog.logRecord(methodName,
+                        auditCode.getLogMessageId(),
+                        auditCode.getSeverity(),
+                        auditCode.getFormattedLogMessage(Integer.toString(GRAPH_SCHEMA_VERSION)),
+                        null,
+                        auditCode.getSystemAction(),
+                        auditCode.getUserAction());
             }
-            catch (RepositoryErrorException e) {
-                // rollback and re-throw
-                g.tx().rollback();
-                throw e;
+            else {
+                try {
+                    log.info("Updating graph schema, if necessary");
+                    GraphOMRSGraphFactory.initialize(graph);
+                    controlVertex.property(schemaVersionPropertyName, GRAPH_SCHEMA_VERSION);
+                }
+                catch (RepositoryErrorException e) {
+                    // rollback and re-throw
+                    g.tx().rollback();
+                    throw e;
+                }
             }
         }
 
@@ -793,6 +863,31 @@ public class GraphOMRSGraphFactory {
     }
 
 
+    // Return true if the control vertex records that the schema was created by this version of the connector.
+    private static boolean isSchemaCurrent(Vertex controlVertex) {
+
+        VertexProperty schemaVersionProperty = controlVertex.property(schemaVersionPropertyName);
+        if (schemaVersionProperty != null && schemaVersionProperty.isPresent()) {
+            Object schemaVersion = schemaVersionProperty.value();
+            return schemaVersion instanceof Integer && (Integer) schemaVersion == GRAPH_SCHEMA_VERSION;
+        }
+        return false;
+    }
+
+
+    // Return the value of a configuration property as a string, or the default value if it is not set.
+    private static String getStringProperty(Map<String, Object> configurationProperties, String propertyName, String defaultValue) {
+
+        if (configurationProperties != null) {
+            Object propertyValue = configurationProperties.get(propertyName);
+            if (propertyValue != null) {
+                return propertyValue.toString();
+            }
+        }
+        return defaultValue;
+    }
+
+
     private static boolean createControlIndex() {
 
         final String methodName = "createControlIndex";
@@ -927,18 +1022,15 @@ public class GraphOMRSGraphFactory {
             log.info("Opened graph repository: graph created at {} by metadataCollectionId {}, last opened at {}",
                     creationDateString, metadataCollectionIdString, lastOpenDateString);
 
-            // Ensure graph schema is up to date
-            log.info("Ensuring graph schema is up to date");
+            // The graph schema is brought up to date by the caller, so just update the lastOpenDate
             try {
-                GraphOMRSGraphFactory.initialize(graph);
-                // Update the lastOpenDate
                 Date now = new Date();
                 controlVertex.property("lastOpenDate", now);
                 ret = true;
 
             }
             catch (Exception e) {
-                log.error("Graph initialization failed, exception {}", e.getMessage());
+                log.error("Update of control vertex failed, exception {}", e.getMessage());
                 ret = false;
             }
 
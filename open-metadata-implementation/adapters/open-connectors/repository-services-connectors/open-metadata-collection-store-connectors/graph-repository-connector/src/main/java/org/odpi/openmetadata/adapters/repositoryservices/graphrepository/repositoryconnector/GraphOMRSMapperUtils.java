@@ -4,17 +4,29 @@ package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.reposi
 
 
 
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationOrigin;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -200,4 +212,209 @@ public class GraphOMRSMapperUtils {
 
 
 
+    // Write the properties of an instance to its vertex or edge.  This is a full property update - any property defined
+    // by the type that is not in the instanceProperties is removed.  Primitive values are stored as native properties so
+    // they can be indexed and read back without parsing; the rest are serialized under the nonPrimitivePropertiesKey.
+    public static void writeInstanceProperties(Element              element,
+                                               InstanceProperties   instanceProperties,
+                                               TypeDef              typeDef,
+                                               String               serializedPropertiesKey,
+                                               String               nonPrimitivePropertiesKey,
+                                               String               repositoryName,
+                                               OMRSRepositoryHelper repositoryHelper,
+                                               String               methodName)
+            throws IOException
+    {
+        Map<String,String> qualifiedPropertyNames = getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+        List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
+
+        InstanceProperties nonPrimitiveProperties = new InstanceProperties();
+        nonPrimitiveProperties.setEffectiveFromTime(instanceProperties.getEffectiveFromTime());
+        nonPrimitiveProperties.setEffectiveToTime(instanceProperties.getEffectiveToTime());
+
+        if (propertiesDef != null) {
+            for (TypeDefAttribute propertyDef : propertiesDef) {
+                String propertyName = propertyDef.getAttributeName();
+                String qualifiedPropName = qualifiedPropertyNames.get(propertyName);
+                // Get the specified value for this property from instanceProperties - uses non-qualified name
+                InstancePropertyValue ipv = instanceProperties.getPropertyValue(propertyName);
+                Object primValue = null;
+
+                if (ipv != null) {
+                    if (ipv.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE) {
+                        primValue = ((PrimitivePropertyValue) ipv).getPrimitiveValue();
+                    }
+                    else {
+                        log.debug("{} non-primitive instance property {}", methodName, propertyName);
+                        nonPrimitiveProperties.setProperty(propertyName, ipv);
+                    }
+                }
+
+                // This uses the qualified property name - so that graph index property keys are finer grained which speeds up index
+                // enablement and will also make lookups faster.
+                if (primValue != null) {
+                    element.property(qualifiedPropName, primValue);
+                }
+                else {
+                    removeElementProperty(element, qualifiedPropName);
+                }
+            }
+        }
+
+        // Properties written in the earlier layout are replaced
+        removeElementProperty(element, serializedPropertiesKey);
+
+        if ((nonPrimitiveProperties.getPropertyCount() > 0)
+                || (nonPrimitiveProperties.getEffectiveFromTime() != null)
+                || (nonPrimitiveProperties.getEffectiveToTime() != null)) {
+            element.property(nonPrimitivePropertiesKey, OMRSJSONSerializer.writeValueAsString(nonPrimitiveProperties));
+        }
+        else {
+            removeElementProperty(element, nonPrimitivePropertiesKey);
+        }
+    }
+
+
+
+    // Read the properties of an instance from its vertex or edge, returning null if it has none.  When uniqueOnly is set
+    // only the properties that the type defines as unique are returned, and the serialized properties are only parsed
+    // if one of those is not a primitive - so an EntityProxy is normally built without parsing anything.
+    public static InstanceProperties readInstanceProperties(Element              element,
+                                                            TypeDef              typeDef,
+                                                            boolean              uniqueOnly,
+                                                            String               serializedPropertiesKey,
+                                                            String               nonPrimitivePropertiesKey,
+                                                            String               repositoryName,
+                                                            OMRSRepositoryHelper repositoryHelper,
+                                                            String               methodName)
+            throws IOException
+    {
+        List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
+
+        // An instance written in the earlier layout has all of its properties serialized together
+        String serializedProperties = (String) getElementProperty(element, serializedPropertiesKey);
+        if (serializedProperties != null) {
+            InstanceProperties instanceProperties = OMRSJSONSerializer.readValue(serializedProperties, InstanceProperties.class);
+            if (!uniqueOnly) {
+                return instanceProperties;
+            }
+
+            InstanceProperties uniqueProperties = new InstanceProperties();
+            if (propertiesDef != null) {
+                for (TypeDefAttribute propertyDef : propertiesDef) {
+                    if (propertyDef != null && propertyDef.isUnique() && propertyDef.getAttributeName() != null) {
+                        InstancePropertyValue ipv = instanceProperties.getPropertyValue(propertyDef.getAttributeName());
+                        if (ipv != null) {
+                            uniqueProperties.setProperty(propertyDef.getAttributeName(), ipv);
+                        }
+                    }
+                }
+            }
+            return uniqueProperties.getPropertyCount() > 0 ? uniqueProperties : null;
+        }
+
+        Map<String,String> qualifiedPropertyNames = getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+        InstanceProperties instanceProperties = new InstanceProperties();
+        InstanceProperties nonPrimitiveProperties = null;
+        boolean nonPrimitivePropertiesRead = false;
+
+        if (!uniqueOnly) {
+            nonPrimitiveProperties = readNonPrimitiveProperties(element, nonPrimitivePropertiesKey);
+            nonPrimitivePropertiesRead = true;
+            if (nonPrimitiveProperties != null) {
+                instanceProperties.setEffectiveFromTime(nonPrimitiveProperties.getEffectiveFromTime());
+                instanceProperties.setEffectiveToTime(nonPrimitiveProperties.getEffectiveToTime());
+            }
+        }
+
+        if (propertiesDef != null) {
+            for (TypeDefAttribute propertyDef : propertiesDef) {
+                if (propertyDef == null || propertyDef.getAttributeName() == null || (uniqueOnly && !propertyDef.isUnique())) {
+                    continue;
+                }
+
+                String propertyName = propertyDef.getAttributeName();
+                PrimitiveDefCategory primitiveDefCategory = getPrimitiveDefCategory(propertyDef);
+                Object primValue = getElementProperty(element, qualifiedPropertyNames.get(propertyName));
+
+                if (primValue != null) {
+                    PrimitivePropertyValue ppv = new PrimitivePropertyValue();
+                    if (primitiveDefCategory != null) {
+                        ppv.setPrimitiveDefCategory(primitiveDefCategory);
+                        ppv.setTypeName(primitiveDefCategory.getName());
+                        ppv.setTypeGUID(primitiveDefCategory.getGUID());
+                    }
+                    ppv.setPrimitiveValue(primValue);
+                    instanceProperties.setProperty(propertyName, ppv);
+                }
+                else if (primitiveDefCategory == null) {
+                    // Only properties that are not primitives are serialized
+                    if (!nonPrimitivePropertiesRead) {
+                        nonPrimitiveProperties = readNonPrimitiveProperties(element, nonPrimitivePropertiesKey);
+                        nonPrimitivePropertiesRead = true;
+                    }
+                    if (nonPrimitiveProperties != null && nonPrimitiveProperties.getPropertyValue(propertyName) != null) {
+                        instanceProperties.setProperty(propertyName, nonPrimitiveProperties.getPropertyValue(propertyName));
+                    }
+                }
+            }
+        }
+
+        if ((instanceProperties.getPropertyCount() == 0)
+                && (instanceProperties.getEffectiveFromTime() == null)
+                && (instanceProperties.getEffectiveToTime() == null)) {
+            return null;
+        }
+        return instanceProperties;
+    }
+
+
+    private static InstanceProperties readNonPrimitiveProperties(Element element, String nonPrimitivePropertiesKey)
+            throws IOException
+    {
+        String serializedProperties = (String) getElementProperty(element, nonPrimitivePropertiesKey);
+        if (serializedProperties == null) {
+            return null;
+        }
+        return OMRSJSONSerializer.readValue(serializedProperties, InstanceProperties.class);
+    }
+
+
+    // Return the primitive category of an attribute, or null if the attribute is not a primitive
+    private static PrimitiveDefCategory getPrimitiveDefCategory(TypeDefAttribute propertyDef)
+    {
+        AttributeTypeDef attributeType = propertyDef.getAttributeType();
+        if (attributeType instanceof PrimitiveDef && attributeType.getCategory() == AttributeTypeDefCategory.PRIMITIVE) {
+            return ((PrimitiveDef) attributeType).getPrimitiveDefCategory();
+        }
+        return null;
+    }
+
+
+    private static Object getElementProperty(Element element, String propName)
+    {
+        if (propName == null) {
+            return null;
+        }
+        Property property = element.property(propName);
+        if (property == null || !property.isPresent())
+            return null;
+        else
+            return property.value();
+    }
+
+
+    private static void removeElementProperty(Element element, String propName)
+    {
+        if (propName == null) {
+            return;
+        }
+        Property property = element.property(propName);
+        if (property != null && property.isPresent()) {
+            property.remove();
+        }
+    }
+
+
+
 }
@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -56,13 +57,16 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
      * @param repositoryHelper     - class used to build type definitions and instances.
      * @param repositoryValidator  - class used to validate type definitions and instances.
      * @param metadataCollectionId - unique Identifier of the metadata collection Id.
+     * @param auditLog             - audit log for the repository.
+     * @param configurationProperties - optional configuration properties from the connection (may be null).
      */
     public GraphOMRSMetadataCollection(GraphOMRSRepositoryConnector parentConnector,
                                        String                       repositoryName,
                                        OMRSRepositoryHelper         repositoryHelper,
                                        OMRSRepositoryValidator      repositoryValidator,
                                        String                       metadataCollectionId,
-                                       OMRSAuditLog                 auditLog)
+                                       OMRSAuditLog                 auditLog,
+                                       Map<String, Object>          configurationProperties)
 
 
     {
@@ -82,7 +86,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         this.auditLog = auditLog;
 
         try {
-            this.graphStore = new GraphOMRSMetadataStore(metadataCollectionId, repositoryName, repositoryHelper, auditLog);
+            this.graphStore = new GraphOMRSMetadataStore(metadataCollectionId, repositoryName, repositoryHelper, auditLog, configurationProperties);
         }
         catch(RepositoryErrorException e) {
             log.error("{} could not create graph metadata collection for repository name {}", methodName, repositoryName);
@@ -376,6 +380,46 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getEntitiesDetail
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            UserNotAuthorizedException
+    {
+        final String methodName = "getEntitiesDetail";
+
+        if (guids == null) {
+            return null;
+        }
+
+        /*
+         * Validate parameters
+         */
+        for (String guid : guids) {
+            super.getInstanceParameterValidation(userId, guid, methodName);
+        }
+
+        /*
+         * Perform operation - all of the entities are retrieved in one traversal
+         */
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (EntityDetail entity : graphStore.getEntitiesDetailFromStore(guids)) {
+            if (entity.getStatus() != InstanceStatus.DELETED) {
+                entities.add(entity);
+            }
+        }
+
+        if (entities.isEmpty()) {
+            return null;
+        }
+
+        return entities;
+    }
+
+
     // addRelationship
     public Relationship addRelationship(String               userId,
                                         String               relationshipTypeGUID,
@@ -560,6 +604,46 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getRelationships
+    public List<Relationship> getRelationships(String       userId,
+                                               List<String> guids)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationships";
+
+        if (guids == null) {
+            return null;
+        }
+
+        /*
+         * Validate parameters
+         */
+        for (String guid : guids) {
+            super.getInstanceParameterValidation(userId, guid, methodName);
+        }
+
+        /*
+         * Process operation - all of the relationships are retrieved in one traversal
+         */
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (Relationship relationship : graphStore.getRelationshipsFromStore(guids)) {
+            if (relationship.getStatus() != InstanceStatus.DELETED) {
+                relationships.add(relationship);
+            }
+        }
+
+        if (relationships.isEmpty()) {
+            return null;
+        }
+
+        return relationships;
+    }
+
+
     // updateEntityStatus
     public EntityDetail updateEntityStatus(String           userId,
                                            String           entityGUID,
@@ -1162,6 +1246,85 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getRelationshipsForEntities
+    public List<Relationship> getRelationshipsForEntities(String                     userId,
+                                                          List<String>               entityGUIDs,
+                                                          String                     relationshipTypeGUID,
+                                                          List<InstanceStatus>       limitResultsByStatus,
+                                                          Date                       asOfTime)
+            throws
+            InvalidParameterException,
+            TypeErrorException,
+            RepositoryErrorException,
+            PropertyErrorException,
+            PagingErrorException,
+            FunctionNotSupportedException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipsForEntities";
+
+        if ((entityGUIDs == null) || (entityGUIDs.isEmpty())) {
+            return null;
+        }
+
+        /*
+         * Validate parameters
+         */
+        for (String entityGUID : entityGUIDs) {
+            super.getRelationshipsForEntityParameterValidation(userId,
+                    entityGUID,
+                    relationshipTypeGUID,
+                    0,
+                    limitResultsByStatus,
+                    asOfTime,
+                    null,
+                    null,
+                    0);
+        }
+
+        if (asOfTime != null) {
+            OMRSErrorCode errorCode = OMRSErrorCode.METHOD_NOT_IMPLEMENTED;
+
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(methodName,
+                    this.getClass().getName(),
+                    repositoryName);
+
+            throw new FunctionNotSupportedException(errorCode.getHTTPErrorCode(),
+                    this.getClass().getName(),
+                    methodName,
+                    errorMessage,
+                    errorCode.getSystemAction(),
+                    errorCode.getUserAction());
+        }
+
+        /*
+         * Perform operation - the relationships of all of the entities are retrieved in one traversal
+         */
+        List<Relationship> filteredRelationships = new ArrayList<>();
+
+        for (Relationship relationship : graphStore.getRelationshipsForEntitiesFromStore(entityGUIDs)) {
+
+            if ((relationship != null) && (relationship.getStatus() != InstanceStatus.DELETED)) {
+
+                // filter results according to status filter parameter
+                if (limitResultsByStatus == null || limitResultsByStatus.contains(relationship.getStatus())) {
+
+                    // filter by typeGUID if necessary
+                    if (relationshipTypeGUID == null || relationshipTypeGUID.equals(relationship.getType().getTypeDefGUID())) {
+                        filteredRelationships.add(relationship);
+                    }
+                }
+            }
+        }
+
+        if (filteredRelationships.isEmpty()) {
+            return null;
+        }
+
+        return filteredRelationships;
+    }
+
+
     // findEntitiesByProperty
     public List<EntityDetail> findEntitiesByProperty(String                 userId,
                                                      String                 entityTypeGUID,
@@ -1506,8 +1669,6 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          * Perform operation
          */
 
-        List<EntityDetail> returnEntities = null;
-
         // Include subtypes
 
         String specifiedTypeName = null;
@@ -1518,12 +1679,11 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         TypeDefGallery activeTypes = repositoryHelper.getActiveTypeDefGallery();
         List<TypeDef> allTypeDefs = activeTypes.getTypeDefs();
+        List<TypeDef> searchTypeDefs = new ArrayList<>();
 
         for (TypeDef typeDef : allTypeDefs) {
             if (typeDef.getCategory() == TypeDefCategory.ENTITY_DEF) {
 
-                log.info("{}: checking entity type {}", methodName, typeDef.getName());
-
                 String actualTypeName = typeDef.getName();
 
                 // If entityTypeGUID parameter is not null there is an expected type, so check whether the
@@ -1533,52 +1693,25 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
                     boolean typeMatch = repositoryHelper.isTypeOf(metadataCollectionId, actualTypeName, specifiedTypeName);
                     if (!typeMatch) {
-                        log.info("{}: not searching entity type {} because not a subtype of {}", methodName, actualTypeName, specifiedTypeName);
+                        log.debug("{}: not searching entity type {} because not a subtype of {}", methodName, actualTypeName, specifiedTypeName);
                         continue;
                     }
-                    log.info("{}: continuing with search for entity type {} because it is a subtype of {}", methodName, actualTypeName, specifiedTypeName);
 
                 }
 
-                InstanceProperties matchProperties = graphStore.constructMatchPropertiesForSearchCriteria(typeDef, searchCriteria, GraphOMRSConstants.ElementType.Vertex);
-
-
-                // Do not tolerate substring matches - instead always the regex must match the whole value - i.e. set fullMatch parameter to true.
-                List<EntityDetail> entitiesForCurrentType = graphStore.findEntitiesByProperty(actualTypeName, matchProperties, MatchCriteria.ANY, true);
-
-
-                if (entitiesForCurrentType != null && !entitiesForCurrentType.isEmpty()) {
-                    if (returnEntities == null) {
-                        returnEntities = new ArrayList<>();
-                    }
-                    log.info("{}: for type {} found {} entities", methodName, typeDef.getName(), entitiesForCurrentType.size());
-                    returnEntities.addAll(entitiesForCurrentType);
-                } else {
-                    log.info("{}: for type {} found no entities", methodName, typeDef.getName());
-                }
-
+                searchTypeDefs.add(typeDef);
             }
         }
 
-        // Eliminate soft deleted entities and apply status and classification filtering if any was requested
-        if (returnEntities ==  null) {
-            return null;
-        }
-        else {
-            List<EntityDetail> retainedEntities = new ArrayList<>();
-            for (EntityDetail entity : returnEntities) {
-                if (entity != null) {
-                    if ((entity.getStatus() != InstanceStatus.DELETED)
-                            && (repositoryValidator.verifyInstanceHasRightStatus(limitResultsByStatus, entity))
-                            && (repositoryValidator.verifyEntityIsClassified(limitResultsByClassification, entity))) {
-
-                        retainedEntities.add(entity);
-                    }
-                }
-            }
-
-            return repositoryHelper.formatEntityResults(retainedEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
-        }
+        // The type, status and classification filters, sequencing and paging are all applied by the graph in a single traversal
+        return graphStore.findEntitiesBySearchCriteria(searchTypeDefs,
+                                                       searchCriteria,
+                                                       limitResultsByStatus,
+                                                       limitResultsByClassification,
+                                                       sequencingProperty,
+                                                       sequencingOrder,
+                                                       fromEntityElement,
+                                                       pageSize);
     }
 
 
@@ -2869,6 +3002,91 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /**
+     * Save the entities and relationships supplied in the instance graph as a reference copies.
+     * The instances are validated and then passed to the graph store together so that they are saved in
+     * large transactions rather than one transaction per instance.
+     * Any instances from the home metadata collection are ignored.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param instances instances to save.
+     * @throws InvalidParameterException one of the instances is invalid or conflicts with a stored instance.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by the relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for this relationship's type.
+     * @throws EntityConflictException the new entity conflicts with an existing entity.
+     * @throws InvalidEntityException the new entity has invalid contents.
+     * @throws RelationshipConflictException the new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException the new relationship has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            EntityNotKnownException,
+            PropertyErrorException,
+            EntityConflictException,
+            RelationshipConflictException,
+            InvalidEntityException,
+            InvalidRelationshipException,
+            FunctionNotSupportedException,
+            UserNotAuthorizedException
+    {
+        final String  methodName                = "saveInstanceReferenceCopies";
+        final String  entityParameterName       = "entity";
+        final String  relationshipParameterName = "relationship";
+
+        if (instances == null)
+        {
+            return;
+        }
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        /*
+         * Validate parameters
+         */
+        if (instances.getEntities() != null)
+        {
+            for (EntityDetail entity : instances.getEntities())
+            {
+                if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
+                {
+                    super.saveReferenceInstanceParameterValidation(userId, entity, entityParameterName, methodName);
+                    entities.add(entity);
+                }
+            }
+        }
+
+        if (instances.getRelationships() != null)
+        {
+            for (Relationship relationship : instances.getRelationships())
+            {
+                if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                {
+                    super.saveReferenceInstanceParameterValidation(userId, relationship, relationshipParameterName, methodName);
+                    relationships.add(relationship);
+                }
+            }
+        }
+
+        /*
+         * Save the instances
+         */
+        graphStore.saveInstanceReferenceCopiesToStore(entities, relationships);
+    }
+
+
     public void purgeRelationshipReferenceCopy(String   userId,
                                                String   relationshipGUID,
                                                String   typeDefGUID,
@@ -3,6 +3,7 @@
 
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -15,6 +16,7 @@ import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.attribute.Text;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
@@ -33,6 +35,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.InstanceSequencingComparator;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityProxyOnlyException;
@@ -42,7 +45,10 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorExceptio
 
 import static org.apache.tinkerpop.gremlin.process.traversal.P.within;
 import static org.apache.tinkerpop.gremlin.process.traversal.P.without;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.coalesce;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.has;
 import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.values;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSGraphFactory.corePropertyMixedIndexMappings;
@@ -55,6 +61,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -79,6 +86,10 @@ class GraphOMRSMetadataStore {
     private GraphOMRSEntityMapper entityMapper;
     private GraphOMRSClassificationMapper classificationMapper;
 
+    // Number of reference copies saved in each transaction by saveInstanceReferenceCopiesToStore
+    private static final int DEFAULT_BULK_LOAD_BATCH_SIZE = 1000;
+    private int bulkLoadBatchSize = DEFAULT_BULK_LOAD_BATCH_SIZE;
+
 
     /**
      * Default constructor
@@ -86,7 +97,8 @@ class GraphOMRSMetadataStore {
     public GraphOMRSMetadataStore(String               metadataCollectionId,
                                   String               repositoryName,
                                   OMRSRepositoryHelper repositoryHelper,
-                                  OMRSAuditLog         auditLog)
+                                  OMRSAuditLog         auditLog,
+                                  Map<String, Object>  configurationProperties)
         throws
             RepositoryErrorException
     {
@@ -100,7 +112,7 @@ class GraphOMRSMetadataStore {
 
         try {
             synchronized (GraphOMRSMetadataStore.class) {
-                instanceGraph = GraphOMRSGraphFactory.open(metadataCollectionId, repositoryName, auditLog);
+                instanceGraph = GraphOMRSGraphFactory.open(metadataCollectionId, repositoryName, auditLog, configurationProperties);
             }
         }
         catch (RepositoryErrorException e) {
@@ -112,6 +124,13 @@ class GraphOMRSMetadataStore {
         this.entityMapper = new GraphOMRSEntityMapper(metadataCollectionId, repositoryName, repositoryHelper);
         this.classificationMapper = new GraphOMRSClassificationMapper(metadataCollectionId, repositoryName, repositoryHelper);
 
+        if (configurationProperties != null) {
+            Object batchSize = configurationProperties.get(GraphOMRSRepositoryConnectorProvider.bulkLoadBatchSizePropertyName);
+            if (batchSize != null) {
+                bulkLoadBatchSize = Math.max(1, Integer.parseInt(batchSize.toString()));
+            }
+        }
+
     }
 
 
@@ -546,6 +565,61 @@ class GraphOMRSMetadataStore {
         return entity;
     }
 
+    /*
+     * Retrieve a batch of entities with a single traversal rather than one traversal (and transaction) per entity.
+     * Entities that are not found, or are only proxies, are left out of the result, which follows the order of the
+     * requested GUIDs.
+     */
+    synchronized List<EntityDetail> getEntitiesDetailFromStore(List<String> guids)
+            throws
+            RepositoryErrorException
+    {
+        String methodName = "getEntitiesDetailFromStore";
+
+        Map<String, EntityDetail> entitiesByGUID = new HashMap<>();
+
+        // Look in the graph
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, within(guids));
+
+        while (gt.hasNext()) {
+            Vertex vertex = gt.next();
+            log.debug("{} found entity vertex {}", methodName, vertex);
+
+            try {
+                // Proxies are not returned
+                if (!Boolean.TRUE.equals(entityMapper.isProxy(vertex))) {
+                    EntityDetail entity = new EntityDetail();
+                    entityMapper.mapVertexToEntityDetail(vertex, entity);
+                    entitiesByGUID.put(entity.getGUID(), entity);
+                }
+            }
+            catch (EntityProxyOnlyException e) {
+                log.debug("{} entity vertex {} is only a proxy", methodName, vertex);
+            }
+            catch (RepositoryErrorException e) {
+                log.error("{} Caught exception {}", methodName, e.getMessage());
+                g.tx().rollback();
+
+                throw getRepositoryErrorException(GraphOMRSErrorCode.ENTITY_NOT_FOUND, entityMapper.getEntityGUID(vertex), methodName);
+            }
+        }
+
+        g.tx().commit();
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (String guid : guids) {
+            EntityDetail entity = entitiesByGUID.remove(guid);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+
+        return entities;
+    }
+
     synchronized EntitySummary getEntitySummaryFromStore(String guid)
             throws
             EntityNotKnownException,
@@ -1037,6 +1111,249 @@ class GraphOMRSMetadataStore {
 
 
 
+    /*
+     * Save a batch of reference copies.  This has the same effect as calling saveEntityReferenceCopyToStore for each
+     * of the entities and then saveRelationshipReferenceCopyToStore for each of the relationships except that:
+     *  - up to bulkLoadBatchSize instances are saved in each transaction rather than one,
+     *  - the vertex id of each entity saved or looked up is remembered for the rest of the call so the relationships
+     *    between the entities do not look up their ends in the GUID index again, and
+     *  - an instance that conflicts with the stored copy (different home) is skipped rather than abandoning the
+     *    rest of the batch.  The first conflict is reported once all of the other instances have been saved.
+     * An unexpected error from a mapper rolls back the current transaction; transactions already committed are kept.
+     */
+    synchronized void saveInstanceReferenceCopiesToStore(List<EntityDetail> entities,
+                                                         List<Relationship> relationships)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException
+    {
+
+        final String methodName = "saveInstanceReferenceCopiesToStore";
+
+        Map<String, Object>       entityVertexIds        = new HashMap<>();
+        InvalidParameterException firstConflict          = null;
+        int                       instancesInTransaction = 0;
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        if (entities != null) {
+            for (EntityDetail entity : entities) {
+
+                Vertex vertex = findEntityVertex(g, entity.getGUID(), entityVertexIds);
+
+                if (vertex != null) {
+                    String vertexMetadataCollectionId = entityMapper.getEntityMetadataCollectionId(vertex);
+
+                    if (   metadataCollectionId.equals(entity.getMetadataCollectionId())
+                        || !vertexMetadataCollectionId.equals(entity.getMetadataCollectionId()) ) {
+
+                        log.error("{} found an existing vertex from a different source, with metadataCollectionId {}", methodName, vertexMetadataCollectionId);
+                        if (firstConflict == null) {
+                            firstConflict = getConflictException(GraphOMRSErrorCode.ENTITY_ALREADY_EXISTS, entity.getGUID(), methodName);
+                        }
+                        continue;
+                    }
+                }
+
+                try {
+                    if (vertex == null) {
+                        log.debug("{} create vertex for entity {}", methodName, entity.getGUID());
+                        vertex = g.addV("Entity").next();
+                        entityMapper.mapEntityDetailToVertex(entity, vertex);
+                        addClassificationVertices(entity.getClassifications(), vertex, g);
+                    } else {
+                        // The mapping clears the proxy flag if the vertex was a proxy
+                        entityMapper.mapEntityDetailToVertex(entity, vertex);
+                        updateEntityClassifications(entity, vertex, g);
+                    }
+                } catch (Exception e) {
+                    log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+                    g.tx().rollback();
+                    throw getRepositoryErrorException(GraphOMRSErrorCode.ENTITY_NOT_CREATED, entity.getGUID(), methodName);
+                }
+
+                entityVertexIds.put(entity.getGUID(), vertex.id());
+
+                if (++instancesInTransaction >= bulkLoadBatchSize) {
+                    log.debug("{} commit batch of {} instances", methodName, instancesInTransaction);
+                    g.tx().commit();
+                    instancesInTransaction = 0;
+                }
+            }
+        }
+
+        if (relationships != null) {
+            for (Relationship relationship : relationships) {
+
+                EntityProxy entityOne = relationship.getEntityOneProxy();
+                EntityProxy entityTwo = relationship.getEntityTwoProxy();
+
+                if (entityOne == null || entityTwo == null) {
+                    log.error("{} relationship {} is missing an end", methodName, relationship.getGUID());
+                    if (firstConflict == null) {
+                        firstConflict = getConflictException(GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED, relationship.getGUID(), methodName);
+                    }
+                    continue;
+                }
+
+                Vertex vertexOne;
+                Vertex vertexTwo;
+                Edge   edge;
+
+                try {
+                    vertexOne = getEntityVertexForRelationship(g, entityOne, entityVertexIds);
+                    vertexTwo = getEntityVertexForRelationship(g, entityTwo, entityVertexIds);
+                } catch (Exception e) {
+                    log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+                    g.tx().rollback();
+                    throw getRepositoryErrorException(GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED, relationship.getGUID(), methodName);
+                }
+
+                if (vertexOne == null || vertexTwo == null) {
+                    log.error("{} found an existing vertex from a different source for an end of relationship {}", methodName, relationship.getGUID());
+                    if (firstConflict == null) {
+                        firstConflict = getConflictException(GraphOMRSErrorCode.ENTITY_ALREADY_EXISTS,
+                                                             vertexOne == null ? entityOne.getGUID() : entityTwo.getGUID(),
+                                                             methodName);
+                    }
+                    continue;
+                }
+
+                Iterator<Edge> edgeIt = g.E().hasLabel("Relationship").has(PROPERTY_KEY_RELATIONSHIP_GUID, relationship.getGUID());
+
+                if (edgeIt.hasNext()) {
+                    edge = edgeIt.next();
+
+                    String edgeMetadataCollectionId = relationshipMapper.getRelationshipMetadataCollectionId(edge);
+
+                    if (    metadataCollectionId.equals(relationship.getMetadataCollectionId())
+                        || !edgeMetadataCollectionId.equals(relationship.getMetadataCollectionId()) ) {
+
+                        log.error("{} found an existing edge from a different source, with metadataCollectionId {}", methodName, edgeMetadataCollectionId);
+                        if (firstConflict == null) {
+                            firstConflict = getConflictException(GraphOMRSErrorCode.RELATIONSHIP_ALREADY_EXISTS, relationship.getGUID(), methodName);
+                        }
+                        continue;
+                    }
+                } else {
+                    edge = vertexOne.addEdge("Relationship", vertexTwo);
+                }
+
+                try {
+                    relationshipMapper.mapRelationshipToEdge(relationship, edge);
+                } catch (Exception e) {
+                    log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
+                    g.tx().rollback();
+                    throw getRepositoryErrorException(GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED, relationship.getGUID(), methodName);
+                }
+
+                if (++instancesInTransaction >= bulkLoadBatchSize) {
+                    log.debug("{} commit batch of {} instances", methodName, instancesInTransaction);
+                    g.tx().commit();
+                    instancesInTransaction = 0;
+                }
+            }
+        }
+
+        g.tx().commit();
+
+        if (firstConflict != null) {
+            throw firstConflict;
+        }
+    }
+
+
+    // Find the vertex for an entity, using the vertex id if the entity has already been seen in this batch.
+    private Vertex findEntityVertex(GraphTraversalSource g, String guid, Map<String, Object> entityVertexIds)
+    {
+        Iterator<Vertex> vertexIt;
+
+        Object vertexId = entityVertexIds.get(guid);
+        if (vertexId != null) {
+            vertexIt = g.V(vertexId);
+        } else {
+            vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, guid);
+        }
+
+        if (vertexIt.hasNext()) {
+            return vertexIt.next();
+        }
+        return null;
+    }
+
+
+    // Return the vertex for the end of a relationship, creating a proxy if the entity is not known.
+    // Null means that the existing vertex has a different home to the proxy.
+    private Vertex getEntityVertexForRelationship(GraphTraversalSource g, EntityProxy entityProxy, Map<String, Object> entityVertexIds)
+            throws
+            RepositoryErrorException
+    {
+        Vertex vertex = findEntityVertex(g, entityProxy.getGUID(), entityVertexIds);
+
+        if (vertex != null) {
+            String vertexMetadataCollectionId = entityMapper.getEntityMetadataCollectionId(vertex);
+            if (!vertexMetadataCollectionId.equals(entityProxy.getMetadataCollectionId())) {
+                return null;
+            }
+        } else {
+            vertex = g.addV("Entity").next();
+            entityMapper.mapEntityProxyToVertex(entityProxy, vertex);
+            addClassificationVertices(entityProxy.getClassifications(), vertex, g);
+        }
+
+        entityVertexIds.put(entityProxy.getGUID(), vertex.id());
+
+        return vertex;
+    }
+
+
+    // Create a vertex per classification and link them to the entity vertex
+    private void addClassificationVertices(List<Classification> classifications, Vertex vertex, GraphTraversalSource g)
+            throws
+            RepositoryErrorException
+    {
+        if (classifications != null) {
+            for (Classification classification : classifications) {
+                Vertex classificationVertex = g.addV("Classification").next();
+                classificationMapper.mapClassificationToVertex(classification, classificationVertex);
+                vertex.addEdge("Classifier", classificationVertex);
+            }
+        }
+    }
+
+
+    private InvalidParameterException getConflictException(GraphOMRSErrorCode errorCode, String guid, String methodName)
+    {
+        String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(guid, methodName,
+                this.getClass().getName(),
+                repositoryName);
+
+        return new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                this.getClass().getName(),
+                methodName,
+                errorMessage,
+                errorCode.getSystemAction(),
+                errorCode.getUserAction());
+    }
+
+
+    private RepositoryErrorException getRepositoryErrorException(GraphOMRSErrorCode errorCode, String guid, String methodName)
+    {
+        String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(guid, methodName,
+                this.getClass().getName(),
+                repositoryName);
+
+        return new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                this.getClass().getName(),
+                methodName,
+                errorMessage,
+                errorCode.getSystemAction(),
+                errorCode.getUserAction());
+    }
+
+
+
+
     protected synchronized Relationship getRelationshipFromStore(String guid)
             throws RepositoryErrorException
     {
@@ -1107,6 +1424,75 @@ class GraphOMRSMetadataStore {
 
     }
 
+    /*
+     * Retrieve a batch of relationships with a single traversal rather than one traversal (and transaction) per
+     * relationship. Relationships that are not found are left out of the result, which follows the order of the
+     * requested GUIDs.
+     */
+    protected synchronized List<Relationship> getRelationshipsFromStore(List<String> guids)
+            throws RepositoryErrorException
+    {
+        String methodName = "getRelationshipsFromStore";
+
+        Map<String, Relationship> relationshipsByGUID = new HashMap<>();
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        Iterator<Edge> edgeIt = g.E().hasLabel("Relationship").has(PROPERTY_KEY_RELATIONSHIP_GUID, within(guids));
+        while (edgeIt.hasNext()) {
+            Edge edge = edgeIt.next();
+            log.debug("{} found existing edge {}", methodName, edge);
+
+            Relationship relationship = new Relationship();
+
+            // Map the properties
+            relationshipMapper.mapEdgeToRelationship(edge, relationship);
+
+            // Set the relationship ends...
+            Vertex vertex = null;
+            try {
+
+                vertex = edge.outVertex();
+
+                if (vertex != null) {
+                    EntityProxy entityOneProxy = new EntityProxy();
+                    entityMapper.mapVertexToEntityProxy(vertex, entityOneProxy);
+                    relationship.setEntityOneProxy(entityOneProxy);
+                }
+
+                vertex = edge.inVertex();
+
+                if (vertex != null) {
+                    EntityProxy entityTwoProxy = new EntityProxy();
+                    entityMapper.mapVertexToEntityProxy(vertex, entityTwoProxy);
+                    relationship.setEntityTwoProxy(entityTwoProxy);
+                }
+
+            } catch (Exception e) {
+                log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+                g.tx().rollback();
+
+                throw getRepositoryErrorException(GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND, entityMapper.getEntityGUID(vertex), methodName);
+            }
+
+            relationshipsByGUID.put(relationship.getGUID(), relationship);
+        }
+
+        g.tx().commit();
+
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (String guid : guids) {
+            Relationship relationship = relationshipsByGUID.remove(guid);
+            if (relationship != null) {
+                relationships.add(relationship);
+            }
+        }
+
+        return relationships;
+    }
+
+
 
     synchronized void updateEntityInStore(EntityDetail entity)
             throws
@@ -1548,6 +1934,90 @@ class GraphOMRSMetadataStore {
     }
 
 
+    /*
+     * Retrieve the relationships of a batch of entities. The entity vertices are found with a single traversal
+     * and their edges are read in the same transaction, rather than one traversal (and transaction) per entity.
+     * Entities that are not found or are deleted are ignored. Each relationship is returned once, grouped by the
+     * first requested entity it is attached to, in the order of the requested GUIDs.
+     */
+    synchronized List<Relationship> getRelationshipsForEntitiesFromStore(List<String> entityGUIDs)
+            throws
+            RepositoryErrorException
+    {
+        final String methodName = "getRelationshipsForEntitiesFromStore";
+
+        Map<String, List<Relationship>> relationshipsByEntityGUID = new HashMap<>();
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity")
+                                                 .has(PROPERTY_KEY_ENTITY_GUID, within(entityGUIDs))
+                                                 .not(has(PROPERTY_KEY_ENTITY_STATUS, InstanceStatus.DELETED.getOrdinal()));
+
+        while (gt.hasNext()) {
+            Vertex entityVertex = gt.next();
+            log.debug("{} found entity vertex {}", methodName, entityVertex);
+
+            List<Relationship> entityRelationships = new ArrayList<>();
+
+            Iterator<Edge> edges = entityVertex.edges(Direction.BOTH, "Relationship");
+            while (edges.hasNext()) {
+                Edge edge = edges.next();
+                log.debug("{} entity has edge {}", methodName, edge);
+
+                Relationship relationship = new Relationship();
+                relationshipMapper.mapEdgeToRelationship(edge, relationship);
+
+                // Set the relationship ends...
+                Vertex vertex = null;
+                try {
+
+                    vertex = edge.outVertex();
+
+                    if (vertex != null) {
+                        EntityProxy entityOneProxy = new EntityProxy();
+                        entityMapper.mapVertexToEntityProxy(vertex, entityOneProxy);
+                        relationship.setEntityOneProxy(entityOneProxy);
+                    }
+
+                    vertex = edge.inVertex();
+
+                    if (vertex != null) {
+                        EntityProxy entityTwoProxy = new EntityProxy();
+                        entityMapper.mapVertexToEntityProxy(vertex, entityTwoProxy);
+                        relationship.setEntityTwoProxy(entityTwoProxy);
+                    }
+
+                } catch (Exception e) {
+                    log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+                    g.tx().rollback();
+
+                    throw getRepositoryErrorException(GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND, entityMapper.getEntityGUID(vertex), methodName);
+                }
+
+                entityRelationships.add(relationship);
+            }
+
+            relationshipsByEntityGUID.put(entityMapper.getEntityGUID(entityVertex), entityRelationships);
+        }
+
+        g.tx().commit();
+
+        Map<String, Relationship> relationships = new LinkedHashMap<>();
+
+        for (String entityGUID : entityGUIDs) {
+            List<Relationship> entityRelationships = relationshipsByEntityGUID.get(entityGUID);
+            if (entityRelationships != null) {
+                for (Relationship relationship : entityRelationships) {
+                    relationships.putIfAbsent(relationship.getGUID(), relationship);
+                }
+            }
+        }
+
+        return new ArrayList<>(relationships.values());
+    }
+
+
     // findEntitiesByProperty
     List<EntityDetail> findEntitiesByProperty(String             typeDefName,
                                               InstanceProperties matchProperties,
@@ -1715,6 +2185,160 @@ class GraphOMRSMetadataStore {
     }
 
 
+    // findEntitiesBySearchCriteria
+    /*
+     * Find the entities of any of the supplied types that have a string property matching the search criteria.
+     * The whole request is compiled into one traversal - the type names, status and classification filters are
+     * applied in the graph and, unless the results are sequenced by an instance property, so are the ordering and
+     * paging.  This means only the requested page of vertices is mapped into entities.
+     *
+     * Properties of different types are stored under different qualified names so the vertices of every type are
+     * matched by the union of the search properties of all of the types.
+     */
+    List<EntityDetail> findEntitiesBySearchCriteria(List<TypeDef>         typeDefs,
+                                                    String                searchCriteria,
+                                                    List<InstanceStatus>  limitResultsByStatus,
+                                                    List<String>          limitResultsByClassification,
+                                                    String                sequencingProperty,
+                                                    SequencingOrder       sequencingOrder,
+                                                    int                   fromElement,
+                                                    int                   pageSize)
+    {
+
+        final String methodName = "findEntitiesBySearchCriteria";
+
+        List<String> typeNames = new ArrayList<>();
+        Map<String, DefaultGraphTraversal> propCriteria = new LinkedHashMap<>();
+
+        for (TypeDef typeDef : typeDefs) {
+            typeNames.add(typeDef.getName());
+
+            Map<String, String> qualifiedPropertyNames = GraphOMRSMapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+            InstanceProperties matchProperties = constructMatchPropertiesForSearchCriteria(typeDef, searchCriteria, GraphOMRSConstants.ElementType.Vertex);
+
+            Iterator<String> propNames = matchProperties.getPropertyNames();
+            while (propNames.hasNext()) {
+                GraphOMRSGraphFactory.MixedIndexMapping mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
+                String propName = propNames.next();
+                String qualifiedPropertyName = qualifiedPropertyNames.get(propName);
+                if (qualifiedPropertyName == null) {
+                    // Core property - see findEntitiesByProperty()
+                    qualifiedPropertyName = PROPERTY_KEY_PREFIX_ENTITY + propName;
+                    mapping = corePropertyMixedIndexMappings.get(qualifiedPropertyName);
+                }
+                if (!propCriteria.containsKey(qualifiedPropertyName)) {
+                    DefaultGraphTraversal t = new DefaultGraphTraversal();
+                    if (mapping == GraphOMRSGraphFactory.MixedIndexMapping.Text) {
+                        t = (DefaultGraphTraversal) t.has(qualifiedPropertyName, Text.textContainsRegex(searchCriteria));
+                    } else {
+                        // Always a full match of the regex - substring matches are not tolerated
+                        t = (DefaultGraphTraversal) t.has(qualifiedPropertyName, Text.textRegex(searchCriteria));
+                    }
+                    propCriteria.put(qualifiedPropertyName, t);
+                }
+            }
+        }
+
+        if (typeNames.isEmpty() || propCriteria.isEmpty()) {
+            log.debug("{} no searchable properties for types {}", methodName, typeNames);
+            return null;
+        }
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity")
+                .has(PROPERTY_KEY_ENTITY_TYPE_NAME, within(typeNames))
+                .has(PROPERTY_KEY_ENTITY_IS_PROXY, false)
+                .not(has(PROPERTY_KEY_ENTITY_STATUS, InstanceStatus.DELETED.getOrdinal()));
+
+        if (limitResultsByStatus != null) {
+            List<Integer> statusOrdinals = new ArrayList<>();
+            for (InstanceStatus status : limitResultsByStatus) {
+                if (status != null) {
+                    statusOrdinals.add(status.getOrdinal());
+                }
+            }
+            gt = gt.has(PROPERTY_KEY_ENTITY_STATUS, within(statusOrdinals));
+        }
+
+        if (limitResultsByClassification != null) {
+            // The entity must have at least one of the classifications
+            gt = gt.where(out("Classifier").has(PROPERTY_KEY_CLASSIFICATION_CLASSIFICATION_NAME, within(limitResultsByClassification)));
+        }
+
+        gt = gt.or(propCriteria.values().toArray(new DefaultGraphTraversal[0]));
+
+        // Ties are broken by GUID to keep the order consistent from one page to the next
+        boolean pageInGraph = true;
+        if (sequencingOrder != null) {
+            switch (sequencingOrder) {
+                case GUID:
+                    gt = gt.order().by(PROPERTY_KEY_ENTITY_GUID, Order.incr);
+                    break;
+                case CREATION_DATE_RECENT:
+                    gt = gt.order().by(PROPERTY_KEY_ENTITY_CREATE_TIME, Order.decr).by(PROPERTY_KEY_ENTITY_GUID, Order.incr);
+                    break;
+                case CREATION_DATE_OLDEST:
+                    gt = gt.order().by(PROPERTY_KEY_ENTITY_CREATE_TIME, Order.incr).by(PROPERTY_KEY_ENTITY_GUID, Order.incr);
+                    break;
+                case LAST_UPDATE_RECENT:
+                    // An entity that has never been updated was last changed when it was created
+                    gt = gt.order().by(coalesce(values(PROPERTY_KEY_ENTITY_UPDATE_TIME), values(PROPERTY_KEY_ENTITY_CREATE_TIME)), Order.decr).by(PROPERTY_KEY_ENTITY_GUID, Order.incr);
+                    break;
+                case LAST_UPDATE_OLDEST:
+                    gt = gt.order().by(coalesce(values(PROPERTY_KEY_ENTITY_UPDATE_TIME), values(PROPERTY_KEY_ENTITY_CREATE_TIME)), Order.incr).by(PROPERTY_KEY_ENTITY_GUID, Order.incr);
+                    break;
+                case PROPERTY_ASCENDING:
+                case PROPERTY_DESCENDING:
+                    // The property may have a different qualified name (or be missing) for each type so sort after mapping
+                    pageInGraph = (sequencingProperty == null);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (pageInGraph) {
+            gt = gt.range(fromElement, (pageSize == 0) ? -1 : fromElement + pageSize);
+        }
+
+        log.debug("{} traversal looks like this --> {} ", methodName, gt);
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        while (gt.hasNext()) {
+            Vertex vertex = gt.next();
+            log.debug("{} found vertex {}", methodName, vertex);
+
+            EntityDetail entityDetail = new EntityDetail();
+            try {
+                entityMapper.mapVertexToEntityDetail(vertex, entityDetail);
+                entities.add(entityDetail);
+            } catch (Exception e) {
+                log.error("{} caught exception from entity mapper, entity being ignored, {}", methodName, e.getMessage());
+            }
+        }
+
+        g.tx().commit();
+
+        if (!pageInGraph) {
+            new InstanceSequencingComparator(sequencingOrder, sequencingProperty).sort(entities);
+
+            if (fromElement >= entities.size()) {
+                return null;
+            }
+            int toElement = ((pageSize == 0) || (fromElement + pageSize > entities.size())) ? entities.size() : fromElement + pageSize;
+            entities = new ArrayList<>(entities.subList(fromElement, toElement));
+        }
+
+        if (entities.isEmpty()) {
+            return null;
+        }
+
+        return entities;
+    }
+
+
     // findRelationshipsByProperty
     List<Relationship> findRelationshipsByProperty(String             typeDefName,
                                                    InstanceProperties matchProperties,
@@ -4,31 +4,26 @@ package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.reposi
 
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Property;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
 
@@ -217,10 +212,9 @@ public class GraphOMRSRelationshipMapper {
 
         List<String> maintainedByList = relationship.getMaintainedBy();
         if (maintainedByList != null && !maintainedByList.isEmpty()) {
-            ObjectMapper objectMapper = new ObjectMapper();
             String jsonString;
             try {
-                jsonString = objectMapper.writeValueAsString(maintainedByList);
+                jsonString = OMRSJSONSerializer.writeValueAsString(maintainedByList);
                 edge.property(PROPERTY_KEY_RELATIONSHIP_MAINTAINED_BY, jsonString);
 
             } catch (Throwable exc) {
@@ -259,17 +253,21 @@ public class GraphOMRSRelationshipMapper {
 
         InstanceProperties instanceProperties = relationship.getProperties();
         if (instanceProperties != null) {
-            // First approach is to write properties as json - useful for handling collections and possibly for full text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonString;
+            // Primitive properties are stored natively - to support searches and reads without parsing - and any others are serialized.
+            // There is no need to qualify property names for relationships, as they do not have inheritance but for consistency and future proofing
+            // they are still qualified by type name.
             try {
-                jsonString = objectMapper.writeValueAsString(instanceProperties);
-                edge.property("relationshipProperties", jsonString);
+                String typeName = relationship.getType().getTypeDefName();
+                TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
+
+                GraphOMRSMapperUtils.writeInstanceProperties(edge, instanceProperties, typeDef,
+                        PROPERTY_KEY_RELATIONSHIP_SERIALIZED_PROPERTIES, PROPERTY_KEY_RELATIONSHIP_NON_PRIMITIVE_PROPERTIES,
+                        repositoryName, repositoryHelper, methodName);
 
             } catch (Throwable exc) {
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR;
 
-                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(methodName,
+                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(relationship.getGUID(), methodName,
                         this.getClass().getName(),
                         repositoryName);
 
@@ -280,49 +278,6 @@ public class GraphOMRSRelationshipMapper {
                         errorCode.getSystemAction(),
                         errorCode.getUserAction());
             }
-
-
-            // Secondly write all primitive properties as-is to support searches
-
-            String typeName = relationship.getType().getTypeDefName();
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-
-            // There is no need to qualify property names for relationships, as they do not have inheritance but for consistency and future proofing
-            // they are still qualified by type name.
-            // For the type of the entity, walk its type hierarchy and construct a map of short prop name -> qualified prop name.
-            Map<String,String> qualifiedPropertyNames = GraphOMRSMapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
-
-            // This is a full property update - any defined properties that are not in the instanceProperties are cleared.
-            List<TypeDefAttribute> propertiesDef = repositoryHelper.getAllPropertiesForTypeDef(repositoryName, typeDef, methodName);
-            for (TypeDefAttribute propertyDef : propertiesDef) {
-                String propertyName = propertyDef.getAttributeName();
-                String qualifiedPropName = qualifiedPropertyNames.get(propertyName);
-                // Get the specified value for this property from instanceProperties - uses non-qualified name
-                InstancePropertyValue ipv = instanceProperties.getPropertyValue(propertyName);
-                if (ipv != null) {
-                    // a value has been specified
-
-                    // This uses the qualified property name - so that graph index property keys are finer grained which speeds up index enablement and
-                    // will also make lookups faster.
-                    InstancePropertyCategory ipvCat = ipv.getInstancePropertyCategory();
-                    if (ipvCat == InstancePropertyCategory.PRIMITIVE) {
-                        // Primitives are stored directly in the graph
-                        PrimitivePropertyValue ppv = (PrimitivePropertyValue) ipv;
-                        Object primValue = ppv.getPrimitiveValue();
-                        edge.property(qualifiedPropName, primValue);
-                    } else {
-                        log.debug("{} non-primitive instance property {}", propertyName);
-                    }
-
-                } else {
-                    // no value has been specified - remove the property from the edge
-                    Property ep = edge.property(qualifiedPropName);
-                    if (ep != null) {
-                        ep.remove();
-                    }
-                }
-            }
         }
         else {
             log.debug("{} relationship has no properties", methodName);
@@ -396,9 +351,8 @@ public class GraphOMRSRelationshipMapper {
         // maintainedBy
         String maintainedByString = (String) getEdgeProperty(edge, PROPERTY_KEY_RELATIONSHIP_MAINTAINED_BY);
         if (maintainedByString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
             try {
-                List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
+                List<String> maintainedByList = (List<String>) OMRSJSONSerializer.readValue(maintainedByString, List.class);
                 log.debug("{} edge has deserialized maintainedBy list {}", methodName, maintainedByList);
                 relationship.setMaintainedBy(maintainedByList);
 
@@ -422,31 +376,27 @@ public class GraphOMRSRelationshipMapper {
 
 
         // relationshipProperties
-        String stringProps = (String) (getEdgeProperty(edge, "relationshipProperties"));
-        if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            try {
-                InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
-                log.debug("{} relationship has deserialized properties {}", methodName, instanceProperties);
-                relationship.setProperties(instanceProperties);
-
-            } catch (Throwable exc) {
-                GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR;
+        try {
+            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, relationship.getType().getTypeDefName());
+            InstanceProperties instanceProperties = GraphOMRSMapperUtils.readInstanceProperties(edge, typeDef, false,
+                    PROPERTY_KEY_RELATIONSHIP_SERIALIZED_PROPERTIES, PROPERTY_KEY_RELATIONSHIP_NON_PRIMITIVE_PROPERTIES,
+                    repositoryName, repositoryHelper, methodName);
+            log.debug("{} relationship has properties {}", methodName, instanceProperties);
+            relationship.setProperties(instanceProperties);
+
+        } catch (Throwable exc) {
+            GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR;
 
-                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(relationship.getGUID(), methodName,
-                        this.getClass().getName(),
-                        repositoryName);
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(relationship.getGUID(), methodName,
+                    this.getClass().getName(),
+                    repositoryName);
 
-                throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                        this.getClass().getName(),
-                        methodName,
-                        errorMessage,
-                        errorCode.getSystemAction(),
-                        errorCode.getUserAction());
-            }
-        }
-        else {
-            log.debug("{} relationship has no properties", methodName);
+            throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                    this.getClass().getName(),
+                    methodName,
+                    errorMessage,
+                    errorCode.getSystemAction(),
+                    errorCode.getUserAction());
         }
     }
 
@@ -40,7 +40,8 @@ public class GraphOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                                        repositoryHelper,
                                                                        repositoryValidator,
                                                                        metadataCollectionId,
-                                                                       auditLog);
+                                                                       auditLog,
+                                                                       connectionProperties == null ? null : connectionProperties.getConfigurationProperties());
         }
     }
 }
\ No newline at end of file
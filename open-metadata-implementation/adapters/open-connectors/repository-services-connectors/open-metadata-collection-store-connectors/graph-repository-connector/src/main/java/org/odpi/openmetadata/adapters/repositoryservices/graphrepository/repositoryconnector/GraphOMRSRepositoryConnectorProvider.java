@@ -23,6 +23,40 @@ public class GraphOMRSRepositoryConnectorProvider extends OMRSRepositoryConnecto
     static final String  connectorTypeName        = "OMRS Graph Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses graph repository store.";
 
+    /*
+     * Optional configuration properties.  When bulkLoad is true the graph is opened for bulk loading, which
+     * switches off JanusGraph's consistency checks and locking and pre-allocates large blocks of ids.  It should
+     * only be used while loading a large archive or catching up with a cohort, when nothing else is updating the
+     * repository.  The bulkLoadBatchSize is the number of reference copies saved in each transaction by
+     * saveInstanceReferenceCopies.
+     */
+    public static final String  bulkLoadPropertyName          = "bulkLoad";
+    public static final String  bulkLoadBatchSizePropertyName = "bulkLoadBatchSize";
+
+    /*
+     * Optional configuration properties that select where the graph is stored.  The defaults are a
+     * BerkeleyDB store and a Lucene index in the egeria-graph-repository directory.  Other JanusGraph backends,
+     * such as inmemory storage, can be named here provided their JanusGraph module is on the class path.
+     */
+    public static final String  storageBackendPropertyName    = "storageBackend";
+    public static final String  storagePathPropertyName       = "storagePath";
+    public static final String  indexBackendPropertyName      = "indexBackend";
+    public static final String  indexPathPropertyName         = "indexPath";
+
+    /*
+     * The graphConfiguration property is a map of JanusGraph configuration keys to values that is passed to
+     * JanusGraph when the graph is opened.  It is used for tuning, for example cache.db-cache, cache.db-cache-size,
+     * cache.db-cache-time, storage.berkeleyje.cache-percentage or tx.log-tx.  Values in this map override
+     * the values set by the other properties.
+     */
+    public static final String  graphConfigurationPropertyName = "graphConfiguration";
+
+    /*
+     * When verifySchemaOnOpen is false, an existing graph whose schema was created by this version of the
+     * connector is opened without checking each of its labels and indexes.  This shortens restart time.
+     */
+    public static final String  verifySchemaOnOpenPropertyName = "verifySchemaOnOpen";
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -13,12 +13,16 @@ import java.util.*;
 /**
  * In memory entity neighbourhood processing to return the entities and relationships that radiate out from the supplied entity GUID.
  * The results are scoped both the instance type guids, classifications, status and the level.
+ * The neighbourhood is either built from a copy of the stores (for historical queries) or directly from the
+ * latest versions of the instances in the InMemoryOMRSMetadataStore, using its index of the relationships
+ * for each entity.
  */
 class InMemoryEntityNeighbourhood
 {
     private OMRSRepositoryValidator   repositoryValidator;
     private OMRSRepositoryHelper      repositoryHelper;
     private String                    repositoryName;
+    private InMemoryOMRSMetadataStore metadataStore;
     private Map<String, EntityDetail> entityStore;
     private Map<String, Relationship> relationshipStore;
     private String                    rootEntityGUID;
@@ -28,12 +32,12 @@ class InMemoryEntityNeighbourhood
     private List<String>              limitResultsByClassification;
     private int                       level;
     private Set<String>               graphEntities          = new HashSet<>();
-    private Set<String>               graphRelationships     = new HashSet<>();
+    private Map<String, Relationship> graphRelationships     = new HashMap<>();
     private Map<String, Set<String>>  entityToRelationships  = new HashMap<>();
     private Map<String, Set<String>>  relationshipToEntities = new HashMap<>();
 
     /**
-     * Constructor
+     * Constructor for a neighbourhood built from copies of the entity and relationship stores.
      *
      * @param repositoryHelper             helper methods when calling the repository connector
      * @param repositoryName               name of this repository
@@ -62,12 +66,92 @@ class InMemoryEntityNeighbourhood
                                 List<InstanceStatus>      limitResultsByStatus,
                                 List<String>              limitResultsByClassification,
                                 int                       level)
+    {
+        this(repositoryHelper,
+             repositoryName,
+             repositoryValidator,
+             rootEntityGUID,
+             entityTypeGUIDs,
+             relationshipTypeGUIDs,
+             limitResultsByStatus,
+             limitResultsByClassification,
+             level);
+
+        this.entityStore = entityStore;
+        this.relationshipStore = relationshipStore;
+        initializeMaps();
+    }
+
+
+    /**
+     * Constructor for a neighbourhood built from the latest versions of the instances in the metadata store.
+     *
+     * @param repositoryHelper             helper methods when calling the repository connector
+     * @param repositoryName               name of this repository
+     * @param repositoryValidator          repository validator
+     * @param metadataStore                store holding the instances
+     * @param rootEntityGUID               the starting point of the query.
+     * @param entityTypeGUIDs              list of entity types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param relationshipTypeGUIDs        list of relationship types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param limitResultsByStatus         By default, relationships in all statuses are returned.  However, it is possible
+     *                                     to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                                     status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param level                        the number of the relationships out from the starting entity that the query will traverse to
+     */
+    InMemoryEntityNeighbourhood(OMRSRepositoryHelper      repositoryHelper,
+                                String                    repositoryName,
+                                OMRSRepositoryValidator   repositoryValidator,
+                                InMemoryOMRSMetadataStore metadataStore,
+                                String                    rootEntityGUID,
+                                List<String>              entityTypeGUIDs,
+                                List<String>              relationshipTypeGUIDs,
+                                List<InstanceStatus>      limitResultsByStatus,
+                                List<String>              limitResultsByClassification,
+                                int                       level)
+    {
+        this(repositoryHelper,
+             repositoryName,
+             repositoryValidator,
+             rootEntityGUID,
+             entityTypeGUIDs,
+             relationshipTypeGUIDs,
+             limitResultsByStatus,
+             limitResultsByClassification,
+             level);
+
+        this.metadataStore = metadataStore;
+    }
+
+
+    /**
+     * Set up the scope of the query.
+     *
+     * @param repositoryHelper             helper methods when calling the repository connector
+     * @param repositoryName               name of this repository
+     * @param repositoryValidator          repository validator
+     * @param rootEntityGUID               the starting point of the query.
+     * @param entityTypeGUIDs              list of entity types to include in the query results.
+     * @param relationshipTypeGUIDs        list of relationship types to include in the query results.
+     * @param limitResultsByStatus         list of statuses to restrict the results to.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param level                        the number of the relationships out from the starting entity that the query will traverse to
+     */
+    private InMemoryEntityNeighbourhood(OMRSRepositoryHelper      repositoryHelper,
+                                        String                    repositoryName,
+                                        OMRSRepositoryValidator   repositoryValidator,
+                                        String                    rootEntityGUID,
+                                        List<String>              entityTypeGUIDs,
+                                        List<String>              relationshipTypeGUIDs,
+                                        List<InstanceStatus>      limitResultsByStatus,
+                                        List<String>              limitResultsByClassification,
+                                        int                       level)
     {
         this.repositoryHelper = repositoryHelper;
         this.repositoryName = repositoryName;
         this.repositoryValidator = repositoryValidator;
-        this.entityStore = entityStore;
-        this.relationshipStore = relationshipStore;
         this.rootEntityGUID = rootEntityGUID;
         this.entityTypeGUIDs = entityTypeGUIDs;
         this.relationshipTypeGUIDs = relationshipTypeGUIDs;
@@ -81,7 +165,6 @@ class InMemoryEntityNeighbourhood
             level = 100;
         }
         this.level = level;
-        initializeMaps();
     }
 
     /**
@@ -136,6 +219,51 @@ class InMemoryEntityNeighbourhood
         }
     }
 
+    /**
+     * Return the entity identified by the guid.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return entity or null if not known
+     */
+    private EntityDetail getEntity(String entityGUID)
+    {
+        if (metadataStore != null)
+        {
+            return metadataStore.getEntity(entityGUID);
+        }
+
+        return entityStore.get(entityGUID);
+    }
+
+
+    /**
+     * Return the relationships attached to the entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return list of relationships (empty if none)
+     */
+    private List<Relationship> getRelationshipsForEntity(String entityGUID)
+    {
+        if (metadataStore != null)
+        {
+            return metadataStore.getRelationshipsForEntity(entityGUID, null);
+        }
+
+        List<Relationship> relationships     = new ArrayList<>();
+        Set<String>        relationshipGUIDs = this.entityToRelationships.get(entityGUID);
+
+        if (relationshipGUIDs != null)
+        {
+            for (String relationshipGUID : relationshipGUIDs)
+            {
+                relationships.add(this.relationshipStore.get(relationshipGUID));
+            }
+        }
+
+        return relationships;
+    }
+
+
     /**
      * Verify that the supplied relationship and the 2 entities that enclose it are valid, by checking the scoping conditions
      *
@@ -159,8 +287,8 @@ class InMemoryEntityNeighbourhood
         {
             String relationshipEnd1Guid = getEnd1EntityGUID(relationship);
             String relationshipEnd2Guid = getEnd2EntityGUID(relationship);
-            EntityDetail entity1 = entityStore.get(relationshipEnd1Guid);
-            EntityDetail entity2 = entityStore.get(relationshipEnd2Guid);
+            EntityDetail entity1 = getEntity(relationshipEnd1Guid);
+            EntityDetail entity2 = getEntity(relationshipEnd2Guid);
             if (relationshipTypeGUIDs != null)
             {
                 for (String relationshipTypeGUID : relationshipTypeGUIDs)
@@ -296,19 +424,16 @@ class InMemoryEntityNeighbourhood
          * add the root entity so the returned graph is consistent.
          */
         List relationshipList = new ArrayList();
-        EntityDetail rootEntity = (entityStore.get(rootEntityGUID));
+        EntityDetail rootEntity = getEntity(rootEntityGUID);
         entityList.add(rootEntity);
         for (String entityGuid : this.graphEntities)
         {
             if (!entityGuid.equals(rootEntityGUID))
             {
-                entityList.add(this.entityStore.get(entityGuid));
+                entityList.add(getEntity(entityGuid));
             }
         }
-        for (String relationshipGuid : this.graphRelationships)
-        {
-            relationshipList.add(this.relationshipStore.get(relationshipGuid));
-        }
+        relationshipList.addAll(this.graphRelationships.values());
         return new InstanceGraph(entityList, relationshipList);
     }
 
@@ -326,12 +451,12 @@ class InMemoryEntityNeighbourhood
         Set<String> nextEntitySet = new HashSet<>();
         for (String entityGuid : entities)
         {
-            Set<String> relationships = this.entityToRelationships.get(entityGuid);
-            if (relationships != null)
+            List<Relationship> relationships = getRelationshipsForEntity(entityGuid);
+            if (!relationships.isEmpty())
             {
-                for (String relationshipGuid : relationships)
+                for (Relationship relationship : relationships)
                 {
-                    Relationship relationship = this.relationshipStore.get(relationshipGuid);
+                    String relationshipGuid = relationship.getGUID();
                     /*
                      * Check to see if we have already visited this relationship
                      */
@@ -345,7 +470,7 @@ class InMemoryEntityNeighbourhood
                             graphEntities.add(entityGuid);
                             final String end1Guid = getEnd1EntityGUID(relationship);
                             final String end2Guid = getEnd2EntityGUID(relationship);
-                            graphRelationships.add(relationshipGuid);
+                            graphRelationships.put(relationshipGuid, relationship);
                             /*
                              * add the entities - one end will already be there so will be replaced.
                              */
@@ -0,0 +1,608 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * InMemoryInstanceIndex maintains the secondary indexes for the latest versions of the instances held in the
+ * InMemoryOMRSMetadataStore.  There are indexes for the type name, classification names,
+ * metadata collection id and the string property values of each instance.
+ *
+ * The indexes are only used to narrow down the candidate instances for a query.  Each candidate is still
+ * tested by the repository validator so the results are the same as a scan of the whole store.
+ * The indexes are built from concurrent maps and sets so they can be queried without locking.  Each change
+ * to an index entry is atomic.  The InMemoryOMRSMetadataStore serializes the updates for each instance.
+ */
+class InMemoryInstanceIndex
+{
+    private static final String metadataCollectionIdPropertyName = "metadataCollectionId";
+    private static final String quotedLiteralStart               = "\\Q";
+    private static final String quotedLiteralEnd                 = "\\E";
+
+    /*
+     * These are the names of the header properties that the repository validator also tests when
+     * matching properties.
+     */
+    private static final Set<String> headerPropertyNames = new HashSet<>(Arrays.asList(metadataCollectionIdPropertyName,
+                                                                                       "metadataCollectionName",
+                                                                                       "typeName",
+                                                                                       "typeGUID",
+                                                                                       "createdBy",
+                                                                                       "updatedBy",
+                                                                                       "createTime",
+                                                                                       "updateTime",
+                                                                                       "effectiveFrom",
+                                                                                       "effectiveTo"));
+
+    private Map<String, Set<String>>              typeNameIndex             = new ConcurrentHashMap<>();
+    private Map<String, Set<String>>              classificationNameIndex   = new ConcurrentHashMap<>();
+    private Map<String, Set<String>>              metadataCollectionIdIndex = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Set<String>>> stringPropertyIndex       = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Set<String>>> quotedStringPropertyIndex = new ConcurrentHashMap<>();
+    private Map<String, Set<String>>              otherPropertyIndex        = new ConcurrentHashMap<>();
+    private Set<String>                           headerShadowingInstances  = ConcurrentHashMap.newKeySet();
+
+
+    /**
+     * Default constructor
+     */
+    InMemoryInstanceIndex()
+    {
+    }
+
+
+    /**
+     * Add an instance to the indexes.
+     *
+     * @param instance header of the instance
+     * @param properties properties of the instance (may be null)
+     * @param classifications classifications of the instance (null for relationships)
+     */
+    void addInstance(InstanceHeader        instance,
+                     InstanceProperties    properties,
+                     List<Classification>  classifications)
+    {
+        if ((instance == null) || (instance.getGUID() == null))
+        {
+            return;
+        }
+
+        String  guid = instance.getGUID();
+
+        if (instance.getType() != null)
+        {
+            addToIndex(typeNameIndex, instance.getType().getTypeDefName(), guid);
+        }
+
+        addToIndex(metadataCollectionIdIndex, instance.getMetadataCollectionId(), guid);
+
+        if (classifications != null)
+        {
+            for (Classification classification : classifications)
+            {
+                if (classification != null)
+                {
+                    addToIndex(classificationNameIndex, classification.getName(), guid);
+                }
+            }
+        }
+
+        if (properties != null)
+        {
+            Iterator<String> propertyNames = properties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                String propertyName = propertyNames.next();
+
+                if (propertyName != null)
+                {
+                    if (headerPropertyNames.contains(propertyName))
+                    {
+                        headerShadowingInstances.add(guid);
+                    }
+
+                    String stringValue = getStringPropertyValue(properties.getPropertyValue(propertyName));
+
+                    if (stringValue == null)
+                    {
+                        addToIndex(otherPropertyIndex, propertyName, guid);
+                    }
+                    else
+                    {
+                        addToNestedIndex(stringPropertyIndex, propertyName, stringValue, guid);
+
+                        if (stringValue.contains(quotedLiteralStart))
+                        {
+                            addToNestedIndex(quotedStringPropertyIndex, propertyName, stringValue, guid);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove an instance from the indexes.  The values supplied must be the ones that were used
+     * when the instance was added.
+     *
+     * @param instance header of the instance
+     * @param properties properties of the instance (may be null)
+     * @param classifications classifications of the instance (null for relationships)
+     */
+    void removeInstance(InstanceHeader        instance,
+                        InstanceProperties    properties,
+                        List<Classification>  classifications)
+    {
+        if ((instance == null) || (instance.getGUID() == null))
+        {
+            return;
+        }
+
+        String  guid = instance.getGUID();
+
+        if (instance.getType() != null)
+        {
+            removeFromIndex(typeNameIndex, instance.getType().getTypeDefName(), guid);
+        }
+
+        removeFromIndex(metadataCollectionIdIndex, instance.getMetadataCollectionId(), guid);
+
+        if (classifications != null)
+        {
+            for (Classification classification : classifications)
+            {
+                if (classification != null)
+                {
+                    removeFromIndex(classificationNameIndex, classification.getName(), guid);
+                }
+            }
+        }
+
+        if (properties != null)
+        {
+            Iterator<String> propertyNames = properties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                String propertyName = propertyNames.next();
+
+                if (propertyName != null)
+                {
+                    String stringValue = getStringPropertyValue(properties.getPropertyValue(propertyName));
+
+                    if (stringValue == null)
+                    {
+                        removeFromIndex(otherPropertyIndex, propertyName, guid);
+                    }
+                    else
+                    {
+                        removeFromNestedIndex(stringPropertyIndex, propertyName, stringValue, guid);
+                        removeFromNestedIndex(quotedStringPropertyIndex, propertyName, stringValue, guid);
+                    }
+                }
+            }
+        }
+
+        headerShadowingInstances.remove(guid);
+    }
+
+
+    /**
+     * Return the names of the types of the indexed instances.
+     *
+     * @return set of type names
+     */
+    Set<String> getTypeNames()
+    {
+        return new HashSet<>(typeNameIndex.keySet());
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances that could match the supplied query.  A null value for
+     * any of the parameters means that it does not restrict the results.  The result is null if none of the
+     * indexes are able to narrow down the candidates.
+     *
+     * @param typeNames names of the types that the instance may have
+     * @param classificationNames the instance must have at least one of these classifications
+     * @param matchAllProperties properties that must all match the instance's properties
+     * @return set of unique identifiers or null meaning all instances are candidates
+     */
+    Set<String> getCandidateGUIDs(Collection<String>  typeNames,
+                                  Collection<String>  classificationNames,
+                                  InstanceProperties  matchAllProperties)
+    {
+        Set<String>  candidates = null;
+
+        if (typeNames != null)
+        {
+            candidates = getGUIDsFromIndex(typeNameIndex, typeNames);
+        }
+
+        if (classificationNames != null)
+        {
+            candidates = intersect(candidates, getGUIDsFromIndex(classificationNameIndex, classificationNames));
+        }
+
+        if (matchAllProperties != null)
+        {
+            candidates = intersect(candidates, getGUIDsMatchingAllProperties(matchAllProperties));
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the instances that could match all of the supplied match properties using the same rules as
+     * OMRSRepositoryContentValidator.verifyMatchingInstancePropertyValues with MatchCriteria.ALL.
+     * An instance with a property that has the same name as a header property can match the same
+     * match property twice, so these instances are always returned as candidates.
+     *
+     * @param matchProperties properties to match
+     * @return set of unique identifiers or null if the index can not narrow down the candidates
+     */
+    private Set<String> getGUIDsMatchingAllProperties(InstanceProperties matchProperties)
+    {
+        Set<String>       candidates    = null;
+        Iterator<String>  propertyNames = matchProperties.getPropertyNames();
+
+        while (propertyNames.hasNext())
+        {
+            String propertyName = propertyNames.next();
+
+            if (propertyName != null)
+            {
+                String matchValue = getStringPropertyValue(matchProperties.getPropertyValue(propertyName));
+
+                if (matchValue != null)
+                {
+                    Set<String> propertyCandidates = null;
+
+                    if (metadataCollectionIdPropertyName.equals(propertyName))
+                    {
+                        propertyCandidates = getGUIDsMatchingMetadataCollectionId(matchValue);
+                    }
+                    else if (! headerPropertyNames.contains(propertyName))
+                    {
+                        propertyCandidates = getGUIDsMatchingPropertyValue(propertyName, matchValue);
+                    }
+
+                    if (propertyCandidates != null)
+                    {
+                        candidates = intersect(candidates, propertyCandidates);
+                    }
+                }
+            }
+        }
+
+        if (candidates != null)
+        {
+            candidates.addAll(headerShadowingInstances);
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the instances whose metadata collection id matches the match value.  The repository validator
+     * uses the header value as the regular expression for this test.
+     *
+     * @param matchValue value from the match properties
+     * @return set of unique identifiers
+     */
+    private Set<String> getGUIDsMatchingMetadataCollectionId(String  matchValue)
+    {
+        Set<String>  candidates = new HashSet<>();
+
+        for (Map.Entry<String, Set<String>> entry : metadataCollectionIdIndex.entrySet())
+        {
+            try
+            {
+                if (matchValue.matches(entry.getKey()))
+                {
+                    candidates.addAll(entry.getValue());
+                }
+            }
+            catch (PatternSyntaxException  error)
+            {
+                /*
+                 * The validator ignores this value too.
+                 */
+            }
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the instances that have a property of the requested name that fuzzy matches the match value,
+     * ie the value is equal to, contains or matches the regular expression in the match value.
+     * Instances where the property is not a string are always returned.
+     *
+     * @param propertyName name of the property
+     * @param matchValue value to match (may be a regular expression)
+     * @return set of unique identifiers or null if the match value is not a valid regular expression
+     */
+    private Set<String> getGUIDsMatchingPropertyValue(String  propertyName,
+                                                      String  matchValue)
+    {
+        Set<String>               candidates = new HashSet<>();
+        Set<String>               otherGUIDs = otherPropertyIndex.get(propertyName);
+        Map<String, Set<String>>  valueIndex = stringPropertyIndex.get(propertyName);
+
+        if (otherGUIDs != null)
+        {
+            candidates.addAll(otherGUIDs);
+        }
+
+        if (valueIndex == null)
+        {
+            return candidates;
+        }
+
+        String  literalValue = getQuotedLiteral(matchValue);
+
+        if (literalValue != null)
+        {
+            /*
+             * An exact match request.  The only other values that can match are those that contain
+             * the quoted match value itself.
+             */
+            Set<String>  literalGUIDs = valueIndex.get(literalValue);
+
+            if (literalGUIDs != null)
+            {
+                candidates.addAll(literalGUIDs);
+            }
+
+            Map<String, Set<String>> quotedValueIndex = quotedStringPropertyIndex.get(propertyName);
+
+            if (quotedValueIndex != null)
+            {
+                for (Map.Entry<String, Set<String>> entry : quotedValueIndex.entrySet())
+                {
+                    if (entry.getKey().contains(matchValue))
+                    {
+                        candidates.addAll(entry.getValue());
+                    }
+                }
+            }
+        }
+        else
+        {
+            Pattern  pattern;
+
+            try
+            {
+                pattern = Pattern.compile(matchValue);
+            }
+            catch (PatternSyntaxException  error)
+            {
+                /*
+                 * Leave the validator to report the bad search criteria.
+                 */
+                return null;
+            }
+
+            for (Map.Entry<String, Set<String>> entry : valueIndex.entrySet())
+            {
+                if ((entry.getKey().contains(matchValue)) || (pattern.matcher(entry.getKey()).matches()))
+                {
+                    candidates.addAll(entry.getValue());
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the literal value if the supplied regular expression is a simple quoted literal as
+     * produced by Pattern.quote().
+     *
+     * @param regex regular expression
+     * @return literal value or null if the regular expression is not a simple quoted literal
+     */
+    private String getQuotedLiteral(String  regex)
+    {
+        if ((regex.length() >= quotedLiteralStart.length() + quotedLiteralEnd.length()) &&
+            (regex.startsWith(quotedLiteralStart)) &&
+            (regex.endsWith(quotedLiteralEnd)))
+        {
+            String literal = regex.substring(quotedLiteralStart.length(), regex.length() - quotedLiteralEnd.length());
+
+            if (! literal.contains(quotedLiteralEnd))
+            {
+                return literal;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the value of a string primitive property.
+     *
+     * @param propertyValue property value
+     * @return string value or null if the property is not a string or has no value
+     */
+    private String getStringPropertyValue(InstancePropertyValue  propertyValue)
+    {
+        if ((propertyValue != null) && (propertyValue.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE))
+        {
+            PrimitivePropertyValue primitivePropertyValue = (PrimitivePropertyValue)propertyValue;
+
+            if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                (primitivePropertyValue.getPrimitiveValue() instanceof String))
+            {
+                return (String)primitivePropertyValue.getPrimitiveValue();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the union of the unique identifiers stored under the requested keys.
+     *
+     * @param index index to query
+     * @param keys keys to retrieve
+     * @return set of unique identifiers
+     */
+    private Set<String> getGUIDsFromIndex(Map<String, Set<String>>  index,
+                                          Collection<String>        keys)
+    {
+        Set<String>  guids = new HashSet<>();
+
+        for (String key : keys)
+        {
+            if (key != null)
+            {
+                Set<String> keyGUIDs = index.get(key);
+
+                if (keyGUIDs != null)
+                {
+                    guids.addAll(keyGUIDs);
+                }
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the intersection of two candidate sets where null means all instances.
+     * The first set may be updated.
+     *
+     * @param candidates current candidates
+     * @param newCandidates additional restriction
+     * @return intersection
+     */
+    private Set<String> intersect(Set<String>  candidates,
+                                  Set<String>  newCandidates)
+    {
+        if (candidates == null)
+        {
+            return newCandidates;
+        }
+
+        if (newCandidates != null)
+        {
+            candidates.retainAll(newCandidates);
+        }
+
+        return candidates;
+    }
+
+
+    /**
+     * Add a unique identifier to an index.
+     *
+     * @param index index to update
+     * @param key key value (ignored if null)
+     * @param guid unique identifier of the instance
+     */
+    private void addToIndex(Map<String, Set<String>>  index,
+                            String                    key,
+                            String                    guid)
+    {
+        if (key != null)
+        {
+            index.compute(key, (indexKey, guids) ->
+            {
+                if (guids == null)
+                {
+                    guids = ConcurrentHashMap.newKeySet();
+                }
+
+                guids.add(guid);
+                return guids;
+            });
+        }
+    }
+
+
+    /**
+     * Remove a unique identifier from an index.  Empty entries are removed.
+     *
+     * @param index index to update
+     * @param key key value (ignored if null)
+     * @param guid unique identifier of the instance
+     */
+    private void removeFromIndex(Map<String, Set<String>>  index,
+                                 String                    key,
+                                 String                    guid)
+    {
+        if (key != null)
+        {
+            index.computeIfPresent(key, (indexKey, guids) ->
+            {
+                guids.remove(guid);
+                return guids.isEmpty() ? null : guids;
+            });
+        }
+    }
+
+
+    /**
+     * Add a unique identifier to a property value index.
+     *
+     * @param index index to update
+     * @param propertyName name of the property
+     * @param value value of the property
+     * @param guid unique identifier of the instance
+     */
+    private void addToNestedIndex(Map<String, Map<String, Set<String>>>  index,
+                                  String                                 propertyName,
+                                  String                                 value,
+                                  String                                 guid)
+    {
+        index.compute(propertyName, (indexKey, valueIndex) ->
+        {
+            if (valueIndex == null)
+            {
+                valueIndex = new ConcurrentHashMap<>();
+            }
+
+            addToIndex(valueIndex, value, guid);
+            return valueIndex;
+        });
+    }
+
+
+    /**
+     * Remove a unique identifier from a property value index.  Empty entries are removed.
+     *
+     * @param index index to update
+     * @param propertyName name of the property
+     * @param value value of the property
+     * @param guid unique identifier of the instance
+     */
+    private void removeFromNestedIndex(Map<String, Map<String, Set<String>>>  index,
+                                       String                                 propertyName,
+                                       String                                 value,
+                                       String                                 guid)
+    {
+        index.computeIfPresent(propertyName, (indexKey, valueIndex) ->
+        {
+            removeFromIndex(valueIndex, value, guid);
+            return valueIndex.isEmpty() ? null : valueIndex;
+        });
+    }
+}
@@ -0,0 +1,146 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogRecordSeverity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+/**
+ * The InMemoryOMRSAuditCode is used to define the message content for the OMRS Audit Log.
+ *
+ * The 5 fields in the enum are:
+ * <ul>
+ *     <li>Log Message Id - to uniquely identify the message</li>
+ *     <li>Severity - is this an event, decision, action, error or exception</li>
+ *     <li>Log Message Text - includes placeholder to allow additional values to be captured</li>
+ *     <li>Additional Information - further parameters and data relating to the audit message (optional)</li>
+ *     <li>SystemAction - describes the result of the situation</li>
+ *     <li>UserAction - describes how a user should correct the situation</li>
+ * </ul>
+ */
+public enum InMemoryOMRSAuditCode
+{
+    STORE_RESTORED("OMRS-IN-MEMORY-REPOSITORY-0001",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The in-memory repository {0} has restored {1} entities, {2} relationships and {3} entity proxies from directory {4} after replaying {5} log records",
+            "The local server has rebuilt the content of the in-memory repository from its last snapshot and write-ahead log.  All changes to the repository are now saved in this directory.",
+            "No action is required.  This is part of the normal operation of the in-memory repository when the storeDirectory configuration property is set."),
+    SNAPSHOT_FAILED("OMRS-IN-MEMORY-REPOSITORY-0002",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The in-memory repository {0} is unable to write a snapshot to directory {1} because of exception {2} with message {3}",
+            "The repository continues to operate and all changes are kept in the write-ahead log.  The log files are not removed so the next restart will take longer.",
+            "Correct the problem with the file system (for example, space or permissions).  A new snapshot is attempted when the current log file is full and when the server shuts down."),
+    ;
+
+    private String                     logMessageId;
+    private OMRSAuditLogRecordSeverity severity;
+    private String                     logMessage;
+    private String                     systemAction;
+    private String                     userAction;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSAuditCode.class);
+
+
+    /**
+     * The constructor for OMRSAuditCode expects to be passed one of the enumeration rows defined in
+     * OMRSAuditCode above.   For example:
+     *
+     *     OMRSAuditCode   auditCode = OMRSAuditCode.SERVER_NOT_AVAILABLE;
+     *
+     * This will expand out to the 4 parameters shown below.
+     *
+     * @param messageId - unique Id for the message
+     * @param severity - severity of the message
+     * @param message - text for the message
+     * @param systemAction - description of the action taken by the system when the condition happened
+     * @param userAction - instructions for resolving the situation, if any
+     */
+    InMemoryOMRSAuditCode(  String                     messageId,
+                         OMRSAuditLogRecordSeverity severity,
+                         String                     message,
+                         String                     systemAction,
+                         String                     userAction)
+    {
+        this.logMessageId = messageId;
+        this.severity = severity;
+        this.logMessage = message;
+        this.systemAction = systemAction;
+        this.userAction = userAction;
+    }
+
+
+    /**
+     * Returns the unique identifier for the error message.
+     *
+     * @return logMessageId
+     */
+    public String getLogMessageId()
+    {
+        return logMessageId;
+    }
+
+
+    /**
+     * Return the severity of the audit log record.
+     *
+     * @return OMRSAuditLogRecordSeverity enum
+     */
+    public OMRSAuditLogRecordSeverity getSeverity()
+    {
+        return severity;
+    }
+
+    /**
+     * Returns the log message with the placeholders filled out with the supplied parameters.
+     *
+     * @param params - strings that plug into the placeholders in the logMessage
+     * @return logMessage (formatted with supplied parameters)
+     */
+    public String getFormattedLogMessage(String... params)
+    {
+        if (log.isDebugEnabled())
+        {
+            log.debug(String.format("<== OMRS Audit Code.getMessage(%s)", Arrays.toString(params)));
+        }
+
+        MessageFormat mf = new MessageFormat(logMessage);
+        String result = mf.format(params);
+
+        if (log.isDebugEnabled())
+        {
+            log.debug(String.format("==> OMRS Audit Code.getMessage(%s): %s", Arrays.toString(params), result));
+        }
+
+        return result;
+    }
+
+
+
+    /**
+     * Returns a description of the action taken by the system when the condition that caused this exception was
+     * detected.
+     *
+     * @return systemAction String
+     */
+    public String getSystemAction()
+    {
+        return systemAction;
+    }
+
+
+    /**
+     * Returns instructions of how to resolve the issue reported in this exception.
+     *
+     * @return userAction String
+     */
+    public String getUserAction()
+    {
+        return userAction;
+    }
+}
+
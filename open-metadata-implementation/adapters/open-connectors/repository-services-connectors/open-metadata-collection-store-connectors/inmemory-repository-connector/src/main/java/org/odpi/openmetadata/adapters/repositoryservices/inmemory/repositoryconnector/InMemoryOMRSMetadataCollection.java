@@ -51,6 +51,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the store that holds the instances for this metadata collection.
+     *
+     * @return in-memory store
+     */
+    InMemoryOMRSMetadataStore getRepositoryStore()
+    {
+        return repositoryStore;
+    }
+
+
     /* ===================================================
      * Group 3: Locating entity and relationship instances
      */
@@ -210,7 +221,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -228,6 +239,60 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the header, classifications and properties of a batch of entities.  The entities are read
+     * directly from the store.  Entities that are not known, are only proxies or are deleted are left out of
+     * the results and an entity whose guid is requested more than once is returned once.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of EntityDetail structures.  Null means none of the entities are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getEntitiesDetail";
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        Map<String, EntityDetail> entities = new LinkedHashMap<>();
+
+        for (String guid : guids)
+        {
+            /*
+             * Validate parameters
+             */
+            super.getInstanceParameterValidation(userId, guid, methodName);
+
+            /*
+             * Perform operation
+             */
+            EntityDetail  entity = repositoryStore.getEntity(guid);
+
+            if ((entity != null) && (entity.getStatus() != InstanceStatus.DELETED))
+            {
+                entities.putIfAbsent(guid, entity);
+            }
+        }
+
+        if (entities.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(entities.values());
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -298,6 +363,34 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         List<Relationship> entityRelationships = new ArrayList<>();
 
+        if (asOfTime == null)
+        {
+            /*
+             * The store keeps an index of the relationships attached to each entity so only this entity's
+             * relationships need to be tested.
+             */
+            for (Relationship  storedRelationship : repositoryStore.getRelationshipsForEntity(entityGUID, relationshipTypeGUID))
+            {
+                if (storedRelationship.getStatus() != InstanceStatus.DELETED)
+                {
+                    repositoryValidator.validRelationship(repositoryName, storedRelationship);
+
+                    entityRelationships.add(storedRelationship);
+                }
+            }
+
+            if (entityRelationships.isEmpty())
+            {
+                return null;
+            }
+
+            return repositoryHelper.formatRelationshipResults(entityRelationships,
+                                                              fromRelationshipElement,
+                                                              sequencingProperty,
+                                                              sequencingOrder,
+                                                              pageSize);
+        }
+
         Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
 
         for (Relationship  storedRelationship : relationshipStore.values())
@@ -338,6 +431,90 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the relationships for a batch of entities.  Each relationship is returned once, even if it links
+     * two of the requested entities.  The current relationships are read through the store's index of the
+     * relationships attached to each entity.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers for the entities.
+     * @param relationshipTypeGUID String GUID of the the type of relationship required (null for all).
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entities.  Null means return the
+     *                 present values.
+     * @return Relationships list.  Null means no relationships associated with the entities.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws PropertyErrorException the relationships could not be sequenced.
+     * @throws PagingErrorException the paging parameters used to retrieve the relationships were rejected.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsForEntities(String                     userId,
+                                                          List<String>               entityGUIDs,
+                                                          String                     relationshipTypeGUID,
+                                                          List<InstanceStatus>       limitResultsByStatus,
+                                                          Date                       asOfTime) throws InvalidParameterException,
+                                                                                                      TypeErrorException,
+                                                                                                      RepositoryErrorException,
+                                                                                                      PropertyErrorException,
+                                                                                                      PagingErrorException,
+                                                                                                      FunctionNotSupportedException,
+                                                                                                      UserNotAuthorizedException
+    {
+        if ((entityGUIDs == null) || (asOfTime != null))
+        {
+            return super.getRelationshipsForEntities(userId,
+                                                     entityGUIDs,
+                                                     relationshipTypeGUID,
+                                                     limitResultsByStatus,
+                                                     asOfTime);
+        }
+
+        Map<String, Relationship> relationships = new LinkedHashMap<>();
+
+        for (String entityGUID : entityGUIDs)
+        {
+            /*
+             * Validate parameters
+             */
+            super.getRelationshipsForEntityParameterValidation(userId,
+                                                               entityGUID,
+                                                               relationshipTypeGUID,
+                                                               0,
+                                                               limitResultsByStatus,
+                                                               null,
+                                                               null,
+                                                               null,
+                                                               0);
+
+            /*
+             * Perform operation
+             */
+            for (Relationship  storedRelationship : repositoryStore.getRelationshipsForEntity(entityGUID, relationshipTypeGUID))
+            {
+                if (storedRelationship.getStatus() != InstanceStatus.DELETED)
+                {
+                    repositoryValidator.validRelationship(repositoryName, storedRelationship);
+
+                    relationships.putIfAbsent(storedRelationship.getGUID(), storedRelationship);
+                }
+            }
+        }
+
+        if (relationships.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(relationships.values());
+    }
+
+
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
      * can be returned over many pages.
@@ -388,6 +565,9 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                 PagingErrorException,
                                                                                                 UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByProperty";
+        final String  guidParameterName = "entityTypeGUID";
+
         /*
          * Validate parameters
          */
@@ -406,13 +586,24 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * Queries on the latest versions of the entities use the store's indexes to narrow down the entities
+         * to test.  Historical queries iterate through all of the entities that existed at the asOfTime.
          */
         List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        Collection<EntityDetail>   storedEntities;
+
+        if (asOfTime == null)
+        {
+            storedEntities = repositoryStore.getEntities(this.getEntityTypeNames(entityTypeGUID, guidParameterName, methodName),
+                                                         limitResultsByClassification,
+                                                         (matchCriteria == MatchCriteria.ALL) ? matchProperties : null);
+        }
+        else
+        {
+            storedEntities = repositoryStore.timeWarpEntityStore(asOfTime).values();
+        }
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : storedEntities)
         {
             if (entity != null)
             {
@@ -488,6 +679,9 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                        PagingErrorException,
                                                                                                        UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByClassification";
+        final String  guidParameterName = "entityTypeGUID";
+
         /*
          * Validate parameters
          */
@@ -506,16 +700,27 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * Queries on the latest versions of the entities use the store's indexes to narrow down the entities
+         * to test.  Historical queries iterate through all of the entities that existed at the asOfTime.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        Collection<EntityDetail>    storedEntities;
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        if (asOfTime == null)
+        {
+            storedEntities = repositoryStore.getEntities(this.getEntityTypeNames(entityTypeGUID, guidParameterName, methodName),
+                                                         classificationList,
+                                                         null);
+        }
+        else
+        {
+            storedEntities = repositoryStore.timeWarpEntityStore(asOfTime).values();
+        }
+
+        for (EntityDetail  entity : storedEntities)
         {
             if (entity != null)
             {
@@ -610,6 +815,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                   UserNotAuthorizedException
     {
         final String  methodName = "findEntitiesByPropertyValue";
+        final String  guidParameterName = "entityTypeGUID";
 
         /*
          * Validate parameters
@@ -628,12 +834,24 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * Queries on the latest versions of the entities use the type index to narrow down the entities
+         * to test.  Historical queries iterate through all of the entities that existed at the asOfTime.
          */
-        List<EntityDetail>   foundEntities = new ArrayList<>();
+        List<EntityDetail>         foundEntities = new ArrayList<>();
+        Collection<EntityDetail>   storedEntities;
+
+        if (asOfTime == null)
+        {
+            storedEntities = repositoryStore.getEntities(this.getEntityTypeNames(entityTypeGUID, guidParameterName, methodName),
+                                                         null,
+                                                         null);
+        }
+        else
+        {
+            storedEntities = repositoryStore.timeWarpEntityStore(asOfTime).values();
+        }
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : storedEntities)
         {
             if (entity != null)
             {
@@ -753,7 +971,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -762,6 +980,60 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the current version of a batch of relationships.  The relationships are read directly from the
+     * store.  Relationships that are not known or are deleted are left out of the results and a relationship
+     * whose guid is requested more than once is returned once.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of relationship structures.  Null means none of the relationships are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationships(String       userId,
+                                               List<String> guids) throws InvalidParameterException,
+                                                                          RepositoryErrorException,
+                                                                          UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationships";
+
+        if (guids == null)
+        {
+            return null;
+        }
+
+        Map<String, Relationship> relationships = new LinkedHashMap<>();
+
+        for (String guid : guids)
+        {
+            /*
+             * Validate parameters
+             */
+            super.getInstanceParameterValidation(userId, guid, methodName);
+
+            /*
+             * Process operation
+             */
+            Relationship  relationship = repositoryStore.getRelationship(guid);
+
+            if ((relationship != null) && (relationship.getStatus() != InstanceStatus.DELETED))
+            {
+                relationships.putIfAbsent(guid, relationship);
+            }
+        }
+
+        if (relationships.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(relationships.values());
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be received as a series of pages.
@@ -836,13 +1108,26 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored entities.
+         * Queries on the latest versions of the relationships use the store's indexes to narrow down the
+         * relationships to test.  Historical queries iterate through all of the relationships that existed
+         * at the asOfTime.
          */
         List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        Collection<Relationship>   storedRelationships;
+
+        if (asOfTime == null)
+        {
+            storedRelationships = repositoryStore.getRelationships(this.getRelationshipTypeNames(relationshipTypeGUID,
+                                                                                                 guidParameterName,
+                                                                                                 methodName),
+                                                                   (matchCriteria == MatchCriteria.ALL) ? matchProperties : null);
+        }
+        else
+        {
+            storedRelationships = repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+        }
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : storedRelationships)
         {
             if (relationship != null)
             {
@@ -915,6 +1200,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                            UserNotAuthorizedException
     {
         final String  methodName = "findRelationshipsByPropertyValue";
+        final String  guidParameterName = "relationshipTypeGUID";
 
 
         /*
@@ -933,12 +1219,26 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored relationships.
+         * Queries on the latest versions of the relationships use the type index to narrow down the
+         * relationships to test.  Historical queries iterate through all of the relationships that existed
+         * at the asOfTime.
          */
-        List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>         foundRelationships = new ArrayList<>();
+        Collection<Relationship>   storedRelationships;
+
+        if (asOfTime == null)
+        {
+            storedRelationships = repositoryStore.getRelationships(this.getRelationshipTypeNames(relationshipTypeGUID,
+                                                                                                 guidParameterName,
+                                                                                                 methodName),
+                                                                   null);
+        }
+        else
+        {
+            storedRelationships = repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+        }
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : storedRelationships)
         {
             if (relationship != null)
             {
@@ -1048,29 +1348,132 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        /*
-         * Time warp the stores
-         */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood;
 
-        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
-                                                                                                  repositoryName,
-                                                                                                  repositoryValidator,
-                                                                                                  entityStore,
-                                                                                                  relationshipStore,
-                                                                                                  entityGUID,
-                                                                                                  entityTypeGUIDs,
-                                                                                                  relationshipTypeGUIDs,
-                                                                                                  limitResultsByStatus,
-                                                                                                  limitResultsByClassification,
-                                                                                                  level);
+        if (asOfTime == null)
+        {
+            /*
+             * The latest versions of the instances are traversed directly in the store.
+             */
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          repositoryStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
+        else
+        {
+            /*
+             * Time warp the stores
+             */
+            Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+            Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          entityStore,
+                                                                          relationshipStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
 
 
         return inMemoryEntityNeighbourhood.createInstanceGraph();
     }
 
 
+    /**
+     * Return the names of the types of the stored entities that are either the requested type or one of
+     * its subtypes.
+     *
+     * @param entityTypeGUID unique identifier of the requested type (null means any type)
+     * @param guidParameterName name of the parameter supplying the type guid
+     * @param methodName calling method
+     * @return set of type names or null meaning any type
+     * @throws TypeErrorException the type guid is not known
+     */
+    private Set<String> getEntityTypeNames(String   entityTypeGUID,
+                                           String   guidParameterName,
+                                           String   methodName) throws TypeErrorException
+    {
+        if (entityTypeGUID == null)
+        {
+            return null;
+        }
+
+        return this.getMatchingTypeNames(entityTypeGUID,
+                                         repositoryStore.getEntityTypeNames(),
+                                         guidParameterName,
+                                         methodName);
+    }
+
+
+    /**
+     * Return the names of the types of the stored relationships that are either the requested type or one of
+     * its subtypes.
+     *
+     * @param relationshipTypeGUID unique identifier of the requested type (null means any type)
+     * @param guidParameterName name of the parameter supplying the type guid
+     * @param methodName calling method
+     * @return set of type names or null meaning any type
+     * @throws TypeErrorException the type guid is not known
+     */
+    private Set<String> getRelationshipTypeNames(String   relationshipTypeGUID,
+                                                 String   guidParameterName,
+                                                 String   methodName) throws TypeErrorException
+    {
+        if (relationshipTypeGUID == null)
+        {
+            return null;
+        }
+
+        return this.getMatchingTypeNames(relationshipTypeGUID,
+                                         repositoryStore.getRelationshipTypeNames(),
+                                         guidParameterName,
+                                         methodName);
+    }
+
+
+    /**
+     * Filter the supplied type names down to those that are the requested type or one of its subtypes.
+     *
+     * @param typeGUID unique identifier of the requested type
+     * @param storedTypeNames names of the types of the stored instances
+     * @param guidParameterName name of the parameter supplying the type guid
+     * @param methodName calling method
+     * @return set of type names
+     * @throws TypeErrorException the type guid is not known
+     */
+    private Set<String> getMatchingTypeNames(String        typeGUID,
+                                             Set<String>   storedTypeNames,
+                                             String        guidParameterName,
+                                             String        methodName) throws TypeErrorException
+    {
+        TypeDef      typeDef = repositoryHelper.getTypeDef(repositoryName, guidParameterName, typeGUID, methodName);
+        Set<String>  typeNames = new HashSet<>();
+
+        for (String storedTypeName : storedTypeNames)
+        {
+            if (repositoryHelper.isTypeOf(repositoryName, storedTypeName, typeDef.getName()))
+            {
+                typeNames.add(storedTypeName);
+            }
+        }
+
+        return typeNames;
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
@@ -5,23 +5,49 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
- * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector
+ * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector.
+ * Each entity and relationship is stored as a chain of versions (see InMemoryVersionChain) so that
+ * the version active at a particular time can be located without scanning the history of the whole store.
+ * The chains are held in concurrent maps.  Each change builds a new chain and installs it atomically,
+ * serializing the changes for an individual instance while allowing changes to different instances to run in
+ * parallel.  Queries do not lock the store.
+ *
+ * The latest versions of the entities and relationships are also indexed to speed up queries.  This includes
+ * an index of the relationships attached to each entity, organized by relationship type.
+ *
+ * The store can optionally have a journal (see InMemoryOMRSStoreJournal) that records every change so the
+ * store can be rebuilt when the repository restarts.
  */
 class InMemoryOMRSMetadataStore
 {
-    private String                                 repositoryName           = null;
-    private volatile Map<String, EntityDetail>     entityStore              = new HashMap<>();
-    private volatile Map<String, EntityProxy>      entityProxyStore         = new HashMap<>();
-    private volatile List<EntityDetail>            entityHistoryStore       = new ArrayList<>();
-    private volatile Map<String, Relationship>     relationshipStore        = new HashMap<>();
-    private volatile List<Relationship>            relationshipHistoryStore = new ArrayList<>();
+    /*
+     * The index of relationships attached to each entity can not store a null type guid.
+     */
+    private static final String untypedRelationshipKey = "";
+
+    private String                                                   repositoryName           = null;
+    private final    Map<String, InMemoryVersionChain<EntityDetail>> entityStore              = new ConcurrentHashMap<>();
+    private final    Map<String, EntityProxy>                        entityProxyStore         = new ConcurrentHashMap<>();
+    private final    Map<String, InMemoryVersionChain<Relationship>> relationshipStore        = new ConcurrentHashMap<>();
+    private final    InMemoryInstanceIndex                           entityIndex              = new InMemoryInstanceIndex();
+    private final    InMemoryInstanceIndex                           relationshipIndex        = new InMemoryInstanceIndex();
+
+    private final    Map<String, Map<String, Set<String>>> entityRelationshipIndex = new ConcurrentHashMap<>();
+
+    private volatile InMemoryOMRSStoreJournal journal = null;
 
 
     /**
@@ -43,14 +69,25 @@ class InMemoryOMRSMetadataStore
     }
 
 
+    /**
+     * Set up the journal that records the changes to the store.
+     *
+     * @param journal journal or null to stop recording changes
+     */
+    void setJournal(InMemoryOMRSStoreJournal   journal)
+    {
+        this.journal = journal;
+    }
+
+
     /**
      * Return a list of entities from the store that are at the latest level.
      *
      * @return list of EntityDetail objects
      */
-    synchronized List<EntityDetail>   getEntities()
+    List<EntityDetail>   getEntities()
     {
-        return new ArrayList<>(entityStore.values());
+        return getCurrentVersions(entityStore);
     }
 
 
@@ -60,9 +97,23 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String   guid)
+    EntityDetail  getEntity(String   guid)
+    {
+        return getCurrentVersion(entityStore, guid);
+    }
+
+
+    /**
+     * Return the entity identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the entity (or null means now)
+     * @return entity object or null if the entity did not exist at the time
+     */
+    EntityDetail  getEntity(String   guid,
+                            Date     asOfTime)
     {
-        return entityStore.get(guid);
+        return getVersionAsOf(entityStore, guid, asOfTime);
     }
 
 
@@ -72,93 +123,62 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String   guid)
+    EntityProxy  getEntityProxy(String   guid)
     {
+        if (guid == null)
+        {
+            return null;
+        }
+
         return entityProxyStore.get(guid);
     }
 
 
     /**
-     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the names of the types of the entities at the latest level.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return entity store for the requested time
+     * @return set of type names
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    Set<String>  getEntityTypeNames()
     {
-        if (asOfTime == null)
-        {
-            return new HashMap<>(entityStore);
-        }
-
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+        return entityIndex.getTypeNames();
+    }
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (EntityDetail  entity : entityStore.values())
-        {
-            if (entity != null)
-            {
-                if (entity.getUpdateTime() != null)
-                {
-                    String entityGUID = entity.getGUID();
 
-                    if (entityGUID != null)
-                    {
-                        if (! entity.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedEntityStore.put(entityGUID, entity);
-                        }
-                    }
-                }
-                else if (entity.getCreateTime() != null)
-                {
-                    if (! entity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entity.getGUID(), entity);
-                    }
-                }
-            }
-        }
+    /**
+     * Return the entities at the latest level that could match the supplied query.  The indexes are used
+     * to narrow down the entities returned - the caller still needs to test each entity.
+     *
+     * @param typeNames names of the types that the entity may have (null means any type)
+     * @param classificationNames the entity must have one of these classifications (null means no restriction)
+     * @param matchAllProperties properties that must all match the entity's properties (null means no restriction)
+     * @return list of candidate entities
+     */
+    List<EntityDetail>  getEntities(Collection<String>   typeNames,
+                                    Collection<String>   classificationNames,
+                                    InstanceProperties   matchAllProperties)
+    {
+        Set<String>  candidateGUIDs = entityIndex.getCandidateGUIDs(typeNames, classificationNames, matchAllProperties);
 
-        /*
-         * Now step through the history store picking up the versions of other entities that were active
-         * at the time of the asOfTime.
-         */
-        for (EntityDetail oldEntity : entityHistoryStore)
+        if (candidateGUIDs == null)
         {
-            if (oldEntity != null)
-            {
-                String entityGUID = oldEntity.getGUID();
+            return getCurrentVersions(entityStore);
+        }
 
-                if (oldEntity.getUpdateTime() != null)
-                {
-                    if (! oldEntity.getUpdateTime().after(asOfTime))
-                    {
-                        EntityDetail newerEntity = timeWarpedEntityStore.put(entityGUID, oldEntity);
+        return getCurrentVersions(entityStore, candidateGUIDs);
+    }
 
-                        if (newerEntity != null)
-                        {
-                            timeWarpedEntityStore.put(entityGUID, newerEntity);
-                        }
-                        break;
-                    }
-                }
-                else if (oldEntity.getCreateTime() != null)
-                {
-                    if (! oldEntity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entityGUID, oldEntity);
-                        break;
-                    }
-                }
-            }
-        }
 
-        return timeWarpedEntityStore;
+    /**
+     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
+     * parameter
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return entity store for the requested time
+     */
+    Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    {
+        return timeWarpStore(entityStore, asOfTime);
     }
 
 
@@ -167,9 +187,9 @@ class InMemoryOMRSMetadataStore
      *
      * @return list of relationships
      */
-    synchronized List<Relationship>   getRelationships()
+    List<Relationship>   getRelationships()
     {
-        return new ArrayList<>(relationshipStore.values());
+        return getCurrentVersions(relationshipStore);
     }
 
 
@@ -179,112 +199,132 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    protected synchronized Relationship  getRelationship(String   guid)
+    protected Relationship  getRelationship(String   guid)
     {
-        return relationshipStore.get(guid);
+        return getCurrentVersion(relationshipStore, guid);
     }
 
+
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the relationship identified by the guid as it was at the time supplied in the asOfTime parameter.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the relationship (or null means now)
+     * @return relationship object or null if the relationship did not exist at the time
+     */
+    Relationship  getRelationship(String   guid,
+                                  Date     asOfTime)
+    {
+        return getVersionAsOf(relationshipStore, guid, asOfTime);
+    }
+
+
+    /**
+     * Return the names of the types of the relationships at the latest level.
+     *
+     * @return set of type names
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    Set<String>  getRelationshipTypeNames()
     {
-        if (asOfTime == null)
+        return relationshipIndex.getTypeNames();
+    }
+
+
+    /**
+     * Return the relationships at the latest level that could match the supplied query.  The indexes are used
+     * to narrow down the relationships returned - the caller still needs to test each relationship.
+     *
+     * @param typeNames names of the types that the relationship may have (null means any type)
+     * @param matchAllProperties properties that must all match the relationship's properties (null means no restriction)
+     * @return list of candidate relationships
+     */
+    List<Relationship>  getRelationships(Collection<String>   typeNames,
+                                         InstanceProperties   matchAllProperties)
+    {
+        Set<String>  candidateGUIDs = relationshipIndex.getCandidateGUIDs(typeNames, null, matchAllProperties);
+
+        if (candidateGUIDs == null)
         {
-            return new HashMap<>(relationshipStore);
+            return getCurrentVersions(relationshipStore);
         }
 
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        return getCurrentVersions(relationshipStore, candidateGUIDs);
+    }
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (Relationship  relationship : relationshipStore.values())
-        {
-            if (relationship != null)
-            {
-                if (relationship.getUpdateTime() != null)
-                {
-                    String relationshipGUID = relationship.getGUID();
 
-                    if (relationshipGUID != null)
-                    {
-                        if (! relationship.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, relationship);
-                        }
-                    }
-                }
-                else if (relationship.getCreateTime() != null)
-                {
-                    if (! relationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
-                    }
-                }
-            }
+    /**
+     * Return the relationships at the latest level that are attached to the requested entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param relationshipTypeGUID unique identifier of the type of relationship required (null means all types)
+     * @return list of relationships (empty if none)
+     */
+    List<Relationship>  getRelationshipsForEntity(String   entityGUID,
+                                                  String   relationshipTypeGUID)
+    {
+        List<Relationship>        entityRelationships = new ArrayList<>();
+        Map<String, Set<String>>  relationshipTypeMap = null;
+
+        if (entityGUID != null)
+        {
+            relationshipTypeMap = entityRelationshipIndex.get(entityGUID);
         }
 
-        /*
-         * Now step through the history store picking up the versions of other relationships that were active
-         * at the time of the asOfTime.
-         */
-        for (Relationship oldRelationship : relationshipHistoryStore)
+        if (relationshipTypeMap != null)
         {
-            if (oldRelationship != null)
+            if (relationshipTypeGUID == null)
             {
-                String relationshipGUID = oldRelationship.getGUID();
-
-                if (oldRelationship.getUpdateTime() != null)
+                for (Set<String> relationshipGUIDs : relationshipTypeMap.values())
                 {
-                    if (! oldRelationship.getUpdateTime().after(asOfTime))
-                    {
-                        Relationship newerRelationship = timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-
-                        if (newerRelationship != null)
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, newerRelationship);
-                        }
-                        break;
-                    }
+                    entityRelationships.addAll(getCurrentVersions(relationshipStore, relationshipGUIDs));
                 }
-                else if (oldRelationship.getCreateTime() != null)
+            }
+            else
+            {
+                Set<String> relationshipGUIDs = relationshipTypeMap.get(relationshipTypeGUID);
+
+                if (relationshipGUIDs != null)
                 {
-                    if (! oldRelationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-                        break;
-                    }
+                    entityRelationships.addAll(getCurrentVersions(relationshipStore, relationshipGUIDs));
                 }
             }
         }
 
-        return timeWarpedRelationshipStore;
+        return entityRelationships;
+    }
+
+
+    /**
+     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
+     * parameter
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship store for the requested time
+     */
+    Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    {
+        return timeWarpStore(relationshipStore, asOfTime);
     }
 
+
     /**
      * Create a new entity in the entity store.
      *
      * @param entity - new version of the entity
      * @return entity with potentially updated GUID
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail    entity)
+    EntityDetail createEntityInStore(EntityDetail    entity)
     {
         /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
+         * There is a small chance the randomly generated GUID will clash with an existing entity.
+         * If this happens a new GUID is generated for the entity and the process repeats.
          */
-        EntityDetail existingEntity = entityStore.put(entity.getGUID(), entity);
-
-        while (existingEntity != null)
+        while (changeEntityInStore(entity.getGUID(),
+                                   InMemoryOMRSStoreJournal.Operation.CREATE_ENTITY,
+                                   entity,
+                                   (versionChain) -> versionChain == null ? new InMemoryVersionChain<>(entity) : versionChain).getCurrentVersion() != entity)
         {
             entity.setGUID(UUID.randomUUID().toString());
-            existingEntity = entityStore.put(entity.getGUID(), entity);
         }
 
         return entity;
@@ -297,18 +337,18 @@ class InMemoryOMRSMetadataStore
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
      */
-    synchronized Relationship createRelationshipInStore(Relationship    relationship)
+    Relationship createRelationshipInStore(Relationship    relationship)
     {
         /*
          * There is a small chance the randomly generated GUID will clash with an existing relationship.
          * If this happens a new GUID is generated for the relationship and the process repeats.
          */
-        Relationship existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-
-        while (existingRelationship != null)
+        while (changeRelationshipInStore(relationship.getGUID(),
+                                         InMemoryOMRSStoreJournal.Operation.CREATE_RELATIONSHIP,
+                                         relationship,
+                                         (versionChain) -> versionChain == null ? new InMemoryVersionChain<>(relationship) : versionChain).getCurrentVersion() != relationship)
         {
             relationship.setGUID(UUID.randomUUID().toString());
-            existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
         }
 
         return relationship;
@@ -320,26 +360,31 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void addEntityProxyToStore(EntityProxy    entityProxy)
+    void addEntityProxyToStore(EntityProxy    entityProxy)
     {
-        entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        changeEntityProxyInStore(InMemoryOMRSStoreJournal.Operation.SAVE_ENTITY_PROXY,
+                                 entityProxy,
+                                 () -> entityProxyStore.put(entityProxy.getGUID(), entityProxy));
     }
 
 
     /**
      * Maintain a history of entities as they are stored into the entity store to ensure old version can be restored.
-     * The history is maintained with the latest changes first in the list.
+     * The new version is added to the entity's version chain.
      *
      * @param entity - new version of the entity
      */
-    synchronized void updateEntityInStore(EntityDetail    entity)
+    void updateEntityInStore(EntityDetail    entity)
     {
-        EntityDetail    oldEntity = entityStore.put(entity.getGUID(), entity);
-
-        if (oldEntity != null)
+        changeEntityInStore(entity.getGUID(), InMemoryOMRSStoreJournal.Operation.UPDATE_ENTITY, entity, (versionChain) ->
         {
-            entityHistoryStore.add(0, oldEntity);
-        }
+            if (versionChain == null)
+            {
+                return new InMemoryVersionChain<>(entity);
+            }
+
+            return versionChain.addVersion(entity);
+        });
     }
 
 
@@ -348,26 +393,31 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void updateEntityProxyInStore(EntityProxy    entityProxy)
+    void updateEntityProxyInStore(EntityProxy    entityProxy)
     {
-        entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        changeEntityProxyInStore(InMemoryOMRSStoreJournal.Operation.SAVE_ENTITY_PROXY,
+                                 entityProxy,
+                                 () -> entityProxyStore.put(entityProxy.getGUID(), entityProxy));
     }
 
 
     /**
      * Maintain a history of relationships as they are stored into the relationship store to ensure old version
-     * can be restored.  The history is maintained with the latest changes first in the list.
+     * can be restored.  The new version is added to the relationship's version chain.
      *
      * @param relationship - new version of the relationship
      */
-    synchronized void updateRelationshipInStore(Relationship    relationship)
+    void updateRelationshipInStore(Relationship    relationship)
     {
-        Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-
-        if (oldRelationship != null)
+        changeRelationshipInStore(relationship.getGUID(), InMemoryOMRSStoreJournal.Operation.UPDATE_RELATIONSHIP, relationship, (versionChain) ->
         {
-            relationshipHistoryStore.add(0, oldRelationship);
-        }
+            if (versionChain == null)
+            {
+                return new InMemoryVersionChain<>(relationship);
+            }
+
+            return versionChain.addVersion(relationship);
+        });
     }
 
 
@@ -377,9 +427,17 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - object to save
      */
-    synchronized void saveReferenceEntityToStore(EntityDetail    entity)
+    void saveReferenceEntityToStore(EntityDetail    entity)
     {
-        entityStore.put(entity.getGUID(), entity);
+        changeEntityInStore(entity.getGUID(), InMemoryOMRSStoreJournal.Operation.SAVE_REFERENCE_ENTITY, entity, (versionChain) ->
+        {
+            if (versionChain == null)
+            {
+                return new InMemoryVersionChain<>(entity);
+            }
+
+            return versionChain.replaceCurrentVersion(entity);
+        });
     }
 
 
@@ -389,170 +447,672 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - object to save
      */
-    synchronized void saveReferenceRelationshipToStore(Relationship    relationship)
+    void saveReferenceRelationshipToStore(Relationship    relationship)
     {
-        relationshipStore.put(relationship.getGUID(), relationship);
+        changeRelationshipInStore(relationship.getGUID(), InMemoryOMRSStoreJournal.Operation.SAVE_REFERENCE_RELATIONSHIP, relationship, (versionChain) ->
+        {
+            if (versionChain == null)
+            {
+                return new InMemoryVersionChain<>(relationship);
+            }
+
+            return versionChain.replaceCurrentVersion(relationship);
+        });
     }
 
 
     /**
-     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
-     * appears in the history.
+     * Retrieve the previous version of a Relationship and make it the current version.  The current version
+     * is discarded.  If the relationship has been removed, the last version is restored.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this relationship - or null if not found
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
     {
-        if (guid != null)
+        if (guid == null)
         {
-            Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+            return null;
+        }
 
-            long versionNumber = 0;
+        List<Relationship>  restoredVersion = new ArrayList<>(1);
 
-            if (currentVersionOfRelationship != null)
+        changeRelationshipInStore(guid, InMemoryOMRSStoreJournal.Operation.RESTORE_RELATIONSHIP, guid, (currentChain) ->
+        {
+            if (currentChain == null)
             {
-                versionNumber = currentVersionOfRelationship.getVersion() + 1;
+                return null;
             }
 
-            int  elementPosition = 0;
+            InMemoryVersionChain<Relationship>  previousChain = currentChain.restorePreviousVersion();
 
-            for (Relationship relationship : relationshipHistoryStore)
+            if (previousChain == null)
             {
-                if (relationship != null)
-                {
-                    if (guid.equals(relationship.getGUID()))
-                    {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = relationship.getVersion() + 1;
-                        }
-                        relationship.setVersion(versionNumber);
-                        relationshipHistoryStore.remove(elementPosition);
-                        relationshipStore.put(guid, relationship);
-                        return relationship;
-                    }
-                }
-
-                elementPosition ++;
+                return currentChain;
             }
-        }
 
-        return null;
+            previousChain.getCurrentVersion().setVersion(getNextVersionNumber(currentChain, previousChain));
+            restoredVersion.add(previousChain.getCurrentVersion());
+
+            return previousChain;
+        });
+
+        return restoredVersion.isEmpty() ? null : restoredVersion.get(0);
     }
 
 
     /**
-     * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
-     * This is the first instance of this element that appears in the history.
+     * Retrieve the previous version of an Entity and make it the current version.  The current version
+     * is discarded.  If the entity has been removed, the last version is restored.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
-        if (guid != null)
+        if (guid == null)
         {
-            EntityDetail  currentVersionOfEntity = entityStore.get(guid);
+            return null;
+        }
 
-            long versionNumber = 0;
+        List<EntityDetail>  restoredVersion = new ArrayList<>(1);
 
-            if (currentVersionOfEntity != null)
+        changeEntityInStore(guid, InMemoryOMRSStoreJournal.Operation.RESTORE_ENTITY, guid, (currentChain) ->
+        {
+            if (currentChain == null)
             {
-                versionNumber = currentVersionOfEntity.getVersion() + 1;
+                return null;
             }
 
-            int  elementPosition = 0;
+            InMemoryVersionChain<EntityDetail>  previousChain = currentChain.restorePreviousVersion();
 
-            for (EntityDetail entity : entityHistoryStore)
+            if (previousChain == null)
             {
-                if (entity != null)
-                {
-                    if (guid.equals(entity.getGUID()))
-                    {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = entity.getVersion() + 1;
-                        }
-                        entity.setVersion(versionNumber);
-                        entityHistoryStore.remove(elementPosition);
-                        entityStore.put(guid, entity);
-                        return entity;
-                    }
-                }
-
-                elementPosition ++;
+                return currentChain;
             }
-        }
 
-        return null;
+            previousChain.getCurrentVersion().setVersion(getNextVersionNumber(currentChain, previousChain));
+            restoredVersion.add(previousChain.getCurrentVersion());
+
+            return previousChain;
+        });
+
+        return restoredVersion.isEmpty() ? null : restoredVersion.get(0);
     }
 
 
     /**
-     * Remove an entity from the active store and add it to the history store.
+     * Remove an entity from the active store.  Its versions are retained for historical queries.
      *
      * @param entity - entity to remove
      */
-    synchronized void removeEntityFromStore(EntityDetail     entity)
+    void removeEntityFromStore(EntityDetail     entity)
     {
-        entityStore.remove(entity.getGUID());
-        entityHistoryStore.add(0, entity);
+        removeReferenceEntityFromStore(entity.getGUID());
     }
 
 
     /**
-     * Remove a reference entity from the active store and add it to the history store.
+     * Remove a reference entity from the active store.  Its versions are retained for historical queries.
      *
      * @param guid - entity to remove
      */
-    synchronized void removeReferenceEntityFromStore(String     guid)
+    void removeReferenceEntityFromStore(String     guid)
     {
-        EntityDetail entity = entityStore.remove(guid);
-
-        if (entity != null)
+        if (guid != null)
         {
-            entityHistoryStore.add(0, entity);
+            changeEntityInStore(guid,
+                                InMemoryOMRSStoreJournal.Operation.REMOVE_ENTITY,
+                                guid,
+                                (versionChain) -> versionChain == null ? null : versionChain.removeCurrentVersion());
         }
     }
 
 
     /**
-     * Remove an entity from the active store and add it to the history store.
+     * Remove an entity proxy from the proxy store.
      *
      * @param guid - entity proxy to remove
      */
-    synchronized void removeEntityProxyFromStore(String     guid)
+    void removeEntityProxyFromStore(String     guid)
     {
-        entityProxyStore.remove(guid);
+        if (guid != null)
+        {
+            changeEntityProxyInStore(InMemoryOMRSStoreJournal.Operation.REMOVE_ENTITY_PROXY,
+                                     guid,
+                                     () -> entityProxyStore.remove(guid));
+        }
     }
 
 
     /**
-     * Remove a relationship from the active store and add it to the history store.
+     * Remove a relationship from the active store.  Its versions are retained for historical queries.
      *
      * @param relationship - relationship to remove
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    void removeRelationshipFromStore(Relationship     relationship)
     {
-        relationshipStore.remove(relationship.getGUID());
-        relationshipHistoryStore.add(0, relationship);
+        removeReferenceRelationshipFromStore(relationship.getGUID());
     }
 
 
     /**
-     * Remove a reference relationship from the active store and add it to the history store.
+     * Remove a reference relationship from the active store.  Its versions are retained for historical queries.
      *
      * @param guid - relationship to remove
      */
-    synchronized void removeReferenceRelationshipFromStore(String     guid)
+    void removeReferenceRelationshipFromStore(String     guid)
+    {
+        if (guid != null)
+        {
+            changeRelationshipInStore(guid,
+                                      InMemoryOMRSStoreJournal.Operation.REMOVE_RELATIONSHIP,
+                                      guid,
+                                      (versionChain) -> versionChain == null ? null : versionChain.removeCurrentVersion());
+        }
+    }
+
+
+    /**
+     * Return a copy of the version chains of the entities.  This is used to take a snapshot of the store.
+     *
+     * @return map of entity guid to version chain
+     */
+    Map<String, InMemoryVersionChain<EntityDetail>>  getEntityVersionChains()
+    {
+        return new HashMap<>(entityStore);
+    }
+
+
+    /**
+     * Return a copy of the version chains of the relationships.  This is used to take a snapshot of the store.
+     *
+     * @return map of relationship guid to version chain
+     */
+    Map<String, InMemoryVersionChain<Relationship>>  getRelationshipVersionChains()
+    {
+        return new HashMap<>(relationshipStore);
+    }
+
+
+    /**
+     * Return a copy of the entity proxies.  This is used to take a snapshot of the store.
+     *
+     * @return map of entity guid to entity proxy
+     */
+    Map<String, EntityProxy>  getEntityProxies()
+    {
+        return new HashMap<>(entityProxyStore);
+    }
+
+
+    /**
+     * Restore the version chain of an entity from a snapshot of the store.  The change is not journaled.
+     *
+     * @param guid unique identifier of the entity
+     * @param versionChain version chain from the snapshot
+     */
+    void restoreEntityVersionChain(String                               guid,
+                                   InMemoryVersionChain<EntityDetail>   versionChain)
+    {
+        changeEntityInStore(guid, null, null, (oldVersionChain) -> versionChain);
+    }
+
+
+    /**
+     * Restore the version chain of a relationship from a snapshot of the store.  The change is not journaled.
+     *
+     * @param guid unique identifier of the relationship
+     * @param versionChain version chain from the snapshot
+     */
+    void restoreRelationshipVersionChain(String                               guid,
+                                         InMemoryVersionChain<Relationship>   versionChain)
     {
-        Relationship  relationship = relationshipStore.remove(guid);
+        changeRelationshipInStore(guid, null, null, (oldVersionChain) -> versionChain);
+    }
 
+
+    /**
+     * Replace the version chain of an entity and move the current version in the indexes.
+     * The change is atomic for the entity.
+     *
+     * @param guid unique identifier of the entity
+     * @param operation operation to record in the journal (null means do not record)
+     * @param argument argument of the operation to record in the journal
+     * @param change function that returns the new version chain from the existing version chain (either may be null)
+     * @return new version chain
+     */
+    private InMemoryVersionChain<EntityDetail> changeEntityInStore(String                                            guid,
+                                                                   InMemoryOMRSStoreJournal.Operation                operation,
+                                                                   Serializable                                      argument,
+                                                                   UnaryOperator<InMemoryVersionChain<EntityDetail>> change)
+    {
+        return changeInStore(entityStore, guid, operation, argument, change, this::unindexEntity, this::indexEntity);
+    }
+
+
+    /**
+     * Replace the version chain of a relationship and move the current version in the indexes.
+     * The change is atomic for the relationship.
+     *
+     * @param guid unique identifier of the relationship
+     * @param operation operation to record in the journal (null means do not record)
+     * @param argument argument of the operation to record in the journal
+     * @param change function that returns the new version chain from the existing version chain (either may be null)
+     * @return new version chain
+     */
+    private InMemoryVersionChain<Relationship> changeRelationshipInStore(String                                            guid,
+                                                                         InMemoryOMRSStoreJournal.Operation                operation,
+                                                                         Serializable                                      argument,
+                                                                         UnaryOperator<InMemoryVersionChain<Relationship>> change)
+    {
+        return changeInStore(relationshipStore, guid, operation, argument, change, this::unindexRelationship, this::indexRelationship);
+    }
+
+
+    /**
+     * Replace the version chain of an instance and move the current version in the indexes.  If the
+     * version chain changes, the change is recorded in the journal before it becomes visible.
+     * The change is atomic for the instance.  When there is a journal, all changes to the store are serialized.
+     *
+     * @param store store to update
+     * @param guid unique identifier of the instance
+     * @param operation operation to record in the journal (null means do not record)
+     * @param argument argument of the operation to record in the journal
+     * @param change function that returns the new version chain from the existing version chain (either may be null)
+     * @param unindex function to remove the old current version from the indexes
+     * @param index function to add the new current version to the indexes
+     * @param <T> type of instance
+     * @return new version chain
+     */
+    private <T extends InstanceHeader> InMemoryVersionChain<T> changeInStore(Map<String, InMemoryVersionChain<T>>  store,
+                                                                             String                                guid,
+                                                                             InMemoryOMRSStoreJournal.Operation    operation,
+                                                                             Serializable                          argument,
+                                                                             UnaryOperator<InMemoryVersionChain<T>> change,
+                                                                             Consumer<T>                           unindex,
+                                                                             Consumer<T>                           index)
+    {
+        InMemoryOMRSStoreJournal  currentJournal = journal;
+
+        if (currentJournal != null)
+        {
+            currentJournal.lockForChange();
+        }
+
+        try
+        {
+            return store.compute(guid, (key, oldVersionChain) ->
+            {
+                InMemoryVersionChain<T>  newVersionChain = change.apply(oldVersionChain);
+
+                if (newVersionChain == oldVersionChain)
+                {
+                    return oldVersionChain;
+                }
+
+                if ((currentJournal != null) && (operation != null))
+                {
+                    currentJournal.recordChange(operation, argument);
+                }
+
+                if (oldVersionChain != null)
+                {
+                    unindex.accept(oldVersionChain.getCurrentVersion());
+                }
+
+                if (newVersionChain != null)
+                {
+                    index.accept(newVersionChain.getCurrentVersion());
+                }
+
+                return newVersionChain;
+            });
+        }
+        finally
+        {
+            if (currentJournal != null)
+            {
+                currentJournal.unlockForChange();
+            }
+        }
+    }
+
+
+    /**
+     * Make a change to the entity proxies.  The change is recorded in the journal before it becomes visible.
+     *
+     * @param operation operation to record in the journal
+     * @param argument argument of the operation to record in the journal
+     * @param change change to the proxy store
+     */
+    private void changeEntityProxyInStore(InMemoryOMRSStoreJournal.Operation   operation,
+                                          Serializable                         argument,
+                                          Runnable                             change)
+    {
+        InMemoryOMRSStoreJournal  currentJournal = journal;
+
+        if (currentJournal == null)
+        {
+            change.run();
+        }
+        else
+        {
+            currentJournal.lockForChange();
+
+            try
+            {
+                currentJournal.recordChange(operation, argument);
+                change.run();
+            }
+            finally
+            {
+                currentJournal.unlockForChange();
+            }
+        }
+    }
+
+
+    /**
+     * Return the version number for a restored version.  This is one more than the version it replaces.
+     *
+     * @param currentChain version chain before the restore
+     * @param previousChain version chain after the restore
+     * @param <T> type of instance
+     * @return version number
+     */
+    private <T extends InstanceAuditHeader> long getNextVersionNumber(InMemoryVersionChain<T>  currentChain,
+                                                                      InMemoryVersionChain<T>  previousChain)
+    {
+        T  replacedVersion = currentChain.getCurrentVersion();
+
+        if (replacedVersion == null)
+        {
+            replacedVersion = previousChain.getCurrentVersion();
+        }
+
+        return replacedVersion.getVersion() + 1;
+    }
+
+
+    /**
+     * Return the current version of an instance.
+     *
+     * @param store store to query
+     * @param guid unique identifier of the instance
+     * @param <T> type of instance
+     * @return current version or null if the instance is not in the store
+     */
+    private <T extends InstanceAuditHeader> T getCurrentVersion(Map<String, InMemoryVersionChain<T>>  store,
+                                                                String                                guid)
+    {
+        return getVersionAsOf(store, guid, null);
+    }
+
+
+    /**
+     * Return the version of an instance that was active at the requested time.
+     *
+     * @param store store to query
+     * @param guid unique identifier of the instance
+     * @param asOfTime time of interest (null means now)
+     * @param <T> type of instance
+     * @return version or null if the instance did not exist at the time
+     */
+    private <T extends InstanceAuditHeader> T getVersionAsOf(Map<String, InMemoryVersionChain<T>>  store,
+                                                             String                                guid,
+                                                             Date                                  asOfTime)
+    {
+        if (guid == null)
+        {
+            return null;
+        }
+
+        InMemoryVersionChain<T>  versionChain = store.get(guid);
+
+        if (versionChain == null)
+        {
+            return null;
+        }
+
+        return versionChain.getVersionAsOf(asOfTime);
+    }
+
+
+    /**
+     * Return the current versions of all of the instances in a store.
+     *
+     * @param store store to query
+     * @param <T> type of instance
+     * @return list of instances
+     */
+    private <T extends InstanceAuditHeader> List<T> getCurrentVersions(Map<String, InMemoryVersionChain<T>>  store)
+    {
+        List<T>  instances = new ArrayList<>(store.size());
+
+        for (InMemoryVersionChain<T> versionChain : store.values())
+        {
+            T  instance = versionChain.getCurrentVersion();
+
+            if (instance != null)
+            {
+                instances.add(instance);
+            }
+        }
+
+        return instances;
+    }
+
+
+    /**
+     * Return the current versions of the requested instances.
+     *
+     * @param store store to query
+     * @param guids unique identifiers of the instances
+     * @param <T> type of instance
+     * @return list of instances that are in the store
+     */
+    private <T extends InstanceAuditHeader> List<T> getCurrentVersions(Map<String, InMemoryVersionChain<T>>  store,
+                                                                       Collection<String>                    guids)
+    {
+        List<T>  instances = new ArrayList<>(guids.size());
+
+        for (String guid : guids)
+        {
+            T  instance = getCurrentVersion(store, guid);
+
+            if (instance != null)
+            {
+                instances.add(instance);
+            }
+        }
+
+        return instances;
+    }
+
+
+    /**
+     * Return a copy of a store that contains the instances as they were at the time supplied in the asOfTime
+     * parameter.
+     *
+     * @param store store to copy
+     * @param asOfTime time for the store (or null means now)
+     * @param <T> type of instance
+     * @return map of instances for the requested time
+     */
+    private <T extends InstanceAuditHeader> Map<String, T> timeWarpStore(Map<String, InMemoryVersionChain<T>>  store,
+                                                                         Date                                  asOfTime)
+    {
+        Map<String, T>  timeWarpedStore = new HashMap<>();
+
+        for (Map.Entry<String, InMemoryVersionChain<T>> entry : store.entrySet())
+        {
+            T  instance = entry.getValue().getVersionAsOf(asOfTime);
+
+            if (instance != null)
+            {
+                timeWarpedStore.put(entry.getKey(), instance);
+            }
+        }
+
+        return timeWarpedStore;
+    }
+
+
+    /**
+     * Add an entity to the entity indexes.
+     *
+     * @param entity entity that is now the latest version (may be null)
+     */
+    private void indexEntity(EntityDetail   entity)
+    {
+        if (entity != null)
+        {
+            entityIndex.addInstance(entity, entity.getProperties(), entity.getClassifications());
+        }
+    }
+
+
+    /**
+     * Remove an entity from the entity indexes.
+     *
+     * @param entity entity that is no longer the latest version (may be null)
+     */
+    private void unindexEntity(EntityDetail   entity)
+    {
+        if (entity != null)
+        {
+            entityIndex.removeInstance(entity, entity.getProperties(), entity.getClassifications());
+        }
+    }
+
+
+    /**
+     * Add a relationship to the relationship indexes, including the index of relationships for each entity.
+     *
+     * @param relationship relationship that is now the latest version (may be null)
+     */
+    private void indexRelationship(Relationship   relationship)
+    {
         if (relationship != null)
         {
-            relationshipHistoryStore.add(0, relationship);
+            relationshipIndex.addInstance(relationship, relationship.getProperties(), null);
+
+            String relationshipTypeGUID = getRelationshipTypeGUID(relationship);
+
+            if (relationship.getEntityOneProxy() != null)
+            {
+                addToEntityRelationshipIndex(relationship.getEntityOneProxy().getGUID(), relationshipTypeGUID, relationship.getGUID());
+            }
+            if (relationship.getEntityTwoProxy() != null)
+            {
+                addToEntityRelationshipIndex(relationship.getEntityTwoProxy().getGUID(), relationshipTypeGUID, relationship.getGUID());
+            }
         }
     }
 
+
+    /**
+     * Remove a relationship from the relationship indexes, including the index of relationships for each entity.
+     *
+     * @param relationship relationship that is no longer the latest version (may be null)
+     */
+    private void unindexRelationship(Relationship   relationship)
+    {
+        if (relationship != null)
+        {
+            relationshipIndex.removeInstance(relationship, relationship.getProperties(), null);
+
+            String relationshipTypeGUID = getRelationshipTypeGUID(relationship);
+
+            if (relationship.getEntityOneProxy() != null)
+            {
+                removeFromEntityRelationshipIndex(relationship.getEntityOneProxy().getGUID(), relationshipTypeGUID, relationship.getGUID());
+            }
+            if (relationship.getEntityTwoProxy() != null)
+            {
+                removeFromEntityRelationshipIndex(relationship.getEntityTwoProxy().getGUID(), relationshipTypeGUID, relationship.getGUID());
+            }
+        }
+    }
+
+
+    /**
+     * Return the unique identifier of the relationship's type for the index of relationships for each entity.
+     *
+     * @param relationship relationship to query
+     * @return type guid or a fixed key if the type is not set up
+     */
+    private String getRelationshipTypeGUID(Relationship   relationship)
+    {
+        InstanceType  type = relationship.getType();
+
+        if ((type != null) && (type.getTypeDefGUID() != null))
+        {
+            return type.getTypeDefGUID();
+        }
+
+        return untypedRelationshipKey;
+    }
+
+
+    /**
+     * Record that a relationship is attached to an entity.
+     *
+     * @param entityGUID unique identifier of the entity (ignored if null)
+     * @param relationshipTypeGUID unique identifier of the relationship's type
+     * @param relationshipGUID unique identifier of the relationship
+     */
+    private void addToEntityRelationshipIndex(String   entityGUID,
+                                              String   relationshipTypeGUID,
+                                              String   relationshipGUID)
+    {
+        if (entityGUID != null)
+        {
+            entityRelationshipIndex.compute(entityGUID, (guid, relationshipTypeMap) ->
+            {
+                if (relationshipTypeMap == null)
+                {
+                    relationshipTypeMap = new ConcurrentHashMap<>();
+                }
+
+                relationshipTypeMap.computeIfAbsent(relationshipTypeGUID, k -> ConcurrentHashMap.newKeySet())
+                                   .add(relationshipGUID);
+                return relationshipTypeMap;
+            });
+        }
+    }
+
+
+    /**
+     * Remove the record that a relationship is attached to an entity.  Empty entries are removed.
+     *
+     * @param entityGUID unique identifier of the entity (ignored if null)
+     * @param relationshipTypeGUID unique identifier of the relationship's type
+     * @param relationshipGUID unique identifier of the relationship
+     */
+    private void removeFromEntityRelationshipIndex(String   entityGUID,
+                                                   String   relationshipTypeGUID,
+                                                   String   relationshipGUID)
+    {
+        if (entityGUID != null)
+        {
+            entityRelationshipIndex.computeIfPresent(entityGUID, (guid, relationshipTypeMap) ->
+            {
+                Set<String> relationshipGUIDs = relationshipTypeMap.get(relationshipTypeGUID);
+
+                if (relationshipGUIDs != null)
+                {
+                    relationshipGUIDs.remove(relationshipGUID);
+
+                    if (relationshipGUIDs.isEmpty())
+                    {
+                        relationshipTypeMap.remove(relationshipTypeGUID);
+                    }
+                }
+
+                return relationshipTypeMap.isEmpty() ? null : relationshipTypeMap;
+            });
+        }
+    }
 }
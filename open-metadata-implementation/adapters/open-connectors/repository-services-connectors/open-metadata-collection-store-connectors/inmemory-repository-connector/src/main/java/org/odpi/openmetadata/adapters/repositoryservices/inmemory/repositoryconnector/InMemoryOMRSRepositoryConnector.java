@@ -3,15 +3,27 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 
+import java.io.IOException;
+import java.util.Map;
+
 /**
  * The InMemoryOMRSRepositoryConnector is a connector to a local in memory repository.  It is used for test,
  * small scale fixed or temporary repositories where the initial content comes from open metadata archives and
  * other members of connected open metadata repository cohorts.
+ *
+ * If the storeDirectory configuration property is set in the connection, the instances in the repository are
+ * saved in a write-ahead log and periodic snapshots in this directory, and restored when the repository starts.
  */
 public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
 {
+    private InMemoryOMRSMetadataCollection  inMemoryMetadataCollection = null;
+    private InMemoryOMRSStoreJournal        storeJournal               = null;
+    private String                          storeDirectoryName         = null;
+
+
     /**
      * Default constructor used by the OCF Connector Provider.
      */
@@ -37,11 +49,122 @@ public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
             /*
              * Initialize the metadata collection only once the connector is properly set up.
              */
-            super.metadataCollection = new InMemoryOMRSMetadataCollection(this,
-                                                                          super.serverName,
-                                                                          repositoryHelper,
-                                                                          repositoryValidator,
-                                                                          metadataCollectionId);
+            inMemoryMetadataCollection = new InMemoryOMRSMetadataCollection(this,
+                                                                            super.serverName,
+                                                                            repositoryHelper,
+                                                                            repositoryValidator,
+                                                                            metadataCollectionId);
+            super.metadataCollection = inMemoryMetadataCollection;
+        }
+    }
+
+
+    /**
+     * Indicates that the connector is completely configured and can begin processing.  If the repository
+     * is durable, its content is restored from the store directory.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    public void start() throws ConnectorCheckedException
+    {
+        final String methodName = "start";
+
+        super.start();
+
+        Map<String, Object> configurationProperties = null;
+
+        if (connectionProperties != null)
+        {
+            configurationProperties = connectionProperties.getConfigurationProperties();
+        }
+
+        if ((configurationProperties == null) || (inMemoryMetadataCollection == null))
+        {
+            return;
+        }
+
+        Object storeDirectory = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.storeDirectoryPropertyName);
+
+        if (storeDirectory != null)
+        {
+            Object logFileSize    = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.logFileSizePropertyName);
+            Object forceLogWrites = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.forceLogWritesPropertyName);
+
+            storeDirectoryName = storeDirectory.toString();
+
+            try
+            {
+                InMemoryOMRSStoreJournal journal = new InMemoryOMRSStoreJournal(serverName,
+                                                                                storeDirectoryName,
+                                                                                logFileSize == null ? InMemoryOMRSStoreJournal.defaultLogFileSize
+                                                                                                    : Long.parseLong(logFileSize.toString()),
+                                                                                forceLogWrites != null && Boolean.parseBoolean(forceLogWrites.toString()),
+                                                                                auditLog);
+
+                journal.open(inMemoryMetadataCollection.getRepositoryStore());
+                storeJournal = journal;
+            }
+            catch (IOException | RuntimeException  error)
+            {
+                throw getConnectorCheckedException(InMemoryOMRSErrorCode.CANNOT_OPEN_STORE, methodName, error);
+            }
+        }
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.  If the repository
+     * is durable, a final snapshot is written to the store directory.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    public void disconnect() throws ConnectorCheckedException
+    {
+        final String methodName = "disconnect";
+
+        super.disconnect();
+
+        if (storeJournal != null)
+        {
+            try
+            {
+                storeJournal.close();
+            }
+            catch (IOException  error)
+            {
+                throw getConnectorCheckedException(InMemoryOMRSErrorCode.CANNOT_WRITE_TO_STORE, methodName, error);
+            }
+            finally
+            {
+                storeJournal = null;
+            }
         }
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Build the exception for a failure to read or write the store directory.
+     *
+     * @param errorCode error code describing the failure
+     * @param methodName calling method
+     * @param error caught exception
+     * @return exception to throw
+     */
+    private ConnectorCheckedException getConnectorCheckedException(InMemoryOMRSErrorCode  errorCode,
+                                                                   String                 methodName,
+                                                                   Throwable              error)
+    {
+        String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(serverName,
+                                                                                                 storeDirectoryName,
+                                                                                                 error.getClass().getName(),
+                                                                                                 error.getMessage());
+
+        return new ConnectorCheckedException(errorCode.getHTTPErrorCode(),
+                                             this.getClass().getName(),
+                                             methodName,
+                                             errorMessage,
+                                             errorCode.getSystemAction(),
+                                             errorCode.getUserAction(),
+                                             error);
+    }
+}
@@ -22,6 +22,15 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
     static final String  connectorTypeName = "OMRS In Memory Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses an in-memory store.";
 
+    /*
+     * Configuration properties that turn on the durable mode of the repository.  The content of the repository
+     * is saved in the directory named by storeDirectory and restored when the repository restarts.
+     * The other properties are optional.
+     */
+    public static final String  storeDirectoryPropertyName = "storeDirectory";
+    public static final String  logFileSizePropertyName    = "logFileSize";
+    public static final String  forceLogWritesPropertyName = "forceLogWrites";
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -0,0 +1,895 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConnectorErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * InMemoryOMRSStoreJournal makes the content of an InMemoryOMRSMetadataStore durable.  It is only used when the
+ * storeDirectory configuration property is set in the connection for the InMemoryOMRSRepositoryConnector.
+ *
+ * Every change to the store is appended to a write-ahead log before it becomes visible.  The log is a series of
+ * memory-mapped files of a fixed size.  Each record holds its length, a sequence number, a CRC-32 checksum and
+ * the Java serialized form of the operation and its argument.  A zero length marks the end of the log.
+ * When a log file is full, a new log file is started and a snapshot of the whole store is written in the
+ * background.  The snapshot is written to a temporary file that replaces the previous snapshot once it is complete.
+ * The log files that are covered by the snapshot are then removed.
+ *
+ * When the repository starts, the store is rebuilt from the latest snapshot and the records in the log files
+ * that were written after it.  Replay stops at the first damaged or incomplete record since this is the point
+ * where the server stopped.
+ *
+ * Changes to the store are serialized while the journal is attached so that the log records are in the same order
+ * as the changes to the store.  Queries are not affected.
+ */
+class InMemoryOMRSStoreJournal
+{
+    /**
+     * The operations on the InMemoryOMRSMetadataStore that are recorded in the log.  The ordinal is stored
+     * in the log so new values must be added to the end.
+     */
+    enum Operation
+    {
+        CREATE_ENTITY,
+        UPDATE_ENTITY,
+        SAVE_REFERENCE_ENTITY,
+        RESTORE_ENTITY,
+        REMOVE_ENTITY,
+        SAVE_ENTITY_PROXY,
+        REMOVE_ENTITY_PROXY,
+        CREATE_RELATIONSHIP,
+        UPDATE_RELATIONSHIP,
+        SAVE_REFERENCE_RELATIONSHIP,
+        RESTORE_RELATIONSHIP,
+        REMOVE_RELATIONSHIP
+    }
+
+    static final long defaultLogFileSize = 64L * 1024L * 1024L;
+
+    private static final String snapshotFileName     = "store.snapshot";
+    private static final String tempSnapshotFileName = "store.snapshot.tmp";
+    private static final String logFilePrefix        = "store-";
+    private static final String logFileSuffix        = ".log";
+    private static final long   snapshotMagicNumber  = 0x4F4D5253534E4150L;  // "OMRSSNAP"
+    private static final int    snapshotFormat       = 1;
+    private static final int    snapshotHeaderSize   = 3 * Long.BYTES;
+    private static final int    logRecordHeaderSize  = Integer.BYTES + Long.BYTES + Long.BYTES;
+    private static final int    objectsPerReset      = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSStoreJournal.class);
+
+    private final String        repositoryName;
+    private final Path          storeDirectory;
+    private final long          logFileSize;
+    private final boolean       forceLogWrites;
+    private final OMRSAuditLog  auditLog;
+
+    private final ReentrantLock changeLock          = new ReentrantLock();
+    private final Object        snapshotWriteLock   = new Object();
+    private final AtomicBoolean snapshotInProgress  = new AtomicBoolean(false);
+
+    private InMemoryOMRSMetadataStore  store                = null;
+    private FileChannel                logChannel           = null;
+    private MappedByteBuffer           logBuffer            = null;
+    private long                       logGeneration        = 0;
+    private long                       lastSequence         = 0;
+    private long                       lastSnapshotSequence = -1;
+
+
+    /**
+     * Constructor
+     *
+     * @param repositoryName name of the repository for messages
+     * @param storeDirectory directory for the snapshot and log files
+     * @param logFileSize size of each log file in bytes
+     * @param forceLogWrites should each log record be forced to the storage device as it is written
+     * @param auditLog audit log for the repository (may be null)
+     */
+    InMemoryOMRSStoreJournal(String        repositoryName,
+                             String        storeDirectory,
+                             long          logFileSize,
+                             boolean       forceLogWrites,
+                             OMRSAuditLog  auditLog)
+    {
+        this.repositoryName = repositoryName;
+        this.storeDirectory = Paths.get(storeDirectory);
+        this.logFileSize = logFileSize;
+        this.forceLogWrites = forceLogWrites;
+        this.auditLog = auditLog;
+    }
+
+
+    /**
+     * Rebuild the content of the store from the files in the store directory and then attach the journal to it
+     * so all further changes are logged.  The store should be empty.
+     *
+     * @param store store to restore
+     * @throws IOException the files can not be read or written
+     */
+    void open(InMemoryOMRSMetadataStore  store) throws IOException
+    {
+        final String actionDescription = "Restore in-memory repository";
+
+        Files.createDirectories(storeDirectory);
+        Files.deleteIfExists(storeDirectory.resolve(tempSnapshotFileName));
+
+        this.store = store;
+
+        long  firstLogGeneration = readSnapshot();
+        long  replayedRecords    = 0;
+
+        for (long generation : getLogGenerations())
+        {
+            if (generation < firstLogGeneration)
+            {
+                Files.deleteIfExists(getLogFile(generation));
+            }
+            else
+            {
+                replayedRecords = replayedRecords + replayLog(generation);
+                logGeneration = generation;
+            }
+        }
+
+        logGeneration = Math.max(logGeneration, firstLogGeneration - 1);
+        startNewLog(0);
+
+        /*
+         * The replayed log records are saved in a new snapshot to speed up the next restart.
+         */
+        if ((replayedRecords > 0) || (lastSnapshotSequence < 0))
+        {
+            writeSnapshot(captureSnapshot());
+        }
+
+        store.setJournal(this);
+
+        if (auditLog != null)
+        {
+            InMemoryOMRSAuditCode auditCode = InMemoryOMRSAuditCode.STORE_RESTORED;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(repositoryName,
+                                                                Integer.toString(store.getEntities().size()),
+                                                                Integer.toString(store.getRelationships().size()),
+                                                                Integer.toString(store.getEntityProxies().size()),
+                                                                storeDirectory.toString(),
+                                                                Long.toString(replayedRecords)),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Write a final snapshot and detach the journal from the store.
+     *
+     * @throws IOException the snapshot can not be written
+     */
+    void close() throws IOException
+    {
+        Snapshot  snapshot;
+
+        changeLock.lock();
+        try
+        {
+            if (store == null)
+            {
+                return;
+            }
+
+            /*
+             * The final snapshot includes the current log file.
+             */
+            snapshot = captureSnapshot();
+            snapshot.firstLogGeneration = logGeneration + 1;
+
+            store.setJournal(null);
+            store = null;
+            closeLog();
+        }
+        finally
+        {
+            changeLock.unlock();
+        }
+
+        writeSnapshot(snapshot);
+    }
+
+
+    /**
+     * Lock out other changes to the store.  This is called before the store locks the instance
+     * being changed so the locks are always taken in the same order.
+     */
+    void lockForChange()
+    {
+        changeLock.lock();
+    }
+
+
+    /**
+     * Allow other changes to the store.
+     */
+    void unlockForChange()
+    {
+        changeLock.unlock();
+    }
+
+
+    /**
+     * Append a change to the log.  This is called by the store before the change becomes visible, while the
+     * change lock is held.  A failure means the change must not be made.
+     *
+     * @param operation operation on the store
+     * @param argument argument passed to the operation (an instance or a unique identifier)
+     */
+    void recordChange(Operation     operation,
+                      Serializable  argument)
+    {
+        final String methodName = "recordChange";
+
+        try
+        {
+            byte[]  payload        = serializeChange(operation, argument);
+            long    sequence       = lastSequence + 1;
+            int     requiredLength = logRecordHeaderSize + payload.length;
+
+            /*
+             * The final Integer slot keeps room for the zero length that marks the end of the log.
+             */
+            if (logBuffer.remaining() < requiredLength + Integer.BYTES)
+            {
+                startNewLog(requiredLength + Integer.BYTES);
+                requestSnapshot();
+            }
+
+            int recordStart = logBuffer.position();
+
+            logBuffer.position(recordStart + Integer.BYTES);
+            logBuffer.putLong(sequence);
+            logBuffer.putLong(getChecksum(sequence, payload));
+            logBuffer.put(payload);
+
+            /*
+             * The length is written last so a partially written record is never read back.
+             */
+            logBuffer.putInt(recordStart, payload.length);
+
+            if (forceLogWrites)
+            {
+                logBuffer.force();
+            }
+
+            lastSequence = sequence;
+        }
+        catch (IOException  error)
+        {
+            log.error("Unable to write to the log for " + repositoryName, error);
+
+            InMemoryOMRSErrorCode errorCode = InMemoryOMRSErrorCode.CANNOT_WRITE_TO_STORE;
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(repositoryName,
+                                                                                                     storeDirectory.toString(),
+                                                                                                     error.getClass().getName(),
+                                                                                                     error.getMessage());
+
+            throw new OMRSConnectorErrorException(errorCode.getHTTPErrorCode(),
+                                                  this.getClass().getName(),
+                                                  methodName,
+                                                  errorMessage,
+                                                  errorCode.getSystemAction(),
+                                                  errorCode.getUserAction(),
+                                                  error);
+        }
+    }
+
+
+    /**
+     * Start a snapshot in the background if one is not already running.  This is called when the change lock
+     * is held so the snapshot matches the end of the previous log file.
+     */
+    private void requestSnapshot()
+    {
+        final String actionDescription = "Write in-memory repository snapshot";
+
+        if (snapshotInProgress.compareAndSet(false, true))
+        {
+            Snapshot snapshot = captureSnapshot();
+            Thread   snapshotThread = new Thread(() ->
+            {
+                try
+                {
+                    writeSnapshot(snapshot);
+                }
+                catch (Throwable  error)
+                {
+                    log.error("Unable to write snapshot for " + repositoryName, error);
+
+                    if (auditLog != null)
+                    {
+                        InMemoryOMRSAuditCode auditCode = InMemoryOMRSAuditCode.SNAPSHOT_FAILED;
+                        auditLog.logRecord(actionDescription,
+                                           auditCode.getLogMessageId(),
+                                           auditCode.getSeverity(),
+                                           auditCode.getFormattedLogMessage(repositoryName,
+                                                                            storeDirectory.toString(),
+                                                                            error.getClass().getName(),
+                                                                            error.getMessage()),
+                                           null,
+                                           auditCode.getSystemAction(),
+                                           auditCode.getUserAction());
+                    }
+                }
+                finally
+                {
+                    snapshotInProgress.set(false);
+                }
+            }, "InMemoryRepositorySnapshot-" + repositoryName);
+
+            snapshotThread.setDaemon(true);
+            snapshotThread.start();
+        }
+    }
+
+
+    /**
+     * Take a copy of the content of the store.  The version chains are immutable so only the maps are copied.
+     * This is called when the change lock is held.
+     *
+     * @return snapshot content
+     */
+    private Snapshot captureSnapshot()
+    {
+        return new Snapshot(lastSequence,
+                            logGeneration,
+                            store.getEntityVersionChains(),
+                            store.getRelationshipVersionChains(),
+                            store.getEntityProxies());
+    }
+
+
+    /**
+     * Write a snapshot to the store directory and remove the log files that it replaces.  The snapshot is
+     * ignored if a later one has already been written.
+     *
+     * @param snapshot content of the store
+     * @throws IOException the snapshot can not be written
+     */
+    private void writeSnapshot(Snapshot  snapshot) throws IOException
+    {
+        synchronized (snapshotWriteLock)
+        {
+            if (snapshot.sequence <= lastSnapshotSequence)
+            {
+                return;
+            }
+
+            Path  tempSnapshotFile = storeDirectory.resolve(tempSnapshotFileName);
+
+            try (FileChannel channel = FileChannel.open(tempSnapshotFile,
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                channel.position(snapshotHeaderSize);
+
+                CheckedOutputStream  checkedStream = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)),
+                                                                             new CRC32());
+                ObjectOutputStream   objectStream  = new ObjectOutputStream(checkedStream);
+
+                objectStream.writeInt(snapshotFormat);
+                objectStream.writeLong(snapshot.sequence);
+                objectStream.writeLong(snapshot.firstLogGeneration);
+                writeVersionChains(objectStream, snapshot.entities);
+                writeVersionChains(objectStream, snapshot.relationships);
+
+                objectStream.writeInt(snapshot.entityProxies.size());
+                for (EntityProxy entityProxy : snapshot.entityProxies.values())
+                {
+                    objectStream.writeObject(entityProxy);
+                }
+
+                objectStream.flush();
+
+                ByteBuffer  header = ByteBuffer.allocate(snapshotHeaderSize);
+
+                header.putLong(snapshotMagicNumber);
+                header.putLong(checkedStream.getChecksum().getValue());
+                header.putLong(channel.position() - snapshotHeaderSize);
+                header.flip();
+
+                while (header.hasRemaining())
+                {
+                    channel.write(header, header.position());
+                }
+
+                channel.force(true);
+            }
+
+            Files.move(tempSnapshotFile,
+                       storeDirectory.resolve(snapshotFileName),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+
+            lastSnapshotSequence = snapshot.sequence;
+
+            for (long generation : getLogGenerations())
+            {
+                if (generation < snapshot.firstLogGeneration)
+                {
+                    Files.deleteIfExists(getLogFile(generation));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Write the version chains of one of the stores to the snapshot.
+     *
+     * @param objectStream snapshot stream
+     * @param versionChains version chains to write
+     * @param <T> type of instance
+     * @throws IOException the snapshot can not be written
+     */
+    private <T extends InstanceAuditHeader> void writeVersionChains(ObjectOutputStream                    objectStream,
+                                                                   Map<String, InMemoryVersionChain<T>>  versionChains) throws IOException
+    {
+        int objectCount = 0;
+
+        objectStream.writeInt(versionChains.size());
+
+        for (Map.Entry<String, InMemoryVersionChain<T>> entry : versionChains.entrySet())
+        {
+            objectStream.writeUTF(entry.getKey());
+            objectStream.writeObject(new ArrayList<>(entry.getValue().getVersions()));
+            objectStream.writeInt(entry.getValue().getCurrentVersionPosition());
+
+            /*
+             * The stream remembers every object written so it can write back-references.  None are needed
+             * between version chains so the memory is released regularly.
+             */
+            objectCount ++;
+            if (objectCount % objectsPerReset == 0)
+            {
+                objectStream.reset();
+            }
+        }
+    }
+
+
+    /**
+     * Restore the store from the latest snapshot, if there is one.
+     *
+     * @return the first log generation that is not included in the snapshot
+     * @throws IOException the snapshot is damaged or can not be read
+     */
+    @SuppressWarnings("unchecked")
+    private long readSnapshot() throws IOException
+    {
+        Path  snapshotFile = storeDirectory.resolve(snapshotFileName);
+
+        if (! Files.exists(snapshotFile))
+        {
+            return 0;
+        }
+
+        try (DataInputStream headerStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile))))
+        {
+            long  magicNumber   = headerStream.readLong();
+            long  checksum      = headerStream.readLong();
+            long  contentLength = headerStream.readLong();
+
+            if (magicNumber != snapshotMagicNumber)
+            {
+                throw new IOException("File " + snapshotFile + " is not an in-memory repository snapshot");
+            }
+
+            CheckedInputStream  checkedStream = new CheckedInputStream(headerStream, new CRC32());
+            ObjectInputStream   objectStream  = new ObjectInputStream(checkedStream);
+
+            if (objectStream.readInt() != snapshotFormat)
+            {
+                throw new IOException("Snapshot " + snapshotFile + " has an unsupported format");
+            }
+
+            long  sequence           = objectStream.readLong();
+            long  firstLogGeneration = objectStream.readLong();
+
+            Map<String, InMemoryVersionChain<EntityDetail>>  entities      = new HashMap<>();
+            Map<String, InMemoryVersionChain<Relationship>>  relationships = new HashMap<>();
+            List<EntityProxy>                                entityProxies = new ArrayList<>();
+
+            int  count = objectStream.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                String              guid     = objectStream.readUTF();
+                List<EntityDetail>  versions = (List<EntityDetail>) objectStream.readObject();
+
+                entities.put(guid, new InMemoryVersionChain<>(versions, objectStream.readInt()));
+            }
+
+            count = objectStream.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                String              guid     = objectStream.readUTF();
+                List<Relationship>  versions = (List<Relationship>) objectStream.readObject();
+
+                relationships.put(guid, new InMemoryVersionChain<>(versions, objectStream.readInt()));
+            }
+
+            count = objectStream.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                entityProxies.add((EntityProxy) objectStream.readObject());
+            }
+
+            /*
+             * Any bytes not consumed by the object stream still need to be included in the checksum.
+             */
+            byte[] remainder = new byte[4096];
+            while (checkedStream.read(remainder) >= 0)
+            {
+                /* skip */
+            }
+
+            if ((checkedStream.getChecksum().getValue() != checksum) ||
+                (Files.size(snapshotFile) - snapshotHeaderSize != contentLength))
+            {
+                throw new IOException("Snapshot " + snapshotFile + " is damaged");
+            }
+
+            for (Map.Entry<String, InMemoryVersionChain<EntityDetail>> entry : entities.entrySet())
+            {
+                store.restoreEntityVersionChain(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, InMemoryVersionChain<Relationship>> entry : relationships.entrySet())
+            {
+                store.restoreRelationshipVersionChain(entry.getKey(), entry.getValue());
+            }
+            for (EntityProxy entityProxy : entityProxies)
+            {
+                store.addEntityProxyToStore(entityProxy);
+            }
+
+            lastSequence = sequence;
+            lastSnapshotSequence = sequence;
+
+            return firstLogGeneration;
+        }
+        catch (ClassNotFoundException | ClassCastException  error)
+        {
+            throw new IOException("Snapshot " + snapshotFile + " contains unexpected content", error);
+        }
+    }
+
+
+    /**
+     * Apply the records from a log file to the store.  Records that are already included in the snapshot
+     * are skipped.  Replay stops at the end of the log or the first record that is damaged.
+     *
+     * @param generation generation of the log file
+     * @return number of records applied
+     * @throws IOException the log file can not be read
+     */
+    private long replayLog(long  generation) throws IOException
+    {
+        long  replayedRecords = 0;
+
+        try (FileChannel channel = FileChannel.open(getLogFile(generation), StandardOpenOption.READ))
+        {
+            MappedByteBuffer  buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            while (buffer.remaining() >= logRecordHeaderSize)
+            {
+                int   length   = buffer.getInt();
+                long  sequence = buffer.getLong();
+                long  checksum = buffer.getLong();
+
+                if ((length <= 0) || (length > buffer.remaining()))
+                {
+                    break;
+                }
+
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+
+                if (getChecksum(sequence, payload) != checksum)
+                {
+                    log.error("Damaged record " + sequence + " in log " + getLogFile(generation) + " for " + repositoryName);
+                    break;
+                }
+
+                if (sequence > lastSequence)
+                {
+                    if (sequence != lastSequence + 1)
+                    {
+                        log.error("Missing records before " + sequence + " in log " + getLogFile(generation) + " for " + repositoryName);
+                        break;
+                    }
+
+                    applyChange(payload);
+                    lastSequence = sequence;
+                    replayedRecords ++;
+                }
+            }
+        }
+
+        return replayedRecords;
+    }
+
+
+    /**
+     * Apply a change recorded in the log to the store.
+     *
+     * @param payload serialized change
+     * @throws IOException the change can not be read
+     */
+    private void applyChange(byte[]  payload) throws IOException
+    {
+        try (ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(payload)))
+        {
+            Operation  operation = Operation.values()[objectStream.readInt()];
+            Object     argument  = objectStream.readObject();
+
+            switch (operation)
+            {
+                case CREATE_ENTITY:
+                    store.createEntityInStore((EntityDetail) argument);
+                    break;
+
+                case UPDATE_ENTITY:
+                    store.updateEntityInStore((EntityDetail) argument);
+                    break;
+
+                case SAVE_REFERENCE_ENTITY:
+                    store.saveReferenceEntityToStore((EntityDetail) argument);
+                    break;
+
+                case RESTORE_ENTITY:
+                    store.retrievePreviousVersionOfEntity((String) argument);
+                    break;
+
+                case REMOVE_ENTITY:
+                    store.removeReferenceEntityFromStore((String) argument);
+                    break;
+
+                case SAVE_ENTITY_PROXY:
+                    store.addEntityProxyToStore((EntityProxy) argument);
+                    break;
+
+                case REMOVE_ENTITY_PROXY:
+                    store.removeEntityProxyFromStore((String) argument);
+                    break;
+
+                case CREATE_RELATIONSHIP:
+                    store.createRelationshipInStore((Relationship) argument);
+                    break;
+
+                case UPDATE_RELATIONSHIP:
+                    store.updateRelationshipInStore((Relationship) argument);
+                    break;
+
+                case SAVE_REFERENCE_RELATIONSHIP:
+                    store.saveReferenceRelationshipToStore((Relationship) argument);
+                    break;
+
+                case RESTORE_RELATIONSHIP:
+                    store.retrievePreviousVersionOfRelationship((String) argument);
+                    break;
+
+                case REMOVE_RELATIONSHIP:
+                    store.removeReferenceRelationshipFromStore((String) argument);
+                    break;
+            }
+        }
+        catch (ClassNotFoundException | ClassCastException | ArrayIndexOutOfBoundsException  error)
+        {
+            throw new IOException("Log record contains unexpected content", error);
+        }
+    }
+
+
+    /**
+     * Return the serialized form of a change.
+     *
+     * @param operation operation on the store
+     * @param argument argument passed to the operation
+     * @return serialized change
+     * @throws IOException the argument can not be serialized
+     */
+    private byte[] serializeChange(Operation     operation,
+                                   Serializable  argument) throws IOException
+    {
+        ByteArrayOutputStream  byteStream = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(byteStream))
+        {
+            objectStream.writeInt(operation.ordinal());
+            objectStream.writeObject(argument);
+        }
+
+        return byteStream.toByteArray();
+    }
+
+
+    /**
+     * Return the checksum of a log record.
+     *
+     * @param sequence sequence number of the record
+     * @param payload serialized change
+     * @return CRC-32 value
+     */
+    private long getChecksum(long    sequence,
+                             byte[]  payload)
+    {
+        CRC32  checksum = new CRC32();
+
+        checksum.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence).array());
+        checksum.update(payload);
+
+        return checksum.getValue();
+    }
+
+
+    /**
+     * Close the current log file and start the next one.
+     *
+     * @param minimumSize space needed for the next record
+     * @throws IOException the log file can not be created
+     */
+    private void startNewLog(long  minimumSize) throws IOException
+    {
+        closeLog();
+
+        logGeneration ++;
+        logChannel = FileChannel.open(getLogFile(logGeneration),
+                                      StandardOpenOption.CREATE_NEW,
+                                      StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE);
+        logBuffer = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(logFileSize, minimumSize));
+        forceDirectory();
+    }
+
+
+    /**
+     * Flush and close the current log file.
+     *
+     * @throws IOException the log file can not be flushed
+     */
+    private void closeLog() throws IOException
+    {
+        if (logBuffer != null)
+        {
+            logBuffer.force();
+            logBuffer = null;
+        }
+
+        if (logChannel != null)
+        {
+            logChannel.close();
+            logChannel = null;
+        }
+    }
+
+
+    /**
+     * Ensure the creation, removal and renaming of files in the store directory are on the storage device.
+     * Not all platforms support this.
+     */
+    private void forceDirectory()
+    {
+        try (FileChannel directoryChannel = FileChannel.open(storeDirectory, StandardOpenOption.READ))
+        {
+            directoryChannel.force(true);
+        }
+        catch (IOException  error)
+        {
+            log.debug("Unable to force directory " + storeDirectory, error);
+        }
+    }
+
+
+    /**
+     * Return the generations of the log files in the store directory in ascending order.
+     *
+     * @return sorted list of generations
+     * @throws IOException the directory can not be read
+     */
+    private List<Long> getLogGenerations() throws IOException
+    {
+        List<Long>  generations = new ArrayList<>();
+
+        try (DirectoryStream<Path> logFiles = Files.newDirectoryStream(storeDirectory, logFilePrefix + "*" + logFileSuffix))
+        {
+            for (Path logFile : logFiles)
+            {
+                String fileName = logFile.getFileName().toString();
+
+                try
+                {
+                    generations.add(Long.parseLong(fileName.substring(logFilePrefix.length(),
+                                                                      fileName.length() - logFileSuffix.length())));
+                }
+                catch (NumberFormatException  error)
+                {
+                    log.debug("Ignoring file " + logFile);
+                }
+            }
+        }
+
+        Collections.sort(generations);
+
+        return generations;
+    }
+
+
+    /**
+     * Return the path of a log file.
+     *
+     * @param generation generation of the log file
+     * @return path
+     */
+    private Path getLogFile(long  generation)
+    {
+        return storeDirectory.resolve(String.format("%s%016d%s", logFilePrefix, generation, logFileSuffix));
+    }
+
+
+    /**
+     * The content of the store at a particular point in the log.
+     */
+    private static class Snapshot
+    {
+        final long                                             sequence;
+        long                                                   firstLogGeneration;
+        final Map<String, InMemoryVersionChain<EntityDetail>>  entities;
+        final Map<String, InMemoryVersionChain<Relationship>>  relationships;
+        final Map<String, EntityProxy>                         entityProxies;
+
+
+        /**
+         * Constructor
+         *
+         * @param sequence sequence number of the last log record included
+         * @param firstLogGeneration first log file that is not included
+         * @param entities entity version chains
+         * @param relationships relationship version chains
+         * @param entityProxies entity proxies
+         */
+        Snapshot(long                                             sequence,
+                 long                                             firstLogGeneration,
+                 Map<String, InMemoryVersionChain<EntityDetail>>  entities,
+                 Map<String, InMemoryVersionChain<Relationship>>  relationships,
+                 Map<String, EntityProxy>                         entityProxies)
+        {
+            this.sequence = sequence;
+            this.firstLogGeneration = firstLogGeneration;
+            this.entities = entities;
+            this.relationships = relationships;
+            this.entityProxies = entityProxies;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * InMemoryVersionChain holds all of the stored versions of a single instance (entity or relationship)
+ * in the InMemoryOMRSMetadataStore.  The versions are ordered by the time they became active (update time, or
+ * create time if the instance has never been updated) so that the version active at a particular time can be
+ * located with a binary search.  The current version is tracked separately since it is the last version
+ * stored rather than the one with the latest time.  It is null if the instance has been removed from the store.
+ *
+ * A version chain is immutable.  Each change returns a new chain, which allows the store to publish it
+ * atomically and its readers to use it without locking.
+ *
+ * @param <T> type of instance
+ */
+class InMemoryVersionChain<T extends InstanceAuditHeader>
+{
+    private final List<T>  versions;
+    private final long[]   versionTimes;
+    private final T        currentVersion;
+
+
+    /**
+     * Constructor for a new instance.
+     *
+     * @param firstVersion first version of the instance
+     */
+    InMemoryVersionChain(T   firstVersion)
+    {
+        this.versions = Collections.singletonList(firstVersion);
+        this.versionTimes = new long[]{ getVersionTime(firstVersion) };
+        this.currentVersion = firstVersion;
+    }
+
+
+    /**
+     * Constructor used when the chain is restored from a snapshot of the store.
+     *
+     * @param versions versions ordered by time
+     * @param currentVersionPosition position of the current version in the list (negative if removed)
+     */
+    InMemoryVersionChain(List<T>  versions,
+                         int      currentVersionPosition)
+    {
+        this.versions = Collections.unmodifiableList(new ArrayList<>(versions));
+        this.versionTimes = new long[versions.size()];
+
+        for (int i = 0; i < versionTimes.length; i++)
+        {
+            versionTimes[i] = getVersionTime(versions.get(i));
+        }
+
+        if ((currentVersionPosition >= 0) && (currentVersionPosition < versions.size()))
+        {
+            this.currentVersion = versions.get(currentVersionPosition);
+        }
+        else
+        {
+            this.currentVersion = null;
+        }
+    }
+
+
+    /**
+     * Constructor used when the chain changes.
+     *
+     * @param versions versions ordered by time
+     * @param versionTimes time of each version
+     * @param currentVersion current version (null if removed)
+     */
+    private InMemoryVersionChain(List<T>  versions,
+                                 long[]   versionTimes,
+                                 T        currentVersion)
+    {
+        this.versions = versions;
+        this.versionTimes = versionTimes;
+        this.currentVersion = currentVersion;
+    }
+
+
+    /**
+     * Return the current version of the instance.
+     *
+     * @return instance or null if it has been removed from the store
+     */
+    T getCurrentVersion()
+    {
+        return currentVersion;
+    }
+
+
+    /**
+     * Return all of the stored versions of the instance ordered by time.
+     *
+     * @return unmodifiable list of versions
+     */
+    List<T> getVersions()
+    {
+        return versions;
+    }
+
+
+    /**
+     * Return the position of the current version in the list of versions.
+     *
+     * @return position or -1 if the instance has been removed from the store
+     */
+    int getCurrentVersionPosition()
+    {
+        if (currentVersion == null)
+        {
+            return -1;
+        }
+
+        return versions.lastIndexOf(currentVersion);
+    }
+
+
+    /**
+     * Return the version of the instance that was active at the requested time.
+     *
+     * @param asOfTime time of interest (null means now)
+     * @return instance or null if the instance did not exist at the time
+     */
+    T getVersionAsOf(Date   asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return currentVersion;
+        }
+
+        int  position = getInsertPosition(asOfTime.getTime()) - 1;
+
+        if (position < 0)
+        {
+            return null;
+        }
+
+        return versions.get(position);
+    }
+
+
+    /**
+     * Return a chain that includes the new version as the current version.
+     *
+     * @param newVersion new version of the instance
+     * @return new chain
+     */
+    InMemoryVersionChain<T> addVersion(T   newVersion)
+    {
+        long     newVersionTime  = getVersionTime(newVersion);
+        int      position        = getInsertPosition(newVersionTime);
+        List<T>  newVersions     = new ArrayList<>(versions.size() + 1);
+        long[]   newVersionTimes = new long[versionTimes.length + 1];
+
+        newVersions.addAll(versions);
+        newVersions.add(position, newVersion);
+
+        System.arraycopy(versionTimes, 0, newVersionTimes, 0, position);
+        newVersionTimes[position] = newVersionTime;
+        System.arraycopy(versionTimes, position, newVersionTimes, position + 1, versionTimes.length - position);
+
+        return new InMemoryVersionChain<>(Collections.unmodifiableList(newVersions), newVersionTimes, newVersion);
+    }
+
+
+    /**
+     * Return a chain where the current version is replaced by the new version.  The current version is
+     * not kept in the history.
+     *
+     * @param newVersion new version of the instance
+     * @return new chain
+     */
+    InMemoryVersionChain<T> replaceCurrentVersion(T   newVersion)
+    {
+        return this.discardCurrentVersion().addVersion(newVersion);
+    }
+
+
+    /**
+     * Return a chain for an instance that is removed from the store.  Its versions remain available
+     * for historical queries.
+     *
+     * @return new chain
+     */
+    InMemoryVersionChain<T> removeCurrentVersion()
+    {
+        return new InMemoryVersionChain<>(versions, versionTimes, null);
+    }
+
+
+    /**
+     * Return a chain where the current version is discarded and the previous version is current again.
+     * If the instance has been removed from the store, the last version is restored.
+     *
+     * @return new chain or null if there is no previous version
+     */
+    InMemoryVersionChain<T> restorePreviousVersion()
+    {
+        InMemoryVersionChain<T>  previousChain = this.discardCurrentVersion();
+
+        if (previousChain.versions.isEmpty())
+        {
+            return null;
+        }
+
+        return new InMemoryVersionChain<>(previousChain.versions,
+                                          previousChain.versionTimes,
+                                          previousChain.versions.get(previousChain.versions.size() - 1));
+    }
+
+
+    /**
+     * Return a chain without the current version.  The chain has no current version.
+     *
+     * @return new chain
+     */
+    private InMemoryVersionChain<T> discardCurrentVersion()
+    {
+        if (currentVersion == null)
+        {
+            return this;
+        }
+
+        int  position = versions.lastIndexOf(currentVersion);
+
+        if (position < 0)
+        {
+            return new InMemoryVersionChain<>(versions, versionTimes, null);
+        }
+
+        List<T>  newVersions     = new ArrayList<>(versions);
+        long[]   newVersionTimes = new long[versionTimes.length - 1];
+
+        newVersions.remove(position);
+
+        System.arraycopy(versionTimes, 0, newVersionTimes, 0, position);
+        System.arraycopy(versionTimes, position + 1, newVersionTimes, position, versionTimes.length - position - 1);
+
+        return new InMemoryVersionChain<>(Collections.unmodifiableList(newVersions), newVersionTimes, null);
+    }
+
+
+    /**
+     * Return the position after the last version that became active at or before the requested time.
+     *
+     * @param time time in milliseconds
+     * @return position in the chain
+     */
+    private int getInsertPosition(long   time)
+    {
+        int low  = 0;
+        int high = versionTimes.length;
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+
+            if (versionTimes[middle] <= time)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+
+    /**
+     * Return the time that a version became active.  Versions with no time are never returned by
+     * historical queries.
+     *
+     * @param version version of the instance
+     * @return time in milliseconds
+     */
+    private static long getVersionTime(InstanceAuditHeader   version)
+    {
+        if (version.getUpdateTime() != null)
+        {
+            return version.getUpdateTime().getTime();
+        }
+        else if (version.getCreateTime() != null)
+        {
+            return version.getCreateTime().getTime();
+        }
+
+        return Long.MAX_VALUE;
+    }
+}
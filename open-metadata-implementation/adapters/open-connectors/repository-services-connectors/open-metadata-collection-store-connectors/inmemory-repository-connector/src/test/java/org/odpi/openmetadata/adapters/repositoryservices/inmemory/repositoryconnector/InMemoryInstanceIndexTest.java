@@ -0,0 +1,148 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that InMemoryInstanceIndex narrows the candidates without losing any instances that the
+ * repository validator would match.
+ */
+public class InMemoryInstanceIndexTest
+{
+    @Test
+    void testTypeAndClassificationIndexes()
+    {
+        InMemoryInstanceIndex index = new InMemoryInstanceIndex();
+
+        EntityDetail glossaryTerm = getEntity("1111", "GlossaryTerm", "collection1", "term1");
+        EntityDetail asset        = getEntity("2222", "Asset", "collection1", "asset1");
+
+        Classification confidentiality = new Classification();
+        confidentiality.setName("Confidentiality");
+        asset.setClassifications(Collections.singletonList(confidentiality));
+
+        index.addInstance(glossaryTerm, glossaryTerm.getProperties(), glossaryTerm.getClassifications());
+        index.addInstance(asset, asset.getProperties(), asset.getClassifications());
+
+        assertEquals(index.getTypeNames().size(), 2);
+        assertNull(index.getCandidateGUIDs(null, null, null));
+
+        Set<String> candidates = index.getCandidateGUIDs(Collections.singletonList("GlossaryTerm"), null, null);
+        assertEquals(candidates, Collections.singleton("1111"));
+
+        candidates = index.getCandidateGUIDs(null, Collections.singletonList("Confidentiality"), null);
+        assertEquals(candidates, Collections.singleton("2222"));
+
+        candidates = index.getCandidateGUIDs(Collections.singletonList("GlossaryTerm"),
+                                             Collections.singletonList("Confidentiality"),
+                                             null);
+        assertTrue(candidates.isEmpty());
+
+        index.removeInstance(asset, asset.getProperties(), asset.getClassifications());
+
+        assertEquals(index.getTypeNames(), Collections.singleton("GlossaryTerm"));
+        assertTrue(index.getCandidateGUIDs(null, Collections.singletonList("Confidentiality"), null).isEmpty());
+    }
+
+
+    @Test
+    void testPropertyIndexes()
+    {
+        InMemoryInstanceIndex index = new InMemoryInstanceIndex();
+
+        EntityDetail term1 = getEntity("1111", "GlossaryTerm", "collection1", "term1");
+        EntityDetail term2 = getEntity("2222", "GlossaryTerm", "collection2", "term10");
+        EntityDetail term3 = getEntity("3333", "GlossaryTerm", "collection2", "other");
+
+        index.addInstance(term1, term1.getProperties(), null);
+        index.addInstance(term2, term2.getProperties(), null);
+        index.addInstance(term3, term3.getProperties(), null);
+
+        /*
+         * Exact match
+         */
+        Set<String> candidates = index.getCandidateGUIDs(null, null, getProperties("qualifiedName", Pattern.quote("term1")));
+        assertEquals(candidates, Collections.singleton("1111"));
+
+        /*
+         * Fuzzy match - contains and regex
+         */
+        candidates = index.getCandidateGUIDs(null, null, getProperties("qualifiedName", "term1"));
+        assertEquals(candidates.size(), 2);
+
+        candidates = index.getCandidateGUIDs(null, null, getProperties("qualifiedName", "oth.*"));
+        assertEquals(candidates, Collections.singleton("3333"));
+
+        /*
+         * Header property
+         */
+        candidates = index.getCandidateGUIDs(null, null, getProperties("metadataCollectionId", "collection2"));
+        assertEquals(candidates.size(), 2);
+
+        /*
+         * Invalid regular expression is left to the validator
+         */
+        assertNull(index.getCandidateGUIDs(null, null, getProperties("qualifiedName", "[term")));
+
+        /*
+         * An instance with a property that shadows a header property is always a candidate
+         */
+        EntityDetail shadow = getEntity("4444", "GlossaryTerm", "collection1", "shadow");
+        InstanceProperties shadowProperties = shadow.getProperties();
+        shadowProperties.setProperty("typeName", getStringValue("GlossaryTerm"));
+        shadow.setProperties(shadowProperties);
+        index.addInstance(shadow, shadow.getProperties(), null);
+
+        candidates = index.getCandidateGUIDs(null, null, getProperties("qualifiedName", Pattern.quote("term1")));
+        assertEquals(candidates.size(), 2);
+        assertTrue(candidates.contains("4444"));
+    }
+
+
+    private EntityDetail getEntity(String guid, String typeName, String metadataCollectionId, String qualifiedName)
+    {
+        EntityDetail entity = new EntityDetail();
+        InstanceType type   = new InstanceType();
+
+        type.setTypeDefName(typeName);
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setProperties(getProperties("qualifiedName", qualifiedName));
+
+        return entity;
+    }
+
+
+    private InstanceProperties getProperties(String propertyName, String value)
+    {
+        InstanceProperties properties = new InstanceProperties();
+
+        properties.setProperty(propertyName, getStringValue(value));
+
+        return properties;
+    }
+
+
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        return propertyValue;
+    }
+}
@@ -0,0 +1,204 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify the batch retrieval methods of InMemoryOMRSMetadataCollection, which read the instances directly
+ * from the store.
+ */
+public class InMemoryOMRSMetadataCollectionTest
+{
+    @Mock
+    private InMemoryOMRSRepositoryConnector parentConnector;
+    @Mock
+    private OMRSRepositoryValidator         repositoryValidator;
+    @Mock
+    private OMRSRepositoryHelper            repositoryHelper;
+
+    private InMemoryOMRSMetadataCollection  metadataCollection;
+
+
+    @BeforeMethod
+    public void setup()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        metadataCollection = new InMemoryOMRSMetadataCollection(parentConnector,
+                                                                "testRepository",
+                                                                repositoryHelper,
+                                                                repositoryValidator,
+                                                                "testCollection");
+
+        InMemoryOMRSMetadataStore store = metadataCollection.getRepositoryStore();
+
+        store.createEntityInStore(getEntity("1111", InstanceStatus.ACTIVE));
+        store.createEntityInStore(getEntity("2222", InstanceStatus.ACTIVE));
+        store.createEntityInStore(getEntity("3333", InstanceStatus.ACTIVE));
+        store.createEntityInStore(getEntity("deleted", InstanceStatus.DELETED));
+
+        store.createRelationshipInStore(getRelationship("4444", InstanceStatus.ACTIVE, "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("5555", InstanceStatus.ACTIVE, "2222", "3333"));
+        store.createRelationshipInStore(getRelationship("6666", InstanceStatus.DELETED, "1111", "3333"));
+    }
+
+
+    /**
+     * Validate that entities are returned in the order requested, that unknown and deleted entities are left out,
+     * and that an entity requested twice is returned once.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testGetEntitiesDetail() throws Exception
+    {
+        List<EntityDetail> entities = metadataCollection.getEntitiesDetail("testUser",
+                                                                           Arrays.asList("3333", "unknown", "1111", "deleted", "3333", "2222"));
+
+        assertEquals(getGUIDs(entities), Arrays.asList("3333", "1111", "2222"));
+
+        assertNull(metadataCollection.getEntitiesDetail("testUser", Arrays.asList("unknown", "deleted")));
+        assertNull(metadataCollection.getEntitiesDetail("testUser", new ArrayList<>()));
+        assertNull(metadataCollection.getEntitiesDetail("testUser", null));
+    }
+
+
+    /**
+     * Validate that relationships are returned in the order requested, that unknown and deleted relationships are
+     * left out, and that a relationship requested twice is returned once.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testGetRelationships() throws Exception
+    {
+        List<Relationship> relationships = metadataCollection.getRelationships("testUser",
+                                                                               Arrays.asList("5555", "unknown", "6666", "4444", "5555"));
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("5555", "4444"));
+
+        assertNull(metadataCollection.getRelationships("testUser", Arrays.asList("unknown", "6666")));
+        assertNull(metadataCollection.getRelationships("testUser", new ArrayList<>()));
+        assertNull(metadataCollection.getRelationships("testUser", null));
+    }
+
+
+    /**
+     * Validate that the relationships of many entities follow the order of the requested entities, that a
+     * relationship linking two requested entities or an entity requested twice is returned once, and that
+     * unknown entities and deleted relationships are ignored.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testGetRelationshipsForEntities() throws Exception
+    {
+        List<Relationship> relationships = metadataCollection.getRelationshipsForEntities("testUser",
+                                                                                          Arrays.asList("3333", "unknown", "1111", "3333"),
+                                                                                          null,
+                                                                                          null,
+                                                                                          null);
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("5555", "4444"));
+
+        relationships = metadataCollection.getRelationshipsForEntities("testUser",
+                                                                       Arrays.asList("1111", "2222", "3333"),
+                                                                       null,
+                                                                       null,
+                                                                       null);
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("4444", "5555"));
+
+        relationships = metadataCollection.getRelationshipsForEntities("testUser",
+                                                                       Collections.singletonList("1111"),
+                                                                       "type2",
+                                                                       null,
+                                                                       null);
+
+        assertNull(relationships);
+
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", Collections.singletonList("unknown"), null, null, null));
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", new ArrayList<>(), null, null, null));
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", null, null, null, null));
+    }
+
+
+    private List<String> getGUIDs(List<? extends InstanceHeader> instances)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            guids.add(instance.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    private EntityDetail getEntity(String guid, InstanceStatus status)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(getType("type1"));
+        entity.setStatus(status);
+        entity.setVersion(1);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid, InstanceStatus status, String end1GUID, String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setType(getType("type1"));
+        relationship.setStatus(status);
+        relationship.setVersion(1);
+        relationship.setCreateTime(new Date());
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+
+        type.setTypeDefGUID(typeName);
+        type.setTypeDefName(typeName);
+
+        return type;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+
+        return entityProxy;
+    }
+}
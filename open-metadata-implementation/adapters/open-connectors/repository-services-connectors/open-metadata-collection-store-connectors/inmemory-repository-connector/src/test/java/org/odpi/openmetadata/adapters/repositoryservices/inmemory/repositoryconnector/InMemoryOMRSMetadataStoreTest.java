@@ -0,0 +1,153 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the maintenance of the version chains and indexes in InMemoryOMRSMetadataStore.
+ */
+public class InMemoryOMRSMetadataStoreTest
+{
+    @Test
+    void testRelationshipsForEntity()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createRelationshipInStore(getRelationship("3333", "type1", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("4444", "type2", "1111", "5555"));
+
+        assertEquals(store.getRelationshipsForEntity("1111", null).size(), 2);
+        assertEquals(store.getRelationshipsForEntity("2222", null).size(), 1);
+        assertEquals(store.getRelationshipsForEntity("1111", "type2").get(0).getGUID(), "4444");
+        assertTrue(store.getRelationshipsForEntity("2222", "type2").isEmpty());
+        assertTrue(store.getRelationshipsForEntity("9999", null).isEmpty());
+
+        /*
+         * Changing the type of a relationship moves it in the index.
+         */
+        Relationship retypedRelationship = getRelationship("3333", "type2", "1111", "2222");
+        retypedRelationship.setVersion(2);
+        store.updateRelationshipInStore(retypedRelationship);
+
+        assertTrue(store.getRelationshipsForEntity("2222", "type1").isEmpty());
+
+        List<Relationship> relationships = store.getRelationshipsForEntity("2222", "type2");
+        assertEquals(relationships.size(), 1);
+        assertEquals(relationships.get(0).getVersion(), 2);
+
+        /*
+         * Removed relationships are no longer returned.
+         */
+        store.removeRelationshipFromStore(retypedRelationship);
+        store.removeReferenceRelationshipFromStore("4444");
+
+        assertTrue(store.getRelationshipsForEntity("1111", null).isEmpty());
+        assertTrue(store.getRelationshipsForEntity("5555", null).isEmpty());
+    }
+
+
+    @Test
+    void testVersionHistory()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail version1 = getEntity("1111", 1, 1000L);
+        EntityDetail version2 = getEntity("1111", 2, 2000L);
+        EntityDetail version3 = getEntity("1111", 3, 3000L);
+
+        store.createEntityInStore(version1);
+        store.updateEntityInStore(version2);
+        store.updateEntityInStore(version3);
+
+        assertNull(store.getEntity("1111", new Date(999L)));
+        assertEquals(store.getEntity("1111", new Date(1000L)).getVersion(), 1);
+        assertEquals(store.getEntity("1111", new Date(2500L)).getVersion(), 2);
+        assertEquals(store.getEntity("1111", new Date(5000L)).getVersion(), 3);
+        assertEquals(store.timeWarpEntityStore(new Date(1500L)).get("1111").getVersion(), 1);
+        assertEquals(store.getEntity("1111").getVersion(), 3);
+
+        /*
+         * Restoring the previous version discards the current version.
+         */
+        EntityDetail restoredEntity = store.retrievePreviousVersionOfEntity("1111");
+
+        assertEquals(restoredEntity.getUpdateTime(), new Date(2000L));
+        assertEquals(restoredEntity.getVersion(), 4);
+        assertEquals(store.getEntity("1111", new Date(5000L)).getUpdateTime(), new Date(2000L));
+        assertEquals(store.getEntities(Collections.singletonList("type1"), null, null).size(), 1);
+
+        /*
+         * Removed entities are still available for historical queries.
+         */
+        store.removeReferenceEntityFromStore("1111");
+
+        assertNull(store.getEntity("1111"));
+        assertTrue(store.getEntities().isEmpty());
+        assertTrue(store.getEntities(Collections.singletonList("type1"), null, null).isEmpty());
+        assertEquals(store.getEntity("1111", new Date(1500L)).getUpdateTime(), new Date(1000L));
+
+        restoredEntity = store.retrievePreviousVersionOfEntity("1111");
+
+        assertEquals(restoredEntity.getVersion(), 5);
+        assertEquals(store.getEntity("1111").getUpdateTime(), new Date(2000L));
+
+        assertNull(store.retrievePreviousVersionOfEntity("9999"));
+    }
+
+
+    private EntityDetail getEntity(String guid, long version, long updateTime)
+    {
+        EntityDetail entity = new EntityDetail();
+        InstanceType type   = new InstanceType();
+
+        type.setTypeDefGUID("type1");
+        type.setTypeDefName("type1");
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setVersion(version);
+        entity.setCreateTime(new Date(1000L));
+        entity.setUpdateTime(new Date(updateTime));
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid, String typeGUID, String end1GUID, String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+        InstanceType type         = new InstanceType();
+
+        type.setTypeDefGUID(typeGUID);
+        type.setTypeDefName(typeGUID);
+
+        relationship.setGUID(guid);
+        relationship.setType(type);
+        relationship.setVersion(1);
+        relationship.setCreateTime(new Date());
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+
+        return entityProxy;
+    }
+}
@@ -0,0 +1,231 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that InMemoryOMRSStoreJournal restores the content of the store from its snapshot and log files.
+ */
+public class InMemoryOMRSStoreJournalTest
+{
+    private Path storeDirectory;
+
+
+    @BeforeMethod
+    void createStoreDirectory() throws IOException
+    {
+        storeDirectory = Files.createTempDirectory("inmemory-store");
+    }
+
+
+    @AfterMethod
+    void removeStoreDirectory() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(storeDirectory))
+        {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+
+    @Test
+    void testRestoreFromLog() throws IOException
+    {
+        InMemoryOMRSMetadataStore store   = new InMemoryOMRSMetadataStore();
+        InMemoryOMRSStoreJournal  journal = getJournal(InMemoryOMRSStoreJournal.defaultLogFileSize);
+
+        journal.open(store);
+
+        store.createEntityInStore(getEntity("1111", 1, 1000L));
+        store.updateEntityInStore(getEntity("1111", 2, 2000L));
+        store.createRelationshipInStore(getRelationship("3333", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("4444", "1111", "2222"));
+        store.removeReferenceRelationshipFromStore("4444");
+        store.addEntityProxyToStore(getEntityProxy("2222"));
+
+        /*
+         * The journal is not closed to simulate a server failure.
+         */
+        InMemoryOMRSMetadataStore restoredStore = new InMemoryOMRSMetadataStore();
+        getJournal(InMemoryOMRSStoreJournal.defaultLogFileSize).open(restoredStore);
+
+        assertEquals(restoredStore.getEntity("1111").getVersion(), 2);
+        assertEquals(restoredStore.getEntity("1111", new Date(1500L)).getVersion(), 1);
+        assertNotNull(restoredStore.getEntityProxy("2222"));
+        assertNull(restoredStore.getRelationship("4444"));
+        assertEquals(restoredStore.getRelationshipsForEntity("1111", null).size(), 1);
+        assertEquals(restoredStore.getEntities(null, null, null).size(), 1);
+    }
+
+
+    @Test
+    void testRestoreAfterSnapshots() throws IOException
+    {
+        InMemoryOMRSMetadataStore store   = new InMemoryOMRSMetadataStore();
+        InMemoryOMRSStoreJournal  journal = getJournal(4096L);
+
+        journal.open(store);
+
+        /*
+         * The small log files cause many new log files and snapshots.
+         */
+        for (int i = 0; i < 100; i++)
+        {
+            store.createEntityInStore(getEntity("entity-" + i, 1, 1000L));
+        }
+        for (int i = 0; i < 100; i = i + 2)
+        {
+            store.updateEntityInStore(getEntity("entity-" + i, 2, 2000L));
+        }
+        store.retrievePreviousVersionOfEntity("entity-0");
+
+        journal.close();
+
+        InMemoryOMRSMetadataStore restoredStore = new InMemoryOMRSMetadataStore();
+        InMemoryOMRSStoreJournal  restoredJournal = getJournal(4096L);
+        restoredJournal.open(restoredStore);
+
+        assertEquals(restoredStore.getEntities().size(), 100);
+        assertEquals(restoredStore.getEntity("entity-0").getVersion(), 3);
+        assertEquals(restoredStore.getEntity("entity-0").getUpdateTime(), new Date(1000L));
+        assertEquals(restoredStore.getEntity("entity-2").getVersion(), 2);
+        assertEquals(restoredStore.getEntity("entity-3").getVersion(), 1);
+
+        /*
+         * Changes continue to be recorded after a restart.
+         */
+        restoredStore.removeReferenceEntityFromStore("entity-1");
+        restoredJournal.close();
+
+        InMemoryOMRSMetadataStore secondRestoredStore = new InMemoryOMRSMetadataStore();
+        getJournal(4096L).open(secondRestoredStore);
+
+        assertEquals(secondRestoredStore.getEntities().size(), 99);
+    }
+
+
+    @Test
+    void testDamagedLogRecord() throws IOException
+    {
+        InMemoryOMRSMetadataStore store   = new InMemoryOMRSMetadataStore();
+        InMemoryOMRSStoreJournal  journal = getJournal(InMemoryOMRSStoreJournal.defaultLogFileSize);
+
+        journal.open(store);
+
+        store.createEntityInStore(getEntity("1111", 1, 1000L));
+        store.createEntityInStore(getEntity("2222", 1, 1000L));
+
+        /*
+         * Corrupt the end of the last record in the log to simulate a partial write.
+         */
+        Path  logFile;
+        try (Stream<Path> files = Files.list(storeDirectory))
+        {
+            logFile = files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                           .sorted(Comparator.reverseOrder())
+                           .findFirst()
+                           .orElseThrow(IOException::new);
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw"))
+        {
+            long position = 0;
+
+            while (true)
+            {
+                file.seek(position);
+                int length = file.readInt();
+                file.seek(position + 20 + length);
+
+                if (file.readInt() == 0)
+                {
+                    file.seek(position + 20 + length - 1);
+                    int lastByte = file.read();
+                    file.seek(position + 20 + length - 1);
+                    file.write(lastByte ^ 0xFF);
+                    break;
+                }
+
+                position = position + 20 + length;
+            }
+        }
+
+        InMemoryOMRSMetadataStore restoredStore = new InMemoryOMRSMetadataStore();
+        getJournal(InMemoryOMRSStoreJournal.defaultLogFileSize).open(restoredStore);
+
+        assertNotNull(restoredStore.getEntity("1111"));
+        assertNull(restoredStore.getEntity("2222"));
+        assertTrue(Files.exists(storeDirectory.resolve("store.snapshot")));
+    }
+
+
+    private InMemoryOMRSStoreJournal getJournal(long logFileSize)
+    {
+        return new InMemoryOMRSStoreJournal("TestRepository", storeDirectory.toString(), logFileSize, false, null);
+    }
+
+
+    private EntityDetail getEntity(String guid, long version, long updateTime)
+    {
+        EntityDetail entity = new EntityDetail();
+        InstanceType type   = new InstanceType();
+
+        type.setTypeDefGUID("type1");
+        type.setTypeDefName("type1");
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setVersion(version);
+        entity.setCreateTime(new Date(1000L));
+        entity.setUpdateTime(new Date(updateTime));
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid, String end1GUID, String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+        InstanceType type         = new InstanceType();
+
+        type.setTypeDefGUID("type2");
+        type.setTypeDefName("type2");
+
+        relationship.setGUID(guid);
+        relationship.setType(type);
+        relationship.setVersion(1);
+        relationship.setCreateTime(new Date(1000L));
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    private EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+
+        return entityProxy;
+    }
+}
@@ -10,6 +10,7 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.UUID;
 
 public class RESTClientFactory
@@ -48,6 +49,35 @@ public class RESTClientFactory
     }
 
 
+    /**
+     * Constructor for a client connector with configuration properties that tune its HTTP connections
+     * (see SpringRESTClientConnectorProvider for the supported properties).
+     *
+     * @param serverName name of the OMAG Server to call
+     * @param serverPlatformURLRoot URL root of the server platform where the OMAG Server is running.
+     * @param userId user id for the HTTP request (null for an unsecured client)
+     * @param password password for the HTTP request (null for an unsecured client)
+     * @param configurationProperties properties for the client connector
+     */
+    public RESTClientFactory(String              serverName,
+                             String              serverPlatformURLRoot,
+                             String              userId,
+                             String              password,
+                             Map<String, Object> configurationProperties)
+    {
+        if ((userId != null) && (password != null))
+        {
+            clientConnection = this.getSpringRESTClientConnection(serverName, serverPlatformURLRoot, userId, password);
+        }
+        else
+        {
+            clientConnection = this.getSpringRESTClientConnection(serverName, serverPlatformURLRoot);
+        }
+
+        clientConnection.setConfigurationProperties(configurationProperties);
+    }
+
+
     /**
      * Return the connection object for a Spring based REST Client.
      *
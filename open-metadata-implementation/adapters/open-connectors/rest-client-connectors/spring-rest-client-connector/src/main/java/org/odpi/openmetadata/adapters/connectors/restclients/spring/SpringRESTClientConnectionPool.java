@@ -0,0 +1,528 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * SpringRESTClientConnectionPool manages the HTTP connections used by the SpringRESTClientConnector.  It holds a
+ * single thread-safe RestTemplate that is shared by all of the connectors that use the same settings.  The
+ * RestTemplate issues its requests through an Apache HttpClient whose PoolingHttpClientConnectionManager keeps
+ * the open connections to each server platform and hands them from one request to the next.
+ *
+ * The number of connections to each route (scheme, host and port) is limited to maxConnectionsPerRoute and the
+ * number across all routes to maxConnections.  A request that arrives when all of the connections it may use are
+ * busy waits for up to the connect timeout for one to be released.  The number of requests that found the pool
+ * full is recorded so that a pool that is too small can be detected.  Connections that have been idle for longer
+ * than the idle connection timeout are closed by a background thread.
+ *
+ * Each connector that uses a pool releases it when it disconnects.  When the last connector releases the pool, it
+ * is removed from the registry of pools and its connections and eviction thread are closed.
+ */
+public class SpringRESTClientConnectionPool implements ClientHttpRequestInterceptor
+{
+    static final int      defaultMaxConnectionsPerRoute = 20;
+    static final int      defaultMaxConnections         = 200;
+    static final int      defaultConnectTimeout         = 10000;
+    static final int      defaultReadTimeout            = 60000;
+    static final int      defaultIdleConnectionTimeout  = 60000;
+
+    private static final Logger log = LoggerFactory.getLogger(SpringRESTClientConnectionPool.class);
+
+    /*
+     * Pools are looked up and released under the lock of the registry so a pool is never handed out
+     * while it is being closed.
+     */
+    private static final Map<String, SpringRESTClientConnectionPool> connectionPools = new HashMap<>();
+
+    private final String                                 poolKey;
+    private final int                                    maxConnectionsPerRoute;
+    private final int                                    maxConnections;
+    private final int                                    connectTimeout;
+    private final int                                    readTimeout;
+    private final int                                    idleConnectionTimeout;
+    private final PoolingHttpClientConnectionManager     connectionManager;
+    private final CloseableHttpClient                    httpClient;
+    private final RestTemplate                           restTemplate;
+    private final AtomicLong                             requestCount             = new AtomicLong(0);
+    private final AtomicLong                             saturatedRequestCount    = new AtomicLong(0);
+    private final AtomicInteger                          activeRequestCount       = new AtomicInteger(0);
+    private final AtomicInteger                          peakActiveRequestCount   = new AtomicInteger(0);
+    private int                                          userCount                = 0;
+
+
+    /**
+     * Return the connection pool for the requested settings.  The pool is created on first use.  The caller must
+     * call release() when it no longer needs the pool.
+     *
+     * @param maxConnectionsPerRoute maximum number of connections to a single route (at least one)
+     * @param maxConnections maximum number of connections across all routes (at least maxConnectionsPerRoute)
+     * @param connectTimeout time in milliseconds to wait for a connection (zero means wait forever)
+     * @param readTimeout time in milliseconds to wait for a response (zero means wait forever)
+     * @param idleConnectionTimeout time in milliseconds after which an idle connection is closed (zero means never)
+     * @param keepAlive should the connection be kept open for the next request
+     * @param gzip should the server be asked to compress its responses
+     * @return connection pool
+     */
+    static SpringRESTClientConnectionPool getConnectionPool(int      maxConnectionsPerRoute,
+                                                            int      maxConnections,
+                                                            int      connectTimeout,
+                                                            int      readTimeout,
+                                                            int      idleConnectionTimeout,
+                                                            boolean  keepAlive,
+                                                            boolean  gzip)
+    {
+        int    routeConnections = Math.max(1, maxConnectionsPerRoute);
+        int    totalConnections = Math.max(routeConnections, maxConnections);
+        String poolKey          = routeConnections + ":" + totalConnections + ":" + connectTimeout + ":" + readTimeout + ":"
+                                + idleConnectionTimeout + ":" + keepAlive + ":" + gzip;
+
+        synchronized (connectionPools)
+        {
+            SpringRESTClientConnectionPool connectionPool = connectionPools.get(poolKey);
+
+            if (connectionPool == null)
+            {
+                connectionPool = new SpringRESTClientConnectionPool(poolKey,
+                                                                    routeConnections,
+                                                                    totalConnections,
+                                                                    connectTimeout,
+                                                                    readTimeout,
+                                                                    idleConnectionTimeout,
+                                                                    keepAlive,
+                                                                    gzip);
+                connectionPools.put(poolKey, connectionPool);
+            }
+
+            connectionPool.userCount++;
+
+            return connectionPool;
+        }
+    }
+
+
+    /**
+     * Constructor sets up the connection manager, HTTP client and RestTemplate for the pool.
+     *
+     * @param poolKey key of the pool in the registry
+     * @param maxConnectionsPerRoute maximum number of connections to a single route
+     * @param maxConnections maximum number of connections across all routes
+     * @param connectTimeout time in milliseconds to wait for a connection (zero means wait forever)
+     * @param readTimeout time in milliseconds to wait for a response (zero means wait forever)
+     * @param idleConnectionTimeout time in milliseconds after which an idle connection is closed (zero means never)
+     * @param keepAlive should the connection be kept open for the next request
+     * @param gzip should the server be asked to compress its responses
+     */
+    private SpringRESTClientConnectionPool(String   poolKey,
+                                           int      maxConnectionsPerRoute,
+                                           int      maxConnections,
+                                           int      connectTimeout,
+                                           int      readTimeout,
+                                           int      idleConnectionTimeout,
+                                           boolean  keepAlive,
+                                           boolean  gzip)
+    {
+        this.poolKey = poolKey;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnections = maxConnections;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.idleConnectionTimeout = idleConnectionTimeout;
+
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        this.connectionManager.setMaxTotal(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(connectTimeout)
+                                                   .setConnectionRequestTimeout(connectTimeout)
+                                                   .setSocketTimeout(readTimeout)
+                                                   .build();
+
+        HttpClientBuilder clientBuilder = HttpClientBuilder.create()
+                                                           .setConnectionManager(connectionManager)
+                                                           .setDefaultRequestConfig(requestConfig)
+                                                           .evictExpiredConnections();
+
+        if (idleConnectionTimeout > 0)
+        {
+            clientBuilder.evictIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        /*
+         * The client asks for compressed responses and expands them unless compression is turned off.
+         */
+        if (! gzip)
+        {
+            clientBuilder.disableContentCompression();
+        }
+
+        if (! keepAlive)
+        {
+            clientBuilder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+
+        this.httpClient = clientBuilder.build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.restTemplate.getInterceptors().add(this);
+    }
+
+
+    /**
+     * Release the pool.  Once every connector that requested the pool has released it, the pool is removed from
+     * the registry and its connections are closed.
+     */
+    void release()
+    {
+        synchronized (connectionPools)
+        {
+            if (userCount == 0)
+            {
+                return;
+            }
+
+            userCount--;
+
+            if (userCount > 0)
+            {
+                return;
+            }
+
+            connectionPools.remove(poolKey);
+        }
+
+        try
+        {
+            httpClient.close();
+        }
+        catch (IOException error)
+        {
+            log.debug("Error closing HTTP connection pool " + poolKey + ": " + error.getMessage());
+        }
+    }
+
+
+    /**
+     * Return the RestTemplate that issues requests through this pool.
+     *
+     * @return shared RestTemplate
+     */
+    RestTemplate getRestTemplate()
+    {
+        return restTemplate;
+    }
+
+
+    /**
+     * Return the maximum number of connections to a single route.
+     *
+     * @return connection limit
+     */
+    public int getMaxConnectionsPerRoute()
+    {
+        return maxConnectionsPerRoute;
+    }
+
+
+    /**
+     * Return the maximum number of connections across all routes.
+     *
+     * @return connection limit
+     */
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+
+    /**
+     * Return the time in milliseconds to wait for a connection.
+     *
+     * @return timeout
+     */
+    public int getConnectTimeout()
+    {
+        return connectTimeout;
+    }
+
+
+    /**
+     * Return the time in milliseconds to wait for a response.
+     *
+     * @return timeout
+     */
+    public int getReadTimeout()
+    {
+        return readTimeout;
+    }
+
+
+    /**
+     * Return the time in milliseconds after which an idle connection is closed.
+     *
+     * @return timeout
+     */
+    public int getIdleConnectionTimeout()
+    {
+        return idleConnectionTimeout;
+    }
+
+
+    /**
+     * Return the number of requests issued through this pool.
+     *
+     * @return request count
+     */
+    public long getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+
+    /**
+     * Return the number of requests that found all of the connections they could use busy.
+     *
+     * @return request count
+     */
+    public long getSaturatedRequestCount()
+    {
+        return saturatedRequestCount.get();
+    }
+
+
+    /**
+     * Return the number of requests that are currently using a connection.
+     *
+     * @return request count
+     */
+    public int getActiveRequestCount()
+    {
+        return activeRequestCount.get();
+    }
+
+
+    /**
+     * Return the highest number of requests that have used a connection at the same time.
+     *
+     * @return request count
+     */
+    public int getPeakActiveRequestCount()
+    {
+        return peakActiveRequestCount.get();
+    }
+
+
+    /**
+     * Return the number of open connections that are waiting for a request.
+     *
+     * @return connection count
+     */
+    public int getIdleConnectionCount()
+    {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+
+    /**
+     * Record the request in the pool statistics and issue it.  The connection manager supplies the connection and
+     * takes it back when the response is closed.
+     *
+     * @param request the request
+     * @param body the body of the request
+     * @param execution the request execution
+     * @return the response
+     * @throws IOException no connection became available or the request failed
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest                 request,
+                                        byte[]                      body,
+                                        ClientHttpRequestExecution  execution) throws IOException
+    {
+        requestCount.incrementAndGet();
+
+        if (this.isSaturated(request.getURI()))
+        {
+            saturatedRequestCount.incrementAndGet();
+            log.debug("All of the connections that a request to " + request.getURI().getHost() + " may use are busy.");
+        }
+
+        peakActiveRequestCount.accumulateAndGet(activeRequestCount.incrementAndGet(), Math::max);
+
+        try
+        {
+            return new PooledResponse(execution.execute(request, body));
+        }
+        catch (IOException | RuntimeException error)
+        {
+            activeRequestCount.decrementAndGet();
+            throw error;
+        }
+    }
+
+
+    /**
+     * Return whether a request to the URI would have to wait for a connection.
+     *
+     * @param uri request URI
+     * @return boolean flag
+     */
+    private boolean isSaturated(URI uri)
+    {
+        PoolStats totalStats = connectionManager.getTotalStats();
+
+        if ((totalStats.getLeased() >= totalStats.getMax()) && (totalStats.getAvailable() == 0))
+        {
+            return true;
+        }
+
+        if (uri.getHost() == null)
+        {
+            return false;
+        }
+
+        int port = uri.getPort();
+
+        if (port < 0)
+        {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+
+        PoolStats routeStats = connectionManager.getStats(new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme())));
+
+        return (routeStats.getLeased() >= routeStats.getMax());
+    }
+
+
+    /**
+     * PooledResponse wraps the response from the server so the number of active requests is updated when the
+     * response is closed.
+     */
+    private class PooledResponse implements ClientHttpResponse
+    {
+        private final ClientHttpResponse response;
+        private final AtomicBoolean      closed = new AtomicBoolean(false);
+
+
+        /**
+         * Constructor
+         *
+         * @param response response from the server
+         */
+        PooledResponse(ClientHttpResponse response)
+        {
+            this.response = response;
+        }
+
+
+        /**
+         * Return the status code of the response.
+         *
+         * @return status code
+         * @throws IOException problem reading the response
+         */
+        @Override
+        public HttpStatus getStatusCode() throws IOException
+        {
+            return response.getStatusCode();
+        }
+
+
+        /**
+         * Return the raw status code of the response.
+         *
+         * @return status code
+         * @throws IOException problem reading the response
+         */
+        @Override
+        public int getRawStatusCode() throws IOException
+        {
+            return response.getRawStatusCode();
+        }
+
+
+        /**
+         * Return the status text of the response.
+         *
+         * @return status text
+         * @throws IOException problem reading the response
+         */
+        @Override
+        public String getStatusText() throws IOException
+        {
+            return response.getStatusText();
+        }
+
+
+        /**
+         * Return the headers of the response.
+         *
+         * @return headers
+         */
+        @Override
+        public HttpHeaders getHeaders()
+        {
+            return response.getHeaders();
+        }
+
+
+        /**
+         * Return the body of the response.  A compressed body has already been expanded by the HTTP client.
+         *
+         * @return body stream
+         * @throws IOException problem reading the response
+         */
+        @Override
+        public InputStream getBody() throws IOException
+        {
+            return response.getBody();
+        }
+
+
+        /**
+         * Close the response, which returns the connection to the pool.
+         */
+        @Override
+        public void close()
+        {
+            if (closed.compareAndSet(false, true))
+            {
+                try
+                {
+                    response.close();
+                }
+                finally
+                {
+                    activeRequestCount.decrementAndGet();
+                }
+            }
+        }
+    }
+}
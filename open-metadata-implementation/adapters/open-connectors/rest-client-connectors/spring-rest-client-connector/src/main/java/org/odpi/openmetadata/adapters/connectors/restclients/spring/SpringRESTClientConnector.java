@@ -6,6 +6,7 @@ import org.codehaus.plexus.util.Base64;
 import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.RESTClientConnectorErrorCode;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.slf4j.Logger;
@@ -17,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.Charset;
+import java.util.Map;
 
 
 /**
@@ -24,10 +26,11 @@ import java.nio.charset.Charset;
  */
 public class SpringRESTClientConnector extends RESTClientConnector
 {
-    private RestTemplate restTemplate             = new RestTemplate();
-    private String       serverName               = null;
-    private String       serverPlatformURLRoot    = null;
-    private HttpHeaders  basicAuthorizationHeader = null;
+    private SpringRESTClientConnectionPool connectionPool           = null;
+    private RestTemplate                   restTemplate             = null;
+    private String                         serverName               = null;
+    private String                         serverPlatformURLRoot    = null;
+    private HttpHeaders                    basicAuthorizationHeader = null;
 
     private static final Logger log = LoggerFactory.getLogger(SpringRESTClientConnector.class);
 
@@ -80,6 +83,141 @@ public class SpringRESTClientConnector extends RESTClientConnector
             log.debug("Using no authentication to call server " + this.serverName + " on platform " + this.serverPlatformURLRoot + ".");
 
         }
+
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+        SpringRESTClientConnectionPool previousConnectionPool = this.connectionPool;
+
+        this.connectionPool = SpringRESTClientConnectionPool.getConnectionPool(
+                getIntegerProperty(configurationProperties,
+                                   SpringRESTClientConnectorProvider.maxConnectionsPerRoutePropertyName,
+                                   SpringRESTClientConnectionPool.defaultMaxConnectionsPerRoute),
+                getIntegerProperty(configurationProperties,
+                                   SpringRESTClientConnectorProvider.maxConnectionsPropertyName,
+                                   SpringRESTClientConnectionPool.defaultMaxConnections),
+                getIntegerProperty(configurationProperties,
+                                   SpringRESTClientConnectorProvider.connectTimeoutPropertyName,
+                                   SpringRESTClientConnectionPool.defaultConnectTimeout),
+                getIntegerProperty(configurationProperties,
+                                   SpringRESTClientConnectorProvider.readTimeoutPropertyName,
+                                   SpringRESTClientConnectionPool.defaultReadTimeout),
+                getIntegerProperty(configurationProperties,
+                                   SpringRESTClientConnectorProvider.idleConnectionTimeoutPropertyName,
+                                   SpringRESTClientConnectionPool.defaultIdleConnectionTimeout),
+                getBooleanProperty(configurationProperties, SpringRESTClientConnectorProvider.keepAlivePropertyName, true),
+                getBooleanProperty(configurationProperties, SpringRESTClientConnectorProvider.gzipPropertyName, false));
+
+        this.restTemplate = connectionPool.getRestTemplate();
+
+        /*
+         * A connector that is initialized again gives up the pool it was using before.
+         */
+        if (previousConnectionPool != null)
+        {
+            previousConnectionPool.release();
+        }
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.  The connection pool is released;
+     * its connections are closed once no other connector is using it.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void disconnect() throws ConnectorCheckedException
+    {
+        super.disconnect();
+
+        SpringRESTClientConnectionPool releasedConnectionPool;
+
+        synchronized (this)
+        {
+            releasedConnectionPool = connectionPool;
+            connectionPool = null;
+        }
+
+        if (releasedConnectionPool != null)
+        {
+            releasedConnectionPool.release();
+        }
+    }
+
+
+    /**
+     * Return an integer configuration property, or the default value if it is not set or not a number.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue != null)
+            {
+                try
+                {
+                    int value = Integer.parseInt(propertyValue.toString());
+
+                    if (value >= 0)
+                    {
+                        return value;
+                    }
+                }
+                catch (NumberFormatException error)
+                {
+                    log.error("Ignoring invalid value " + propertyValue + " for configuration property " + propertyName + ".");
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return a boolean configuration property, or the default value if it is not set.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private boolean getBooleanProperty(Map<String, Object> configurationProperties,
+                                       String              propertyName,
+                                       boolean             defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue != null)
+            {
+                return Boolean.parseBoolean(propertyValue.toString());
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return the connection pool used by this connector.  Its statistics show whether requests are waiting for
+     * connections.
+     *
+     * @return connection pool
+     */
+    public SpringRESTClientConnectionPool getConnectionPool()
+    {
+        return connectionPool;
     }
 
 
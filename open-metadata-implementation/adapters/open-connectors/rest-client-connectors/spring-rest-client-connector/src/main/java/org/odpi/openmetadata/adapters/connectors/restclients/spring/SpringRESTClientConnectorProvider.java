@@ -16,6 +16,18 @@ public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvid
     static final String  connectorTypeName = "Spring REST Client Connector";
     static final String  connectorTypeDescription = "Connector that calls the REST API of a remote server using Spring.";
 
+    /*
+     * Optional configuration properties for the HTTP connections.  Connectors with the same settings share
+     * a connection pool.  Timeouts are in milliseconds and zero means no timeout.
+     */
+    public static final String  maxConnectionsPerRoutePropertyName = "maxConnectionsPerRoute";
+    public static final String  maxConnectionsPropertyName         = "maxConnections";
+    public static final String  connectTimeoutPropertyName         = "connectTimeout";
+    public static final String  readTimeoutPropertyName            = "readTimeout";
+    public static final String  idleConnectionTimeoutPropertyName  = "idleConnectionTimeout";
+    public static final String  keepAlivePropertyName              = "keepAlive";
+    public static final String  gzipPropertyName                   = "gzip";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * REST Client Connector implementation.
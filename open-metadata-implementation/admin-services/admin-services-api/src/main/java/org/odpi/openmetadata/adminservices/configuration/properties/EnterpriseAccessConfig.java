@@ -30,6 +30,14 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *         enterpriseOMRSTopicProtocolVersion - the protocol version for the events passed on the
  *                                            enterprise OMRS topic.
  *     </li>
+ *     <li>
+ *         maxParallelRepositoryRequests - the maximum number of requests to the repositories in the connected
+ *                                       cohorts that can run at the same time when processing enterprise queries.
+ *     </li>
+ *     <li>
+ *         repositoryRequestTimeoutInSeconds - the time an enterprise query waits for a response from each
+ *                                           repository before giving up on it.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -41,6 +49,8 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     private String                           enterpriseMetadataCollectionId     = null;
     private Connection                       enterpriseOMRSTopicConnection      = null;
     private OpenMetadataEventProtocolVersion enterpriseOMRSTopicProtocolVersion = null;
+    private int                              maxParallelRepositoryRequests      = 20;
+    private int                              repositoryRequestTimeoutInSeconds  = 30;
 
 
     /**
@@ -60,6 +70,16 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     public EnterpriseAccessConfig(EnterpriseAccessConfig  template)
     {
         super(template);
+
+        if (template != null)
+        {
+            this.enterpriseMetadataCollectionName = template.getEnterpriseMetadataCollectionName();
+            this.enterpriseMetadataCollectionId = template.getEnterpriseMetadataCollectionId();
+            this.enterpriseOMRSTopicConnection = template.getEnterpriseOMRSTopicConnection();
+            this.enterpriseOMRSTopicProtocolVersion = template.getEnterpriseOMRSTopicProtocolVersion();
+            this.maxParallelRepositoryRequests = template.getMaxParallelRepositoryRequests();
+            this.repositoryRequestTimeoutInSeconds = template.getRepositoryRequestTimeoutInSeconds();
+        }
     }
 
 
@@ -177,6 +197,52 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the maximum number of requests to the repositories in the connected cohorts that can run
+     * at the same time when processing enterprise queries.
+     *
+     * @return number of requests
+     */
+    public int getMaxParallelRepositoryRequests()
+    {
+        return maxParallelRepositoryRequests;
+    }
+
+
+    /**
+     * Set up the maximum number of requests to the repositories in the connected cohorts that can run
+     * at the same time when processing enterprise queries.
+     *
+     * @param maxParallelRepositoryRequests number of requests
+     */
+    public void setMaxParallelRepositoryRequests(int maxParallelRepositoryRequests)
+    {
+        this.maxParallelRepositoryRequests = maxParallelRepositoryRequests;
+    }
+
+
+    /**
+     * Return the time an enterprise query waits for a response from each repository.
+     *
+     * @return time in seconds
+     */
+    public int getRepositoryRequestTimeoutInSeconds()
+    {
+        return repositoryRequestTimeoutInSeconds;
+    }
+
+
+    /**
+     * Set up the time an enterprise query waits for a response from each repository.
+     *
+     * @param repositoryRequestTimeoutInSeconds time in seconds
+     */
+    public void setRepositoryRequestTimeoutInSeconds(int repositoryRequestTimeoutInSeconds)
+    {
+        this.repositoryRequestTimeoutInSeconds = repositoryRequestTimeoutInSeconds;
+    }
+
+
     /**
      * Standard toString method.
      *
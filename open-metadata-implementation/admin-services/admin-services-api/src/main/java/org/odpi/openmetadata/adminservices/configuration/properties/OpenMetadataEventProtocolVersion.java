@@ -12,15 +12,19 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
 /**
- * OpenMetadataEventProtocolVersion provides the identifier for the version number of the event payload.  There is
- * only one version at the moment which is why it looks a little sad.
+ * OpenMetadataEventProtocolVersion provides the identifier for the version number of the event payload.
+ * V1_COMPACT sends the V1 payload in a compact encoding that is smaller on the wire.  The encoding is negotiated
+ * through the registry events, so JSON is still sent while any member that has been heard from does not
+ * support it.  Members from before the compact encoding can not take part in this negotiation until they
+ * register again, so every member of the cohort should be upgraded before V1_COMPACT is configured.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown=true)
 public enum OpenMetadataEventProtocolVersion implements Serializable
 {
-    V1 (1, "V1", "Version 1");
+    V1         (1, "V1", "Version 1"),
+    V1_COMPACT (2, "V1_COMPACT", "Version 1 using the compact event encoding");
 
     private static final long     serialVersionUID = 1L;
 
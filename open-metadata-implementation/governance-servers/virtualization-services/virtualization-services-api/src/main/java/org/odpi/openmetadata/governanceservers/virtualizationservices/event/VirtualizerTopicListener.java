@@ -2,13 +2,13 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.governanceservers.virtualizationservices.event;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.accessservices.dataplatform.events.NewViewEvent;
 import org.odpi.openmetadata.accessservices.informationview.events.*;
 import org.odpi.openmetadata.openconnectors.governancedaemonconnectors.viewgenerator.utils.ConnectorUtils;
 import org.odpi.openmetadata.openconnectors.governancedaemonconnectors.viewgenerator.ViewGeneratorConnectorBase;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,11 +56,10 @@ public class VirtualizerTopicListener implements OpenMetadataTopicListener {
     @Override
     public void processEvent (String event){
         log.info("The following event is received: " + event);
-        ObjectMapper objectMapper = new ObjectMapper();
         try{
             TableContextEvent eventObject;
             try {
-                eventObject = objectMapper.readValue(event, TableContextEvent.class);
+                eventObject = OMRSJSONSerializer.readValue(event, TableContextEvent.class);
             } catch (Exception e){
                 log.info("An event is not Table Context Event, discarded!");
                 eventObject = null;
@@ -69,7 +68,7 @@ public class VirtualizerTopicListener implements OpenMetadataTopicListener {
                 Map<String, String> views = viewGeneratorConnector.processInformationViewEvent(eventObject);
                 List<NewViewEvent> viewEvents = generateViewEvents(eventObject, views);
                 for (NewViewEvent item : viewEvents){
-                    virtualizerOutboundTopicConnector.sendEvent(objectMapper.writeValueAsString(item));
+                    virtualizerOutboundTopicConnector.sendEvent(OMRSJSONSerializer.writeValueAsString(item));
                 }
             }
         }catch (Exception e){
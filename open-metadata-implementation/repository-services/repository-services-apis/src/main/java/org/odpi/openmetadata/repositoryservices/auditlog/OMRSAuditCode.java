@@ -256,6 +256,13 @@ public enum OMRSAuditCode
                               "The server fails to start.",
                               "Correct the configuration to ensure that the cohort's topic connection is valid."),
 
+    AUDIT_LOG_STORE_WRITE_ERROR("OMRS-AUDIT-0039",
+                              OMRSAuditLogRecordSeverity.EXCEPTION,
+                              "The audit log store in {0} was unable to write {1} audit log records due to a {2} exception with the following error message: {3}",
+                              "The records are lost.  The audit log store keeps writing the records that follow, starting a new segment " +
+                                      "file if it can.",
+                              "Check that the audit log directory is available to the server and that its file system has space."),
+
     NEW_ENTERPRISE_CONNECTOR("OMRS-AUDIT-0040",
                       OMRSAuditLogRecordSeverity.INFO,
                       "An enterprise OMRS connector has been created for the {0} Open Metadata Access Service (OMAS)",
@@ -280,6 +287,21 @@ public enum OMRSAuditCode
                       "The connector will support access to the connected open metadata repositories.",
                       "No action is required.  This is part of the normal operation of the server."),
 
+    SLOW_FEDERATED_REQUEST("OMRS-AUDIT-0044",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The {0} request to the repository with metadata collection {1} took {2} milliseconds which is more than half of the {3} millisecond timeout",
+                      "The results from the repository are included in the response to the enterprise request.",
+                      "Review the performance of the repository and the network connection to it.  If the repository is " +
+                              "often slow, increase the repository request timeout in the enterprise access configuration."),
+
+    FEDERATED_REQUEST_TIMED_OUT("OMRS-AUDIT-0045",
+                      OMRSAuditLogRecordSeverity.ERROR,
+                      "The {0} request to the repository with metadata collection {1} did not complete within the {2} millisecond timeout",
+                      "The request to the repository is cancelled.  The response to the enterprise request only " +
+                              "includes results from the repositories that responded in time.",
+                      "Check that the repository is running and can be reached from this server.  If the repository is " +
+                              "expected to be slow, increase the repository request timeout in the enterprise access configuration."),
+
     PROCESSING_ARCHIVE("OMRS-AUDIT-0050",
                        OMRSAuditLogRecordSeverity.INFO,
                        "The Open Metadata Repository Services (OMRS) is about to process open metadata archive {0}",
@@ -306,6 +328,20 @@ public enum OMRSAuditCode
                        "The local server has completed the processing of the open metadata archive.",
                        "No action is required.  This is part of the normal operation of the server."),
 
+    ARCHIVE_LOAD_PROGRESS("OMRS-AUDIT-0054",
+                       OMRSAuditLogRecordSeverity.INFO,
+                       "The Open Metadata Repository Services (OMRS) has read {0} instances from open metadata archive {1}",
+                       "The local server is passing the instances from the open metadata archive to the local repository in batches.",
+                       "No action is required.  This is part of the normal operation of the server."),
+
+    ARCHIVE_LOAD_FAILED("OMRS-AUDIT-0055",
+                       OMRSAuditLogRecordSeverity.EXCEPTION,
+                       "The Open Metadata Repository Services (OMRS) stopped processing open metadata archive {0} because of error {1}",
+                       "The local server has skipped the rest of the open metadata archive.  Any types and instances " +
+                          "that were loaded before the error remain in the local repository.",
+                       "Review the error message to determine the cause of the error.  " +
+                          "Correct the archive or its connection in the server configuration and restart the server."),
+
     REGISTERED_WITH_COHORT("OMRS-AUDIT-0060",
                            OMRSAuditLogRecordSeverity.INFO,
                            "Registering with open metadata repository cohort {0} using metadata collection id {1}",
@@ -345,6 +381,21 @@ public enum OMRSAuditCode
                       "The OMRS Topic Connector was passed a null event by the event bus.",
                       "Review the exception to determine the source of the error and correct it."),
 
+    COMPACT_EVENT_DECODING_ERROR("OMRS-AUDIT-0103",
+                      OMRSAuditLogRecordSeverity.EXCEPTION,
+                      "Unable to decode an incoming compact event {0} from topic {1} due to exception {2}",
+                      "The event is passed on to the listeners unchanged and is likely to be rejected by them.  The information " +
+                              "in the event is not available to the server.",
+                      "Check that every member of the cohort is at a level that supports the compact event encoding.  " +
+                              "If they are, review the exception to determine why the event is corrupt."),
+
+    EVENT_ENCODING_CHANGED("OMRS-AUDIT-0104",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The OMRS Topic Connector {0} is now sending type definition and instance events using the {1} encoding",
+                      "The compact encoding is configured for the cohort.  It is only used while every member that has " +
+                              "registered with the cohort has advertised that it can decode compact events.  Otherwise JSON is used.",
+                      "No action is required.  If JSON is being used, check that every member of the cohort has been upgraded."),
+
     SEND_REGISTRY_EVENT_ERROR("OMRS-AUDIT-0105",
                       OMRSAuditLogRecordSeverity.EXCEPTION,
                       "Unable to send a registry event for cohort {0} due to an error in the OMRS Topic Connector",
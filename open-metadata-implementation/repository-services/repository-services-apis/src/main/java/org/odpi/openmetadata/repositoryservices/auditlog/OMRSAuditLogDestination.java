@@ -3,30 +3,44 @@
 package org.odpi.openmetadata.repositoryservices.auditlog;
 
 
+import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecordOriginator;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogReportingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * OMRSAuditLogDestination provides information needed to log records to the configured audit log destinations
  * for a specific server instance.
+ *
+ * Each audit log store is passed its records on the thread that logged them unless the configuration properties
+ * of the store's connection request asynchronous delivery (see OMRSAuditLogStoreProviderBase).  The records for
+ * these stores are passed through an OMRSAuditLogStoreQueue so a slow store does not hold up the server.
  */
 public class OMRSAuditLogDestination
 {
-    private final OMRSAuditLogRecordOriginator originator     = new OMRSAuditLogRecordOriginator();
-    private       List<OMRSAuditLogStore>      auditLogStores = null;
+    private final OMRSAuditLogRecordOriginator originator          = new OMRSAuditLogRecordOriginator();
+    private       List<OMRSAuditLogStore>      auditLogStores      = null;
+    private       List<OMRSAuditLogStoreQueue> auditLogStoreQueues = null;
 
     private static final Logger log = LoggerFactory.getLogger(OMRSAuditLog.class);
 
+    /**
+     * Constructor used when the originator values are not known.
+     *
+     * @param auditLogStores list of destinations for the audit log records
+     */
     public OMRSAuditLogDestination(List<OMRSAuditLogStore> auditLogStores)
     {
-        this.auditLogStores = auditLogStores;
+        this.setUpAuditLogStores(auditLogStores);
     }
 
 
@@ -48,13 +62,139 @@ public class OMRSAuditLogDestination
         this.originator.setServerType(localServerType);
         this.originator.setOrganizationName(localOrganizationName);
 
+        this.setUpAuditLogStores(auditLogStores);
+    }
+
+
+    /**
+     * Save the audit log stores and create a queue for each store whose connection requests asynchronous delivery.
+     * The queues are held in a list that parallels the stores, with null for the stores that are written synchronously.
+     *
+     * @param auditLogStores list of destinations for the audit log records
+     */
+    private void setUpAuditLogStores(List<OMRSAuditLogStore> auditLogStores)
+    {
         if (auditLogStores != null)
         {
             this.auditLogStores = new ArrayList<>(auditLogStores);
+            this.auditLogStoreQueues = new ArrayList<>();
+
+            int storeNumber = 0;
+
+            for (OMRSAuditLogStore  auditLogStore : auditLogStores)
+            {
+                this.auditLogStoreQueues.add(this.getAuditLogStoreQueue(auditLogStore, storeNumber));
+                storeNumber++;
+            }
         }
     }
 
 
+    /**
+     * Create a queue for an audit log store if the configuration properties of its connection request asynchronous
+     * delivery.  Invalid values are logged and replaced by their defaults.
+     *
+     * @param auditLogStore audit log store connector
+     * @param storeNumber position of the store in the list of stores
+     * @return queue or null if the store is written synchronously
+     */
+    private OMRSAuditLogStoreQueue getAuditLogStoreQueue(OMRSAuditLogStore  auditLogStore,
+                                                         int                storeNumber)
+    {
+        if (! (auditLogStore instanceof ConnectorBase))
+        {
+            return null;
+        }
+
+        ConnectionProperties connection = ((ConnectorBase)auditLogStore).getConnection();
+
+        if (connection == null)
+        {
+            return null;
+        }
+
+        Map<String, Object> configurationProperties = connection.getConfigurationProperties();
+
+        if ((configurationProperties == null) ||
+            (! OMRSAuditLogStoreProviderBase.asynchronousDelivery.equalsIgnoreCase(
+                    String.valueOf(configurationProperties.get(OMRSAuditLogStoreProviderBase.auditLogDeliveryProperty)))))
+        {
+            return null;
+        }
+
+        int capacity = this.getIntegerProperty(configurationProperties,
+                                               OMRSAuditLogStoreProviderBase.auditLogQueueCapacityProperty,
+                                               OMRSAuditLogStoreProviderBase.defaultQueueCapacity);
+        int batchSize = this.getIntegerProperty(configurationProperties,
+                                                OMRSAuditLogStoreProviderBase.auditLogBatchSizeProperty,
+                                                OMRSAuditLogStoreProviderBase.defaultBatchSize);
+
+        OMRSAuditLogOverflowPolicy overflowPolicy = OMRSAuditLogOverflowPolicy.BLOCK;
+        Object                     policyProperty = configurationProperties.get(OMRSAuditLogStoreProviderBase.auditLogOverflowPolicyProperty);
+
+        if (policyProperty != null)
+        {
+            try
+            {
+                overflowPolicy = OMRSAuditLogOverflowPolicy.valueOf(policyProperty.toString().trim().toUpperCase().replace(' ', '_').replace('-', '_'));
+            }
+            catch (IllegalArgumentException error)
+            {
+                log.error("Ignoring invalid " + OMRSAuditLogStoreProviderBase.auditLogOverflowPolicyProperty + " value: " + policyProperty);
+            }
+        }
+
+        String storeName = connection.getDisplayName();
+
+        if (storeName == null)
+        {
+            storeName = auditLogStore.getClass().getSimpleName() + "-" + storeNumber;
+        }
+
+        return new OMRSAuditLogStoreQueue(auditLogStore, storeName, capacity, overflowPolicy, batchSize);
+    }
+
+
+    /**
+     * Return a positive integer configuration property.
+     *
+     * @param configurationProperties properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is missing or invalid
+     * @return property value
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        Object propertyValue = configurationProperties.get(propertyName);
+
+        if (propertyValue != null)
+        {
+            try
+            {
+                int value = (propertyValue instanceof Number) ? ((Number)propertyValue).intValue()
+                                                              : Integer.parseInt(propertyValue.toString().trim());
+
+                if (value > 0)
+                {
+                    return value;
+                }
+            }
+            catch (NumberFormatException error)
+            {
+                /*
+                 * Logged below
+                 */
+            }
+
+            log.error("Ignoring invalid " + propertyName + " value: " + propertyValue);
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Set up the local metadata collection Id.  This is null if there is no local repository.
      *
@@ -105,8 +245,10 @@ public class OMRSAuditLogDestination
 
         if (auditLogStores != null)
         {
-            for (OMRSAuditLogStore  auditLogStore : auditLogStores)
+            for (int i = 0; i < auditLogStores.size(); i++)
             {
+                OMRSAuditLogStore  auditLogStore = auditLogStores.get(i);
+
                 if (auditLogStore != null)
                 {
                     List<String> additionalInformationArray = null;
@@ -125,6 +267,14 @@ public class OMRSAuditLogDestination
                                                                           additionalInformationArray,
                                                                           systemAction,
                                                                           userAction);
+
+                    OMRSAuditLogStoreQueue auditLogStoreQueue = auditLogStoreQueues.get(i);
+
+                    if ((auditLogStoreQueue != null) && (auditLogStoreQueue.add(logRecord)))
+                    {
+                        continue;
+                    }
+
                     try
                     {
                         auditLogStore.storeLogRecord(logRecord);
@@ -137,4 +287,42 @@ public class OMRSAuditLogDestination
             }
         }
     }
+
+
+    /**
+     * Return the queues used to deliver records to the audit log stores that are written asynchronously.
+     * The queues provide metrics on the records waiting, delivered and dropped for each store.
+     *
+     * @return list of queues (empty if all stores are written synchronously)
+     */
+    public List<OMRSAuditLogStoreQueue> getAuditLogStoreQueues()
+    {
+        List<OMRSAuditLogStoreQueue> queues = new ArrayList<>();
+
+        if (auditLogStoreQueues != null)
+        {
+            for (OMRSAuditLogStoreQueue auditLogStoreQueue : auditLogStoreQueues)
+            {
+                if (auditLogStoreQueue != null)
+                {
+                    queues.add(auditLogStoreQueue);
+                }
+            }
+        }
+
+        return queues;
+    }
+
+
+    /**
+     * Deliver the records waiting for the asynchronous audit log stores and stop their writer threads.
+     * Any records logged afterwards are written to these stores synchronously.
+     */
+    public void disconnect()
+    {
+        for (OMRSAuditLogStoreQueue auditLogStoreQueue : this.getAuditLogStoreQueues())
+        {
+            auditLogStoreQueue.close();
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+/**
+ * OMRSAuditLogOverflowPolicy defines what happens when an audit log record is logged while the queue of
+ * records waiting to be written to an asynchronous audit log store is full.
+ * <ul>
+ *     <li>
+ *         BLOCK: The thread logging the record waits until there is space in the queue.  No records are lost.
+ *     </li>
+ *     <li>
+ *         DROP_OLDEST: The oldest record waiting in the queue is discarded to make space for the new record.
+ *     </li>
+ *     <li>
+ *         DROP_NEWEST: The new record is discarded.
+ *     </li>
+ * </ul>
+ * Every discarded record is counted so the loss can be reported.
+ */
+public enum OMRSAuditLogOverflowPolicy
+{
+    BLOCK       (0, "Block",       "Wait for space in the queue."),
+    DROP_OLDEST (1, "Drop Oldest", "Discard the oldest queued record to make space for the new record."),
+    DROP_NEWEST (2, "Drop Newest", "Discard the new record.");
+
+
+    private  int    policyCode;
+    private  String policyName;
+    private  String policyDescription;
+
+
+    /**
+     * Typical constructor sets up the selected enum value.
+     *
+     * @param policyCode numeric of this enum.
+     * @param policyName name of enum.
+     * @param policyDescription default description of enum.
+     */
+    OMRSAuditLogOverflowPolicy(int      policyCode,
+                               String   policyName,
+                               String   policyDescription)
+    {
+        this.policyCode = policyCode;
+        this.policyName = policyName;
+        this.policyDescription = policyDescription;
+    }
+
+
+    /**
+     * Return the code for this enum.
+     *
+     * @return int numeric for this enum
+     */
+    public int getOrdinal()
+    {
+        return policyCode;
+    }
+
+
+    /**
+     * Return the name of this enum.
+     *
+     * @return String name
+     */
+    public String getName()
+    {
+        return policyName;
+    }
+
+
+    /**
+     * Return the default description of this enum.  This description is in English.
+     *
+     * @return String default description
+     */
+    public String getDescription()
+    {
+        return policyDescription;
+    }
+
+
+    /**
+     * toString() JSON-style
+     *
+     * @return string description
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSAuditLogOverflowPolicy{" +
+                "policyCode=" + policyCode +
+                ", policyName='" + policyName + '\'' +
+                ", policyDescription='" + policyDescription + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,495 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OMRSAuditLogStoreQueue delivers audit log records to a single audit log store on a dedicated writer thread
+ * so the threads logging the records do not wait for the store.  The records wait in a bounded ring buffer.
+ * When the buffer is full the overflow policy decides whether the logging thread waits or a record is discarded.
+ * The writer thread takes up to batchSize records at a time and passes them to the store as one list if the store
+ * is an OMRSAuditLogStoreConnectorBase.
+ *
+ * The queue keeps counts of the records delivered, dropped and rejected by the store, along with the current and
+ * highest queue depth, so the health of the audit log can be monitored.
+ */
+public class OMRSAuditLogStoreQueue implements Runnable
+{
+    private static final long   writerShutdownTimeout = 10000;
+
+    private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogStoreQueue.class);
+
+    private final OMRSAuditLogStore          auditLogStore;
+    private final String                     auditLogStoreName;
+    private final OMRSAuditLogOverflowPolicy overflowPolicy;
+    private final int                        batchSize;
+
+    private final ReentrantLock              lock     = new ReentrantLock();
+    private final Condition                  notEmpty = lock.newCondition();
+    private final Condition                  notFull  = lock.newCondition();
+    private final Condition                  drained  = lock.newCondition();
+
+    private final OMRSAuditLogRecord[]       queuedRecords;
+    private       int                        head                 = 0;
+    private       int                        queueDepth           = 0;
+    private       int                        peakQueueDepth       = 0;
+    private       boolean                    writing              = false;
+    private       boolean                    closed               = false;
+    private       long                       deliveredRecordCount = 0;
+    private       long                       droppedRecordCount   = 0;
+    private       long                       failedRecordCount    = 0;
+
+    private final Thread                     writer;
+
+
+    /**
+     * Constructor sets up the queue and starts the writer thread.
+     *
+     * @param auditLogStore store to deliver the records to
+     * @param auditLogStoreName name of the store used in the writer thread's name and in messages
+     * @param capacity maximum number of records waiting to be delivered
+     * @param overflowPolicy what to do with a new record when the queue is full
+     * @param batchSize maximum number of records passed to the store at once
+     */
+    public OMRSAuditLogStoreQueue(OMRSAuditLogStore          auditLogStore,
+                                  String                     auditLogStoreName,
+                                  int                        capacity,
+                                  OMRSAuditLogOverflowPolicy overflowPolicy,
+                                  int                        batchSize)
+    {
+        this.auditLogStore = auditLogStore;
+        this.auditLogStoreName = auditLogStoreName;
+        this.queuedRecords = new OMRSAuditLogRecord[Math.max(capacity, 1)];
+        this.overflowPolicy = (overflowPolicy == null) ? OMRSAuditLogOverflowPolicy.BLOCK : overflowPolicy;
+        this.batchSize = Math.max(batchSize, 1);
+
+        this.writer = new Thread(this, "OMRSAuditLogStoreQueue:" + auditLogStoreName);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+
+    /**
+     * Add a record to the queue.  If the queue is full the overflow policy is applied.  The record is not
+     * accepted once the queue is closed and the caller is then responsible for delivering it.
+     *
+     * @param logRecord record to deliver
+     * @return true if the queue has taken responsibility for the record (even if the overflow policy discarded it),
+     * false if the queue is closed
+     */
+    public boolean add(OMRSAuditLogRecord logRecord)
+    {
+        lock.lock();
+        try
+        {
+            while ((! closed) && (queueDepth == queuedRecords.length))
+            {
+                if (overflowPolicy == OMRSAuditLogOverflowPolicy.DROP_NEWEST)
+                {
+                    droppedRecordCount++;
+                    return true;
+                }
+                else if (overflowPolicy == OMRSAuditLogOverflowPolicy.DROP_OLDEST)
+                {
+                    queuedRecords[head] = null;
+                    head = (head + 1) % queuedRecords.length;
+                    queueDepth--;
+                    droppedRecordCount++;
+                }
+                else
+                {
+                    notFull.awaitUninterruptibly();
+                }
+            }
+
+            if (closed)
+            {
+                return false;
+            }
+
+            queuedRecords[(head + queueDepth) % queuedRecords.length] = logRecord;
+            queueDepth++;
+
+            if (queueDepth > peakQueueDepth)
+            {
+                peakQueueDepth = queueDepth;
+            }
+
+            notEmpty.signal();
+
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Writer thread takes batches of records from the queue and delivers them to the store until the
+     * queue is closed and empty.
+     */
+    @Override
+    public void run()
+    {
+        while (true)
+        {
+            List<OMRSAuditLogRecord> batch;
+
+            lock.lock();
+            try
+            {
+                while ((queueDepth == 0) && (! closed))
+                {
+                    notEmpty.awaitUninterruptibly();
+                }
+
+                if (queueDepth == 0)
+                {
+                    drained.signalAll();
+                    return;
+                }
+
+                int batchLength = Math.min(queueDepth, batchSize);
+
+                batch = new ArrayList<>(batchLength);
+
+                for (int i = 0; i < batchLength; i++)
+                {
+                    batch.add(queuedRecords[head]);
+                    queuedRecords[head] = null;
+                    head = (head + 1) % queuedRecords.length;
+                }
+
+                queueDepth = queueDepth - batchLength;
+                writing = true;
+                notFull.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            long delivered = deliver(batch);
+
+            lock.lock();
+            try
+            {
+                deliveredRecordCount = deliveredRecordCount + delivered;
+                failedRecordCount = failedRecordCount + (batch.size() - delivered);
+                writing = false;
+
+                if (queueDepth == 0)
+                {
+                    drained.signalAll();
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Pass a batch of records to the store.  Failures are logged rather than thrown since there is
+     * nowhere else to report them.
+     *
+     * @param batch records to deliver
+     * @return number of records the store accepted
+     */
+    private long deliver(List<OMRSAuditLogRecord> batch)
+    {
+        if (auditLogStore instanceof OMRSAuditLogStoreConnectorBase)
+        {
+            try
+            {
+                ((OMRSAuditLogStoreConnectorBase)auditLogStore).storeLogRecords(batch);
+
+                return batch.size();
+            }
+            catch (Throwable error)
+            {
+                log.error("Error: " + error + " writing " + batch.size() + " records to audit log " + auditLogStoreName);
+
+                return 0;
+            }
+        }
+
+        long delivered = 0;
+
+        for (OMRSAuditLogRecord logRecord : batch)
+        {
+            try
+            {
+                auditLogStore.storeLogRecord(logRecord);
+                delivered++;
+            }
+            catch (Throwable error)
+            {
+                log.error("Error: " + error + " writing audit log: " + logRecord);
+            }
+        }
+
+        return delivered;
+    }
+
+
+    /**
+     * Wait for the records currently in the queue to be passed to the store.
+     *
+     * @param timeout maximum number of milliseconds to wait
+     * @return true if the queue is empty and no batch is being written
+     */
+    public boolean flush(long timeout)
+    {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        lock.lock();
+        try
+        {
+            while (((queueDepth > 0) || (writing)) && (writer.isAlive()))
+            {
+                if (remaining <= 0)
+                {
+                    return false;
+                }
+
+                try
+                {
+                    remaining = drained.awaitNanos(remaining);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+
+            return (queueDepth == 0) && (! writing);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Stop accepting records, deliver the records already queued and stop the writer thread.
+     * Threads waiting for space in the queue are released and their records are returned to them.
+     */
+    public void close()
+    {
+        lock.lock();
+        try
+        {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        try
+        {
+            writer.join(writerShutdownTimeout);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writer.isAlive())
+        {
+            log.error("Audit log " + auditLogStoreName + " did not finish writing " + getQueueDepth() + " records");
+        }
+    }
+
+
+    /**
+     * Return the store that this queue delivers to.
+     *
+     * @return audit log store
+     */
+    public OMRSAuditLogStore getAuditLogStore()
+    {
+        return auditLogStore;
+    }
+
+
+    /**
+     * Return the name of the store that this queue delivers to.
+     *
+     * @return name
+     */
+    public String getAuditLogStoreName()
+    {
+        return auditLogStoreName;
+    }
+
+
+    /**
+     * Return the maximum number of records that can wait in the queue.
+     *
+     * @return capacity
+     */
+    public int getCapacity()
+    {
+        return queuedRecords.length;
+    }
+
+
+    /**
+     * Return what happens to a new record when the queue is full.
+     *
+     * @return overflow policy
+     */
+    public OMRSAuditLogOverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+
+    /**
+     * Return the maximum number of records passed to the store at once.
+     *
+     * @return batch size
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+
+    /**
+     * Return the number of records waiting to be delivered.
+     *
+     * @return count
+     */
+    public int getQueueDepth()
+    {
+        lock.lock();
+        try
+        {
+            return queueDepth;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the highest number of records that have been waiting at once.
+     *
+     * @return count
+     */
+    public int getPeakQueueDepth()
+    {
+        lock.lock();
+        try
+        {
+            return peakQueueDepth;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of records accepted by the store.
+     *
+     * @return count
+     */
+    public long getDeliveredRecordCount()
+    {
+        lock.lock();
+        try
+        {
+            return deliveredRecordCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of records discarded by the overflow policy.
+     *
+     * @return count
+     */
+    public long getDroppedRecordCount()
+    {
+        lock.lock();
+        try
+        {
+            return droppedRecordCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of records the store failed to write.
+     *
+     * @return count
+     */
+    public long getFailedRecordCount()
+    {
+        lock.lock();
+        try
+        {
+            return failedRecordCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * toString() JSON-style
+     *
+     * @return string description
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSAuditLogStoreQueue{" +
+                "auditLogStoreName='" + auditLogStoreName + '\'' +
+                ", capacity=" + getCapacity() +
+                ", overflowPolicy=" + overflowPolicy +
+                ", batchSize=" + batchSize +
+                ", queueDepth=" + getQueueDepth() +
+                ", peakQueueDepth=" + getPeakQueueDepth() +
+                ", deliveredRecordCount=" + getDeliveredRecordCount() +
+                ", droppedRecordCount=" + getDroppedRecordCount() +
+                ", failedRecordCount=" + getFailedRecordCount() +
+                '}';
+    }
+}
@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.VirtualConnectorExtension;
@@ -13,19 +12,26 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.auditable.AuditableConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
 import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
 import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
 import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
 import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1RegistrySection;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSCompactEventEncoding;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -53,6 +59,13 @@ import java.util.List;
  *         connectors that implement OpenMetadataTopic.
  *     </li>
  * </ul>
+ * <p>
+ *     When the V1_COMPACT protocol is configured, the compact encoding is negotiated with the other members of the
+ *     cohort.  Every registry event sent by this connector advertises that it can decode compact events, and the
+ *     registry events received from the other members record whether they can.  Type definition and instance
+ *     events are sent in the compact encoding only while every member that has been heard from has advertised
+ *     support for it.  Otherwise they are sent as JSON.  Registry events are always sent as JSON.
+ * </p>
  */
 public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                                                                  VirtualConnectorExtension,
@@ -71,6 +84,12 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     private String                    connectionName       = connectorName;
     private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V1;
 
+    /*
+     * Whether each member of the cohort (keyed by metadata collection id) can decode compact events.
+     */
+    private Map<String, Boolean>      memberCompactSupport = new ConcurrentHashMap<>();
+    private volatile boolean          sendingCompactEvents = false;
+
     protected OMRSAuditLog     auditLog = null;
 
     /**
@@ -301,9 +320,23 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
      */
     public void sendRegistryEvent(OMRSRegistryEvent registryEvent) throws ConnectorCheckedException
     {
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if ((eventProtocolVersion == OMRSEventProtocolVersion.V1) ||
+            (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPACT))
         {
-            this.sendEvent(registryEvent.getOMRSEventV1());
+            /*
+             * Registry events are always sent as JSON so that members that do not understand the compact
+             * encoding can still register with the cohort.  They advertise that this member can decode
+             * compact events whatever protocol it is configured to send.
+             */
+            OMRSEventV1                event           = registryEvent.getOMRSEventV1();
+            OMRSEventV1RegistrySection registrySection = event.getRegistryEventSection();
+
+            if (registrySection != null)
+            {
+                registrySection.setEventEncodings(Collections.singletonList(OMRSCompactEventEncoding.COMPACT_ENCODING_NAME));
+            }
+
+            this.sendEvent(event, false);
         }
         else
         {
@@ -320,9 +353,10 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
      */
     public void sendTypeDefEvent(OMRSTypeDefEvent typeDefEvent) throws ConnectorCheckedException
     {
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if ((eventProtocolVersion == OMRSEventProtocolVersion.V1) ||
+            (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPACT))
         {
-            this.sendEvent(typeDefEvent.getOMRSEventV1());
+            this.sendEvent(typeDefEvent.getOMRSEventV1(), this.useCompactEncoding());
         }
         else
         {
@@ -340,9 +374,10 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
      */
     public void sendInstanceEvent(OMRSInstanceEvent instanceEvent) throws ConnectorCheckedException
     {
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if ((eventProtocolVersion == OMRSEventProtocolVersion.V1) ||
+            (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPACT))
         {
-            this.sendEvent(instanceEvent.getOMRSEventV1());
+            this.sendEvent(instanceEvent.getOMRSEventV1(), this.useCompactEncoding());
         }
         else
         {
@@ -351,25 +386,115 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Return whether type definition and instance events should be sent in the compact encoding.  This is
+     * only the case when it is configured and every member that has been heard from can decode it.
+     * A change in the encoding used is recorded in the audit log.
+     *
+     * @return boolean flag
+     */
+    private boolean useCompactEncoding()
+    {
+        boolean useCompactEncoding = (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPACT) &&
+                                     (! memberCompactSupport.isEmpty()) &&
+                                     (! memberCompactSupport.containsValue(Boolean.FALSE));
+
+        if (useCompactEncoding != sendingCompactEvents)
+        {
+            sendingCompactEvents = useCompactEncoding;
+
+            if (auditLog != null)
+            {
+                OMRSAuditCode auditCode = OMRSAuditCode.EVENT_ENCODING_CHANGED;
+
+                auditLog.logRecord(connectorName,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(connectionName,
+                                                                    useCompactEncoding ? OMRSCompactEventEncoding.COMPACT_ENCODING_NAME : "JSON"),
+                                   memberCompactSupport.toString(),
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
+            }
+        }
+
+        return useCompactEncoding;
+    }
+
+
+    /**
+     * Record whether the member that sent an event can decode compact events.  Registration events carry the
+     * encodings that the member supports.  Members that are heard from before their registration is seen are
+     * assumed not to support the compact encoding until they register.
+     *
+     * @param event inbound event
+     */
+    private void recordMemberEncodings(OMRSEventV1 event)
+    {
+        OMRSEventOriginator originator = event.getOriginator();
+
+        if ((originator == null) || (originator.getMetadataCollectionId() == null))
+        {
+            return;
+        }
+
+        String                     metadataCollectionId = originator.getMetadataCollectionId();
+        OMRSEventV1RegistrySection registrySection      = event.getRegistryEventSection();
+
+        if ((registrySection == null) || (registrySection.getRegistryEventType() == null))
+        {
+            memberCompactSupport.putIfAbsent(metadataCollectionId, Boolean.FALSE);
+            return;
+        }
+
+        switch (registrySection.getRegistryEventType())
+        {
+            case REGISTRATION_EVENT:
+            case RE_REGISTRATION_EVENT:
+            case REFRESH_REGISTRATION_REQUEST:
+                List<String> eventEncodings = registrySection.getEventEncodings();
+
+                memberCompactSupport.put(metadataCollectionId,
+                                         (eventEncodings != null) &&
+                                         (eventEncodings.contains(OMRSCompactEventEncoding.COMPACT_ENCODING_NAME)));
+                break;
+
+            case UN_REGISTRATION_EVENT:
+                memberCompactSupport.remove(metadataCollectionId);
+                break;
+
+            default:
+                memberCompactSupport.putIfAbsent(metadataCollectionId, Boolean.FALSE);
+        }
+    }
+
+
     /**
      * Sends the supplied event outbound to the OMRSTopicListeners using the event bus connectors.
      *
      * @param event OMRSEvent object containing the event properties.
+     * @param compact use the compact encoding rather than JSON
      * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
      */
-    private void sendEvent(OMRSEventV1 event) throws ConnectorCheckedException
+    private void sendEvent(OMRSEventV1 event,
+                           boolean     compact) throws ConnectorCheckedException
     {
         if (event != null)
         {
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
+                String eventString = OMRSJSONSerializer.writeValueAsString(event);
+
+                if (compact)
+                {
+                    eventString = OMRSCompactEventEncoding.encode(eventString);
+                }
 
                 for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
                 {
                     if (eventBusConnector != null)
                     {
-                        eventBusConnector.sendEvent(objectMapper.writeValueAsString(event));
+                        eventBusConnector.sendEvent(eventString);
                     }
                 }
             }
@@ -429,13 +554,12 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
             OMRSEventBean   eventBean = null;
 
             /*
-             * Parse the string (JSON) event into a bean.
+             * Parse the string (JSON) event into a bean.  Events from members using the compact encoding have
+             * already been converted back to JSON by the event bus connector.
              */
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                eventBean = objectMapper.readValue(event, OMRSEventBean.class);
+                eventBean = OMRSJSONSerializer.readValue(event, OMRSEventBean.class);
             }
             catch (Throwable   exception)
             {
@@ -460,6 +584,8 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             if (eventBean instanceof OMRSEventV1)
             {
+                this.recordMemberEncodings((OMRSEventV1) eventBean);
+
                 OMRSEventBean finalEventBean = eventBean;
                 internalTopicListeners.parallelStream().forEach((topicListener) ->
                 {
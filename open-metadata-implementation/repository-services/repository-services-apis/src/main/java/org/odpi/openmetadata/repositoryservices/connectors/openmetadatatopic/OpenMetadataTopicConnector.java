@@ -10,12 +10,23 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.auditable.AuditableConnector;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSCompactEventEncoding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -33,6 +44,17 @@ import java.util.Map;
  *         When the server no longer needs the topic, it will call disconnect().
  *     </li>
  * </ul>
+ *
+ * Each listener receives its events through its own dispatch lanes.  A lane is a bounded queue served by
+ * its own thread, so a slow listener does not hold up the other listeners until its queues are full.
+ * Once a queue is full, the listener thread waits, which in turn allows the events returned by checkForEvents()
+ * to build up in the implementation - giving it the opportunity to stop receiving events until the
+ * listeners catch up.  Events about the same instance always go to the same lane so that they are processed
+ * in the order they were received.  Events that are not about a specific instance (such as type definition
+ * events) are processed by each listener after all of the events before them and before any event after them.
+ * The number of lanes per listener and the size of their queues are set through the dispatchLanes and
+ * dispatchQueueSize configuration properties.  Setting dispatchLanes to 0 delivers the events directly from the
+ * listener thread.
  */
 public abstract class OpenMetadataTopicConnector extends ConnectorBase implements OpenMetadataTopic,
                                                                                   Runnable,
@@ -43,12 +65,32 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     private static final String       defaultThreadName = "OpenMetadataTopicListener";
     private static final String       defaultTopicName  = "OpenMetadataTopic";
 
+    private static final String       instanceSectionName   = "\"instanceEventSection\"";
+    private static final String       instanceGUIDName      = "instanceGUID";
+    private static final String       guidName              = "guid";
+    private static final Set<String>  instancePropertyNames = new HashSet<>(Arrays.asList("entity",
+                                                                                          "relationship",
+                                                                                          "originalEntity",
+                                                                                          "originalRelationship"));
+
     private volatile boolean keepRunning = false;
 
     private List<OpenMetadataTopicListener> topicListeners     = new ArrayList<>();
     private String                          listenerThreadName = defaultThreadName;
     private String                          topicName          = defaultTopicName;
     private int                             sleepTime          = 100;
+    private int                             dispatchLanes      = 1;
+    private int                             dispatchQueueSize  = 100;
+
+    /*
+     * The lanes for each listener are created by the listener thread the first time it dispatches an event to
+     * the listener.  Access to the map is synchronized since disconnect() stops the lanes from another thread.
+     * The sequence numbers of the events still being processed by the lanes are used to work out
+     * how many of the received events have been completely processed.
+     */
+    private Map<OpenMetadataTopicListener, List<DispatchLane>> listenerLanes           = new IdentityHashMap<>();
+    private ConcurrentSkipListSet<Long>                        eventsInProgress        = new ConcurrentSkipListSet<>();
+    private volatile long                                      lastEventSequenceNumber = 0;
 
     protected OMRSAuditLog auditLog = null;
 
@@ -98,13 +140,16 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                     {
                         for (String event : receivedEvents)
                         {
-                            if (event != null)
-                            {
-                                this.distributeEvent(event);
-                            }
+                            this.dispatchEvent(event);
                         }
+
+                        continue;
                     }
                 }
+                catch (InterruptedException   wakeUp)
+                {
+                    throw wakeUp;
+                }
                 catch (Throwable   error)
                 {
                     log.error("Bad exception from checkForEvents", error);
@@ -130,34 +175,378 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
 
     /**
-     * Pass an event that has been received on the topic to each of the registered listeners.
+     * Pass an event that has been received on the topic to the dispatch lanes of each of the registered listeners.
+     * Each event is given a sequence number that is removed from the events in progress once every
+     * listener has processed it.  An event in the compact encoding is decoded here, once, so that the ordering
+     * key and the listeners work from the same JSON.
      *
-     * @param event OMRSEvent to distribute
+     * @param receivedEvent OMRSEvent to distribute
+     * @throws InterruptedException the listener thread was interrupted while waiting for a lane
+     */
+    private void dispatchEvent(String receivedEvent) throws InterruptedException
+    {
+        String                          event          = this.decodeEvent(receivedEvent);
+        long                            sequenceNumber = lastEventSequenceNumber + 1;
+        List<OpenMetadataTopicListener> listeners      = new ArrayList<>(topicListeners);
+
+        if ((event == null) || (listeners.isEmpty()))
+        {
+            lastEventSequenceNumber = sequenceNumber;
+            return;
+        }
+
+        if (dispatchLanes < 1)
+        {
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                this.distributeEvent(topicListener, event);
+            }
+
+            lastEventSequenceNumber = sequenceNumber;
+            return;
+        }
+
+        DispatchedEvent dispatchedEvent = new DispatchedEvent(sequenceNumber, event, listeners.size());
+        String          orderingKey     = this.getEventOrderingKey(event);
+
+        eventsInProgress.add(sequenceNumber);
+        lastEventSequenceNumber = sequenceNumber;
+
+        if (orderingKey != null)
+        {
+            int laneNumber = (orderingKey.hashCode() & Integer.MAX_VALUE) % dispatchLanes;
+
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                this.getLanes(topicListener).get(laneNumber).addEvent(dispatchedEvent);
+            }
+        }
+        else if (dispatchLanes == 1)
+        {
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                this.getLanes(topicListener).get(0).addEvent(dispatchedEvent);
+            }
+        }
+        else
+        {
+            /*
+             * The event must be processed after all of the events already dispatched and before any of the events
+             * that follow it.  The lanes of each listener are drained, the event is passed to the first lane
+             * of each listener and then dispatching resumes once it has been processed.
+             */
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                for (DispatchLane lane : this.getLanes(topicListener))
+                {
+                    lane.awaitIdle();
+                }
+            }
+
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                this.getLanes(topicListener).get(0).addEvent(dispatchedEvent);
+            }
+
+            for (OpenMetadataTopicListener  topicListener : listeners)
+            {
+                this.getLanes(topicListener).get(0).awaitIdle();
+            }
+        }
+    }
+
+
+    /**
+     * Convert an event in the compact encoding back to JSON.  Other events are returned unchanged.  An event that
+     * can not be decoded is logged and returned unchanged.
+     *
+     * @param event event received on the topic
+     * @return JSON event
      */
-    private void distributeEvent(String event)
+    private String decodeEvent(String event)
     {
-        for (OpenMetadataTopicListener  topicListener : topicListeners)
+        if (OMRSCompactEventEncoding.isCompactEvent(event))
         {
             try
             {
-                topicListener.processEvent(event);
+                return OMRSCompactEventEncoding.decode(event);
             }
-            catch (Throwable  error)
+            catch (IOException error)
             {
-                final String   actionDescription = "distributeEvent";
+                final String   actionDescription = "decodeEvent";
 
-                OMRSAuditCode auditCode = OMRSAuditCode.EVENT_PROCESSING_ERROR;
+                OMRSAuditCode auditCode = OMRSAuditCode.COMPACT_EVENT_DECODING_ERROR;
 
                 auditLog.logException(actionDescription,
                                       auditCode.getLogMessageId(),
                                       auditCode.getSeverity(),
-                                      auditCode.getFormattedLogMessage(event, error.toString()),
+                                      auditCode.getFormattedLogMessage(event, topicName, error.toString()),
                                       event,
                                       auditCode.getSystemAction(),
                                       auditCode.getUserAction(),
                                       error);
             }
         }
+
+        return event;
+    }
+
+
+    /**
+     * Return the dispatch lanes for a listener, starting them if this is the first event for the listener.
+     *
+     * @param topicListener listener to receive the events
+     * @return list of lanes
+     */
+    private List<DispatchLane> getLanes(OpenMetadataTopicListener topicListener)
+    {
+        synchronized (listenerLanes)
+        {
+            List<DispatchLane> lanes = listenerLanes.get(topicListener);
+
+            if (lanes == null)
+            {
+                lanes = new ArrayList<>();
+
+                for (int laneNumber = 0; laneNumber < dispatchLanes; laneNumber++)
+                {
+                    DispatchLane lane = new DispatchLane(topicListener);
+
+                    lane.laneThread = new Thread(lane, listenerThreadName + ": Listener-" + listenerLanes.size()
+                                                                          + "-Lane-" + laneNumber);
+                    lane.laneThread.start();
+                    lanes.add(lane);
+                }
+
+                listenerLanes.put(topicListener, lanes);
+            }
+
+            return lanes;
+        }
+    }
+
+
+    /**
+     * Stop the dispatch lane threads and wait for them to finish the event they are processing.
+     */
+    private void stopLanes()
+    {
+        List<DispatchLane> allLanes = new ArrayList<>();
+
+        synchronized (listenerLanes)
+        {
+            for (List<DispatchLane> lanes : listenerLanes.values())
+            {
+                allLanes.addAll(lanes);
+            }
+        }
+
+        for (DispatchLane lane : allLanes)
+        {
+            lane.laneThread.interrupt();
+        }
+
+        for (DispatchLane lane : allLanes)
+        {
+            /*
+             * A listener may disconnect the connector from one of the lanes - it can not wait for itself.
+             */
+            if (lane.laneThread != Thread.currentThread())
+            {
+                try
+                {
+                    lane.laneThread.join();
+                }
+                catch (InterruptedException   wakeUp)
+                {
+                    log.info("Interrupted while waiting for dispatch lane " + lane.laneThread.getName());
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the key used to keep related events in order.  Events with the same key are processed by each
+     * listener in the order they were received.  An event without a key is processed by each listener after
+     * all of the events received before it and before any event received after it.
+     *
+     * This implementation understands the OMRS event format and returns the GUID of the instance that an
+     * instance event is about.  It looks for the instanceGUID property of the instance event section or the
+     * guid of the entity or relationship it contains.  Other types of event return null.
+     * Connectors for topics that carry other formats of event may override this method.
+     *
+     * @param event event received on the topic
+     * @return ordering key or null
+     */
+    protected String getEventOrderingKey(String event)
+    {
+        int sectionStart = event.indexOf(instanceSectionName);
+
+        if (sectionStart < 0)
+        {
+            return null;
+        }
+
+        int     index            = event.indexOf('{', sectionStart + instanceSectionName.length());
+        int     depth            = 0;
+        int     keyStart         = -1;
+        int     keyEnd           = -1;
+        boolean inInstanceObject = false;
+
+        if (index < 0)
+        {
+            return null;
+        }
+
+        /*
+         * Walk through the instance event section without parsing it into objects.  The depth counts the
+         * nesting of JSON objects where the instance event section itself is depth 1.
+         */
+        while (index < event.length())
+        {
+            char character = event.charAt(index);
+
+            if (character == '"')
+            {
+                int stringEnd = index + 1;
+
+                while ((stringEnd < event.length()) && (event.charAt(stringEnd) != '"'))
+                {
+                    if (event.charAt(stringEnd) == '\\')
+                    {
+                        stringEnd++;
+                    }
+
+                    stringEnd++;
+                }
+
+                int nextCharacter = stringEnd + 1;
+
+                while ((nextCharacter < event.length()) && (Character.isWhitespace(event.charAt(nextCharacter))))
+                {
+                    nextCharacter++;
+                }
+
+                if ((nextCharacter < event.length()) && (event.charAt(nextCharacter) == ':'))
+                {
+                    keyStart = index + 1;
+                    keyEnd = stringEnd;
+                }
+                else if (((depth == 1) && (isName(event, keyStart, keyEnd, instanceGUIDName))) ||
+                         ((depth == 2) && (inInstanceObject) && (isName(event, keyStart, keyEnd, guidName))))
+                {
+                    return event.substring(index + 1, Math.min(stringEnd, event.length()));
+                }
+
+                index = stringEnd;
+            }
+            else if (character == '{')
+            {
+                depth++;
+
+                if (depth == 2)
+                {
+                    inInstanceObject = false;
+
+                    for (String instancePropertyName : instancePropertyNames)
+                    {
+                        if (isName(event, keyStart, keyEnd, instancePropertyName))
+                        {
+                            inInstanceObject = true;
+                        }
+                    }
+                }
+            }
+            else if (character == '}')
+            {
+                depth--;
+
+                if (depth == 0)
+                {
+                    return null;
+                }
+            }
+
+            index++;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Test whether a property name in the event matches the supplied name.
+     *
+     * @param event event received on the topic
+     * @param nameStart index of the first character of the property name
+     * @param nameEnd index after the last character of the property name
+     * @param name name to test for
+     * @return boolean flag
+     */
+    private boolean isName(String event,
+                           int    nameStart,
+                           int    nameEnd,
+                           String name)
+    {
+        return (nameStart >= 0) &&
+               (nameEnd - nameStart == name.length()) &&
+               (event.regionMatches(nameStart, name, 0, name.length()));
+    }
+
+
+    /**
+     * Return the number of events returned by checkForEvents() that have been completely processed by all
+     * of the listeners.  Events are counted in the order they were received so an event that is still being
+     * processed holds back the count for the events received after it, even if they have been processed.
+     * Implementations can use this value to acknowledge the events to the event bus once they have been processed.
+     *
+     * @return count of events
+     */
+    protected long getProcessedEventCount()
+    {
+        long lastSequenceNumber   = lastEventSequenceNumber;
+        Long oldestSequenceNumber = eventsInProgress.ceiling(Long.MIN_VALUE);
+
+        if (oldestSequenceNumber == null)
+        {
+            return lastSequenceNumber;
+        }
+
+        return Math.min(lastSequenceNumber, oldestSequenceNumber - 1);
+    }
+
+
+    /**
+     * Pass an event that has been received on the topic to a registered listener.
+     *
+     * @param topicListener listener to receive the event
+     * @param event OMRSEvent to distribute
+     */
+    private void distributeEvent(OpenMetadataTopicListener topicListener,
+                                 String                    event)
+    {
+        try
+        {
+            topicListener.processEvent(event);
+        }
+        catch (Throwable  error)
+        {
+            final String   actionDescription = "distributeEvent";
+
+            OMRSAuditCode auditCode = OMRSAuditCode.EVENT_PROCESSING_ERROR;
+
+            auditLog.logException(actionDescription,
+                                  auditCode.getLogMessageId(),
+                                  auditCode.getSeverity(),
+                                  auditCode.getFormattedLogMessage(event, error.toString()),
+                                  event,
+                                  auditCode.getSystemAction(),
+                                  auditCode.getUserAction(),
+                                  error);
+        }
     }
 
 
@@ -240,6 +629,20 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                 {
                     this.sleepTime = (Integer)sleepTime;
                 }
+
+                Object   dispatchLanes = configurationProperties.get(OpenMetadataTopicProvider.dispatchLanesProperty);
+
+                if (dispatchLanes instanceof Integer)
+                {
+                    this.dispatchLanes = (Integer)dispatchLanes;
+                }
+
+                Object   dispatchQueueSize = configurationProperties.get(OpenMetadataTopicProvider.dispatchQueueSizeProperty);
+
+                if ((dispatchQueueSize instanceof Integer) && ((Integer)dispatchQueueSize > 0))
+                {
+                    this.dispatchQueueSize = (Integer)dispatchQueueSize;
+                }
             }
         }
 
@@ -249,7 +652,8 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
 
     /**
-     * Free up any resources held since the connector is no longer needed.
+     * Free up any resources held since the connector is no longer needed.  The dispatch lanes are stopped
+     * before this method returns.
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
@@ -258,5 +662,169 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         super.disconnect();
 
         keepRunning = false;
+
+        this.stopLanes();
+    }
+
+
+    /**
+     * DispatchedEvent holds an event while it is waiting in the lanes of the listeners.
+     */
+    private static class DispatchedEvent
+    {
+        private long          sequenceNumber;
+        private String        event;
+        private AtomicInteger outstandingListeners;
+
+
+        /**
+         * Constructor supplies the event.
+         *
+         * @param sequenceNumber position of the event in the events received on the topic
+         * @param event event received on the topic
+         * @param listenerCount number of listeners that will process the event
+         */
+        DispatchedEvent(long   sequenceNumber,
+                        String event,
+                        int    listenerCount)
+        {
+            this.sequenceNumber = sequenceNumber;
+            this.event = event;
+            this.outstandingListeners = new AtomicInteger(listenerCount);
+        }
+    }
+
+
+    /**
+     * DispatchLane passes the events in its queue to a single listener, one at a time, on its own thread.
+     */
+    private class DispatchLane implements Runnable
+    {
+        private OpenMetadataTopicListener      topicListener;
+        private BlockingQueue<DispatchedEvent> eventQueue;
+        private int                            outstandingEvents = 0;
+        private Thread                         laneThread        = null;
+
+
+        /**
+         * Constructor supplies the listener.
+         *
+         * @param topicListener listener to receive the events
+         */
+        DispatchLane(OpenMetadataTopicListener topicListener)
+        {
+            this.topicListener = topicListener;
+            this.eventQueue = new ArrayBlockingQueue<>(dispatchQueueSize);
+        }
+
+
+        /**
+         * Add an event to the lane, waiting for space in the queue if it is full.  If the connector is
+         * disconnected (or the thread is interrupted) before there is space, the event is abandoned.  The lane
+         * no longer counts it as outstanding, but it stays in the events in progress because the listener has
+         * not processed it.  This holds back the processed event count so the event is received again
+         * when the server restarts.
+         *
+         * @param dispatchedEvent event to process
+         * @throws InterruptedException the thread was interrupted while waiting
+         */
+        void addEvent(DispatchedEvent dispatchedEvent) throws InterruptedException
+        {
+            synchronized (this)
+            {
+                outstandingEvents++;
+            }
+
+            boolean eventQueued = false;
+
+            try
+            {
+                while ((! eventQueued) && (keepRunning))
+                {
+                    eventQueued = eventQueue.offer(dispatchedEvent, sleepTime, TimeUnit.MILLISECONDS);
+                }
+            }
+            finally
+            {
+                if (! eventQueued)
+                {
+                    synchronized (this)
+                    {
+                        outstandingEvents--;
+                        this.notifyAll();
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Record that the listener has processed an event.  The event is no longer in progress once all
+         * of the listeners have processed it.
+         *
+         * @param dispatchedEvent event that is finished with
+         */
+        private void releaseEvent(DispatchedEvent dispatchedEvent)
+        {
+            if (dispatchedEvent.outstandingListeners.decrementAndGet() == 0)
+            {
+                eventsInProgress.remove(dispatchedEvent.sequenceNumber);
+            }
+
+            synchronized (this)
+            {
+                outstandingEvents--;
+                this.notifyAll();
+            }
+        }
+
+
+        /**
+         * Wait until all of the events added to the lane have been processed.
+         *
+         * @throws InterruptedException the thread was interrupted while waiting
+         */
+        synchronized void awaitIdle() throws InterruptedException
+        {
+            while ((outstandingEvents > 0) && (keepRunning))
+            {
+                this.wait(sleepTime);
+            }
+        }
+
+
+        /**
+         * Process events until the connector is disconnected.
+         */
+        public void run()
+        {
+            while (keepRunning)
+            {
+                try
+                {
+                    DispatchedEvent dispatchedEvent = eventQueue.poll(sleepTime, TimeUnit.MILLISECONDS);
+
+                    if (dispatchedEvent != null)
+                    {
+                        try
+                        {
+                            distributeEvent(topicListener, dispatchedEvent.event);
+                        }
+                        finally
+                        {
+                            this.releaseEvent(dispatchedEvent);
+                        }
+                    }
+                }
+                catch (InterruptedException   wakeUp)
+                {
+                    log.info("Wake up for more events");
+                }
+                catch (Throwable   error)
+                {
+                    log.error("Bad exception from distributeEvent", error);
+                }
+            }
+        }
     }
 }
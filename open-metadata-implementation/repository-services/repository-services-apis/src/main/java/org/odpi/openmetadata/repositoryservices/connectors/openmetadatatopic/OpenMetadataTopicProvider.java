@@ -10,7 +10,9 @@ import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
  */
 public abstract class OpenMetadataTopicProvider extends ConnectorProviderBase
 {
-    protected static final String  sleepTimeProperty = "sleepTime";
+    protected static final String  sleepTimeProperty         = "sleepTime";
+    protected static final String  dispatchLanesProperty     = "dispatchLanes";
+    protected static final String  dispatchQueueSizeProperty = "dispatchQueueSize";
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
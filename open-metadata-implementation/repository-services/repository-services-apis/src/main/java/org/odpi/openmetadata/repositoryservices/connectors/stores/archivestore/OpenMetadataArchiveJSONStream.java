@@ -0,0 +1,441 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * OpenMetadataArchiveJSONStream reads an open metadata archive stored as JSON in a file with a streaming
+ * parser.  Only the element currently being returned is held in memory so the size of the archive is
+ * limited by the disk rather than the heap.
+ *
+ * The parser moves forward through the file, skipping the sections that are not requested.  The sections
+ * are normally requested in the order they are written so the file is read once.  If a section that has
+ * already been passed is requested, the file is reopened and scanned again from the start.  The names of the
+ * sections seen are remembered so that a missing section does not cause the file to be rescanned.
+ */
+public class OpenMetadataArchiveJSONStream implements OpenMetadataArchiveStream
+{
+    private static final String archivePropertiesSection = "archiveProperties";
+    private static final String typeStoreSection         = "archiveTypeStore";
+    private static final String instanceStoreSection     = "archiveInstanceStore";
+
+    private static final Logger log = LoggerFactory.getLogger(OpenMetadataArchiveJSONStream.class);
+
+    private final File                          archiveFile;
+    private       JsonParser                    parser              = null;
+    private       String                        currentStore        = null;
+    private       boolean                       scannedWholeArchive = false;
+    private final Set<String>                   foundSections       = new HashSet<>();
+    private       int                           generation          = 0;
+    private       boolean                       propertiesRead      = false;
+    private       OpenMetadataArchiveProperties archiveProperties   = null;
+
+
+    /**
+     * Constructor takes the file holding the archive.  The file is not opened until the first section is requested.
+     *
+     * @param archiveFile file holding the archive
+     */
+    public OpenMetadataArchiveJSONStream(File archiveFile)
+    {
+        this.archiveFile = archiveFile;
+    }
+
+
+    /**
+     * Return the properties that describe the archive.
+     *
+     * @return properties or null if the archive does not have any
+     */
+    public OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        final String methodName = "getArchiveProperties";
+
+        if (! propertiesRead)
+        {
+            try
+            {
+                if (this.moveTo(archivePropertiesSection))
+                {
+                    archiveProperties = OMRSJSONSerializer.getReader(OpenMetadataArchiveProperties.class).readValue(parser);
+                }
+
+                propertiesRead = true;
+            }
+            catch (IOException error)
+            {
+                throw getReadError(methodName, error);
+            }
+        }
+
+        return archiveProperties;
+    }
+
+
+    /**
+     * Return the patches to existing TypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<TypeDefPatch> getTypeDefPatches()
+    {
+        return new SectionIterator<>(typeStoreSection, "typeDefPatches", TypeDefPatch.class);
+    }
+
+
+    /**
+     * Return the new AttributeTypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<AttributeTypeDef> getAttributeTypeDefs()
+    {
+        return new SectionIterator<>(typeStoreSection, "attributeTypeDefs", AttributeTypeDef.class);
+    }
+
+
+    /**
+     * Return the new TypeDefs in the order they must be added.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<TypeDef> getNewTypeDefs()
+    {
+        return new SectionIterator<>(typeStoreSection, "newTypeDefs", TypeDef.class);
+    }
+
+
+    /**
+     * Return the entities.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<EntityDetail> getEntities()
+    {
+        return new SectionIterator<>(instanceStoreSection, "entities", EntityDetail.class);
+    }
+
+
+    /**
+     * Return the relationships.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<Relationship> getRelationships()
+    {
+        return new SectionIterator<>(instanceStoreSection, "relationships", Relationship.class);
+    }
+
+
+    /**
+     * Return the classifications to add to existing entities.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<ClassificationEntityExtension> getClassifications()
+    {
+        return new SectionIterator<>(instanceStoreSection, "classifications", ClassificationEntityExtension.class);
+    }
+
+
+    /**
+     * Close the archive file.
+     */
+    public void close()
+    {
+        generation++;
+        this.closeParser();
+    }
+
+
+    /**
+     * Position the parser on the value of the requested section.  Any active iterator is ended.
+     *
+     * @param section name of the section - sections within the type and instance stores are prefixed by
+     *                the name of the store
+     * @return true if the section is in the archive
+     * @throws IOException unable to read the archive
+     */
+    private boolean moveTo(String section) throws IOException
+    {
+        generation++;
+
+        if (foundSections.contains(section))
+        {
+            /*
+             * The section is behind the parser so start again.
+             */
+            this.closeParser();
+        }
+        else if (scannedWholeArchive)
+        {
+            return false;
+        }
+
+        if (parser == null)
+        {
+            parser = OMRSJSONSerializer.getObjectMapper().getFactory().createParser(archiveFile);
+            currentStore = null;
+
+            JsonToken token = parser.nextToken();
+
+            if (token == null)
+            {
+                scannedWholeArchive = true;
+                this.closeParser();
+                return false;
+            }
+
+            if (token != JsonToken.START_OBJECT)
+            {
+                throw new IOException("The archive does not start with a JSON object.");
+            }
+        }
+        else
+        {
+            /*
+             * Skip the rest of a list that was not read to the end.
+             */
+            while (parser.getParsingContext().inArray())
+            {
+                JsonToken token = parser.nextToken();
+
+                if (token == null)
+                {
+                    throw new IOException("Unexpected end of archive.");
+                }
+                else if (token.isStructStart())
+                {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        while (true)
+        {
+            JsonToken token = parser.nextToken();
+
+            if (token == JsonToken.END_OBJECT)
+            {
+                if (currentStore == null)
+                {
+                    scannedWholeArchive = true;
+                    this.closeParser();
+                    return false;
+                }
+
+                currentStore = null;
+            }
+            else if (token != JsonToken.FIELD_NAME)
+            {
+                throw new IOException("Unexpected end of archive.");
+            }
+            else
+            {
+                String    fieldName = parser.getCurrentName();
+                JsonToken value     = parser.nextToken();
+
+                if ((currentStore == null) && (value == JsonToken.START_OBJECT) &&
+                    ((typeStoreSection.equals(fieldName)) || (instanceStoreSection.equals(fieldName))))
+                {
+                    currentStore = fieldName;
+                }
+                else
+                {
+                    String foundSection = (currentStore == null) ? fieldName : currentStore + "." + fieldName;
+
+                    foundSections.add(foundSection);
+
+                    if (foundSection.equals(section))
+                    {
+                        return true;
+                    }
+
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Close the parser, ignoring any errors.
+     */
+    private void closeParser()
+    {
+        if (parser != null)
+        {
+            try
+            {
+                parser.close();
+            }
+            catch (IOException error)
+            {
+                log.debug("Ignoring error closing archive " + archiveFile.getPath() + ": " + error.getMessage());
+            }
+
+            parser = null;
+        }
+    }
+
+
+    /**
+     * Return the exception used to report an error reading the archive.
+     *
+     * @param methodName calling method
+     * @param error caught exception
+     * @return exception to throw
+     */
+    private OMRSRuntimeException getReadError(String      methodName,
+                                              IOException error)
+    {
+        this.closeParser();
+
+        OMRSErrorCode errorCode    = OMRSErrorCode.ARCHIVE_READ_ERROR;
+        String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(archiveFile.getPath(),
+                                                                                                        error.getClass().getName(),
+                                                                                                        error.getMessage());
+
+        return new OMRSRuntimeException(errorCode.getHTTPErrorCode(),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        errorMessage,
+                                        errorCode.getSystemAction(),
+                                        errorCode.getUserAction(),
+                                        error);
+    }
+
+
+    /**
+     * SectionIterator returns the elements of one of the lists in the archive, reading each one as it is requested.
+     *
+     * @param <T> type of element in the list
+     */
+    private class SectionIterator<T> implements Iterator<T>
+    {
+        private final ObjectReader reader;
+        private final int          iteratorGeneration;
+        private       boolean      active;
+        private       boolean      nextReady = false;
+        private       T            nextElement = null;
+
+
+        /**
+         * Constructor positions the parser at the start of the list.
+         *
+         * @param store name of the store holding the list
+         * @param list name of the list
+         * @param elementClass class of the elements in the list
+         */
+        SectionIterator(String   store,
+                        String   list,
+                        Class<T> elementClass)
+        {
+            final String methodName = "get" + Character.toUpperCase(list.charAt(0)) + list.substring(1);
+
+            this.reader = OMRSJSONSerializer.getReader(elementClass);
+
+            try
+            {
+                this.active = moveTo(store + "." + list) && (parser.getCurrentToken() == JsonToken.START_ARRAY);
+            }
+            catch (IOException error)
+            {
+                throw getReadError(methodName, error);
+            }
+
+            this.iteratorGeneration = generation;
+        }
+
+
+        /**
+         * Read the next element if it has not been read already.
+         *
+         * @return true if there is another element
+         */
+        @Override
+        public boolean hasNext()
+        {
+            final String methodName = "hasNext";
+
+            if ((! nextReady) && (active))
+            {
+                if (iteratorGeneration != generation)
+                {
+                    active = false;
+                    return false;
+                }
+
+                try
+                {
+                    JsonToken token = parser.nextToken();
+
+                    if (token == JsonToken.END_ARRAY)
+                    {
+                        active = false;
+                    }
+                    else if (token == null)
+                    {
+                        throw new IOException("Unexpected end of archive.");
+                    }
+                    else
+                    {
+                        nextElement = reader.readValue(parser);
+                        nextReady = true;
+                    }
+                }
+                catch (IOException error)
+                {
+                    active = false;
+                    throw getReadError(methodName, error);
+                }
+            }
+
+            return nextReady;
+        }
+
+
+        /**
+         * Return the next element.
+         *
+         * @return element (may be null if the archive contains a null element)
+         */
+        @Override
+        public T next()
+        {
+            if (! hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            T element = nextElement;
+
+            nextElement = null;
+            nextReady = false;
+
+            return element;
+        }
+    }
+}
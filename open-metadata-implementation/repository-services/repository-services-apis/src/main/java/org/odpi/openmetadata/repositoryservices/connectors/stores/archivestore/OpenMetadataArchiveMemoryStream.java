@@ -0,0 +1,155 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * OpenMetadataArchiveMemoryStream returns the contents of an open metadata archive that is already in memory
+ * through the OpenMetadataArchiveStream interface.  It is used for archives that are built in code and for
+ * archive stores that do not support streaming.
+ */
+public class OpenMetadataArchiveMemoryStream implements OpenMetadataArchiveStream
+{
+    private OpenMetadataArchive              archive;
+    private OpenMetadataArchiveTypeStore     archiveTypeStore     = null;
+    private OpenMetadataArchiveInstanceStore archiveInstanceStore = null;
+
+
+    /**
+     * Constructor takes the archive to return.
+     *
+     * @param archive open metadata archive
+     */
+    public OpenMetadataArchiveMemoryStream(OpenMetadataArchive archive)
+    {
+        this.archive = archive;
+
+        if (archive != null)
+        {
+            this.archiveTypeStore = archive.getArchiveTypeStore();
+            this.archiveInstanceStore = archive.getArchiveInstanceStore();
+        }
+    }
+
+
+    /**
+     * Return the properties that describe the archive.
+     *
+     * @return properties or null if the archive does not have any
+     */
+    public OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        if (archive == null)
+        {
+            return null;
+        }
+
+        return archive.getArchiveProperties();
+    }
+
+
+    /**
+     * Return the patches to existing TypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<TypeDefPatch> getTypeDefPatches()
+    {
+        return getIterator((archiveTypeStore == null) ? null : archiveTypeStore.getTypeDefPatches());
+    }
+
+
+    /**
+     * Return the new AttributeTypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<AttributeTypeDef> getAttributeTypeDefs()
+    {
+        return getIterator((archiveTypeStore == null) ? null : archiveTypeStore.getAttributeTypeDefs());
+    }
+
+
+    /**
+     * Return the new TypeDefs in the order they must be added.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<TypeDef> getNewTypeDefs()
+    {
+        return getIterator((archiveTypeStore == null) ? null : archiveTypeStore.getNewTypeDefs());
+    }
+
+
+    /**
+     * Return the entities.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<EntityDetail> getEntities()
+    {
+        return getIterator((archiveInstanceStore == null) ? null : archiveInstanceStore.getEntities());
+    }
+
+
+    /**
+     * Return the relationships.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<Relationship> getRelationships()
+    {
+        return getIterator((archiveInstanceStore == null) ? null : archiveInstanceStore.getRelationships());
+    }
+
+
+    /**
+     * Return the classifications to add to existing entities.
+     *
+     * @return iterator (never null)
+     */
+    public Iterator<ClassificationEntityExtension> getClassifications()
+    {
+        return getIterator((archiveInstanceStore == null) ? null : archiveInstanceStore.getClassifications());
+    }
+
+
+    /**
+     * Nothing to release.
+     */
+    public void close()
+    {
+    }
+
+
+    /**
+     * Return an iterator for a section of the archive.
+     *
+     * @param section list from the archive (may be null)
+     * @param <T> type of element in the section
+     * @return iterator (never null)
+     */
+    private <T> Iterator<T> getIterator(List<T> section)
+    {
+        if (section == null)
+        {
+            return Collections.emptyIterator();
+        }
+
+        return section.iterator();
+    }
+}
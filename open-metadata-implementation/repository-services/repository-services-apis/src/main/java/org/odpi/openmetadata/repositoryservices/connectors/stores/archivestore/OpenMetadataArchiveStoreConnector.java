@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.auditable.AuditableConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
 
 /**
  * OpenMetadataArchiveStoreConnector is the base class for connectors that support the OpenMetadataArchiveStore
@@ -25,4 +26,24 @@ public abstract class OpenMetadataArchiveStoreConnector extends ConnectorBase im
     {
         this.auditLog = auditLog;
     }
+
+
+    /**
+     * Return a stream that returns the contents of the archive one element at a time.  This implementation
+     * returns the contents retrieved by getArchiveContents.  Archive stores that can read their contents
+     * incrementally should override it so that large archives do not need to fit in memory.
+     *
+     * @return stream over the archive contents or null if the archive is not available
+     */
+    public OpenMetadataArchiveStream getArchiveStream()
+    {
+        OpenMetadataArchive archiveContents = this.getArchiveContents();
+
+        if (archiveContents == null)
+        {
+            return null;
+        }
+
+        return new OpenMetadataArchiveMemoryStream(archiveContents);
+    }
 }
@@ -10,9 +10,21 @@ import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
  * The subclasses of OpenMetadataArchiveStoreProviderBase must initialize ConnectorProviderBase with the Java class
  * name of the audit log connector implementation (by calling super.setConnectorClassName(className)).
  * Then the connector provider will work.
+ *
+ * The configuration properties defined here can be set in the connection of any open metadata archive store
+ * to control how the archive manager loads the archive's instances into the local repository.  The instances
+ * are passed to the repository in batches of instanceBatchSize.  If instanceLoadThreads is greater than one,
+ * that many batches are loaded in parallel once all of the archive's types are registered.
  */
 public abstract class OpenMetadataArchiveStoreProviderBase extends ConnectorProviderBase
 {
+    public static final String instanceBatchSizeProperty   = "instanceBatchSize";
+    public static final String instanceLoadThreadsProperty = "instanceLoadThreads";
+
+    public static final int    defaultInstanceBatchSize    = 1000;
+    public static final int    defaultInstanceLoadThreads  = 1;
+
+
     /**
      * Default Constructor
      */
@@ -0,0 +1,86 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+
+import java.util.Iterator;
+
+/**
+ * OpenMetadataArchiveStream returns the contents of an open metadata archive one element at a time so that
+ * an archive can be processed without holding all of its contents in memory.  Each section of the archive is
+ * returned as an iterator.  Only one iterator is active at a time: requesting another section (or the archive
+ * properties) ends the iteration of the previous section.
+ *
+ * Errors reading the archive are reported with an OMRSRuntimeException.  The stream must be closed once
+ * the archive has been processed.
+ */
+public interface OpenMetadataArchiveStream
+{
+    /**
+     * Return the properties that describe the archive.
+     *
+     * @return properties or null if the archive does not have any
+     */
+    OpenMetadataArchiveProperties getArchiveProperties();
+
+
+    /**
+     * Return the patches to existing TypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<TypeDefPatch> getTypeDefPatches();
+
+
+    /**
+     * Return the new AttributeTypeDefs.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<AttributeTypeDef> getAttributeTypeDefs();
+
+
+    /**
+     * Return the new TypeDefs in the order they must be added.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<TypeDef> getNewTypeDefs();
+
+
+    /**
+     * Return the entities.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<EntityDetail> getEntities();
+
+
+    /**
+     * Return the relationships.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<Relationship> getRelationships();
+
+
+    /**
+     * Return the classifications to add to existing entities.
+     *
+     * @return iterator (never null)
+     */
+    Iterator<ClassificationEntityExtension> getClassifications();
+
+
+    /**
+     * Release the resources used to read the archive.
+     */
+    void close();
+}
@@ -3,6 +3,10 @@
 package org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore;
 
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * OMRSAuditLogStoreConnectorBase is the base class for connectors that support the OMRSAuditLog
@@ -15,4 +19,28 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
     public OMRSAuditLogStoreConnectorBase()
     {
     }
+
+
+    /**
+     * Store a batch of audit log records in the audit log store.  This implementation stores each record in turn.
+     * Audit log stores that can write many records more efficiently than one at a time should override it.
+     *
+     * @param logRecords  log records to store
+     * @return unique identifiers assigned to the log records in the same order as the records
+     * @throws InvalidParameterException indicates that one of the log records is invalid.
+     */
+    public List<String> storeLogRecords(List<OMRSAuditLogRecord> logRecords) throws InvalidParameterException
+    {
+        List<String> logRecordIds = new ArrayList<>();
+
+        if (logRecords != null)
+        {
+            for (OMRSAuditLogRecord logRecord : logRecords)
+            {
+                logRecordIds.add(this.storeLogRecord(logRecord));
+            }
+        }
+
+        return logRecordIds;
+    }
 }
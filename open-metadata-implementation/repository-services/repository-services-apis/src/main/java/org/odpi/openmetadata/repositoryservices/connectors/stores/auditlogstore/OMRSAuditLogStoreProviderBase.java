@@ -10,9 +10,26 @@ import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
  * The subclasses of OMRSAuditLogStoreProviderBase must initialize ConnectorProviderBase with the Java class
  * name of the audit log connector implementation (by calling super.setConnectorClassName(className)).
  * Then the connector provider will work.
+ *
+ * The configuration properties defined here can be set in the connection of any audit log store to control how
+ * the OMRSAuditLogDestination delivers audit log records to it.  By default each record is passed to the store
+ * on the thread that logged it.  When auditLogDelivery is set to "asynchronous" the records are placed on a bounded
+ * queue and a dedicated writer thread passes them to the store.
  */
 public abstract class OMRSAuditLogStoreProviderBase extends ConnectorProviderBase
 {
+    public static final String auditLogDeliveryProperty       = "auditLogDelivery";
+    public static final String auditLogQueueCapacityProperty  = "auditLogQueueCapacity";
+    public static final String auditLogOverflowPolicyProperty = "auditLogOverflowPolicy";
+    public static final String auditLogBatchSizeProperty      = "auditLogBatchSize";
+
+    public static final String synchronousDelivery  = "synchronous";
+    public static final String asynchronousDelivery = "asynchronous";
+
+    public static final int    defaultQueueCapacity = 1024;
+    public static final int    defaultBatchSize     = 100;
+
+
     /**
      * Default Constructor
      */
@@ -12,8 +12,11 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -827,6 +830,64 @@ public abstract class OMRSMetadataCollection
                                                                              UserNotAuthorizedException;
 
 
+    /**
+     * Return the header, classifications and properties of a batch of entities.  Entities that are not known,
+     * or are only proxies, in the metadata collection are left out of the results and an entity whose guid is
+     * requested more than once is returned once.  This default implementation retrieves the entities one at a time.
+     * Repositories that can retrieve many entities in one request should override it.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of EntityDetail structures in the order requested.  Null means none of the entities are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        if (guids == null)
+        {
+            return null;
+        }
+
+        Map<String, EntityDetail> entities = new LinkedHashMap<>();
+
+        for (String guid : guids)
+        {
+            try
+            {
+                if (! entities.containsKey(guid))
+                {
+                    entities.put(guid, this.getEntityDetail(userId, guid));
+                }
+            }
+            catch (EntityNotKnownException error)
+            {
+                /*
+                 * Unknown entities are left out of the results.
+                 */
+            }
+            catch (EntityProxyOnlyException error)
+            {
+                /*
+                 * Proxies are left out of the results.
+                 */
+            }
+        }
+
+        if (entities.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(entities.values());
+    }
+
+
 
     /**
      * Return the relationships for a specific entity.
@@ -876,6 +937,92 @@ public abstract class OMRSMetadataCollection
                                                                                                              UserNotAuthorizedException;
 
 
+    /**
+     * Return the relationships for a batch of entities.  Each relationship is returned once, even if it links
+     * two of the requested entities.  Entities that are not known in the metadata collection are ignored.
+     * This default implementation retrieves the relationships of each entity in turn.  Repositories that
+     * can retrieve the relationships of many entities in one request should override it.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers for the entities.
+     * @param relationshipTypeGUID String GUID of the the type of relationship required (null for all).
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entities.  Null means return the
+     *                 present values.
+     * @return Relationships list, grouped by the first requested entity they are attached to and in the order
+     *         the entities were requested.  Null means no relationships associated with the entities.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws PropertyErrorException the relationships could not be sequenced.
+     * @throws PagingErrorException the paging parameters used to retrieve the relationships were rejected.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsForEntities(String                     userId,
+                                                          List<String>               entityGUIDs,
+                                                          String                     relationshipTypeGUID,
+                                                          List<InstanceStatus>       limitResultsByStatus,
+                                                          Date                       asOfTime) throws InvalidParameterException,
+                                                                                                      TypeErrorException,
+                                                                                                      RepositoryErrorException,
+                                                                                                      PropertyErrorException,
+                                                                                                      PagingErrorException,
+                                                                                                      FunctionNotSupportedException,
+                                                                                                      UserNotAuthorizedException
+    {
+        if (entityGUIDs == null)
+        {
+            return null;
+        }
+
+        Map<String, Relationship> relationships = new LinkedHashMap<>();
+
+        for (String entityGUID : entityGUIDs)
+        {
+            try
+            {
+                List<Relationship> entityRelationships = this.getRelationshipsForEntity(userId,
+                                                                                        entityGUID,
+                                                                                        relationshipTypeGUID,
+                                                                                        0,
+                                                                                        limitResultsByStatus,
+                                                                                        asOfTime,
+                                                                                        null,
+                                                                                        null,
+                                                                                        0);
+
+                if (entityRelationships != null)
+                {
+                    for (Relationship relationship : entityRelationships)
+                    {
+                        if (relationship != null)
+                        {
+                            relationships.putIfAbsent(relationship.getGUID(), relationship);
+                        }
+                    }
+                }
+            }
+            catch (EntityNotKnownException error)
+            {
+                /*
+                 * Unknown entities have no relationships.
+                 */
+            }
+        }
+
+        if (relationships.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(relationships.values());
+    }
+
+
 
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
@@ -1098,6 +1245,58 @@ public abstract class OMRSMetadataCollection
                                                                             UserNotAuthorizedException;
 
 
+    /**
+     * Return the current version of a batch of relationships.  Relationships that are not known in the metadata
+     * collection are left out of the results and a relationship whose guid is requested more than once is returned
+     * once.  This default implementation retrieves the relationships one at a time.  Repositories that can retrieve
+     * many relationships in one request should override it.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of relationship structures in the order requested.  Null means none of the relationships are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationships(String       userId,
+                                               List<String> guids) throws InvalidParameterException,
+                                                                          RepositoryErrorException,
+                                                                          UserNotAuthorizedException
+    {
+        if (guids == null)
+        {
+            return null;
+        }
+
+        Map<String, Relationship> relationships = new LinkedHashMap<>();
+
+        for (String guid : guids)
+        {
+            try
+            {
+                if (! relationships.containsKey(guid))
+                {
+                    relationships.put(guid, this.getRelationship(userId, guid));
+                }
+            }
+            catch (RelationshipNotKnownException error)
+            {
+                /*
+                 * Unknown relationships are left out of the results.
+                 */
+            }
+        }
+
+        if (relationships.isEmpty())
+        {
+            return null;
+        }
+
+        return new ArrayList<>(relationships.values());
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be received as a series of pages.
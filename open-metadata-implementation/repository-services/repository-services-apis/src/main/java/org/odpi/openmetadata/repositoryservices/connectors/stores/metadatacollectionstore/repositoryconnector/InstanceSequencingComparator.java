@@ -0,0 +1,660 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
+
+/**
+ * InstanceSequencingComparator orders entities and relationships according to the sequencing order and
+ * sequencing property supplied on a find request.  Instances with no value for the sequencing attribute
+ * are placed after those that have a value whichever direction is requested.  Instances that have equal values
+ * are ordered by GUID so that the order is consistent from one request to the next.  A sequencing order of
+ * ANY (or null) treats all instances as equal.
+ *
+ * Property values are compared according to the attribute type recorded with the value: numbers numerically
+ * (whatever their size), dates by time, enums by ordinal, booleans and strings naturally and the other types
+ * by their string form.  Where a property is defined with different attribute types in different subtypes, the
+ * values are grouped by type (numbers, then dates, then strings ...) so the order is always consistent.
+ *
+ * The sort and getFirstInstances methods extract the sort key of each instance once before sorting.  They
+ * should be used in preference to sorting with the comparator itself, which extracts the keys on every comparison.
+ */
+public class InstanceSequencingComparator implements Comparator<InstanceHeader>
+{
+    private SequencingOrder sequencingOrder;
+    private String          sequencingProperty;
+
+
+    /**
+     * The types of value that a sort key can hold.  Values of different types are ordered by this enum.
+     */
+    private enum ValueType
+    {
+        BOOLEAN,
+        NUMBER,
+        DATE,
+        STRING,
+        ENUM,
+        OTHER
+    }
+
+
+    /**
+     * Constructor supplies the ordering requested by the caller.
+     *
+     * @param sequencingOrder enum defining how the results should be ordered
+     * @param sequencingProperty name of the property used when ordering by property value
+     */
+    public InstanceSequencingComparator(SequencingOrder sequencingOrder,
+                                        String          sequencingProperty)
+    {
+        this.sequencingOrder = sequencingOrder;
+        this.sequencingProperty = sequencingProperty;
+    }
+
+
+    /**
+     * Return whether this comparator imposes any order on the instances.
+     *
+     * @return boolean flag - false means any order is acceptable
+     */
+    public boolean isOrdered()
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return false;
+        }
+
+        if ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING))
+        {
+            return (sequencingProperty != null);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Compare two instances.
+     *
+     * @param instance1 first instance
+     * @param instance2 second instance
+     * @return negative if the first instance should be returned before the second, positive if after and
+     * zero if the order does not matter
+     */
+    public int compare(InstanceHeader instance1,
+                       InstanceHeader instance2)
+    {
+        if (! this.isOrdered())
+        {
+            return 0;
+        }
+
+        return this.compareKeys(this.getSortKey(instance1), this.getSortKey(instance2));
+    }
+
+
+    /**
+     * Sort a list of instances in place.  The sort key of each instance is extracted once, the keys are sorted
+     * and the instances are put back in the list in the order of their keys.
+     *
+     * @param instances list to sort
+     * @param <T> type of instance
+     */
+    public <T extends InstanceHeader> void sort(List<T> instances)
+    {
+        if ((instances == null) || (instances.size() < 2) || (! this.isOrdered()))
+        {
+            return;
+        }
+
+        List<SortKey<T>> sortKeys = this.getSortKeys(instances);
+
+        sortKeys.sort(this::compareKeys);
+
+        ListIterator<T> iterator = instances.listIterator();
+
+        for (SortKey<T> sortKey : sortKeys)
+        {
+            iterator.next();
+            iterator.set(sortKey.instance);
+        }
+    }
+
+
+    /**
+     * Return the first instances of a list in sequence order.  The list is not changed.  When fewer instances
+     * are requested than there are in the list, only the requested number are kept while the list is scanned.
+     *
+     * @param instances list of instances
+     * @param maxInstances number of instances to return (zero means all of them)
+     * @param <T> type of instance
+     * @return new list of the first instances in sequence order
+     */
+    public <T extends InstanceHeader> List<T> getFirstInstances(List<T> instances,
+                                                                int     maxInstances)
+    {
+        List<T> results = new ArrayList<>();
+
+        if ((instances == null) || (instances.isEmpty()))
+        {
+            return results;
+        }
+
+        if ((maxInstances <= 0) || (maxInstances >= instances.size()) || (! this.isOrdered()))
+        {
+            results.addAll(instances);
+            this.sort(results);
+
+            if ((maxInstances > 0) && (maxInstances < results.size()))
+            {
+                return new ArrayList<>(results.subList(0, maxInstances));
+            }
+
+            return results;
+        }
+
+        /*
+         * Keep the maxInstances lowest keys in a heap whose head is the highest of them.
+         */
+        Comparator<SortKey<T>>    keyComparator = this::compareKeys;
+        PriorityQueue<SortKey<T>> heap          = new PriorityQueue<>(maxInstances, keyComparator.reversed());
+
+        for (T instance : instances)
+        {
+            SortKey<T> sortKey = this.getSortKey(instance);
+
+            if (heap.size() < maxInstances)
+            {
+                heap.add(sortKey);
+            }
+            else if (this.compareKeys(sortKey, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(sortKey);
+            }
+        }
+
+        List<SortKey<T>> sortKeys = new ArrayList<>(heap);
+
+        sortKeys.sort(keyComparator);
+
+        for (SortKey<T> sortKey : sortKeys)
+        {
+            results.add(sortKey.instance);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Extract the sort key of each instance.
+     *
+     * @param instances list of instances
+     * @param <T> type of instance
+     * @return list of sort keys in the same order as the instances
+     */
+    private <T extends InstanceHeader> List<SortKey<T>> getSortKeys(List<T> instances)
+    {
+        List<SortKey<T>> sortKeys = new ArrayList<>(instances.size());
+
+        for (T instance : instances)
+        {
+            sortKeys.add(this.getSortKey(instance));
+        }
+
+        return sortKeys;
+    }
+
+
+    /**
+     * Extract the values from an instance that are needed to order it.
+     *
+     * @param instance instance to test
+     * @param <T> type of instance
+     * @return sort key
+     */
+    private <T extends InstanceHeader> SortKey<T> getSortKey(T instance)
+    {
+        SortKey<T> sortKey = new SortKey<>(instance);
+
+        switch (sequencingOrder)
+        {
+            case CREATION_DATE_RECENT:
+            case CREATION_DATE_OLDEST:
+                sortKey.setDate(instance.getCreateTime());
+                break;
+
+            case LAST_UPDATE_RECENT:
+            case LAST_UPDATE_OLDEST:
+                sortKey.setDate(getLastUpdateTime(instance));
+                break;
+
+            case PROPERTY_ASCENDING:
+            case PROPERTY_DESCENDING:
+                this.setSequencingValue(sortKey, instance);
+                break;
+
+            default:
+                break;
+        }
+
+        return sortKey;
+    }
+
+
+    /**
+     * Compare the sort keys of two instances.  Instances with equal values are ordered by GUID.
+     *
+     * @param sortKey1 key of the first instance
+     * @param sortKey2 key of the second instance
+     * @return comparison result
+     */
+    private int compareKeys(SortKey<?> sortKey1,
+                            SortKey<?> sortKey2)
+    {
+        int result = 0;
+
+        switch (sequencingOrder)
+        {
+            case CREATION_DATE_OLDEST:
+            case LAST_UPDATE_OLDEST:
+            case PROPERTY_ASCENDING:
+                result = compareValues(sortKey1, sortKey2, true);
+                break;
+
+            case CREATION_DATE_RECENT:
+            case LAST_UPDATE_RECENT:
+            case PROPERTY_DESCENDING:
+                result = compareValues(sortKey1, sortKey2, false);
+                break;
+
+            default:
+                break;
+        }
+
+        if (result == 0)
+        {
+            result = compareGUIDs(sortKey1.guid, sortKey2.guid);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Return the time that the instance last changed.  An instance that has never been updated
+     * has no update time so its creation time is used.
+     *
+     * @param instance instance to test
+     * @return date or null
+     */
+    private Date getLastUpdateTime(InstanceHeader instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime();
+        }
+
+        return instance.getCreateTime();
+    }
+
+
+    /**
+     * Extract the value of the sequencing property from the instance and save it in the sort key according to
+     * the attribute type of the value.
+     *
+     * @param sortKey key to update
+     * @param instance instance to test
+     */
+    private void setSequencingValue(SortKey<?>     sortKey,
+                                    InstanceHeader instance)
+    {
+        InstanceProperties properties = null;
+
+        if (instance instanceof EntityDetail)
+        {
+            properties = ((EntityDetail) instance).getProperties();
+        }
+        else if (instance instanceof Relationship)
+        {
+            properties = ((Relationship) instance).getProperties();
+        }
+
+        if (properties == null)
+        {
+            return;
+        }
+
+        InstancePropertyValue propertyValue = properties.getPropertyValue(sequencingProperty);
+
+        if (propertyValue == null)
+        {
+            return;
+        }
+
+        if (propertyValue instanceof PrimitivePropertyValue)
+        {
+            PrimitivePropertyValue primitivePropertyValue = (PrimitivePropertyValue) propertyValue;
+
+            if (sortKey.setPrimitiveValue(primitivePropertyValue.getPrimitiveDefCategory(),
+                                          primitivePropertyValue.getPrimitiveValue()))
+            {
+                return;
+            }
+        }
+        else if (propertyValue instanceof EnumPropertyValue)
+        {
+            sortKey.valueType = ValueType.ENUM;
+            sortKey.value = ((EnumPropertyValue) propertyValue).getOrdinal();
+            return;
+        }
+
+        String stringValue = propertyValue.valueAsString();
+
+        if (stringValue != null)
+        {
+            sortKey.valueType = ValueType.OTHER;
+            sortKey.value = stringValue;
+        }
+    }
+
+
+    /**
+     * Compare the values of two sort keys, placing missing values last.  Values of different types are
+     * ordered by type.
+     *
+     * @param sortKey1 first key
+     * @param sortKey2 second key
+     * @param ascending true for lowest value first
+     * @return comparison result
+     */
+    @SuppressWarnings("unchecked")
+    private int compareValues(SortKey<?> sortKey1,
+                              SortKey<?> sortKey2,
+                              boolean    ascending)
+    {
+        if (sortKey1.value == null)
+        {
+            return (sortKey2.value == null) ? 0 : 1;
+        }
+        else if (sortKey2.value == null)
+        {
+            return -1;
+        }
+
+        int result;
+
+        if (sortKey1.valueType != sortKey2.valueType)
+        {
+            result = sortKey1.valueType.compareTo(sortKey2.valueType);
+        }
+        else if (sortKey1.valueType == ValueType.NUMBER)
+        {
+            result = compareNumbers((Number) sortKey1.value, (Number) sortKey2.value);
+        }
+        else
+        {
+            result = ((Comparable<Object>) sortKey1.value).compareTo(sortKey2.value);
+        }
+
+        return ascending ? result : -result;
+    }
+
+
+    /**
+     * Compare two numbers by value, whatever their classes.  Infinite values and NaN are placed in the same
+     * positions as Double.compare places them.
+     *
+     * @param number1 first number
+     * @param number2 second number
+     * @return comparison result
+     */
+    private int compareNumbers(Number number1,
+                               Number number2)
+    {
+        if ((number1 instanceof Long) && (number2 instanceof Long))
+        {
+            return Long.compare(number1.longValue(), number2.longValue());
+        }
+
+        if ((number1 instanceof Double) && (number2 instanceof Double))
+        {
+            return Double.compare(number1.doubleValue(), number2.doubleValue());
+        }
+
+        int nonFinite1 = getNonFiniteRank(number1);
+        int nonFinite2 = getNonFiniteRank(number2);
+
+        if ((nonFinite1 != 0) || (nonFinite2 != 0))
+        {
+            return Integer.compare(nonFinite1, nonFinite2);
+        }
+
+        return toBigDecimal(number1).compareTo(toBigDecimal(number2));
+    }
+
+
+    /**
+     * Return where a number sits relative to the finite numbers.
+     *
+     * @param number number to test
+     * @return -1 for negative infinity, 0 for a finite number, 1 for positive infinity and 2 for NaN
+     */
+    private int getNonFiniteRank(Number number)
+    {
+        if (number instanceof Double)
+        {
+            double doubleValue = number.doubleValue();
+
+            if (Double.isNaN(doubleValue))
+            {
+                return 2;
+            }
+
+            if (Double.isInfinite(doubleValue))
+            {
+                return (doubleValue > 0) ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Convert a finite number held in a sort key to a BigDecimal without losing precision.
+     *
+     * @param number Long, Double or BigDecimal
+     * @return BigDecimal
+     */
+    private BigDecimal toBigDecimal(Number number)
+    {
+        if (number instanceof BigDecimal)
+        {
+            return (BigDecimal) number;
+        }
+
+        if (number instanceof Double)
+        {
+            return new BigDecimal(number.doubleValue());
+        }
+
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+
+    /**
+     * Compare two GUIDs, placing missing GUIDs last.
+     *
+     * @param guid1 first GUID
+     * @param guid2 second GUID
+     * @return comparison result
+     */
+    private int compareGUIDs(String guid1,
+                             String guid2)
+    {
+        if (guid1 == null)
+        {
+            return (guid2 == null) ? 0 : 1;
+        }
+        else if (guid2 == null)
+        {
+            return -1;
+        }
+
+        return guid1.compareTo(guid2);
+    }
+
+
+    /**
+     * SortKey holds an instance with the values that are used to order it.  Numbers are held as Long, Double
+     * or BigDecimal, dates as Long, enums as their ordinal and the other values as Boolean or String.
+     *
+     * @param <T> type of instance
+     */
+    private static class SortKey<T extends InstanceHeader>
+    {
+        private final T          instance;
+        private final String     guid;
+        private ValueType        valueType = null;
+        private Comparable<?>    value     = null;
+
+
+        /**
+         * Constructor
+         *
+         * @param instance instance being ordered
+         */
+        SortKey(T instance)
+        {
+            this.instance = instance;
+            this.guid = instance.getGUID();
+        }
+
+
+        /**
+         * Save a date value.
+         *
+         * @param date date or null
+         */
+        void setDate(Date date)
+        {
+            if (date != null)
+            {
+                this.valueType = ValueType.DATE;
+                this.value = date.getTime();
+            }
+        }
+
+
+        /**
+         * Save a primitive value according to its attribute type.
+         *
+         * @param category attribute type of the value
+         * @param primitiveValue value
+         * @return false if the value does not match its attribute type
+         */
+        boolean setPrimitiveValue(PrimitiveDefCategory category,
+                                  Object               primitiveValue)
+        {
+            if ((category == null) || (primitiveValue == null))
+            {
+                return false;
+            }
+
+            switch (category)
+            {
+                case OM_PRIMITIVE_TYPE_BOOLEAN:
+                    if (primitiveValue instanceof Boolean)
+                    {
+                        this.valueType = ValueType.BOOLEAN;
+                        this.value = (Boolean) primitiveValue;
+                        return true;
+                    }
+                    break;
+
+                case OM_PRIMITIVE_TYPE_BYTE:
+                case OM_PRIMITIVE_TYPE_SHORT:
+                case OM_PRIMITIVE_TYPE_INT:
+                case OM_PRIMITIVE_TYPE_LONG:
+                    if (primitiveValue instanceof Number)
+                    {
+                        this.valueType = ValueType.NUMBER;
+                        this.value = ((Number) primitiveValue).longValue();
+                        return true;
+                    }
+                    break;
+
+                case OM_PRIMITIVE_TYPE_FLOAT:
+                case OM_PRIMITIVE_TYPE_DOUBLE:
+                    if (primitiveValue instanceof Number)
+                    {
+                        this.valueType = ValueType.NUMBER;
+                        this.value = ((Number) primitiveValue).doubleValue();
+                        return true;
+                    }
+                    break;
+
+                case OM_PRIMITIVE_TYPE_BIGINTEGER:
+                case OM_PRIMITIVE_TYPE_BIGDECIMAL:
+                    if (primitiveValue instanceof BigDecimal)
+                    {
+                        this.valueType = ValueType.NUMBER;
+                        this.value = (BigDecimal) primitiveValue;
+                        return true;
+                    }
+                    else if (primitiveValue instanceof BigInteger)
+                    {
+                        this.valueType = ValueType.NUMBER;
+                        this.value = new BigDecimal((BigInteger) primitiveValue);
+                        return true;
+                    }
+                    else if ((primitiveValue instanceof Long) || (primitiveValue instanceof Integer))
+                    {
+                        this.valueType = ValueType.NUMBER;
+                        this.value = ((Number) primitiveValue).longValue();
+                        return true;
+                    }
+                    break;
+
+                case OM_PRIMITIVE_TYPE_DATE:
+                    if (primitiveValue instanceof Date)
+                    {
+                        this.setDate((Date) primitiveValue);
+                        return true;
+                    }
+                    else if (primitiveValue instanceof Number)
+                    {
+                        this.valueType = ValueType.DATE;
+                        this.value = ((Number) primitiveValue).longValue();
+                        return true;
+                    }
+                    break;
+
+                case OM_PRIMITIVE_TYPE_CHAR:
+                case OM_PRIMITIVE_TYPE_STRING:
+                    this.valueType = ValueType.STRING;
+                    this.value = primitiveValue.toString();
+                    return true;
+
+                default:
+                    break;
+            }
+
+            return false;
+        }
+    }
+}
@@ -165,6 +165,17 @@ public interface OMRSRepositoryHelper
                       String expectedTypeName);
 
 
+    /**
+     * Return the names of all of the types that inherit from the named type, directly or indirectly.
+     *
+     * @param sourceName source of the request (used for logging)
+     * @param superTypeName name of the super type
+     * @return list of type names or null if the type has no subtypes
+     */
+    List<String> getSubTypesOf(String sourceName,
+                               String superTypeName);
+
+
     /**
      * Return the names of all of the properties in the supplied TypeDef and all of its super-types.
      *
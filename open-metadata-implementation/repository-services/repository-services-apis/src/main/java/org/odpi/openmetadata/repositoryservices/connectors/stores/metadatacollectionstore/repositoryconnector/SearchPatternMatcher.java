@@ -0,0 +1,211 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * SearchPatternMatcher tests string values against a search pattern (a regular expression) with the same
+ * result as String.matches() but without recompiling the pattern for every value tested.  Patterns that
+ * contain no regular expression operators, or that are wholly quoted with \Q...\E (as Pattern.quote()
+ * produces), are recognized as literals and tested with String.equals().  Matchers are retrieved through
+ * getMatcher() which keeps the most recently used ones in a bounded cache shared by all callers.
+ */
+public class SearchPatternMatcher
+{
+    private static final int    matcherCacheSize = 500;
+    private static final String quoteStart       = "\\Q";
+    private static final String quoteEnd         = "\\E";
+    private static final String regexOperators   = "\\^$.|?*+()[]{}";
+
+    private static final Map<String, SearchPatternMatcher> matcherCache =
+            Collections.synchronizedMap(new LinkedHashMap<String, SearchPatternMatcher>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SearchPatternMatcher> eldest)
+                {
+                    return size() > matcherCacheSize;
+                }
+            });
+
+    private String                 searchPattern;
+    private String                 literal      = null;
+    private Pattern                pattern      = null;
+    private PatternSyntaxException patternError = null;
+
+
+    /**
+     * Return the matcher for the supplied search pattern, reusing a cached matcher where possible.
+     *
+     * @param searchPattern regular expression or literal string
+     * @return matcher for the search pattern
+     */
+    public static SearchPatternMatcher getMatcher(String searchPattern)
+    {
+        if (searchPattern == null)
+        {
+            return new SearchPatternMatcher(null);
+        }
+
+        SearchPatternMatcher matcher = matcherCache.get(searchPattern);
+
+        if (matcher == null)
+        {
+            matcher = new SearchPatternMatcher(searchPattern);
+            matcherCache.put(searchPattern, matcher);
+        }
+
+        return matcher;
+    }
+
+
+    /**
+     * Constructor analyses the search pattern and compiles it if it is not a literal.  An invalid regular
+     * expression is not reported until the matcher is used so that callers see the same exception
+     * that String.matches() would throw.
+     *
+     * @param searchPattern regular expression or literal string
+     */
+    public SearchPatternMatcher(String searchPattern)
+    {
+        this.searchPattern = searchPattern;
+
+        if (searchPattern != null)
+        {
+            this.literal = getLiteral(searchPattern);
+
+            if (literal == null)
+            {
+                try
+                {
+                    this.pattern = Pattern.compile(searchPattern);
+                }
+                catch (PatternSyntaxException error)
+                {
+                    this.patternError = error;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the search pattern that this matcher tests for.
+     *
+     * @return search pattern string
+     */
+    public String getSearchPattern()
+    {
+        return searchPattern;
+    }
+
+
+    /**
+     * Return whether the search pattern is tested as a literal string.
+     *
+     * @return boolean flag
+     */
+    public boolean isLiteral()
+    {
+        return (literal != null);
+    }
+
+
+    /**
+     * Return whether the whole of the value matches the search pattern - equivalent to value.matches(searchPattern).
+     *
+     * @param value value to test
+     * @return boolean result
+     * @throws PatternSyntaxException the search pattern is not a valid regular expression
+     * @throws NullPointerException the search pattern is null
+     */
+    public boolean matches(String value)
+    {
+        if (searchPattern == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if (literal != null)
+        {
+            return literal.equals(value);
+        }
+
+        if (patternError != null)
+        {
+            throw patternError;
+        }
+
+        return pattern.matcher(value).matches();
+    }
+
+
+    /**
+     * Return whether the value contains the search pattern string or matches it as a regular expression -
+     * equivalent to value.contains(searchPattern) || value.matches(searchPattern).
+     *
+     * @param value value to test
+     * @return boolean result
+     * @throws PatternSyntaxException the search pattern is not a valid regular expression
+     * @throws NullPointerException the search pattern is null
+     */
+    public boolean containedIn(String value)
+    {
+        if (searchPattern == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if (value.contains(searchPattern))
+        {
+            return true;
+        }
+
+        /*
+         * A plain literal that is not contained in the value can not match the whole of it.
+         */
+        if ((literal != null) && (literal.equals(searchPattern)))
+        {
+            return false;
+        }
+
+        return this.matches(value);
+    }
+
+
+    /**
+     * Return the literal string that the search pattern represents, or null if it is a regular expression.
+     *
+     * @param searchPattern search pattern
+     * @return literal string or null
+     */
+    private static String getLiteral(String searchPattern)
+    {
+        if ((searchPattern.startsWith(quoteStart)) && (searchPattern.endsWith(quoteEnd)) &&
+            (searchPattern.length() >= quoteStart.length() + quoteEnd.length()))
+        {
+            String quotedString = searchPattern.substring(quoteStart.length(), searchPattern.length() - quoteEnd.length());
+
+            if (! quotedString.contains(quoteEnd))
+            {
+                return quotedString;
+            }
+        }
+
+        for (int i = 0; i < searchPattern.length(); i++)
+        {
+            if (regexOperators.indexOf(searchPattern.charAt(i)) >= 0)
+            {
+                return null;
+            }
+        }
+
+        return searchPattern;
+    }
+}
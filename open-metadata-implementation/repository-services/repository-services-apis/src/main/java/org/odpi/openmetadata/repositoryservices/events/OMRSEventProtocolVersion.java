@@ -12,15 +12,19 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
 /**
- * OMRSEventProtocolVersion provides the identifier for the version number of the event payload.  There is
- * only one version at the moment which is why it looks a little sad.
+ * OMRSEventProtocolVersion provides the identifier for the version number of the event payload.  V1_COMPACT
+ * carries the same V1 payload in the compact encoding provided by OMRSCompactEventEncoding.  The OMRSTopicConnector
+ * only uses it while every member it has heard from has advertised support for it in its registry events.
+ * Members always accept V1 JSON events.  A member from before the compact encoding that has not been heard from
+ * since this server started would drop compact events, so every member should be upgraded before it is selected.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown=true)
 public enum OMRSEventProtocolVersion implements Serializable
 {
-    V1 (1, "OMRS V1.0", "OMRS Version 1");
+    V1         (1, "OMRS V1.0", "OMRS Version 1"),
+    V1_COMPACT (2, "OMRS V1.0 Compact", "OMRS Version 1 using the compact event encoding");
 
     private static final long     serialVersionUID = 1L;
 
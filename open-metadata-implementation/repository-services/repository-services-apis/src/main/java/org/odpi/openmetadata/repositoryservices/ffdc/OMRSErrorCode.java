@@ -457,6 +457,18 @@ public enum OMRSErrorCode
             "A null log record originator has been passed by the audit log to the audit log store.",
             "The audit log store throws an exception and the log record is not written to the audit log store.",
             "This is probably an internal error in the audit log.  Raise a Github issue to get this fixed."),
+    NULL_LOG_RECORD_PARAMETER(400, "OMRS-AUDIT-LOG-400-003 ",
+            "A null {0} parameter has been passed to the {1} method of the audit log store.",
+            "The audit log store is unable to perform the request because it needs a value for this parameter.",
+            "The parameter is supplied by the caller.  Correct the caller's code and retry the request."),
+    INVALID_LOG_RECORD_DATES(400, "OMRS-AUDIT-LOG-400-004 ",
+            "The start date {0} passed to the {1} method of the audit log store is after the end date {2}.",
+            "The audit log store is unable to perform the request because no log records can match the dates.",
+            "The dates are supplied by the caller.  Correct the caller's code and retry the request."),
+    INVALID_LOG_RECORD_PAGING(400, "OMRS-AUDIT-LOG-400-005 ",
+            "A negative {0} of {1} has been passed to the {2} method of the audit log store.",
+            "The audit log store is unable to perform the request because the paging parameters are invalid.",
+            "The paging parameters are supplied by the caller.  Correct the caller's code and retry the request."),
     REPOSITORY_NOT_AVAILABLE(404, "OMRS-REPOSITORY-404-001 ",
             "The open metadata repository connector for server {0} is not active and is unable to service the {1} request",
             "The system is unable to retrieve any metadata properties from this repository.",
@@ -622,6 +634,12 @@ public enum OMRSErrorCode
             "The archive builder failed to initialize.",
             "There is an internal error in the OMRS initialization.",
             "Raise a Github issue to get this fixed."),
+    ARCHIVE_READ_ERROR(500, "OMRS-ARCHIVE-MANAGER-500-001 ",
+            "Unable to read open metadata archive {0} because of a {1} exception with message {2}.",
+            "The system is unable to process the rest of this open metadata archive.  " +
+                    "Other services may fail if they were dependent on this open metadata archive.",
+            "Check that the archive is complete and is valid JSON.  Correct the archive or its connection " +
+                    "in the server configuration and restart the server."),
     NULL_EXCHANGE_RULE(500, "OMRS-EVENT-MANAGEMENT-500-001 ",
             "A null exchange rule has been passed to one of the event management components on method {0}.",
             "There is an internal error in the OMRS initialization.",
@@ -658,6 +676,11 @@ public enum OMRSErrorCode
              "Connector {0} is unable to send a null event",
              "There is an internal error in the open metadata repository.",
              "Raise a Github issue to get this fixed."),
+    AUDIT_LOG_STORE_IO_ERROR(500, "OMRS-AUDIT-LOG-500-001 ",
+            "The audit log store in directory {0} is unable to complete the {1} request because of exception {2} with message {3}",
+            "The system is unable to read or write the audit log records in the audit log store.",
+            "Check that the directory named in the endpoint of the audit log store connection exists and can be written to by the server.  " +
+                                     "Correct the problem with the file system (for example, space or permissions) and retry the request."),
     METHOD_NOT_IMPLEMENTED(501, "OMRS-METADATA-COLLECTION-501-001 ",
             "OMRSMetadataInstanceStore method {0} for OMRS Connector {1} to repository type {2} is not implemented",
             "A method in MetadataCollectionBase was called which means that the connector's OMRSMetadataInstanceStore " +
@@ -0,0 +1,165 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.rest.properties;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+
+/**
+ * EntityRelationshipsFindRequest provides the parameters for retrieving the relationships of a
+ * batch of entities in a single request.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class EntityRelationshipsFindRequest extends OMRSAPIHistoricalFindRequest
+{
+    private List<String> entityGUIDs = null;
+    private String       typeGUID    = null;
+
+    /**
+     * Default constructor
+     */
+    public EntityRelationshipsFindRequest()
+    {
+        super();
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public EntityRelationshipsFindRequest(EntityRelationshipsFindRequest template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            this.entityGUIDs = template.getEntityGUIDs();
+            this.typeGUID = template.getTypeGUID();
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the entities whose relationships are requested.
+     *
+     * @return list of guids
+     */
+    public List<String> getEntityGUIDs()
+    {
+        if (entityGUIDs == null)
+        {
+            return null;
+        }
+        else if (entityGUIDs.isEmpty())
+        {
+            return null;
+        }
+        else
+        {
+            return new ArrayList<>(entityGUIDs);
+        }
+    }
+
+
+    /**
+     * Set up the unique identifiers of the entities whose relationships are requested.
+     *
+     * @param entityGUIDs list of guids
+     */
+    public void setEntityGUIDs(List<String> entityGUIDs)
+    {
+        this.entityGUIDs = entityGUIDs;
+    }
+
+
+    /**
+     * Return the type of relationship to return (null means all types).
+     *
+     * @return String unique identifier of the relationship type
+     */
+    public String getTypeGUID()
+    {
+        return typeGUID;
+    }
+
+
+    /**
+     * Set up the type of relationship to return (null means all types).
+     *
+     * @param typeGUID String unique identifier of the relationship type
+     */
+    public void setTypeGUID(String typeGUID)
+    {
+        this.typeGUID = typeGUID;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "EntityRelationshipsFindRequest{" +
+                "entityGUIDs=" + entityGUIDs +
+                ", typeGUID='" + typeGUID + '\'' +
+                ", asOfTime=" + getAsOfTime() +
+                ", limitResultsByStatus=" + getLimitResultsByStatus() +
+                '}';
+    }
+
+
+    /**
+     * Compare the values of the supplied object with those stored in the current object.
+     *
+     * @param objectToCompare supplied object
+     * @return boolean result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (!(objectToCompare instanceof EntityRelationshipsFindRequest))
+        {
+            return false;
+        }
+        if (!super.equals(objectToCompare))
+        {
+            return false;
+        }
+        EntityRelationshipsFindRequest
+                that = (EntityRelationshipsFindRequest) objectToCompare;
+        return Objects.equals(getEntityGUIDs(), that.getEntityGUIDs()) &&
+                Objects.equals(getTypeGUID(), that.getTypeGUID());
+    }
+
+
+    /**
+     * Create a hash code for this element type.
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(super.hashCode(), getEntityGUIDs(), getTypeGUID());
+    }
+}
@@ -25,7 +25,8 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
         {
                 @JsonSubTypes.Type(value = OMRSAPIPagedFindRequest.class, name = "OMRSAPIPagedFindRequest"),
                 @JsonSubTypes.Type(value = OMRSAPIHistoricalFindRequest.class, name = "OMRSAPIHistoricalFindRequest"),
-                @JsonSubTypes.Type(value = EntityNeighborhoodFindRequest.class, name = "EntityNeighborhoodFindRequest")
+                @JsonSubTypes.Type(value = EntityNeighborhoodFindRequest.class, name = "EntityNeighborhoodFindRequest"),
+                @JsonSubTypes.Type(value = EntityRelationshipsFindRequest.class, name = "EntityRelationshipsFindRequest")
         })
 public class OMRSAPIFindRequest extends OMRSAPIRequest
 {
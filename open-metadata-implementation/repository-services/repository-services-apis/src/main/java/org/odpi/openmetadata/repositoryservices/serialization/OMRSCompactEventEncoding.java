@@ -0,0 +1,203 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * OMRSCompactEventEncoding converts the JSON form of an OMRS event into a compact form for sending over the
+ * event bus, and back again.  The JSON is compressed using the deflate algorithm with a preset dictionary of the
+ * property names, class names, type names and enum values that appear in most OMRS events.  The dictionary means
+ * that these strings are replaced by short back-references even in a small event, which is where most of the
+ * size of an event comes from.  The compressed bytes are Base64 encoded since the event bus connectors carry
+ * strings, and a prefix is added so that a compact event can be told apart from a JSON event.
+ *
+ * The dictionary is part of the protocol.  It must never change for a given prefix since the receiver must
+ * use exactly the same dictionary as the sender.  A new dictionary needs a new prefix.
+ */
+public class OMRSCompactEventEncoding
+{
+    /**
+     * Name of the encoding that members advertise in their registry events when they are able to decode it.
+     */
+    public static final String COMPACT_ENCODING_NAME = "OMRSZ1";
+
+    /**
+     * Prefix that identifies an event in the compact encoding.  JSON events start with a brace.
+     */
+    public static final String COMPACT_EVENT_PREFIX = COMPACT_ENCODING_NAME + ":";
+
+    private static final int    bufferSize = 4096;
+
+    /*
+     * Fragments are listed from the least to the most common since the deflate algorithm can reference
+     * the end of the dictionary more cheaply than the start.
+     */
+    private static final String[] dictionaryFragments = {
+            "\"typeDefEventSection\":{\"class\":\"OMRSEventV1TypeDefSection\",\"protocolVersionId\":\"OMRS V1.0\",\"typeDefEventType\":\"",
+            "NEW_TYPEDEF_EVENT", "UPDATED_TYPEDEF_EVENT", "DELETED_TYPEDEF_EVENT", "RE_IDENTIFIED_TYPEDEF_EVENT",
+            "\"registryEventSection\":{\"class\":\"OMRSEventV1RegistrySection\",\"protocolVersionId\":\"OMRS V1.0\",\"registrationTimestamp\":",
+            "REGISTRATION_EVENT", "REFRESH_REGISTRATION_REQUEST", "RE_REGISTRATION_EVENT", "UN_REGISTRATION_EVENT",
+            "\"remoteConnection\":{\"class\":\"Connection\",\"connectorType\":{\"class\":\"ConnectorType\"",
+            "\"attributeDefinitions\":[{\"class\":\"TypeDefAttribute\",\"attributeName\":\"",
+            "\"attributeType\":{\"class\":\"PrimitiveDef\",\"category\":\"PRIMITIVE\"",
+            "\"validEntityDefs\":[", "\"initialStatus\":\"ACTIVE\"", "\"origin\":\"", "\"superType\":{\"class\":\"TypeDefLink\"",
+            "{\"class\":\"MapPropertyValue\",\"instancePropertyCategory\":\"MAP\",\"mapValues\":",
+            "{\"class\":\"ArrayPropertyValue\",\"instancePropertyCategory\":\"ARRAY\",\"arrayCount\":",
+            "\"arrayValues\":", "{\"class\":\"StructPropertyValue\",\"instancePropertyCategory\":\"STRUCT\",\"attributes\":",
+            "{\"class\":\"EnumPropertyValue\",\"instancePropertyCategory\":\"ENUM\",\"ordinal\":", "\"symbolicName\":\"",
+            "\"description\":\"",
+            "OM_PRIMITIVE_TYPE_BOOLEAN", "OM_PRIMITIVE_TYPE_DATE", "OM_PRIMITIVE_TYPE_LONG", "OM_PRIMITIVE_TYPE_INT",
+            "\"instanceProvenanceType\":\"EXTERNAL_SOURCE\"", "\"instanceProvenanceType\":\"EXPORT_ARCHIVE\"",
+            "\"instanceProvenanceType\":\"CONTENT_PACK\"", "\"instanceProvenanceType\":\"DEREGISTERED_REPOSITORY\"",
+            "\"originalTypeDefSummary\":{\"class\":\"TypeDefSummary\"", "\"originalHomeMetadataCollectionId\":\"",
+            "\"originalInstanceGUID\":\"", "\"instanceBatch\":{\"class\":\"InstanceGraph\",\"entityElementList\":[",
+            "\"relationshipElementList\":[", "\"homeMetadataCollectionId\":\"", "\"instanceGUID\":\"",
+            "\"eventCategory\":\"TYPEDEF\"", "\"eventCategory\":\"REGISTRY\"",
+            "REFRESH_ENTITY_REQUEST", "REFRESHED_ENTITY_EVENT", "REFRESH_RELATIONSHIP_REQUEST", "REFRESHED_RELATIONSHIP_EVENT",
+            "RE_HOMED_ENTITY_EVENT", "RE_IDENTIFIED_ENTITY_EVENT", "RE_TYPED_ENTITY_EVENT", "RESTORED_ENTITY_EVENT",
+            "RE_HOMED_RELATIONSHIP_EVENT", "RE_IDENTIFIED_RELATIONSHIP_EVENT", "RE_TYPED_RELATIONSHIP_EVENT",
+            "RESTORED_RELATIONSHIP_EVENT", "DELETE_PURGED_ENTITY_EVENT", "DELETE_PURGED_RELATIONSHIP_EVENT",
+            "PURGED_ENTITY_EVENT", "PURGED_RELATIONSHIP_EVENT", "DELETED_ENTITY_EVENT", "DELETED_RELATIONSHIP_EVENT",
+            "\"status\":\"DELETED\"", "\"statusOnDelete\":\"", "\"updatedBy\":\"", "\"updateTime\":",
+            "\"maintainedBy\":[", "\"replicatedBy\":\"", "\"reIdentifiedFromGUID\":\"", "\"instanceLicense\":\"",
+            "\"classificationOrigin\":\"PROPAGATED\"", "\"classificationOriginGUID\":\"",
+            "CLASSIFIED_ENTITY_EVENT", "RECLASSIFIED_ENTITY_EVENT", "DECLASSIFIED_ENTITY_EVENT",
+            "\"relationship\":{\"class\":\"Relationship\",\"type\":{\"class\":\"InstanceType\",\"typeDefCategory\":\"RELATIONSHIP_DEF\"",
+            "\"entityOneProxy\":{\"class\":\"EntityProxy\",\"type\":{\"class\":\"InstanceType\",\"typeDefCategory\":\"ENTITY_DEF\"",
+            "\"entityTwoProxy\":{\"class\":\"EntityProxy\",\"type\":{\"class\":\"InstanceType\",\"typeDefCategory\":\"ENTITY_DEF\"",
+            "\"uniqueProperties\":{\"class\":\"InstanceProperties\",\"instanceProperties\":{",
+            "NEW_RELATIONSHIP_EVENT", "UPDATED_RELATIONSHIP_EVENT",
+            "\"typeDefSuperTypes\":[{\"class\":\"TypeDefLink\",\"guid\":\"", "\"name\":\"Referenceable\"",
+            "\"classifications\":[{\"class\":\"Classification\",\"type\":{\"class\":\"InstanceType\",\"typeDefCategory\":\"CLASSIFICATION_DEF\"",
+            "\"classificationOrigin\":\"ASSIGNED\"", "\"name\":\"",
+            "\"additionalProperties\"", "\"owner\"", "\"summary\"", "\"displayName\"", "\"description\"", "\"qualifiedName\"",
+            "\"propertyNames\":[", "\"propertyCount\":",
+            "\"properties\":{\"class\":\"InstanceProperties\",\"instanceProperties\":{",
+            "{\"class\":\"PrimitivePropertyValue\",\"instancePropertyCategory\":\"PRIMITIVE\",\"primitiveDefCategory\":\"OM_PRIMITIVE_TYPE_STRING\",\"primitiveValue\":\"",
+            "\"instanceProvenanceType\":\"LOCAL_COHORT\"", "\"metadataCollectionName\":\"", "\"createdBy\":\"",
+            "\"createTime\":", "\"version\":", "\"guid\":\"", "\"status\":\"ACTIVE\"",
+            "\"typeDefVersion\":", "\"validInstanceProperties\":[",
+            "NEW_ENTITY_EVENT", "UPDATED_ENTITY_EVENT",
+            "{\"class\":\"OMRSEventV1\",\"protocolVersionId\":\"OMRS V1.0\",\"timestamp\":",
+            "\"originator\":{\"metadataCollectionId\":\"", "\"serverName\":\"", "\"serverType\":\"", "\"organizationName\":\"",
+            "\"eventCategory\":\"INSTANCE\"",
+            "\"instanceEventSection\":{\"class\":\"OMRSEventV1InstanceSection\",\"protocolVersionId\":\"OMRS V1.0\",\"eventType\":\"",
+            "\"entity\":{\"class\":\"EntityDetail\",\"type\":{\"class\":\"InstanceType\",\"typeDefCategory\":\"ENTITY_DEF\",\"typeDefGUID\":\"",
+            "\"typeDefGUID\":\"", "\"typeDefName\":\"", "\"metadataCollectionId\":\""
+    };
+
+    private static final byte[] dictionary = String.join("", dictionaryFragments).getBytes(StandardCharsets.UTF_8);
+
+    /*
+     * Compressors hold native memory and are expensive to create so each thread keeps one for reuse.
+     */
+    private static final ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+
+    /**
+     * Private constructor since all of the methods are static.
+     */
+    private OMRSCompactEventEncoding()
+    {
+    }
+
+
+    /**
+     * Return whether the event is in the compact encoding.
+     *
+     * @param event event received from the event bus
+     * @return boolean flag
+     */
+    public static boolean isCompactEvent(String event)
+    {
+        return (event != null) && (event.startsWith(COMPACT_EVENT_PREFIX));
+    }
+
+
+    /**
+     * Convert the JSON form of an event into the compact encoding.
+     *
+     * @param jsonEvent JSON string
+     * @return compact string
+     */
+    public static String encode(String jsonEvent)
+    {
+        Deflater              deflater = deflaters.get();
+        ByteArrayOutputStream output   = new ByteArrayOutputStream(bufferSize);
+        byte[]                buffer   = new byte[bufferSize];
+
+        deflater.reset();
+        deflater.setDictionary(dictionary);
+        deflater.setInput(jsonEvent.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+
+        while (! deflater.finished())
+        {
+            int length = deflater.deflate(buffer);
+
+            output.write(buffer, 0, length);
+        }
+
+        return COMPACT_EVENT_PREFIX + Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+
+    /**
+     * Convert an event received from the event bus into its JSON form.  Events that are already JSON are
+     * returned unchanged.
+     *
+     * @param event event received from the event bus
+     * @return JSON string
+     * @throws IOException the event is not a valid compact event
+     */
+    public static String decode(String event) throws IOException
+    {
+        if (! isCompactEvent(event))
+        {
+            return event;
+        }
+
+        Inflater              inflater = inflaters.get();
+        ByteArrayOutputStream output   = new ByteArrayOutputStream(bufferSize);
+        byte[]                buffer   = new byte[bufferSize];
+
+        try
+        {
+            inflater.reset();
+            inflater.setInput(Base64.getDecoder().decode(event.substring(COMPACT_EVENT_PREFIX.length())));
+
+            while (! inflater.finished())
+            {
+                int length = inflater.inflate(buffer);
+
+                if (length == 0)
+                {
+                    if (inflater.needsDictionary())
+                    {
+                        inflater.setDictionary(dictionary);
+                    }
+                    else if (inflater.needsInput())
+                    {
+                        throw new IOException("Compact event is truncated");
+                    }
+                }
+
+                output.write(buffer, 0, length);
+            }
+        }
+        catch (DataFormatException | IllegalArgumentException error)
+        {
+            throw new IOException("Compact event is not valid: " + error.getMessage(), error);
+        }
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
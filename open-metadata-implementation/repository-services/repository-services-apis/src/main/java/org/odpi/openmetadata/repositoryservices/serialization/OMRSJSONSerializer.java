@@ -0,0 +1,148 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * OMRSJSONSerializer provides a shared facility for converting the open metadata beans to and from JSON.
+ * Creating an ObjectMapper and working out how to serialize a class are expensive operations so this class
+ * creates a single ObjectMapper and caches an ObjectReader and ObjectWriter for each class it is asked to handle.
+ * ObjectReaders and ObjectWriters are immutable and so can be used by many threads at once.
+ * The readers and writers for the beans used in OMRS events, instance properties and open metadata
+ * archives are created when the class is loaded so that the first event does not pay the cost of the
+ * introspection.
+ *
+ * The ObjectMapper has the default Jackson configuration so the JSON produced and accepted is the same
+ * as that of a new ObjectMapper.
+ */
+public class OMRSJSONSerializer
+{
+    private static final ObjectMapper                           objectMapper = new ObjectMapper();
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers      = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> writers      = new ConcurrentHashMap<>();
+
+    private static final List<Class<?>> preparedReaderClasses = Arrays.asList(OMRSEventBean.class,
+                                                                              InstanceProperties.class,
+                                                                              EntityDetail.class,
+                                                                              Relationship.class,
+                                                                              Classification.class,
+                                                                              OpenMetadataArchive.class,
+                                                                              List.class);
+
+    private static final List<Class<?>> preparedWriterClasses = Arrays.asList(OMRSEventV1.class,
+                                                                              InstanceProperties.class,
+                                                                              EntityDetail.class,
+                                                                              Relationship.class,
+                                                                              Classification.class,
+                                                                              OpenMetadataArchive.class,
+                                                                              ArrayList.class);
+
+    static
+    {
+        for (Class<?> beanClass : preparedReaderClasses)
+        {
+            getReader(beanClass);
+        }
+
+        for (Class<?> beanClass : preparedWriterClasses)
+        {
+            getWriter(beanClass);
+        }
+    }
+
+
+    /**
+     * Private constructor since all of the methods are static.
+     */
+    private OMRSJSONSerializer()
+    {
+    }
+
+
+    /**
+     * Return the shared ObjectMapper.  It must not be reconfigured since that would affect all of its users.
+     *
+     * @return object mapper
+     */
+    public static ObjectMapper getObjectMapper()
+    {
+        return objectMapper;
+    }
+
+
+    /**
+     * Return the reader for the requested class.  The reader is created the first time it is requested.
+     *
+     * @param beanClass class of object to read - for polymorphic beans this is the class at the root of the hierarchy
+     * @return reader
+     */
+    public static ObjectReader getReader(Class<?> beanClass)
+    {
+        return readers.computeIfAbsent(beanClass, objectMapper::readerFor);
+    }
+
+
+    /**
+     * Return the writer for the requested class.  The writer is created the first time it is requested.
+     *
+     * @param beanClass class of object to write
+     * @return writer
+     */
+    public static ObjectWriter getWriter(Class<?> beanClass)
+    {
+        return writers.computeIfAbsent(beanClass, objectMapper::writerFor);
+    }
+
+
+    /**
+     * Convert a JSON string into a bean.
+     *
+     * @param json JSON string
+     * @param beanClass class of bean to return
+     * @param <T> type of bean
+     * @return bean
+     * @throws IOException the JSON string is not valid for the class
+     */
+    public static <T> T readValue(String   json,
+                                  Class<T> beanClass) throws IOException
+    {
+        return getReader(beanClass).readValue(json);
+    }
+
+
+    /**
+     * Convert a bean into a JSON string.  The writer is chosen using the class of the bean so that all
+     * of its properties are written.
+     *
+     * @param bean bean to convert
+     * @return JSON string
+     * @throws JsonProcessingException the bean can not be converted to JSON
+     */
+    public static String writeValueAsString(Object bean) throws JsonProcessingException
+    {
+        if (bean == null)
+        {
+            return objectMapper.writeValueAsString(null);
+        }
+
+        return getWriter(bean.getClass()).writeValueAsString(bean);
+    }
+}
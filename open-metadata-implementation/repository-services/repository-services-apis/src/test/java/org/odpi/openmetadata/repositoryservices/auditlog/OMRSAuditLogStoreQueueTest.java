@@ -0,0 +1,385 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecordOriginator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the OMRSAuditLogStoreQueue delivers records to its audit log store in batches, applies its
+ * overflow policy when full and that the OMRSAuditLogDestination sets up queues from the store's connection.
+ */
+public class OMRSAuditLogStoreQueueTest
+{
+    /**
+     * Create a log record with the requested message id.
+     *
+     * @param logMessageId message id
+     * @return log record
+     */
+    private OMRSAuditLogRecord getTestRecord(String logMessageId)
+    {
+        return new OMRSAuditLogRecord(new OMRSAuditLogRecordOriginator(),
+                                      null,
+                                      OMRSAuditLogRecordSeverity.INFO.getName(),
+                                      logMessageId,
+                                      "Test message",
+                                      null,
+                                      null,
+                                      null);
+    }
+
+
+    /**
+     * Validate that records are delivered in order and in batches.
+     */
+    @Test public void testDelivery()
+    {
+        TestAuditLogStore      store = new TestAuditLogStore(null);
+        OMRSAuditLogStoreQueue queue = new OMRSAuditLogStoreQueue(store, "Test", 100, OMRSAuditLogOverflowPolicy.BLOCK, 10);
+
+        for (int i = 0; i < 50; i++)
+        {
+            assertTrue(queue.add(getTestRecord("Record" + i)));
+        }
+
+        assertTrue(queue.flush(10000));
+        assertTrue(queue.getDeliveredRecordCount() == 50);
+        assertTrue(queue.getDroppedRecordCount() == 0);
+        assertTrue(queue.getQueueDepth() == 0);
+
+        List<String> messageIds = store.getMessageIds();
+
+        assertTrue(messageIds.size() == 50);
+
+        for (int i = 0; i < 50; i++)
+        {
+            assertTrue(("Record" + i).equals(messageIds.get(i)));
+        }
+
+        for (int batchSize : store.getBatchSizes())
+        {
+            assertTrue(batchSize <= 10);
+        }
+
+        queue.close();
+
+        assertTrue(! queue.add(getTestRecord("Closed")));
+    }
+
+
+    /**
+     * Validate that new records are dropped when the store can not keep up.
+     */
+    @Test public void testDropNewest() throws InterruptedException
+    {
+        CountDownLatch         release = new CountDownLatch(1);
+        TestAuditLogStore      store   = new TestAuditLogStore(release);
+        OMRSAuditLogStoreQueue queue   = new OMRSAuditLogStoreQueue(store, "Test", 5, OMRSAuditLogOverflowPolicy.DROP_NEWEST, 1);
+
+        /*
+         * The first record is taken by the writer which then waits for the latch.
+         */
+        queue.add(getTestRecord("Record0"));
+        assertTrue(store.waitForWriter());
+
+        for (int i = 1; i <= 10; i++)
+        {
+            assertTrue(queue.add(getTestRecord("Record" + i)));
+        }
+
+        assertTrue(queue.getQueueDepth() == 5);
+        assertTrue(queue.getPeakQueueDepth() == 5);
+        assertTrue(queue.getDroppedRecordCount() == 5);
+
+        release.countDown();
+        queue.close();
+
+        assertTrue(queue.getDeliveredRecordCount() == 6);
+        assertTrue(store.getMessageIds().equals(Arrays.asList("Record0", "Record1", "Record2", "Record3", "Record4", "Record5")));
+    }
+
+
+    /**
+     * Validate that the oldest records are dropped when the store can not keep up.
+     */
+    @Test public void testDropOldest() throws InterruptedException
+    {
+        CountDownLatch         release = new CountDownLatch(1);
+        TestAuditLogStore      store   = new TestAuditLogStore(release);
+        OMRSAuditLogStoreQueue queue   = new OMRSAuditLogStoreQueue(store, "Test", 5, OMRSAuditLogOverflowPolicy.DROP_OLDEST, 1);
+
+        queue.add(getTestRecord("Record0"));
+        assertTrue(store.waitForWriter());
+
+        for (int i = 1; i <= 10; i++)
+        {
+            assertTrue(queue.add(getTestRecord("Record" + i)));
+        }
+
+        assertTrue(queue.getDroppedRecordCount() == 5);
+
+        release.countDown();
+        queue.close();
+
+        assertTrue(store.getMessageIds().equals(Arrays.asList("Record0", "Record6", "Record7", "Record8", "Record9", "Record10")));
+    }
+
+
+    /**
+     * Validate that the destination only queues records for stores that request asynchronous delivery.
+     */
+    @Test public void testDestination()
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(OMRSAuditLogStoreProviderBase.auditLogDeliveryProperty, "Asynchronous");
+        configurationProperties.put(OMRSAuditLogStoreProviderBase.auditLogQueueCapacityProperty, 20);
+        configurationProperties.put(OMRSAuditLogStoreProviderBase.auditLogOverflowPolicyProperty, "drop-oldest");
+        configurationProperties.put(OMRSAuditLogStoreProviderBase.auditLogBatchSizeProperty, "bad value");
+
+        Connection connection = new Connection();
+
+        connection.setDisplayName("AsyncStore");
+        connection.setConfigurationProperties(configurationProperties);
+
+        TestAuditLogStore asynchronousStore = new TestAuditLogStore(null);
+        TestAuditLogStore synchronousStore  = new TestAuditLogStore(null);
+
+        asynchronousStore.initialize("TestId", new ConnectionProperties(connection));
+
+        List<OMRSAuditLogStore> stores = new ArrayList<>();
+
+        stores.add(asynchronousStore);
+        stores.add(synchronousStore);
+
+        OMRSAuditLogDestination destination = new OMRSAuditLogDestination("TestServer", "TestType", "TestOrg", stores);
+
+        List<OMRSAuditLogStoreQueue> queues = destination.getAuditLogStoreQueues();
+
+        assertTrue(queues.size() == 1);
+        assertTrue(queues.get(0).getAuditLogStore() == asynchronousStore);
+        assertTrue("AsyncStore".equals(queues.get(0).getAuditLogStoreName()));
+        assertTrue(queues.get(0).getCapacity() == 20);
+        assertTrue(queues.get(0).getOverflowPolicy() == OMRSAuditLogOverflowPolicy.DROP_OLDEST);
+        assertTrue(queues.get(0).getBatchSize() == OMRSAuditLogStoreProviderBase.defaultBatchSize);
+
+        for (int i = 0; i < 10; i++)
+        {
+            destination.logRecord(null, "Test", "Record" + i, OMRSAuditLogRecordSeverity.INFO, "Test message", null, null, null);
+        }
+
+        assertTrue(synchronousStore.getMessageIds().size() == 10);
+
+        destination.disconnect();
+
+        assertTrue(asynchronousStore.getMessageIds().size() == 10);
+        assertTrue(queues.get(0).getDeliveredRecordCount() == 10);
+
+        /*
+         * After disconnect the records are written synchronously.
+         */
+        destination.logRecord(null, "Test", "Final", OMRSAuditLogRecordSeverity.INFO, "Test message", null, null, null);
+
+        assertTrue(asynchronousStore.getMessageIds().size() == 11);
+    }
+
+
+    /**
+     * TestAuditLogStore saves the message ids of the records it receives.  If it is given a latch, the first
+     * write waits for the latch to be released.
+     */
+    private static class TestAuditLogStore extends OMRSAuditLogStoreConnectorBase
+    {
+        private final List<String>   messageIds = new ArrayList<>();
+        private final List<Integer>  batchSizes = new ArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch writerWaiting = new CountDownLatch(1);
+
+
+        /**
+         * Constructor supplies the optional latch.
+         *
+         * @param release latch that holds up the first write
+         */
+        TestAuditLogStore(CountDownLatch release)
+        {
+            this.release = release;
+        }
+
+
+        /**
+         * Wait until the first write is held up by the latch.
+         *
+         * @return true if the writer is waiting
+         * @throws InterruptedException interrupted while waiting
+         */
+        boolean waitForWriter() throws InterruptedException
+        {
+            return writerWaiting.await(10, TimeUnit.SECONDS);
+        }
+
+
+        /**
+         * Return the message ids received.
+         *
+         * @return list of message ids
+         */
+        synchronized List<String> getMessageIds()
+        {
+            return new ArrayList<>(messageIds);
+        }
+
+
+        /**
+         * Return the size of each batch received.
+         *
+         * @return list of batch sizes
+         */
+        synchronized List<Integer> getBatchSizes()
+        {
+            return new ArrayList<>(batchSizes);
+        }
+
+
+        /**
+         * Save the record's message id.
+         *
+         * @param logRecord  log record to store
+         * @return message id
+         */
+        public String storeLogRecord(OMRSAuditLogRecord logRecord)
+        {
+            return storeLogRecords(Collections.singletonList(logRecord)).get(0);
+        }
+
+
+        /**
+         * Save the records' message ids, waiting for the latch first if there is one.
+         *
+         * @param logRecords  log records to store
+         * @return message ids
+         */
+        @Override
+        public List<String> storeLogRecords(List<OMRSAuditLogRecord> logRecords)
+        {
+            if (release != null)
+            {
+                writerWaiting.countDown();
+
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            List<String> ids = new ArrayList<>();
+
+            synchronized (this)
+            {
+                for (OMRSAuditLogRecord logRecord : logRecords)
+                {
+                    messageIds.add(logRecord.getMessageId());
+                    ids.add(logRecord.getMessageId());
+                }
+
+                batchSizes.add(logRecords.size());
+            }
+
+            return ids;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param logRecordId  unique identifier for the log record
+         * @return null
+         */
+        public OMRSAuditLogRecord getAuditLogRecord(String logRecordId)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        public List<OMRSAuditLogRecord> getAuditLogRecordsByTimeStamp(Date startDate,
+                                                                      Date endDate,
+                                                                      int  offset,
+                                                                      int  maximumRecords)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param severity  the severity value of messages to return
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        public List<OMRSAuditLogRecord> getAuditLogRecordsBySeverity(String severity,
+                                                                     Date   startDate,
+                                                                     Date   endDate,
+                                                                     int    offset,
+                                                                     int    maximumRecords)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param component  the component name of messages to return
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        public List<OMRSAuditLogRecord> getAuditLogRecordsByComponent(String component,
+                                                                      Date   startDate,
+                                                                      Date   endDate,
+                                                                      int    offset,
+                                                                      int    maximumRecords)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.frameworks.connectors.Connector;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1RegistrySection;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSCompactEventEncoding;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that OMRSTopicConnector only sends compact events while every member it has heard from supports them.
+ */
+public class OMRSTopicConnectorTest
+{
+    /**
+     * Validate that JSON is sent until the other members advertise the compact encoding, and again once a
+     * member without it registers.
+     */
+    @Test public void testCompactEncodingNegotiation() throws Exception
+    {
+        TestTopicConnector eventBus  = new TestTopicConnector();
+        OMRSTopicConnector connector = getConnector(eventBus, OMRSEventProtocolVersion.V1_COMPACT);
+
+        connector.sendInstanceEvent(getInstanceEvent());
+        assertFalse(OMRSCompactEventEncoding.isCompactEvent(eventBus.getLastEvent()));
+
+        connector.processEvent(getRegistrationEvent("upgradedMember", true));
+        connector.sendInstanceEvent(getInstanceEvent());
+        assertTrue(OMRSCompactEventEncoding.isCompactEvent(eventBus.getLastEvent()));
+
+        connector.processEvent(getRegistrationEvent("backLevelMember", false));
+        connector.sendInstanceEvent(getInstanceEvent());
+        assertFalse(OMRSCompactEventEncoding.isCompactEvent(eventBus.getLastEvent()));
+    }
+
+
+    /**
+     * Validate that registry events are sent as JSON and advertise the compact encoding, and that the compact
+     * encoding is not used unless it is configured.
+     */
+    @Test public void testRegistryEventsAndV1() throws Exception
+    {
+        TestTopicConnector eventBus  = new TestTopicConnector();
+        OMRSTopicConnector connector = getConnector(eventBus, OMRSEventProtocolVersion.V1);
+
+        connector.processEvent(getRegistrationEvent("upgradedMember", true));
+        connector.sendInstanceEvent(getInstanceEvent());
+        assertFalse(OMRSCompactEventEncoding.isCompactEvent(eventBus.getLastEvent()));
+
+        OMRSEventV1 registryEvent = OMRSJSONSerializer.readValue(getRegistrationEvent("localMember", true), OMRSEventV1.class);
+
+        registryEvent.getRegistryEventSection().setEventEncodings(null);
+        connector.sendRegistryEvent(new OMRSRegistryEvent(registryEvent));
+
+        String sentEvent = eventBus.getLastEvent();
+
+        assertFalse(OMRSCompactEventEncoding.isCompactEvent(sentEvent));
+        assertTrue(OMRSJSONSerializer.readValue(sentEvent, OMRSEventV1.class).getRegistryEventSection()
+                                     .getEventEncodings().contains(OMRSCompactEventEncoding.COMPACT_ENCODING_NAME));
+    }
+
+
+    /**
+     * Create a started topic connector that sends its events to the test event bus.
+     *
+     * @param eventBus event bus connector
+     * @param protocolVersion configured protocol
+     * @return connector
+     * @throws Exception problem starting the connector
+     */
+    private OMRSTopicConnector getConnector(TestTopicConnector       eventBus,
+                                            OMRSEventProtocolVersion protocolVersion) throws Exception
+    {
+        OMRSTopicConnector connector          = new OMRSTopicConnector();
+        List<Connector>    embeddedConnectors = new ArrayList<>();
+
+        embeddedConnectors.add(eventBus);
+        connector.initializeEmbeddedConnectors(embeddedConnectors);
+        connector.setEventProtocolLevel(protocolVersion);
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Build a registration event from another member.
+     *
+     * @param metadataCollectionId member's metadata collection id
+     * @param compactSupported whether the member advertises the compact encoding
+     * @return JSON string
+     * @throws Exception problem serializing the event
+     */
+    private String getRegistrationEvent(String  metadataCollectionId,
+                                        boolean compactSupported) throws Exception
+    {
+        OMRSEventV1                event           = new OMRSEventV1();
+        OMRSEventOriginator        originator      = new OMRSEventOriginator();
+        OMRSEventV1RegistrySection registrySection = new OMRSEventV1RegistrySection();
+
+        originator.setMetadataCollectionId(metadataCollectionId);
+        registrySection.setRegistryEventType(OMRSRegistryEventType.REGISTRATION_EVENT);
+
+        if (compactSupported)
+        {
+            registrySection.setEventEncodings(Collections.singletonList(OMRSCompactEventEncoding.COMPACT_ENCODING_NAME));
+        }
+
+        event.setOriginator(originator);
+        event.setEventCategory(OMRSEventCategory.REGISTRY);
+        event.setRegistryEventSection(registrySection);
+
+        return OMRSJSONSerializer.writeValueAsString(event);
+    }
+
+
+    /**
+     * Build an instance event to send.
+     *
+     * @return instance event
+     */
+    private OMRSInstanceEvent getInstanceEvent()
+    {
+        return new OMRSInstanceEvent(OMRSInstanceEventType.PURGED_ENTITY_EVENT, "typeGUID", "TypeName", "instanceGUID");
+    }
+
+
+    /**
+     * Topic connector that records the events sent to it and does not start a listener thread.
+     */
+    private static class TestTopicConnector extends OpenMetadataTopicConnector
+    {
+        private List<String> sentEvents = new ArrayList<>();
+
+
+        /**
+         * No events are received.
+         *
+         * @return null
+         */
+        protected List<String> checkForEvents()
+        {
+            return null;
+        }
+
+
+        /**
+         * No listener thread is needed.
+         */
+        public void start()
+        {
+        }
+
+
+        /**
+         * Record the event.
+         *
+         * @param event event to send
+         */
+        public void sendEvent(String event)
+        {
+            sentEvents.add(event);
+        }
+
+
+        /**
+         * Return the last event sent.
+         *
+         * @return event
+         */
+        String getLastEvent()
+        {
+            return sentEvents.get(sentEvents.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogDestination;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1TypeDefSection;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that OpenMetadataTopicConnector extracts the ordering key used to choose the dispatch lane for an event
+ * and that events which are not delivered before a disconnect are not counted as processed.
+ */
+public class OpenMetadataTopicConnectorTest
+{
+    private ObjectMapper       objectMapper = new ObjectMapper();
+    private TestTopicConnector connector    = new TestTopicConnector();
+
+
+    /**
+     * Validate that entity events are keyed by the entity's GUID rather than the GUIDs of its type or
+     * its original type.
+     */
+    @Test public void testEntityEventKey() throws Exception
+    {
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+        EntityDetail               entity          = new EntityDetail();
+        TypeDefSummary             originalType    = new TypeDefSummary();
+
+        originalType.setGUID("typeGUID");
+        entity.setGUID("entityGUID");
+        instanceSection.setTypeDefGUID("typeGUID");
+        instanceSection.setOriginalTypeDefSummary(originalType);
+        instanceSection.setEntity(entity);
+
+        assertEquals(connector.getEventOrderingKey(getEvent(instanceSection)), "entityGUID");
+    }
+
+
+    /**
+     * Validate that relationship events are keyed by the relationship's GUID rather than the GUIDs of its ends.
+     */
+    @Test public void testRelationshipEventKey() throws Exception
+    {
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+        Relationship               relationship    = new Relationship();
+        EntityProxy                entityOne       = new EntityProxy();
+
+        entityOne.setGUID("entityOneGUID");
+        relationship.setEntityOneProxy(entityOne);
+        relationship.setGUID("relationshipGUID");
+        instanceSection.setRelationship(relationship);
+
+        assertEquals(connector.getEventOrderingKey(getEvent(instanceSection)), "relationshipGUID");
+    }
+
+
+    /**
+     * Validate that events that only identify the instance are keyed by the instance GUID.
+     */
+    @Test public void testInstanceGUIDKey() throws Exception
+    {
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setInstanceGUID("instanceGUID");
+
+        assertEquals(connector.getEventOrderingKey(getEvent(instanceSection)), "instanceGUID");
+    }
+
+
+    /**
+     * Validate that events that are not about an instance have no key.
+     */
+    @Test public void testNoKey() throws Exception
+    {
+        OMRSEventV1               event           = new OMRSEventV1();
+        OMRSEventV1TypeDefSection typeDefSection = new OMRSEventV1TypeDefSection();
+
+        typeDefSection.setTypeDefGUID("typeGUID");
+        event.setTypeDefEventSection(typeDefSection);
+
+        assertNull(connector.getEventOrderingKey(objectMapper.writeValueAsString(event)));
+        assertNull(connector.getEventOrderingKey(getEvent(new OMRSEventV1InstanceSection())));
+        assertNull(connector.getEventOrderingKey("{\"guid\":\"notAnOMRSEvent\"}"));
+    }
+
+
+    /**
+     * Validate that an event that is abandoned because the connector is disconnected before it reaches a lane
+     * is still in progress, so the events after the last one delivered are not counted as processed.
+     */
+    @Test public void testUndeliveredEventsNotProcessed() throws Exception
+    {
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setInstanceGUID("instanceGUID");
+
+        String instanceEvent = getEvent(instanceSection);
+        String typeDefEvent  = objectMapper.writeValueAsString(new OMRSEventV1());
+
+        QueuedEventsTopicConnector topicConnector = new QueuedEventsTopicConnector(Arrays.asList(instanceEvent, typeDefEvent));
+        BlockingListener           listener       = new BlockingListener(instanceEvent);
+        Map<String, Object>        configuration  = new HashMap<>();
+        Connection                 connection     = new Connection();
+
+        configuration.put(OpenMetadataTopicProvider.dispatchLanesProperty, 2);
+        configuration.put("sleepTime", 10);
+        connection.setConfigurationProperties(configuration);
+
+        topicConnector.initialize("testConnector", new ConnectionProperties(connection));
+        topicConnector.setAuditLog(new OMRSAuditLog(new OMRSAuditLogDestination(new ArrayList<>()),
+                                                    OMRSAuditingComponent.OPEN_METADATA_TOPIC_CONNECTOR));
+        topicConnector.registerListener(listener);
+        topicConnector.start();
+
+        /*
+         * The instance event is held by the listener, so the type definition event waits for its lane to be idle.
+         * The connector is disconnected while it waits.
+         */
+        assertTrue(listener.blocked.await(10, TimeUnit.SECONDS));
+
+        topicConnector.disconnect();
+        topicConnector.listenerThread.join(10000);
+
+        assertFalse(topicConnector.listenerThread.isAlive());
+        assertEquals(listener.deliveredEvents, Arrays.asList(instanceEvent));
+        assertEquals(topicConnector.getProcessedEventCount(), 1L);
+    }
+
+
+    /**
+     * Build an OMRS event containing the instance section.
+     *
+     * @param instanceSection instance section
+     * @return JSON string
+     * @throws Exception problem serializing the event
+     */
+    private String getEvent(OMRSEventV1InstanceSection instanceSection) throws Exception
+    {
+        OMRSEventV1 event = new OMRSEventV1();
+
+        event.setInstanceEventSection(instanceSection);
+
+        return objectMapper.writeValueAsString(event);
+    }
+
+
+    /**
+     * Topic connector that returns a fixed list of events on the first call to checkForEvents().
+     */
+    private static class QueuedEventsTopicConnector extends OpenMetadataTopicConnector
+    {
+        private List<String>    events;
+        private volatile Thread listenerThread = null;
+
+
+        /**
+         * Constructor supplies the events.
+         *
+         * @param events events to receive
+         */
+        QueuedEventsTopicConnector(List<String> events)
+        {
+            this.events = events;
+        }
+
+
+        /**
+         * Return the events once.
+         *
+         * @return list of events or null
+         */
+        protected List<String> checkForEvents()
+        {
+            listenerThread = Thread.currentThread();
+
+            List<String> receivedEvents = events;
+
+            events = null;
+
+            return receivedEvents;
+        }
+
+
+        /**
+         * Events are discarded.
+         *
+         * @param event event to send
+         */
+        public void sendEvent(String event)
+        {
+        }
+    }
+
+
+    /**
+     * Listener that records the events it is passed and waits to be interrupted when it receives the blocking event.
+     */
+    private static class BlockingListener implements OpenMetadataTopicListener
+    {
+        private String         blockingEvent;
+        private List<String>   deliveredEvents = new ArrayList<>();
+        private CountDownLatch blocked         = new CountDownLatch(1);
+
+
+        /**
+         * Constructor supplies the event to wait on.
+         *
+         * @param blockingEvent event that holds up the listener
+         */
+        BlockingListener(String blockingEvent)
+        {
+            this.blockingEvent = blockingEvent;
+        }
+
+
+        /**
+         * Record the event and wait if it is the blocking event.
+         *
+         * @param event inbound event
+         */
+        public synchronized void processEvent(String event)
+        {
+            deliveredEvents.add(event);
+
+            if (blockingEvent.equals(event))
+            {
+                blocked.countDown();
+
+                try
+                {
+                    this.wait();
+                }
+                catch (InterruptedException wakeUp)
+                {
+                    /*
+                     * The connector is disconnecting.
+                     */
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Minimal topic connector for the tests.
+     */
+    private static class TestTopicConnector extends OpenMetadataTopicConnector
+    {
+        /**
+         * No events are received.
+         *
+         * @return null
+         */
+        protected List<String> checkForEvents()
+        {
+            return null;
+        }
+
+
+        /**
+         * Events are discarded.
+         *
+         * @param event event to send
+         */
+        public void sendEvent(String event)
+        {
+        }
+    }
+}
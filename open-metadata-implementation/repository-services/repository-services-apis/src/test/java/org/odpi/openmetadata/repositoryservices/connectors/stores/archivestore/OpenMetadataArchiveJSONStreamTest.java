@@ -0,0 +1,233 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that OpenMetadataArchiveJSONStream returns the same contents as reading the whole archive, whatever
+ * order the sections are requested in, and that a damaged archive is reported.
+ */
+public class OpenMetadataArchiveJSONStreamTest
+{
+    /**
+     * Build an archive with a few types, entities and relationships.
+     *
+     * @return archive
+     */
+    private OpenMetadataArchive getTestArchive()
+    {
+        OpenMetadataArchiveProperties archiveProperties = new OpenMetadataArchiveProperties();
+
+        archiveProperties.setArchiveGUID("TestArchiveGUID");
+        archiveProperties.setArchiveName("TestArchive");
+
+        List<TypeDef> typeDefs = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++)
+        {
+            EntityDef entityDef = new EntityDef();
+
+            entityDef.setGUID("TypeGUID" + i);
+            entityDef.setName("Type" + i);
+            typeDefs.add(entityDef);
+        }
+
+        OpenMetadataArchiveTypeStore typeStore = new OpenMetadataArchiveTypeStore();
+
+        typeStore.setNewTypeDefs(typeDefs);
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID("EntityGUID" + i);
+            entities.add(entity);
+        }
+
+        for (int i = 0; i < 20; i++)
+        {
+            Relationship relationship = new Relationship();
+
+            relationship.setGUID("RelationshipGUID" + i);
+            relationships.add(relationship);
+        }
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+
+        instanceStore.setEntities(entities);
+        instanceStore.setRelationships(relationships);
+
+        OpenMetadataArchive archive = new OpenMetadataArchive();
+
+        archive.setArchiveProperties(archiveProperties);
+        archive.setArchiveTypeStore(typeStore);
+        archive.setArchiveInstanceStore(instanceStore);
+
+        return archive;
+    }
+
+
+    /**
+     * Write the test archive to a temporary file.
+     *
+     * @return file
+     * @throws Exception unable to write the file
+     */
+    private File getTestArchiveFile() throws Exception
+    {
+        File archiveFile = File.createTempFile("OpenMetadataArchiveJSONStreamTest", ".json");
+
+        archiveFile.deleteOnExit();
+        OMRSJSONSerializer.getWriter(OpenMetadataArchive.class).writeValue(archiveFile, getTestArchive());
+
+        return archiveFile;
+    }
+
+
+    /**
+     * Return the GUIDs of the elements returned by an iterator.
+     *
+     * @param iterator iterator over entities or relationships
+     * @return list of GUIDs
+     */
+    private List<String> getGUIDs(Iterator<?> iterator)
+    {
+        List<String> guids = new ArrayList<>();
+
+        while (iterator.hasNext())
+        {
+            Object element = iterator.next();
+
+            if (element instanceof EntityDetail)
+            {
+                guids.add(((EntityDetail)element).getGUID());
+            }
+            else if (element instanceof Relationship)
+            {
+                guids.add(((Relationship)element).getGUID());
+            }
+            else if (element instanceof TypeDef)
+            {
+                guids.add(((TypeDef)element).getGUID());
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Validate that the stream returns the same contents as the memory stream when read in the normal order.
+     */
+    @Test public void testStreamMatchesArchive() throws Exception
+    {
+        OpenMetadataArchiveStream jsonStream   = new OpenMetadataArchiveJSONStream(getTestArchiveFile());
+        OpenMetadataArchiveStream memoryStream = new OpenMetadataArchiveMemoryStream(getTestArchive());
+
+        assertTrue("TestArchive".equals(jsonStream.getArchiveProperties().getArchiveName()));
+        assertTrue(! jsonStream.getTypeDefPatches().hasNext());
+        assertTrue(! jsonStream.getAttributeTypeDefs().hasNext());
+        assertTrue(getGUIDs(jsonStream.getNewTypeDefs()).equals(getGUIDs(memoryStream.getNewTypeDefs())));
+        assertTrue(getGUIDs(jsonStream.getEntities()).equals(getGUIDs(memoryStream.getEntities())));
+        assertTrue(getGUIDs(jsonStream.getRelationships()).equals(getGUIDs(memoryStream.getRelationships())));
+        assertTrue(! jsonStream.getClassifications().hasNext());
+
+        jsonStream.close();
+    }
+
+
+    /**
+     * Validate that sections can be requested out of order and that an iterator that is not read to the end
+     * does not affect the next section.
+     */
+    @Test public void testOutOfOrderRequests() throws Exception
+    {
+        OpenMetadataArchiveStream jsonStream = new OpenMetadataArchiveJSONStream(getTestArchiveFile());
+
+        List<String> relationshipGUIDs = getGUIDs(jsonStream.getRelationships());
+
+        assertTrue(relationshipGUIDs.size() == 20);
+
+        Iterator<EntityDetail> entities = jsonStream.getEntities();
+
+        assertTrue("EntityGUID0".equals(entities.next().getGUID()));
+        assertTrue("EntityGUID1".equals(entities.next().getGUID()));
+
+        assertTrue(getGUIDs(jsonStream.getRelationships()).equals(relationshipGUIDs));
+        assertTrue(! entities.hasNext());
+
+        assertTrue(getGUIDs(jsonStream.getNewTypeDefs()).size() == 3);
+        assertTrue("TestArchiveGUID".equals(jsonStream.getArchiveProperties().getArchiveGUID()));
+        assertTrue(getGUIDs(jsonStream.getEntities()).size() == 50);
+
+        jsonStream.close();
+    }
+
+
+    /**
+     * Validate that an empty or truncated archive is handled.
+     */
+    @Test public void testDamagedArchive() throws Exception
+    {
+        File emptyFile = File.createTempFile("OpenMetadataArchiveJSONStreamTest", ".json");
+
+        emptyFile.deleteOnExit();
+
+        OpenMetadataArchiveStream emptyStream = new OpenMetadataArchiveJSONStream(emptyFile);
+
+        assertTrue(emptyStream.getArchiveProperties() == null);
+        assertTrue(! emptyStream.getEntities().hasNext());
+        emptyStream.close();
+
+        File   archiveFile = getTestArchiveFile();
+        byte[] contents    = Files.readAllBytes(archiveFile.toPath());
+        String json        = new String(contents, StandardCharsets.UTF_8);
+
+        Files.write(archiveFile.toPath(), json.substring(0, json.indexOf("EntityGUID10")).getBytes(StandardCharsets.UTF_8));
+
+        OpenMetadataArchiveStream truncatedStream = new OpenMetadataArchiveJSONStream(archiveFile);
+        Iterator<EntityDetail>    entities        = truncatedStream.getEntities();
+        int                       entityCount     = 0;
+
+        try
+        {
+            while (entities.hasNext())
+            {
+                entities.next();
+                entityCount++;
+            }
+
+            assertTrue(false, "Truncated archive not detected");
+        }
+        catch (OMRSRuntimeException error)
+        {
+            assertTrue(entityCount == 10);
+            assertTrue(error.getErrorMessage().startsWith("OMRS-ARCHIVE-MANAGER-500-001 "));
+        }
+
+        truncatedStream.close();
+    }
+}
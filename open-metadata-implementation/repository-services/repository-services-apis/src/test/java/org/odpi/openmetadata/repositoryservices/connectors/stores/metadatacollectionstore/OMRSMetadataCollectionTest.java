@@ -0,0 +1,261 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityProxyOnlyException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RelationshipNotKnownException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify the default implementations of the batch retrieval methods in OMRSMetadataCollection, which call the
+ * single instance methods for each requested GUID.
+ */
+public class OMRSMetadataCollectionTest
+{
+    /**
+     * Validate that entities are returned in the order requested, that unknown entities and proxies are left out,
+     * and that an entity requested twice is returned once.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testGetEntitiesDetail() throws Exception
+    {
+        TestMetadataCollection metadataCollection = new TestMetadataCollection();
+
+        List<EntityDetail> entities = metadataCollection.getEntitiesDetail("testUser",
+                                                                           Arrays.asList("3333", "unknown", "1111", "proxy", "3333", "2222"));
+
+        assertEquals(getGUIDs(entities), Arrays.asList("3333", "1111", "2222"));
+        assertEquals(metadataCollection.requestedGUIDs, Arrays.asList("3333", "unknown", "1111", "proxy", "2222"));
+
+        assertNull(metadataCollection.getEntitiesDetail("testUser", Arrays.asList("unknown", "proxy")));
+        assertNull(metadataCollection.getEntitiesDetail("testUser", new ArrayList<>()));
+        assertNull(metadataCollection.getEntitiesDetail("testUser", null));
+    }
+
+
+    /**
+     * Validate that relationships are returned in the order requested, that unknown relationships are left out,
+     * and that a relationship requested twice is returned once.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testGetRelationships() throws Exception
+    {
+        TestMetadataCollection metadataCollection = new TestMetadataCollection();
+
+        List<Relationship> relationships = metadataCollection.getRelationships("testUser",
+                                                                               Arrays.asList("5555", "unknown", "4444", "5555"));
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("5555", "4444"));
+        assertEquals(metadataCollection.requestedGUIDs, Arrays.asList("5555", "unknown", "4444"));
+
+        assertNull(metadataCollection.getRelationships("testUser", Collections.singletonList("unknown")));
+        assertNull(metadataCollection.getRelationships("testUser", new ArrayList<>()));
+        assertNull(metadataCollection.getRelationships("testUser", null));
+    }
+
+
+    /**
+     * Validate that the relationships of many entities are grouped by the first requested entity they are
+     * attached to, that a relationship linking two requested entities or an entity requested twice is returned
+     * once, and that unknown entities are ignored.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testGetRelationshipsForEntities() throws Exception
+    {
+        TestMetadataCollection metadataCollection = new TestMetadataCollection();
+
+        List<Relationship> relationships = metadataCollection.getRelationshipsForEntities("testUser",
+                                                                                          Arrays.asList("2222", "unknown", "1111", "2222"),
+                                                                                          null,
+                                                                                          null,
+                                                                                          null);
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("5555", "4444"));
+
+        relationships = metadataCollection.getRelationshipsForEntities("testUser",
+                                                                       Arrays.asList("1111", "2222", "3333"),
+                                                                       null,
+                                                                       null,
+                                                                       null);
+
+        assertEquals(getGUIDs(relationships), Arrays.asList("4444", "5555"));
+
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", Arrays.asList("3333", "unknown"), null, null, null));
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", new ArrayList<>(), null, null, null));
+        assertNull(metadataCollection.getRelationshipsForEntities("testUser", null, null, null, null));
+    }
+
+
+    /**
+     * Return the GUIDs of a list of instances.
+     *
+     * @param instances list of instances
+     * @return list of GUIDs
+     */
+    private List<String> getGUIDs(List<? extends InstanceHeader> instances)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            guids.add(instance.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Metadata collection that holds entities 1111, 2222 and 3333, a proxy, and relationships 4444 (1111 to 2222)
+     * and 5555 (2222 to itself).  It records the GUIDs passed to the single instance retrieval methods.
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        private Map<String, EntityDetail> entities       = new HashMap<>();
+        private Map<String, Relationship> relationships  = new HashMap<>();
+        private List<String>              requestedGUIDs = new ArrayList<>();
+
+
+        TestMetadataCollection()
+        {
+            super("testCollection");
+
+            for (String guid : Arrays.asList("1111", "2222", "3333"))
+            {
+                EntityDetail entity = new EntityDetail();
+
+                entity.setGUID(guid);
+                entities.put(guid, entity);
+            }
+
+            relationships.put("4444", getRelationship("4444", "1111", "2222"));
+            relationships.put("5555", getRelationship("5555", "2222", "2222"));
+        }
+
+
+        @Override
+        public EntityDetail getEntityDetail(String userId,
+                                            String guid) throws EntityNotKnownException,
+                                                                EntityProxyOnlyException
+        {
+            requestedGUIDs.add(guid);
+
+            if ("proxy".equals(guid))
+            {
+                throw new EntityProxyOnlyException(404, this.getClass().getName(), "getEntityDetail", "proxy", "", "");
+            }
+
+            EntityDetail entity = entities.get(guid);
+
+            if (entity == null)
+            {
+                throw new EntityNotKnownException(404, this.getClass().getName(), "getEntityDetail", "unknown", "", "");
+            }
+
+            return entity;
+        }
+
+
+        @Override
+        public Relationship getRelationship(String userId,
+                                            String guid) throws RelationshipNotKnownException
+        {
+            requestedGUIDs.add(guid);
+
+            Relationship relationship = relationships.get(guid);
+
+            if (relationship == null)
+            {
+                throw new RelationshipNotKnownException(404, this.getClass().getName(), "getRelationship", "unknown", "", "");
+            }
+
+            return relationship;
+        }
+
+
+        @Override
+        public List<Relationship> getRelationshipsForEntity(String               userId,
+                                                            String               entityGUID,
+                                                            String               relationshipTypeGUID,
+                                                            int                  fromRelationshipElement,
+                                                            List<InstanceStatus> limitResultsByStatus,
+                                                            Date                 asOfTime,
+                                                            String               sequencingProperty,
+                                                            SequencingOrder      sequencingOrder,
+                                                            int                  pageSize) throws EntityNotKnownException
+        {
+            if (! entities.containsKey(entityGUID))
+            {
+                throw new EntityNotKnownException(404, this.getClass().getName(), "getRelationshipsForEntity", "unknown", "", "");
+            }
+
+            List<Relationship> entityRelationships = new ArrayList<>();
+
+            for (String guid : Arrays.asList("5555", "4444"))
+            {
+                Relationship relationship = relationships.get(guid);
+
+                if ((entityGUID.equals(relationship.getEntityOneProxy().getGUID())) ||
+                    (entityGUID.equals(relationship.getEntityTwoProxy().getGUID())))
+                {
+                    entityRelationships.add(relationship);
+                }
+            }
+
+            if (entityRelationships.isEmpty())
+            {
+                return null;
+            }
+
+            return entityRelationships;
+        }
+
+
+        /**
+         * Create a relationship between two entities.
+         *
+         * @param guid unique identifier for the relationship
+         * @param end1GUID unique identifier for the entity at end 1
+         * @param end2GUID unique identifier for the entity at end 2
+         * @return relationship
+         */
+        private Relationship getRelationship(String guid,
+                                             String end1GUID,
+                                             String end2GUID)
+        {
+            Relationship relationship = new Relationship();
+            EntityProxy  end1         = new EntityProxy();
+            EntityProxy  end2         = new EntityProxy();
+
+            end1.setGUID(end1GUID);
+            end2.setGUID(end2GUID);
+
+            relationship.setGUID(guid);
+            relationship.setEntityOneProxy(end1);
+            relationship.setEntityTwoProxy(end2);
+
+            return relationship;
+        }
+    }
+}
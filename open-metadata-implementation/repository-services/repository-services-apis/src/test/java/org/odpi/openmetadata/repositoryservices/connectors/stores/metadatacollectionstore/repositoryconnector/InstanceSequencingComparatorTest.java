@@ -0,0 +1,253 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that InstanceSequencingComparator orders instances according to each of the sequencing orders.
+ */
+public class InstanceSequencingComparatorTest
+{
+    /**
+     * Validate ordering by GUID.
+     */
+    @Test public void testGUIDOrder()
+    {
+        List<InstanceHeader> instances = Arrays.asList(getEntity("3", 1000L, null, null),
+                                                       getEntity("1", 2000L, null, null),
+                                                       getEntity("2", 3000L, null, null));
+
+        assertEquals(getGUIDs(instances, SequencingOrder.GUID, null), "123");
+    }
+
+
+    /**
+     * Validate ordering by creation and update time.
+     */
+    @Test public void testDateOrder()
+    {
+        List<InstanceHeader> instances = Arrays.asList(getEntity("1", 2000L, null, null),
+                                                       getEntity("2", 1000L, 4000L, null),
+                                                       getEntity("3", 3000L, null, null));
+
+        assertEquals(getGUIDs(instances, SequencingOrder.CREATION_DATE_OLDEST, null), "213");
+        assertEquals(getGUIDs(instances, SequencingOrder.CREATION_DATE_RECENT, null), "312");
+        assertEquals(getGUIDs(instances, SequencingOrder.LAST_UPDATE_OLDEST, null), "132");
+        assertEquals(getGUIDs(instances, SequencingOrder.LAST_UPDATE_RECENT, null), "231");
+    }
+
+
+    /**
+     * Validate ordering by property value with instances that do not have the property placed last.
+     */
+    @Test public void testPropertyOrder()
+    {
+        List<InstanceHeader> instances = Arrays.asList(getEntity("1", 1000L, null, 20),
+                                                       getEntity("2", 1000L, null, null),
+                                                       getEntity("3", 1000L, null, 5),
+                                                       getEntity("4", 1000L, null, 20));
+
+        assertEquals(getGUIDs(instances, SequencingOrder.PROPERTY_ASCENDING, "size"), "3142");
+        assertEquals(getGUIDs(instances, SequencingOrder.PROPERTY_DESCENDING, "size"), "1432");
+    }
+
+
+    /**
+     * Validate that numbers are ordered by value whatever their attribute type, and that values of different
+     * attribute types are grouped by type rather than compared as strings.
+     */
+    @Test public void testMixedPropertyTypes()
+    {
+        List<InstanceHeader> numbers = Arrays.asList(getEntity("1", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 9),
+                                                     getEntity("2", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_LONG, 100L),
+                                                     getEntity("3", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DOUBLE, 9.5),
+                                                     getEntity("4", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_BIGDECIMAL, new BigDecimal("10")));
+
+        assertEquals(getGUIDs(numbers, SequencingOrder.PROPERTY_ASCENDING, "size"), "1342");
+        assertEquals(getGUIDs(numbers, SequencingOrder.PROPERTY_DESCENDING, "size"), "2431");
+
+        List<InstanceHeader> mixed = Arrays.asList(getEntity("1", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "20"),
+                                                   getEntity("2", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 100),
+                                                   getEntity("3", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "100"),
+                                                   getEntity("4", PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 3),
+                                                   getEntity("5", null, null));
+
+        assertEquals(getGUIDs(mixed, SequencingOrder.PROPERTY_ASCENDING, "size"), "42315");
+        assertEquals(getGUIDs(mixed, SequencingOrder.PROPERTY_DESCENDING, "size"), "13245");
+
+        /*
+         * Sorting with the comparator itself gives the same order as the sort method.
+         */
+        List<InstanceHeader> sortedInstances = new ArrayList<>(mixed);
+
+        sortedInstances.sort(new InstanceSequencingComparator(SequencingOrder.PROPERTY_ASCENDING, "size"));
+        assertEquals(sortedInstances, getSorted(mixed, SequencingOrder.PROPERTY_ASCENDING, "size"));
+    }
+
+
+    /**
+     * Validate that the first instances are the start of the fully sorted list and that the list is not changed.
+     */
+    @Test public void testFirstInstances()
+    {
+        List<InstanceHeader> instances = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++)
+        {
+            instances.add(getEntity(String.format("%02d", i), 1000L, null, (i * 37) % 11));
+        }
+
+        List<InstanceHeader>         originalOrder = new ArrayList<>(instances);
+        List<InstanceHeader>         sorted        = getSorted(instances, SequencingOrder.PROPERTY_DESCENDING, "size");
+        InstanceSequencingComparator comparator    = new InstanceSequencingComparator(SequencingOrder.PROPERTY_DESCENDING, "size");
+
+        assertEquals(comparator.getFirstInstances(instances, 7), sorted.subList(0, 7));
+        assertEquals(comparator.getFirstInstances(instances, 0), sorted);
+        assertEquals(comparator.getFirstInstances(instances, 100), sorted);
+        assertEquals(instances, originalOrder);
+        assertEquals(new InstanceSequencingComparator(SequencingOrder.ANY, null).getFirstInstances(instances, 3),
+                     originalOrder.subList(0, 3));
+    }
+
+
+    /**
+     * Validate that no order is imposed when any order is requested.
+     */
+    @Test public void testAnyOrder()
+    {
+        assertFalse(new InstanceSequencingComparator(SequencingOrder.ANY, null).isOrdered());
+        assertFalse(new InstanceSequencingComparator(null, null).isOrdered());
+        assertFalse(new InstanceSequencingComparator(SequencingOrder.PROPERTY_ASCENDING, null).isOrdered());
+        assertTrue(new InstanceSequencingComparator(SequencingOrder.GUID, null).isOrdered());
+
+        List<InstanceHeader> instances = Arrays.asList(getEntity("3", 1000L, null, null),
+                                                       getEntity("1", 2000L, null, null));
+
+        assertEquals(getGUIDs(instances, SequencingOrder.ANY, null), "31");
+    }
+
+
+    /**
+     * Sort the instances and return their GUIDs.
+     *
+     * @param instances instances to sort
+     * @param sequencingOrder order to sort in
+     * @param sequencingProperty property to sort on
+     * @return concatenated GUIDs
+     */
+    private String getGUIDs(List<InstanceHeader> instances,
+                            SequencingOrder      sequencingOrder,
+                            String               sequencingProperty)
+    {
+        StringBuilder guids = new StringBuilder();
+
+        for (InstanceHeader instance : getSorted(instances, sequencingOrder, sequencingProperty))
+        {
+            guids.append(instance.getGUID());
+        }
+
+        return guids.toString();
+    }
+
+
+    /**
+     * Sort a copy of the instances.
+     *
+     * @param instances instances to sort
+     * @param sequencingOrder order to sort in
+     * @param sequencingProperty property to sort on
+     * @return sorted list
+     */
+    private List<InstanceHeader> getSorted(List<InstanceHeader> instances,
+                                           SequencingOrder      sequencingOrder,
+                                           String               sequencingProperty)
+    {
+        List<InstanceHeader> sortedInstances = new ArrayList<>(instances);
+
+        new InstanceSequencingComparator(sequencingOrder, sequencingProperty).sort(sortedInstances);
+
+        return sortedInstances;
+    }
+
+
+    /**
+     * Create an entity with a size property of a specific attribute type.
+     *
+     * @param guid unique identifier
+     * @param category attribute type of the size property (null for not set)
+     * @param size value of the size property
+     * @return entity
+     */
+    private EntityDetail getEntity(String               guid,
+                                   PrimitiveDefCategory category,
+                                   Object               size)
+    {
+        EntityDetail entity = getEntity(guid, 1000L, null, null);
+
+        if (category != null)
+        {
+            InstanceProperties     properties    = new InstanceProperties();
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(category);
+            propertyValue.setPrimitiveValue(size);
+            properties.setProperty("size", propertyValue);
+            entity.setProperties(properties);
+        }
+
+        return entity;
+    }
+
+
+    /**
+     * Create an entity for the test.
+     *
+     * @param guid unique identifier
+     * @param createTime creation time
+     * @param updateTime update time (null for never updated)
+     * @param size value of size property (null for not set)
+     * @return entity
+     */
+    private EntityDetail getEntity(String  guid,
+                                   long    createTime,
+                                   Long    updateTime,
+                                   Integer size)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setCreateTime(new Date(createTime));
+
+        if (updateTime != null)
+        {
+            entity.setUpdateTime(new Date(updateTime));
+        }
+
+        if (size != null)
+        {
+            InstanceProperties     properties    = new InstanceProperties();
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+            propertyValue.setPrimitiveValue(size);
+            properties.setProperty("size", propertyValue);
+            entity.setProperties(properties);
+        }
+
+        return entity;
+    }
+}
@@ -0,0 +1,81 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector;
+
+import org.testng.annotations.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that SearchPatternMatcher gives the same results as String.matches() and String.contains().
+ */
+public class SearchPatternMatcherTest
+{
+    private static final String[] searchPatterns = { "Asset", "Asset.*", ".*Asset.*", "Glossary|Asset",
+                                                     Pattern.quote("a.b*c"), Pattern.quote("x\\Ey"), "", "a-b c" };
+    private static final String[] values         = { "Asset", "DataAsset", "AssetSchemaType", "Glossary",
+                                                     "a.b*c", "aXbbc", "x\\Ey", "", "a-b c" };
+
+
+    /**
+     * Validate matches() against String.matches() for a range of literal and regular expression patterns.
+     */
+    @Test public void testMatches()
+    {
+        for (String searchPattern : searchPatterns)
+        {
+            SearchPatternMatcher matcher = new SearchPatternMatcher(searchPattern);
+
+            for (String value : values)
+            {
+                assertEquals(matcher.matches(value), value.matches(searchPattern), searchPattern + " against " + value);
+                assertEquals(matcher.containedIn(value),
+                             value.contains(searchPattern) || value.matches(searchPattern),
+                             searchPattern + " in " + value);
+            }
+        }
+    }
+
+
+    /**
+     * Validate that literal patterns are recognized.
+     */
+    @Test public void testLiterals()
+    {
+        assertTrue(new SearchPatternMatcher("Asset").isLiteral());
+        assertTrue(new SearchPatternMatcher(Pattern.quote("a.b*c")).isLiteral());
+        assertFalse(new SearchPatternMatcher(Pattern.quote("x\\Ey")).isLiteral());
+        assertFalse(new SearchPatternMatcher("Asset.*").isLiteral());
+    }
+
+
+    /**
+     * Validate that an invalid pattern is reported when it is used and that cached matchers are reused.
+     */
+    @Test public void testInvalidPatternAndCache()
+    {
+        SearchPatternMatcher matcher = SearchPatternMatcher.getMatcher("Asset[");
+
+        assertSame(SearchPatternMatcher.getMatcher("Asset["), matcher);
+        assertTrue(matcher.containedIn("DataAsset["));
+
+        try
+        {
+            matcher.matches("Asset");
+            fail("Invalid pattern not reported");
+        }
+        catch (PatternSyntaxException error)
+        {
+            /*
+             * Expected
+             */
+        }
+    }
+}
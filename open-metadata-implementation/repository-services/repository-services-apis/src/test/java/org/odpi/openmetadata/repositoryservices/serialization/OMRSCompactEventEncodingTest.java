@@ -0,0 +1,138 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that OMRSCompactEventEncoding restores the original JSON and produces a smaller event.
+ */
+public class OMRSCompactEventEncodingTest
+{
+    /**
+     * Validate that an encoded event decodes to the original JSON and is much smaller.
+     */
+    @Test public void testRoundTrip() throws Exception
+    {
+        String json        = OMRSJSONSerializer.writeValueAsString(getEvent());
+        String compactJSON = OMRSCompactEventEncoding.encode(json);
+
+        assertTrue(OMRSCompactEventEncoding.isCompactEvent(compactJSON));
+        assertEquals(OMRSCompactEventEncoding.decode(compactJSON), json);
+        assertTrue(compactJSON.length() * 2 < json.length(), compactJSON.length() + " >= half of " + json.length());
+    }
+
+
+    /**
+     * Validate that JSON events from members that do not use the compact encoding are passed through.
+     */
+    @Test public void testJSONPassThrough() throws Exception
+    {
+        String json = OMRSJSONSerializer.writeValueAsString(getEvent());
+
+        assertFalse(OMRSCompactEventEncoding.isCompactEvent(json));
+        assertEquals(OMRSCompactEventEncoding.decode(json), json);
+    }
+
+
+    /**
+     * Validate that a corrupt compact event is rejected.
+     */
+    @Test public void testInvalidEvent()
+    {
+        String compactJSON = OMRSCompactEventEncoding.encode("{\"class\":\"OMRSEventV1\"}");
+
+        try
+        {
+            OMRSCompactEventEncoding.decode(compactJSON.substring(0, compactJSON.length() - 4));
+            fail("Truncated event accepted");
+        }
+        catch (IOException expected)
+        {
+        }
+
+        try
+        {
+            OMRSCompactEventEncoding.decode(OMRSCompactEventEncoding.COMPACT_EVENT_PREFIX + "not*base64");
+            fail("Invalid event accepted");
+        }
+        catch (IOException expected)
+        {
+        }
+    }
+
+
+    /**
+     * Build a typical instance event for the tests.
+     *
+     * @return event
+     */
+    private OMRSEventV1 getEvent()
+    {
+        OMRSEventV1                event           = new OMRSEventV1();
+        OMRSEventOriginator        originator      = new OMRSEventOriginator();
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+        InstanceType               instanceType    = new InstanceType();
+        EntityDetail               entity          = new EntityDetail();
+        InstanceProperties         properties      = new InstanceProperties();
+
+        originator.setMetadataCollectionId("08dfea6d-7e5e-400a-bfcc-89f4a152b442");
+        originator.setServerName("cocoMDS1");
+        originator.setServerType("Metadata Server");
+        originator.setOrganizationName("Coco Pharmaceuticals");
+
+        instanceType.setTypeDefCategory(TypeDefCategory.ENTITY_DEF);
+        instanceType.setTypeDefGUID("f57cb9e0-fb3c-44c9-b189-9ef01a356a64");
+        instanceType.setTypeDefName("GlossaryTerm");
+        instanceType.setTypeDefVersion(1);
+        instanceType.setValidInstanceProperties(Arrays.asList("qualifiedName", "displayName", "summary", "description"));
+
+        for (String propertyName : instanceType.getValidInstanceProperties())
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setPrimitiveValue(propertyName + " of the term");
+            properties.setProperty(propertyName, propertyValue);
+        }
+
+        entity.setGUID("0ecb91be-0ab3-45f2-8bb6-4b81ade99acf");
+        entity.setType(instanceType);
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setMetadataCollectionId(originator.getMetadataCollectionId());
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setCreatedBy("garygeeke");
+        entity.setCreateTime(new Date());
+        entity.setVersion(1L);
+        entity.setProperties(properties);
+
+        instanceSection.setEventType(OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        instanceSection.setTypeDefGUID(instanceType.getTypeDefGUID());
+        instanceSection.setTypeDefName(instanceType.getTypeDefName());
+        instanceSection.setEntity(entity);
+
+        event.setTimestamp(new Date());
+        event.setOriginator(originator);
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setInstanceEventSection(instanceSection);
+
+        return event;
+    }
+}
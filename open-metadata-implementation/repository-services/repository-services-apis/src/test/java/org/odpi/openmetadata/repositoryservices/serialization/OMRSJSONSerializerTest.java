@@ -0,0 +1,92 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that OMRSJSONSerializer produces and accepts the same JSON as a newly created ObjectMapper.
+ */
+public class OMRSJSONSerializerTest
+{
+    /**
+     * Validate that an event is written the same way as a new ObjectMapper would write it and that
+     * it can be read back through the root event bean class.
+     */
+    @Test public void testEventRoundTrip() throws Exception
+    {
+        OMRSEventV1 event = getEvent();
+        String      json  = OMRSJSONSerializer.writeValueAsString(event);
+
+        assertEquals(json, new ObjectMapper().writeValueAsString(event));
+
+        OMRSEventBean eventBean = OMRSJSONSerializer.readValue(json, OMRSEventBean.class);
+
+        assertTrue(eventBean instanceof OMRSEventV1);
+        assertEquals(OMRSJSONSerializer.writeValueAsString(eventBean), json);
+    }
+
+
+    /**
+     * Validate that instance properties survive a round trip.
+     */
+    @Test public void testPropertiesRoundTrip() throws Exception
+    {
+        InstanceProperties properties = getEvent().getInstanceEventSection().getEntity().getProperties();
+        String             json       = OMRSJSONSerializer.writeValueAsString(properties);
+
+        assertEquals(OMRSJSONSerializer.readValue(json, InstanceProperties.class).getPropertyValue("name").valueAsString(),
+                     "test");
+    }
+
+
+    /**
+     * Validate that readers and writers are created once for each class.
+     */
+    @Test public void testCaching()
+    {
+        assertSame(OMRSJSONSerializer.getReader(EntityDetail.class), OMRSJSONSerializer.getReader(EntityDetail.class));
+        assertSame(OMRSJSONSerializer.getWriter(EntityDetail.class), OMRSJSONSerializer.getWriter(EntityDetail.class));
+    }
+
+
+    /**
+     * Build an instance event for the tests.
+     *
+     * @return event
+     */
+    private OMRSEventV1 getEvent()
+    {
+        OMRSEventV1                event           = new OMRSEventV1();
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+        EntityDetail               entity          = new EntityDetail();
+        InstanceProperties         properties      = new InstanceProperties();
+        PrimitivePropertyValue     propertyValue   = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue("test");
+        properties.setProperty("name", propertyValue);
+
+        entity.setGUID("entityGUID");
+        entity.setProperties(properties);
+
+        instanceSection.setEventType(OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        instanceSection.setEntity(entity);
+        event.setInstanceEventSection(instanceSection);
+
+        return event;
+    }
+}
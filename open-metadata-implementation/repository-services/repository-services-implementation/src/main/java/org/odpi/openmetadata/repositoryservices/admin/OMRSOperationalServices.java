@@ -43,6 +43,11 @@ import org.odpi.openmetadata.repositoryservices.rest.server.OMRSRepositoryRESTSe
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -91,6 +96,14 @@ public class OMRSOperationalServices
     private OMRSArchiveManager             archiveManager                   = null;
     private OMRSAuditLogDestination        auditLogDestination              = null;
     private OMRSAuditLog                   auditLog                         = null;
+    private ExecutorService                federationWorkers                = null;
+    private long                           repositoryRequestTimeout         = 0;
+
+    /*
+     * Number of federated requests that can wait for each worker thread before new requests
+     * run in the calling thread.
+     */
+    private static final int               federationQueueLengthPerWorker   = 4;
 
 
 
@@ -138,6 +151,45 @@ public class OMRSOperationalServices
     }
 
 
+    /**
+     * Set up the pool of threads that the Enterprise OMRS Repository Connectors use to issue requests to the
+     * repositories in the connected cohorts in parallel.  The pool is only needed when enterprise access is enabled
+     * since otherwise there is only the local repository to call.  The threads are created when they are needed
+     * and end when they have been idle for a minute.  The queue of waiting requests is bounded so a burst of
+     * queries (or a slow repository) can not build up an unlimited backlog.  When the queue is full the
+     * Enterprise OMRS Repository Connector issues the request from the calling thread instead.
+     *
+     * @param enterpriseAccessConfig configuration from the OMAG server
+     */
+    private void initializeFederationWorkers(EnterpriseAccessConfig  enterpriseAccessConfig)
+    {
+        if ((enterpriseAccessConfig != null) && (enterpriseAccessConfig.getMaxParallelRepositoryRequests() > 1))
+        {
+            final AtomicInteger threadNumber = new AtomicInteger(0);
+
+            int maxParallelRequests = enterpriseAccessConfig.getMaxParallelRepositoryRequests();
+
+            ThreadPoolExecutor workers = new ThreadPoolExecutor(maxParallelRequests,
+                                                                maxParallelRequests,
+                                                                60,
+                                                                TimeUnit.SECONDS,
+                                                                new ArrayBlockingQueue<>(maxParallelRequests * federationQueueLengthPerWorker),
+                                                                runnable ->
+                                                                {
+                                                                    Thread thread = new Thread(runnable,
+                                                                                               localServerName + "-FederatedRequest-" + threadNumber.incrementAndGet());
+                                                                    thread.setDaemon(true);
+                                                                    return thread;
+                                                                });
+
+            workers.allowCoreThreadTimeOut(true);
+
+            federationWorkers = workers;
+            repositoryRequestTimeout = TimeUnit.SECONDS.toMillis(Math.max(enterpriseAccessConfig.getRepositoryRequestTimeoutInSeconds(), 0));
+        }
+    }
+
+
     /**
      * Create repository connector for an access service.
      *
@@ -169,6 +221,8 @@ public class OMRSOperationalServices
 
                 omrsRepositoryConnector.setCallingServiceName(callingServiceName);
                 omrsRepositoryConnector.setMaxPageSize(maxPageSize);
+                omrsRepositoryConnector.setFederationWorkers(federationWorkers);
+                omrsRepositoryConnector.setRepositoryRequestTimeout(repositoryRequestTimeout);
 
                 OMRSAuditCode auditCode = OMRSAuditCode.NEW_ENTERPRISE_CONNECTOR;
                 auditLog.logRecord(actionDescription,
@@ -319,6 +373,7 @@ public class OMRSOperationalServices
                                                                           maxPageSize,
                                                                           localRepositoryContentManager);
         enterpriseOMRSTopicConnector = initializeEnterpriseOMRSTopicConnector(enterpriseAccessConfig);
+        initializeFederationWorkers(enterpriseAccessConfig);
 
         /*
          * The archive manager loads pre-defined types and instances that are stored in open metadata archives.
@@ -829,6 +884,11 @@ public class OMRSOperationalServices
             archiveManager.close();
         }
 
+        if (federationWorkers != null)
+        {
+            federationWorkers.shutdownNow();
+        }
+
         auditCode = OMRSAuditCode.OMRS_DISCONNECTED;
         auditLog.logRecord(actionDescription,
                            auditCode.getLogMessageId(),
@@ -838,6 +898,14 @@ public class OMRSOperationalServices
                            auditCode.getSystemAction(),
                            auditCode.getUserAction());
 
+        /*
+         * Deliver the audit log records still queued for asynchronous audit log stores.
+         */
+        if (auditLogDestination != null)
+        {
+            auditLogDestination.disconnect();
+        }
+
         return true;
     }
 
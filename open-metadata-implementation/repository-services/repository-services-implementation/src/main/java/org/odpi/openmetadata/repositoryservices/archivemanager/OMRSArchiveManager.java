@@ -8,6 +8,10 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveMemoryStream;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreProviderBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStream;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessorInterface;
@@ -16,15 +20,26 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEventProcessorInterface;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * OMRSArchiveManager manages the loading and unloading of open metadata archives from the local OMRS repository.
  * An open metadata archive provides pre-built definitions for types and metadata instances.
+ *
+ * Archives are read through an OpenMetadataArchiveStream so the archive store can return its contents a piece
+ * at a time rather than all at once.  The instances are passed to the local repository in batches and, if the
+ * archive store's connection requests it, several batches are loaded in parallel once all of the types are in place.
  */
 public class OMRSArchiveManager
 {
@@ -32,6 +47,11 @@ public class OMRSArchiveManager
     private OMRSRepositoryContentManager            repositoryContentManager    = null;
     private OMRSInstanceEventProcessorInterface     localInstanceEventProcessor = null;
 
+    /*
+     * Progress is reported on the audit log each time this many more instances have been read from an archive.
+     */
+    private static final int                        progressReportInterval      = 100000;
+
 
     /*
      * The audit log provides a verifiable record of the open metadata archives that have been loaded into
@@ -134,7 +154,11 @@ public class OMRSArchiveManager
         OpenMetadataArchive      openMetadataTypes        = openMetadataTypesArchive.getOpenMetadataArchive();
 
         repositoryContentManager.setOpenMetadataTypesOriginGUID(openMetadataTypesArchive.getArchiveGUID());
-        processOpenMetadataArchive(openMetadataTypes, repositoryContentManager, localInstanceEventProcessor);
+        processOpenMetadataArchive(new OpenMetadataArchiveMemoryStream(openMetadataTypes),
+                                   repositoryContentManager,
+                                   localInstanceEventProcessor,
+                                   OpenMetadataArchiveStoreProviderBase.defaultInstanceBatchSize,
+                                   OpenMetadataArchiveStoreProviderBase.defaultInstanceLoadThreads);
     }
 
 
@@ -154,11 +178,11 @@ public class OMRSArchiveManager
         {
             /*
              * Each archive store has a header, a section of new type definitions (TypeDefs) and a section of
-             * metadata instances.
+             * metadata instances.  They are read from the stream as they are processed.
              */
-            OpenMetadataArchive archiveContent = archiveStore.getArchiveContents();
+            OpenMetadataArchiveStream archiveStream = archiveStore.getArchiveStream();
 
-            if (archiveContent == null)
+            if (archiveStream == null)
             {
                 final String     actionDescription = "Process Open Metadata Archive";
 
@@ -173,28 +197,113 @@ public class OMRSArchiveManager
             }
             else
             {
-                processOpenMetadataArchive(archiveContent, typeDefProcessor, instanceProcessor);
+                Map<String, Object> configurationProperties = null;
+                ConnectionProperties connection             = archiveStore.getConnection();
+
+                if (connection != null)
+                {
+                    configurationProperties = connection.getConfigurationProperties();
+                }
+
+                try
+                {
+                    processOpenMetadataArchive(archiveStream,
+                                               typeDefProcessor,
+                                               instanceProcessor,
+                                               getIntegerProperty(configurationProperties,
+                                                                  OpenMetadataArchiveStoreProviderBase.instanceBatchSizeProperty,
+                                                                  OpenMetadataArchiveStoreProviderBase.defaultInstanceBatchSize),
+                                               getIntegerProperty(configurationProperties,
+                                                                  OpenMetadataArchiveStoreProviderBase.instanceLoadThreadsProperty,
+                                                                  OpenMetadataArchiveStoreProviderBase.defaultInstanceLoadThreads));
+                }
+                finally
+                {
+                    archiveStream.close();
+                }
             }
         }
     }
 
 
+    /**
+     * Return a positive integer from the configuration properties of an archive store's connection.
+     *
+     * @param configurationProperties configuration properties (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is missing or invalid
+     * @return property value
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue != null)
+            {
+                try
+                {
+                    int value = (propertyValue instanceof Number) ? ((Number)propertyValue).intValue()
+                                                                  : Integer.parseInt(propertyValue.toString().trim());
+
+                    if (value > 0)
+                    {
+                        return value;
+                    }
+                }
+                catch (NumberFormatException error)
+                {
+                    /*
+                     * Use the default
+                     */
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Step through the content of an open metadata archive, passing its contents to the local repository (if it
-     * exists).
+     * exists).  If the archive can not be read, the error is logged and the rest of the archive is skipped.
      *
-     * @param archiveContent open metadata archive to process
+     * @param archiveStream open metadata archive to process
      * @param typeDefProcessor processor of type definitions found in the archive
      * @param instanceProcessor processor of instances found in the archive
+     * @param instanceBatchSize number of instances passed to the local repository at once
+     * @param instanceLoadThreads number of batches of instances loaded in parallel
      */
-    private void processOpenMetadataArchive(OpenMetadataArchive                   archiveContent,
+    private void processOpenMetadataArchive(OpenMetadataArchiveStream             archiveStream,
                                             OMRSTypeDefEventProcessorInterface    typeDefProcessor,
-                                            OMRSInstanceEventProcessorInterface   instanceProcessor)
+                                            OMRSInstanceEventProcessorInterface   instanceProcessor,
+                                            int                                   instanceBatchSize,
+                                            int                                   instanceLoadThreads)
     {
         OMRSAuditCode    auditCode;
         final String     actionDescription = "Process Open Metadata Archive";
 
-        OpenMetadataArchiveProperties archiveProperties = archiveContent.getArchiveProperties();
+        OpenMetadataArchiveProperties archiveProperties;
+
+        try
+        {
+            archiveProperties = archiveStream.getArchiveProperties();
+        }
+        catch (OMRSRuntimeException error)
+        {
+            auditCode = OMRSAuditCode.ARCHIVE_LOAD_FAILED;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage("<Unknown>", error.getErrorMessage()),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+            return;
+        }
 
         if (archiveProperties != null)
         {
@@ -207,22 +316,29 @@ public class OMRSArchiveManager
                                auditCode.getSystemAction(),
                                auditCode.getUserAction());
 
-
-            OpenMetadataArchiveTypeStore     archiveTypeStore     = archiveContent.getArchiveTypeStore();
-            OpenMetadataArchiveInstanceStore archiveInstanceStore = archiveContent.getArchiveInstanceStore();
-
             int                              typeCount            = 0;
             int                              instanceCount        = 0;
 
-
-            if (archiveTypeStore != null)
+            try
             {
-                typeCount = this.processTypeDefStore(archiveProperties, archiveTypeStore, typeDefProcessor);
+                typeCount = this.processTypeDefStore(archiveProperties, archiveStream, typeDefProcessor);
+                instanceCount = this.processInstanceStore(archiveProperties,
+                                                          archiveStream,
+                                                          instanceProcessor,
+                                                          instanceBatchSize,
+                                                          instanceLoadThreads);
             }
-
-            if (archiveInstanceStore != null)
+            catch (OMRSRuntimeException error)
             {
-                instanceCount = this.processInstanceStore(archiveProperties, archiveInstanceStore, instanceProcessor);
+                auditCode = OMRSAuditCode.ARCHIVE_LOAD_FAILED;
+                auditLog.logRecord(actionDescription,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(archiveProperties.getArchiveName(), error.getErrorMessage()),
+                                   null,
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
+                return;
             }
 
             auditCode = OMRSAuditCode.COMPLETED_ARCHIVE;
@@ -257,17 +373,14 @@ public class OMRSArchiveManager
      * Any problems found in applying the archive contents are recorded on the audit log.
      *
      * @param archiveProperties properties of the archive used for logging
-     * @param archiveTypeStore TypeStore from the archive
+     * @param archiveStream stream returning the contents of the archive
      * @param typeDefProcessor processor of type definitions found in the archive
      * @return type count
      */
     private int  processTypeDefStore(OpenMetadataArchiveProperties          archiveProperties,
-                                     OpenMetadataArchiveTypeStore           archiveTypeStore,
+                                     OpenMetadataArchiveStream              archiveStream,
                                      OMRSTypeDefEventProcessorInterface     typeDefProcessor)
     {
-        List<TypeDefPatch>     typeDefPatches       = archiveTypeStore.getTypeDefPatches();
-        List<AttributeTypeDef> newAttributeTypeDefs = archiveTypeStore.getAttributeTypeDefs();
-        List<TypeDef>          newTypeDefs          = archiveTypeStore.getNewTypeDefs();
         int                    typeCount            = 0;
 
         if (typeDefProcessor != null)
@@ -292,55 +405,58 @@ public class OMRSArchiveManager
                 originatorServerType = archiveProperties.getArchiveType().getName();
             }
 
-            if (typeDefPatches != null)
-            {
-                for (TypeDefPatch typeDefPatch : typeDefPatches)
-                {
-                    if (typeDefPatch != null)
-                    {
-                        typeDefProcessor.processUpdatedTypeDefEvent(originatorName,
-                                                                    originatorMetadataCollectionId,
-                                                                    originatorServerName,
-                                                                    originatorServerType,
-                                                                    originatorOrganizationName,
-                                                                    typeDefPatch);
-                        typeCount ++;
-                    }
-                }
-            }
+            Iterator<TypeDefPatch> typeDefPatches = archiveStream.getTypeDefPatches();
 
-            if (newAttributeTypeDefs != null)
+            while (typeDefPatches.hasNext())
             {
-                for (AttributeTypeDef newAttributeTypeDef : newAttributeTypeDefs)
+                TypeDefPatch typeDefPatch = typeDefPatches.next();
+
+                if (typeDefPatch != null)
                 {
-                    if (newAttributeTypeDef != null)
-                    {
-                        typeDefProcessor.processNewAttributeTypeDefEvent(originatorName,
+                    typeDefProcessor.processUpdatedTypeDefEvent(originatorName,
                                                                 originatorMetadataCollectionId,
                                                                 originatorServerName,
                                                                 originatorServerType,
                                                                 originatorOrganizationName,
-                                                                newAttributeTypeDef);
+                                                                typeDefPatch);
+                    typeCount ++;
+                }
+            }
 
-                        typeCount ++;
-                    }
+            Iterator<AttributeTypeDef> newAttributeTypeDefs = archiveStream.getAttributeTypeDefs();
+
+            while (newAttributeTypeDefs.hasNext())
+            {
+                AttributeTypeDef newAttributeTypeDef = newAttributeTypeDefs.next();
+
+                if (newAttributeTypeDef != null)
+                {
+                    typeDefProcessor.processNewAttributeTypeDefEvent(originatorName,
+                                                                     originatorMetadataCollectionId,
+                                                                     originatorServerName,
+                                                                     originatorServerType,
+                                                                     originatorOrganizationName,
+                                                                     newAttributeTypeDef);
+
+                    typeCount ++;
                 }
             }
 
-            if (newTypeDefs != null)
+            Iterator<TypeDef> newTypeDefs = archiveStream.getNewTypeDefs();
+
+            while (newTypeDefs.hasNext())
             {
-                for (TypeDef newTypeDef : newTypeDefs)
+                TypeDef newTypeDef = newTypeDefs.next();
+
+                if (newTypeDef != null)
                 {
-                    if (newTypeDef != null)
-                    {
-                        typeDefProcessor.processNewTypeDefEvent(originatorName,
-                                                                originatorMetadataCollectionId,
-                                                                originatorServerName,
-                                                                originatorServerType,
-                                                                originatorOrganizationName,
-                                                                newTypeDef);
-                        typeCount ++;
-                    }
+                    typeDefProcessor.processNewTypeDefEvent(originatorName,
+                                                            originatorMetadataCollectionId,
+                                                            originatorServerName,
+                                                            originatorServerType,
+                                                            originatorOrganizationName,
+                                                            newTypeDef);
+                    typeCount ++;
                 }
             }
         }
@@ -357,19 +473,23 @@ public class OMRSArchiveManager
      * and so any duplicates detected are ignored.  However, conflicting instances are detected.
      * Any problems found in applying the archive contents are recorded on the audit log.
      *
+     * The instances are read from the archive as they are needed and passed to the local repository in batches
+     * so only the batches waiting to be loaded are held in memory.
+     *
      * @param archiveProperties properties describing the archive used in logging
-     * @param archiveInstanceStore the instance store to process
+     * @param archiveStream stream returning the contents of the archive
      * @param instanceProcessor the processor to add the instances to the local repository.  It may be null
      *                          if there is no local repository configured for this server.
+     * @param instanceBatchSize number of instances passed to the local repository at once
+     * @param instanceLoadThreads number of batches of instances loaded in parallel
      * @return instance count
      */
     private int  processInstanceStore(OpenMetadataArchiveProperties             archiveProperties,
-                                      OpenMetadataArchiveInstanceStore          archiveInstanceStore,
-                                      OMRSInstanceEventProcessorInterface       instanceProcessor)
+                                      OpenMetadataArchiveStream                 archiveStream,
+                                      OMRSInstanceEventProcessorInterface       instanceProcessor,
+                                      int                                       instanceBatchSize,
+                                      int                                       instanceLoadThreads)
     {
-        List<EntityDetail>                  entities        = archiveInstanceStore.getEntities();
-        List<Relationship>                  relationships   = archiveInstanceStore.getRelationships();
-        List<ClassificationEntityExtension> classifications = archiveInstanceStore.getClassifications();
         int                                 instanceCount   = 0;
 
         if (instanceProcessor != null)
@@ -392,10 +512,28 @@ public class OMRSArchiveManager
             }
 
 
-            if (entities != null)
+            /*
+             * The entities and relationships are passed to the local repository in batches rather than
+             * one event per instance so that the repository can save many instances at once.
+             * All of the entities are loaded before the relationships that link them.
+             */
+            InstanceBatchLoader batchLoader = new InstanceBatchLoader(instanceProcessor,
+                                                                      sourceName,
+                                                                      homeMetadataCollectionId,
+                                                                      archiveName,
+                                                                      originatorServerType,
+                                                                      originatorOrganizationName,
+                                                                      instanceLoadThreads);
+
+            try
             {
-                for (EntityDetail entity : entities)
+                List<EntityDetail> entityBatch  = new ArrayList<>();
+                Iterator<EntityDetail> entities = archiveStream.getEntities();
+
+                while (entities.hasNext())
                 {
+                    EntityDetail entity = entities.next();
+
                     if (entity != null)
                     {
                         this.setInstanceAuditHeader(homeMetadataCollectionId,
@@ -406,23 +544,33 @@ public class OMRSArchiveManager
                                                     originatorLicense,
                                                     entity);
 
-                        instanceProcessor.processNewEntityEvent(sourceName,
-                                                                homeMetadataCollectionId,
-                                                                archiveName,
-                                                                originatorServerType,
-                                                                originatorOrganizationName,
-                                                                entity);
-
+                        entityBatch.add(entity);
                         instanceCount++;
+
+                        if (entityBatch.size() >= instanceBatchSize)
+                        {
+                            batchLoader.loadBatch(entityBatch, new ArrayList<>());
+                            entityBatch = new ArrayList<>();
+                            this.reportProgress(archiveName, instanceCount, instanceBatchSize);
+                        }
                     }
                 }
-            }
 
+                if (! entityBatch.isEmpty())
+                {
+                    batchLoader.loadBatch(entityBatch, new ArrayList<>());
+                }
 
-            if (relationships != null)
-            {
-                for (Relationship relationship : relationships)
+                batchLoader.waitForBatches();
+
+
+                List<Relationship>     relationshipBatch = new ArrayList<>();
+                Iterator<Relationship> relationships     = archiveStream.getRelationships();
+
+                while (relationships.hasNext())
                 {
+                    Relationship relationship = relationships.next();
+
                     if (relationship != null)
                     {
                         this.setInstanceAuditHeader(homeMetadataCollectionId,
@@ -433,49 +581,62 @@ public class OMRSArchiveManager
                                                     originatorLicense,
                                                     relationship);
 
-                        instanceProcessor.processNewRelationshipEvent(sourceName,
-                                                                      homeMetadataCollectionId,
-                                                                      archiveName,
-                                                                      originatorServerType,
-                                                                      originatorOrganizationName,
-                                                                      relationship);
-
+                        relationshipBatch.add(relationship);
                         instanceCount ++;
+
+                        if (relationshipBatch.size() >= instanceBatchSize)
+                        {
+                            batchLoader.loadBatch(new ArrayList<>(), relationshipBatch);
+                            relationshipBatch = new ArrayList<>();
+                            this.reportProgress(archiveName, instanceCount, instanceBatchSize);
+                        }
                     }
                 }
-            }
 
+                if (! relationshipBatch.isEmpty())
+                {
+                    batchLoader.loadBatch(new ArrayList<>(), relationshipBatch);
+                }
 
-            if (classifications != null)
+                batchLoader.waitForBatches();
+            }
+            finally
             {
-                for (ClassificationEntityExtension classificationEntityExtension : classifications)
-                {
-                    if (classificationEntityExtension != null)
-                    {
-                        Classification classification = classificationEntityExtension.getClassification();
+                batchLoader.close();
+            }
 
-                        this.setInstanceAuditHeader(homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    classification);
 
-                        classificationEntityExtension.setClassification(classification);
+            Iterator<ClassificationEntityExtension> classifications = archiveStream.getClassifications();
 
-                        // Todo
-                        /* new method required
-                        instanceProcessor.processNewClassificationEvent(sourceName,
-                                                                        homeMetadataCollectionId,
-                                                                        originatorServerName,
-                                                                        originatorServerType,
-                                                                        originatorOrganizationName,
-                                                                        classificationEntityExtension);
+            while (classifications.hasNext())
+            {
+                ClassificationEntityExtension classificationEntityExtension = classifications.next();
 
-                        instanceCount ++;
-                        */
-                    }
+                if (classificationEntityExtension != null)
+                {
+                    Classification classification = classificationEntityExtension.getClassification();
+
+                    this.setInstanceAuditHeader(homeMetadataCollectionId,
+                                                archiveName,
+                                                originatorName,
+                                                archiveCreationTime,
+                                                provenanceType,
+                                                originatorLicense,
+                                                classification);
+
+                    classificationEntityExtension.setClassification(classification);
+
+                    // Todo
+                    /* new method required
+                    instanceProcessor.processNewClassificationEvent(sourceName,
+                                                                    homeMetadataCollectionId,
+                                                                    originatorServerName,
+                                                                    originatorServerType,
+                                                                    originatorOrganizationName,
+                                                                    classificationEntityExtension);
+
+                    instanceCount ++;
+                    */
                 }
             }
         }
@@ -484,6 +645,34 @@ public class OMRSArchiveManager
     }
 
 
+    /**
+     * Log the number of instances read from an archive each time it passes a multiple of the progress
+     * report interval.  This is called after each full batch.
+     *
+     * @param archiveName name of the archive
+     * @param instanceCount number of instances read so far
+     * @param instanceBatchSize number of instances in each batch
+     */
+    private void reportProgress(String archiveName,
+                                int    instanceCount,
+                                int    instanceBatchSize)
+    {
+        if ((instanceCount / progressReportInterval) != ((instanceCount - instanceBatchSize) / progressReportInterval))
+        {
+            final String     actionDescription = "Process Open Metadata Archive";
+
+            OMRSAuditCode auditCode = OMRSAuditCode.ARCHIVE_LOAD_PROGRESS;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(Integer.toString(instanceCount), archiveName),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+        }
+    }
+
+
     /**
      * Set up the header of an archive instance.
      *
@@ -545,4 +734,181 @@ public class OMRSArchiveManager
             instance.setInstanceLicense(originatorLicense);
         }
     }
+
+
+    /**
+     * InstanceBatchLoader passes batches of instances to the local repository.  With one load thread each batch
+     * is passed on the caller's thread.  With more, the batches are passed by a pool of threads and the number of
+     * batches waiting or being loaded is limited to twice the number of threads so the reader of the archive can
+     * not get far ahead of the repository.
+     */
+    private static class InstanceBatchLoader
+    {
+        private final OMRSInstanceEventProcessorInterface instanceProcessor;
+        private final String                              sourceName;
+        private final String                              homeMetadataCollectionId;
+        private final String                              archiveName;
+        private final String                              originatorServerType;
+        private final String                              originatorOrganizationName;
+        private final ExecutorService                     executor;
+        private final Semaphore                           batchPermits;
+        private final int                                 maxBatches;
+        private volatile RuntimeException                 batchError = null;
+
+
+        /**
+         * Constructor saves the values used in every batch event and starts the load threads if needed.
+         *
+         * @param instanceProcessor processor that adds the instances to the local repository
+         * @param sourceName name of the component sending the instances
+         * @param homeMetadataCollectionId metadata collection id of the archive
+         * @param archiveName name of the archive
+         * @param originatorServerType type of archive
+         * @param originatorOrganizationName organization that created the archive
+         * @param loadThreads number of batches to load in parallel
+         */
+        InstanceBatchLoader(OMRSInstanceEventProcessorInterface instanceProcessor,
+                            String                              sourceName,
+                            String                              homeMetadataCollectionId,
+                            String                              archiveName,
+                            String                              originatorServerType,
+                            String                              originatorOrganizationName,
+                            int                                 loadThreads)
+        {
+            this.instanceProcessor = instanceProcessor;
+            this.sourceName = sourceName;
+            this.homeMetadataCollectionId = homeMetadataCollectionId;
+            this.archiveName = archiveName;
+            this.originatorServerType = originatorServerType;
+            this.originatorOrganizationName = originatorOrganizationName;
+
+            if (loadThreads > 1)
+            {
+                AtomicInteger threadNumber = new AtomicInteger(0);
+
+                this.maxBatches = loadThreads * 2;
+                this.batchPermits = new Semaphore(maxBatches);
+                this.executor = Executors.newFixedThreadPool(loadThreads, (Runnable runnable) ->
+                {
+                    Thread thread = new Thread(runnable, "OMRSArchiveManager:" + archiveName + ":" + threadNumber.incrementAndGet());
+
+                    thread.setDaemon(true);
+
+                    return thread;
+                });
+            }
+            else
+            {
+                this.maxBatches = 0;
+                this.batchPermits = null;
+                this.executor = null;
+            }
+        }
+
+
+        /**
+         * Pass a batch of instances to the local repository.  The lists must not be changed afterwards.
+         *
+         * @param entities entities in the batch
+         * @param relationships relationships in the batch
+         */
+        void loadBatch(List<EntityDetail> entities,
+                       List<Relationship> relationships)
+        {
+            InstanceGraph batch = new InstanceGraph(entities, relationships);
+
+            if (executor == null)
+            {
+                this.sendBatch(batch);
+            }
+            else
+            {
+                this.checkForError();
+
+                batchPermits.acquireUninterruptibly();
+
+                try
+                {
+                    executor.execute(() ->
+                    {
+                        try
+                        {
+                            this.sendBatch(batch);
+                        }
+                        catch (RuntimeException error)
+                        {
+                            if (batchError == null)
+                            {
+                                batchError = error;
+                            }
+                        }
+                        finally
+                        {
+                            batchPermits.release();
+                        }
+                    });
+                }
+                catch (RuntimeException error)
+                {
+                    batchPermits.release();
+                    throw error;
+                }
+            }
+        }
+
+
+        /**
+         * Send a batch event to the instance processor.
+         *
+         * @param batch instances to load
+         */
+        private void sendBatch(InstanceGraph batch)
+        {
+            instanceProcessor.processInstanceBatchEvent(sourceName,
+                                                        homeMetadataCollectionId,
+                                                        archiveName,
+                                                        originatorServerType,
+                                                        originatorOrganizationName,
+                                                        batch);
+        }
+
+
+        /**
+         * Wait for all of the batches passed so far to be loaded.  An error from any of them is rethrown.
+         */
+        void waitForBatches()
+        {
+            if (executor != null)
+            {
+                batchPermits.acquireUninterruptibly(maxBatches);
+                batchPermits.release(maxBatches);
+
+                this.checkForError();
+            }
+        }
+
+
+        /**
+         * Rethrow the first error from a batch loaded by the load threads.
+         */
+        private void checkForError()
+        {
+            if (batchError != null)
+            {
+                throw batchError;
+            }
+        }
+
+
+        /**
+         * Stop the load threads.
+         */
+        void close()
+        {
+            if (executor != null)
+            {
+                executor.shutdown();
+            }
+        }
+    }
 }
@@ -4,6 +4,8 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
 
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.InstanceSequencingComparator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedPageMerger;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.ParallelFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.SequentialFederationControl;
@@ -19,10 +21,10 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 
 
@@ -63,6 +65,11 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     private String                            localMetadataCollectionId;
     private OMRSAuditLog                      auditLog;
 
+    /*
+     * Maximum number of rounds of requests to the repositories that are used to assemble a federated page.
+     */
+    private static final int                  maxPagedRequests = 50;
+
 
     /**
      * Constructor ensures the metadata collection is linked to its connector and knows its metadata collection Id.
@@ -134,7 +141,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = this.getParallelFederationControl(userId, cohortConnectors, methodName);
         GetAllTypesExecutor executor = new GetAllTypesExecutor(userId,
                                                                methodName,
                                                                localMetadataCollectionId,
@@ -1109,7 +1116,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         GetRelationshipsForEntityExecutor executor          = new GetRelationshipsForEntityExecutor(userId,
                                                                                                     entityGUID,
                                                                                                     relationshipTypeGUID,
@@ -1127,11 +1133,32 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
-         */
-        federationControl.executeCommand(executor);
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(entityGUID,
+                                                     relationshipTypeGUID,
+                                                     limitResultsByStatus,
+                                                     asOfTime);
+
+        FederatedPageMerger<Relationship> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromRelationshipElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<Relationship> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1212,7 +1239,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByPropertyExecutor    executor          = new FindEntitiesByPropertyExecutor(userId,
                                                                                                  entityTypeGUID,
                                                                                                  matchProperties,
@@ -1232,11 +1258,34 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
-         */
-        federationControl.executeCommand(executor);
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(entityTypeGUID,
+                                                     matchProperties,
+                                                     matchCriteria,
+                                                     limitResultsByStatus,
+                                                     limitResultsByClassification,
+                                                     asOfTime);
+
+        FederatedPageMerger<EntityDetail> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromEntityElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<EntityDetail> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1321,7 +1370,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                       federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByClassificationExecutor    executor          = new FindEntitiesByClassificationExecutor(userId,
                                                                                                              entityTypeGUID,
                                                                                                              classificationName,
@@ -1341,11 +1389,34 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
          */
-        federationControl.executeCommand(executor);
+        List<Object> queryParameters = Arrays.asList(entityTypeGUID,
+                                                     classificationName,
+                                                     matchClassificationProperties,
+                                                     matchCriteria,
+                                                     limitResultsByStatus,
+                                                     asOfTime);
+
+        FederatedPageMerger<EntityDetail> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromEntityElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<EntityDetail> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1425,7 +1496,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByPropertyValueExecutor executor          = new FindEntitiesByPropertyValueExecutor(userId,
                                                                                                         entityTypeGUID,
                                                                                                         searchCriteria,
@@ -1444,11 +1514,33 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
-         */
-        federationControl.executeCommand(executor);
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(entityTypeGUID,
+                                                     searchCriteria,
+                                                     limitResultsByStatus,
+                                                     limitResultsByClassification,
+                                                     asOfTime);
+
+        FederatedPageMerger<EntityDetail> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromEntityElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<EntityDetail> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1673,7 +1765,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         FindRelationshipsByPropertyExecutor executor          = new FindRelationshipsByPropertyExecutor(userId,
                                                                                                         relationshipTypeGUID,
                                                                                                         matchProperties,
@@ -1692,11 +1783,33 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
-         */
-        federationControl.executeCommand(executor);
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(relationshipTypeGUID,
+                                                     matchProperties,
+                                                     matchCriteria,
+                                                     limitResultsByStatus,
+                                                     asOfTime);
+
+        FederatedPageMerger<Relationship> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromRelationshipElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<Relationship> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1773,7 +1886,6 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
         FindRelationshipsByPropertyValueExecutor executor          = new FindRelationshipsByPropertyValueExecutor(userId,
                                                                                                                   relationshipTypeGUID,
                                                                                                                   searchCriteria,
@@ -1791,11 +1903,32 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
-         */
-        federationControl.executeCommand(executor);
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(relationshipTypeGUID,
+                                                     searchCriteria,
+                                                     limitResultsByStatus,
+                                                     asOfTime);
+
+        FederatedPageMerger<Relationship> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromRelationshipElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<Relationship> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
+        {
+            return pageMerger.getPage(results);
+        }
 
-        return executor.getResults(enterpriseParentConnector);
+        return results;
     }
 
 
@@ -1848,99 +1981,26 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
+        FederationControl          federationControl = this.getParallelFederationControl(userId, cohortConnectors, methodName);
+        GetLinkingEntitiesExecutor executor          = new GetLinkingEntitiesExecutor(userId,
+                                                                                      startEntityGUID,
+                                                                                      endEntityGUID,
+                                                                                      limitResultsByStatus,
+                                                                                      asOfTime,
+                                                                                      localMetadataCollectionId,
+                                                                                      auditLog,
+                                                                                      repositoryValidator,
+                                                                                      methodName);
 
         /*
          * Ready to process the request.  Search results need to come from all members of the cohort.
-         * They need to be combined and then duplicates removed to create the final list of results.
+         * They are combined in the executor's accumulator and duplicates removed to create the final graph.
          * Some repositories may produce exceptions.  These exceptions are saved and one selected to
          * be returned if there are no results from any repository.
          */
-        Map<String, EntityDetail>      combinedEntityResults       = new HashMap<>();
-        Map<String, Relationship>      combinedRelationshipResults = new HashMap<>();
-
-        EntityNotKnownException        entityNotKnownException         = null;
-        FunctionNotSupportedException  functionNotSupportedException   = null;
-        PropertyErrorException         propertyErrorException          = null;
-        UserNotAuthorizedException     userNotAuthorizedException      = null;
-        RepositoryErrorException       repositoryErrorException        = null;
-        Throwable                      anotherException                = null;
-
-        /*
-         * Loop through the metadata collections extracting the typedefs from each repository.
-         */
-        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
-        {
-            if (cohortConnector != null)
-            {
-                OMRSMetadataCollection   metadataCollection = cohortConnector.getMetadataCollection();
-
-                validateMetadataCollection(metadataCollection, methodName);
-
-                try
-                {
-                    /*
-                     * Issue the request
-                     */
-                    InstanceGraph     results = metadataCollection.getLinkingEntities(userId,
-                                                                                      startEntityGUID,
-                                                                                      endEntityGUID,
-                                                                                      limitResultsByStatus,
-                                                                                      asOfTime);
-
-                    /*
-                     * Step through the list of returned TypeDefs and consolidate.
-                     */
-                    if (results != null)
-                    {
-                        combinedRelationshipResults = this.addUniqueRelationships(combinedRelationshipResults,
-                                                                                  results.getRelationships(),
-                                                                                  cohortConnector.getServerName(),
-                                                                                  cohortConnector.getMetadataCollectionId(),
-                                                                                  methodName);
-                        combinedEntityResults = this.addUniqueEntities(combinedEntityResults,
-                                                                       results.getEntities(),
-                                                                       cohortConnector.getServerName(),
-                                                                       cohortConnector.getMetadataCollectionId(),
-                                                                       methodName);
-                    }
-                }
-                catch (RepositoryErrorException error)
-                {
-                    repositoryErrorException = error;
-                }
-                catch (PropertyErrorException error)
-                {
-                    propertyErrorException = error;
-                }
-                catch (EntityNotKnownException error)
-                {
-                    entityNotKnownException = error;
-                }
-                catch (FunctionNotSupportedException error)
-                {
-                    functionNotSupportedException = error;
-                }
-                catch (UserNotAuthorizedException error)
-                {
-                    userNotAuthorizedException = error;
-                }
-                catch (Throwable error)
-                {
-                    anotherException = error;
-                }
-            }
-        }
+        federationControl.executeCommand(executor);
 
-        return validatedInstanceGraphResults(repositoryName,
-                                             combinedEntityResults,
-                                             combinedRelationshipResults,
-                                             userNotAuthorizedException,
-                                             propertyErrorException,
-                                             functionNotSupportedException,
-                                             entityNotKnownException,
-                                             repositoryErrorException,
-                                             anotherException,
-                                             methodName);
+        return executor.getResults(enterpriseParentConnector);
     }
 
 
@@ -2008,101 +2068,29 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
+        FederationControl             federationControl = this.getParallelFederationControl(userId, cohortConnectors, methodName);
+        GetEntityNeighborhoodExecutor executor          = new GetEntityNeighborhoodExecutor(userId,
+                                                                                            entityGUID,
+                                                                                            entityTypeGUIDs,
+                                                                                            relationshipTypeGUIDs,
+                                                                                            limitResultsByStatus,
+                                                                                            limitResultsByClassification,
+                                                                                            asOfTime,
+                                                                                            level,
+                                                                                            localMetadataCollectionId,
+                                                                                            auditLog,
+                                                                                            repositoryValidator,
+                                                                                            methodName);
+
         /*
          * Ready to process the request.  Search results need to come from all members of the cohort.
-         * They need to be combined and then duplicates removed to create the final list of results.
+         * They are combined in the executor's accumulator and duplicates removed to create the final graph.
          * Some repositories may produce exceptions.  These exceptions are saved and one selected to
          * be returned if there are no results from any repository.
          */
-        Map<String, EntityDetail>      combinedEntityResults       = new HashMap<>();
-        Map<String, Relationship>      combinedRelationshipResults = new HashMap<>();
-
-        EntityNotKnownException        entityNotKnownException         = null;
-        FunctionNotSupportedException  functionNotSupportedException   = null;
-        PropertyErrorException         propertyErrorException          = null;
-        UserNotAuthorizedException     userNotAuthorizedException      = null;
-        RepositoryErrorException       repositoryErrorException        = null;
-        Throwable                      anotherException                = null;
-
-        /*
-         * Loop through the metadata collections extracting the typedefs from each repository.
-         */
-        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
-        {
-            if (cohortConnector != null)
-            {
-                OMRSMetadataCollection   metadataCollection = cohortConnector.getMetadataCollection();
-
-                validateMetadataCollection(metadataCollection, methodName);
-
-                try
-                {
-                    /*
-                     * Issue the request
-                     */
-                    InstanceGraph     results = metadataCollection.getEntityNeighborhood(userId,
-                                                                                         entityGUID,
-                                                                                         entityTypeGUIDs,
-                                                                                         relationshipTypeGUIDs,
-                                                                                         limitResultsByStatus,
-                                                                                         limitResultsByClassification,
-                                                                                         asOfTime,
-                                                                                         level);
-
-                    /*
-                     * Step through the list of returned TypeDefs and consolidate.
-                     */
-                    if (results != null)
-                    {
-                        combinedRelationshipResults = this.addUniqueRelationships(combinedRelationshipResults,
-                                                                                  results.getRelationships(),
-                                                                                  cohortConnector.getServerName(),
-                                                                                  cohortConnector.getMetadataCollectionId(),
-                                                                                  methodName);
-                        combinedEntityResults = this.addUniqueEntities(combinedEntityResults,
-                                                                       results.getEntities(),
-                                                                       cohortConnector.getServerName(),
-                                                                       cohortConnector.getMetadataCollectionId(),
-                                                                       methodName);
-                    }
-                }
-                catch (RepositoryErrorException error)
-                {
-                    repositoryErrorException = error;
-                }
-                catch (PropertyErrorException error)
-                {
-                    propertyErrorException = error;
-                }
-                catch (EntityNotKnownException error)
-                {
-                    entityNotKnownException = error;
-                }
-                catch (FunctionNotSupportedException error)
-                {
-                    functionNotSupportedException = error;
-                }
-                catch (UserNotAuthorizedException error)
-                {
-                    userNotAuthorizedException = error;
-                }
-                catch (Throwable error)
-                {
-                    anotherException = error;
-                }
-            }
-        }
+        federationControl.executeCommand(executor);
 
-        return validatedInstanceGraphResults(repositoryName,
-                                             combinedEntityResults,
-                                             combinedRelationshipResults,
-                                             userNotAuthorizedException,
-                                             propertyErrorException,
-                                             functionNotSupportedException,
-                                             entityNotKnownException,
-                                             repositoryErrorException,
-                                             anotherException,
-                                             methodName);
+        return executor.getResults(enterpriseParentConnector);
     }
 
 
@@ -2190,115 +2178,51 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        /*
-         * Ready to process the request.  Search results need to come from all members of the cohort.
-         * They need to be combined and then duplicates removed to create the final list of results.
-         * Some repositories may produce exceptions.  These exceptions are saved and one selected to
-         * be returned if there are no results from any repository.
-         */
-        Map<String, EntityDetail>     combinedResults               = new HashMap<>();
-
-        InvalidParameterException     invalidParameterException     = null;
-        EntityNotKnownException       entityNotKnownException       = null;
-        FunctionNotSupportedException functionNotSupportedException = null;
-        TypeErrorException            typeErrorException            = null;
-        PropertyErrorException        propertyErrorException        = null;
-        UserNotAuthorizedException    userNotAuthorizedException    = null;
-        RepositoryErrorException      repositoryErrorException      = null;
-        Throwable                     anotherException              = null;
+        GetRelatedEntitiesExecutor executor = new GetRelatedEntitiesExecutor(userId,
+                                                                             startEntityGUID,
+                                                                             entityTypeGUIDs,
+                                                                             fromEntityElement,
+                                                                             limitResultsByStatus,
+                                                                             limitResultsByClassification,
+                                                                             asOfTime,
+                                                                             sequencingProperty,
+                                                                             sequencingOrder,
+                                                                             pageSize,
+                                                                             localMetadataCollectionId,
+                                                                             auditLog,
+                                                                             repositoryValidator,
+                                                                             methodName);
 
         /*
-         * Loop through the metadata collections extracting the typedefs from each repository.
-         */
-        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
-        {
-            if (cohortConnector != null)
-            {
-                OMRSMetadataCollection   metadataCollection = cohortConnector.getMetadataCollection();
-
-                validateMetadataCollection(metadataCollection, methodName);
-
-                try
-                {
-                    /*
-                     * Issue the request
-                     */
-                    List<EntityDetail> results = metadataCollection.getRelatedEntities(userId,
-                                                                                       startEntityGUID,
-                                                                                       entityTypeGUIDs,
-                                                                                       fromEntityElement,
-                                                                                       limitResultsByStatus,
-                                                                                       limitResultsByClassification,
-                                                                                       asOfTime,
-                                                                                       sequencingProperty,
-                                                                                       sequencingOrder,
-                                                                                       pageSize);
-
-                    /*
-                     * Step through the list of returned TypeDefs and remove duplicates.
-                     */
-                    combinedResults = this.addUniqueEntities(combinedResults,
-                                                             results,
-                                                             cohortConnector.getServerName(),
-                                                             cohortConnector.getMetadataCollectionId(),
-                                                             methodName);
-                }
-                catch (InvalidParameterException error)
-                {
-                    invalidParameterException = error;
-                }
-                catch (EntityNotKnownException error)
-                {
-                    entityNotKnownException = error;
-                }
-                catch (FunctionNotSupportedException error)
-                {
-                    functionNotSupportedException = error;
-                }
-                catch (TypeErrorException error)
-                {
-                    typeErrorException = error;
-                }
-                catch (PropertyErrorException error)
-                {
-                    propertyErrorException = error;
-                }
-                catch (RepositoryErrorException error)
-                {
-                    repositoryErrorException = error;
-                }
-                catch (UserNotAuthorizedException error)
-                {
-                    userNotAuthorizedException = error;
-                }
-                catch (Throwable error)
-                {
-                    anotherException = error;
-                }
-            }
-        }
-
-
-        if (combinedResults.isEmpty())
+         * Ready to process the request.  Search results need to come from all members of the cohort.
+         * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+         * there are no positive results from any repository.  When results are returned by more than one
+         * repository, they are merged into a single page in the requested sequencing order.
+         */
+        List<Object> queryParameters = Arrays.asList(startEntityGUID,
+                                                     entityTypeGUIDs,
+                                                     limitResultsByStatus,
+                                                     limitResultsByClassification,
+                                                     asOfTime);
+
+        FederatedPageMerger<EntityDetail> pageMerger = this.executePagedCommand(userId,
+                                                                                cohortConnectors,
+                                                                                executor,
+                                                                                queryParameters,
+                                                                                fromEntityElement,
+                                                                                pageSize,
+                                                                                sequencingOrder,
+                                                                                sequencingProperty,
+                                                                                methodName);
+
+        List<EntityDetail> results = executor.getResults(enterpriseParentConnector);
+
+        if (pageMerger != null)
         {
-            throwCapturedRepositoryErrorException(repositoryErrorException);
-            throwCapturedUserNotAuthorizedException(userNotAuthorizedException);
-            throwCapturedThrowableException(anotherException, methodName);
-            throwCapturedTypeErrorException(typeErrorException);
-            throwCapturedPropertyErrorException(propertyErrorException);
-            throwCapturedInvalidParameterException(invalidParameterException);
-            throwCapturedFunctionNotSupportedException(functionNotSupportedException);
-            throwCapturedEntityNotKnownException(entityNotKnownException);
-
-            return null;
+            return pageMerger.getPage(results);
         }
 
-        return validatedEntityListResults(repositoryName,
-                                          combinedResults,
-                                          sequencingProperty,
-                                          sequencingOrder,
-                                          pageSize,
-                                          methodName);
+        return results;
     }
 
 
@@ -3806,165 +3730,128 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
 
 
     /**
-     * Build a combined list of entities.
+     * Return a federation control that issues the request to the cohort members in parallel using the worker
+     * threads and timeout configured for the enterprise connector.
      *
-     * @param accumulatedResults current accumulated entities
-     * @param results newly received list of entities
-     * @param serverName name of the server that provided the new entity
-     * @param metadataCollectionId unique identifier for metadata collection that provided the new entity
-     * @param methodName method name that returned the new entity
-     * @return combined results
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     * @return federation control
      */
-    private Map<String, EntityDetail> addUniqueEntities(Map<String, EntityDetail>     accumulatedResults,
-                                                        List<EntityDetail>            results,
-                                                        String                        serverName,
-                                                        String                        metadataCollectionId,
-                                                        String                        methodName)
+    private FederationControl getParallelFederationControl(String                        userId,
+                                                           List<OMRSRepositoryConnector> cohortConnectors,
+                                                           String                        methodName)
     {
-        Map<String, EntityDetail>  combinedResults = new HashMap<>(accumulatedResults);
-
-        if (results != null)
-        {
-            List<EntityDetail>         processedResults;
-
-            for (EntityDetail returnedEntity : results)
-            {
-                combinedResults = this.addUniqueEntity(combinedResults,
-                                                       returnedEntity,
-                                                       serverName,
-                                                       metadataCollectionId,
-                                                       methodName);
-            }
-        }
-
-        return combinedResults;
+        return new ParallelFederationControl(userId,
+                                             cohortConnectors,
+                                             enterpriseParentConnector.getFederationWorkers(),
+                                             enterpriseParentConnector.getRepositoryRequestTimeout(),
+                                             auditLog,
+                                             methodName);
     }
 
 
     /**
-     * Build a combined list of entities.
+     * Issue a paged query to the cohort members.  When more than one repository is queried, each repository
+     * is asked for the results from its own position and the results are merged into a single page in the
+     * requested sequencing order.  The position reached in each repository is saved in the enterprise connector
+     * under a continuation token made from the query parameters and the starting element of the next page.
+     * When the caller requests the next page, the query continues from these positions so each repository
+     * only needs to return a page of results rather than every result up to the end of the requested page.
      *
-     * @param accumulatedResults current accumulated entities
-     * @param entity newly received entity
-     * @param serverName name of the server that provided the new entity
-     * @param metadataCollectionId unique identifier for metadata collection that provided the new entity
-     * @param methodName method name that returned the new entity
-     * @return combined results
-     */
-    private Map<String, EntityDetail> addUniqueEntity(Map<String, EntityDetail>     accumulatedResults,
-                                                      EntityDetail                  entity,
-                                                      String                        serverName,
-                                                      String                        metadataCollectionId,
-                                                      String                        methodName)
-    {
-        Map<String, EntityDetail>  combinedResults = new HashMap<>(accumulatedResults);
-
-        if (entity != null)
+     * The OMRS API has no parameter to pass the continuation token so it is derived from the request.  A request
+     * for a page that does not follow on from a recent request retrieves the results up to the end of the page
+     * from each repository and discards the results before the starting element.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param executor executor for the request
+     * @param queryParameters parameters that identify the query (excluding the paging parameters)
+     * @param startingElement page start pointer requested by the caller
+     * @param pageSize maximum number of elements requested by the caller
+     * @param sequencingOrder ordering of results
+     * @param sequencingProperty property used for ordering (optional)
+     * @param methodName calling method
+     * @param <T> type of instance returned
+     * @return merger holding the page or null if the results from the executor do not need to be merged
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     */
+    private <T extends InstanceHeader> FederatedPageMerger<T> executePagedCommand(String                        userId,
+                                                                                 List<OMRSRepositoryConnector> cohortConnectors,
+                                                                                 PageableRepositoryExecutor<T> executor,
+                                                                                 List<Object>                  queryParameters,
+                                                                                 int                           startingElement,
+                                                                                 int                           pageSize,
+                                                                                 SequencingOrder               sequencingOrder,
+                                                                                 String                        sequencingProperty,
+                                                                                 String                        methodName) throws RepositoryErrorException
+    {
+        List<String> memberIds = new ArrayList<>();
+
+        if ((cohortConnectors != null) && (pageSize > 0))
         {
-            EntityDetail   existingEntity = combinedResults.put(entity.getGUID(), entity);
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            {
+                if (cohortConnector != null)
+                {
+                    memberIds.add(cohortConnector.getMetadataCollectionId());
+                }
+            }
+        }
 
-            // todo validate that existing entity and the new one are copies
+        /*
+         * The results from a single repository are already paged.  Unrestricted requests return all results.
+         */
+        if ((memberIds.size() < 2) || (memberIds.contains(null)))
+        {
+            this.getParallelFederationControl(userId, cohortConnectors, methodName).executeCommand(executor);
+            return null;
         }
 
-        return combinedResults;
-    }
+        String queryKey = methodName + ":" + userId + ":" + pageSize + ":" + sequencingOrder + ":" + sequencingProperty
+                        + ":" + memberIds + ":" + queryParameters + ":";
 
+        FederatedPageMerger<T> pageMerger = new FederatedPageMerger<>(memberIds,
+                                                                      new InstanceSequencingComparator(sequencingOrder,
+                                                                                                       sequencingProperty),
+                                                                      startingElement,
+                                                                      pageSize,
+                                                                      enterpriseParentConnector.takePagingCursor(queryKey + startingElement));
 
-    /**
-     * Build a combined list of relationships.
-     *
-     * @param accumulatedResults current accumulated relationships
-     * @param results newly received list of relationships
-     * @param serverName name of the server that provided the new relationship
-     * @param metadataCollectionId unique identifier for metadata collection that provided the new relationship
-     * @param methodName method name that returned the new relationship
-     * @return combined results
-     */
-    private Map<String, Relationship> addUniqueRelationships(Map<String, Relationship>     accumulatedResults,
-                                                             List<Relationship>            results,
-                                                             String                        serverName,
-                                                             String                        metadataCollectionId,
-                                                             String                        methodName)
-    {
-        Map<String, Relationship>  combinedResults = new HashMap<>(accumulatedResults);
+        List<OMRSRepositoryConnector> connectorsToQuery = cohortConnectors;
+        int                           requestCount      = 0;
+        boolean                       moreResultsNeeded = true;
 
-        if (results != null)
+        while (moreResultsNeeded)
         {
-            List<Relationship>         processedResults;
+            executor.setMemberPaging(pageMerger.getMemberStartingElements(), pageMerger.getMemberPageSize());
+            this.getParallelFederationControl(userId, connectorsToQuery, methodName).executeCommand(executor);
+            requestCount++;
+
+            /*
+             * The number of requests is limited in case a repository ignores the starting element and
+             * keeps returning the same results.
+             */
+            moreResultsNeeded = pageMerger.addMemberResults(executor.takeMemberResults()) && (requestCount < maxPagedRequests);
 
-            for (Relationship returnedRelationship : results)
+            connectorsToQuery = new ArrayList<>();
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
             {
-                combinedResults = this.addUniqueRelationship(combinedResults,
-                                                             returnedRelationship,
-                                                             serverName,
-                                                             metadataCollectionId,
-                                                             methodName);
+                if ((cohortConnector != null) && (pageMerger.getMembersToQuery().contains(cohortConnector.getMetadataCollectionId())))
+                {
+                    connectorsToQuery.add(cohortConnector);
+                }
             }
         }
 
-        return combinedResults;
-    }
+        Map<String, Integer> nextMemberPositions = pageMerger.getNextMemberPositions();
 
-
-    /**
-     * Build a combined list of relationships.
-     *
-     * @param accumulatedResults current accumulated relationships
-     * @param relationship newly received relationship
-     * @param serverName name of the server that provided the new relationship
-     * @param metadataCollectionId unique identifier for metadata collection that provided the new relationship
-     * @param methodName method name that returned the new relationship
-     * @return combined results
-     */
-    private Map<String, Relationship> addUniqueRelationship(Map<String, Relationship>     accumulatedResults,
-                                                            Relationship                  relationship,
-                                                            String                        serverName,
-                                                            String                        metadataCollectionId,
-                                                            String                        methodName)
-    {
-        Map<String, Relationship>  combinedResults = new HashMap<>(accumulatedResults);
-
-        if (relationship != null)
+        if (nextMemberPositions != null)
         {
-            Relationship   existingRelationship = combinedResults.put(relationship.getGUID(), relationship);
-
-            // todo validate that existing relationship and the new one are copies
+            enterpriseParentConnector.savePagingCursor(queryKey + (startingElement + pageSize), nextMemberPositions);
         }
 
-        return combinedResults;
-    }
-
-
-    /**
-     * Verify that a cohort member's metadata collection is not null.
-     *
-     * @param cohortMetadataCollection metadata collection
-     * @param methodName name of method
-     * @throws RepositoryErrorException null metadata collection
-     */
-    private void validateMetadataCollection(OMRSMetadataCollection  cohortMetadataCollection,
-                                            String                  methodName) throws RepositoryErrorException
-    {
-        /*
-         * The cohort metadata collection should not be null.  It is in a real mess if this fails.
-         */
-        if (cohortMetadataCollection == null)
-        {
-            /*
-             * A problem in the set up of the metadata collection list.  Repository connectors implemented
-             * with no metadata collection are tested for in the OMRSEnterpriseConnectorManager so something
-             * else has gone wrong.
-             */
-            OMRSErrorCode errorCode    = OMRSErrorCode.NULL_ENTERPRISE_METADATA_COLLECTION;
-            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage();
-
-            throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                                               this.getClass().getName(),
-                                               methodName,
-                                               errorMessage,
-                                               errorCode.getSystemAction(),
-                                               errorCode.getUserAction());
-        }
+        return pageMerger;
     }
 
 
@@ -3987,242 +3874,4 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                 errorCode.getSystemAction(),
                                                 errorCode.getUserAction());
     }
-
-
-    /**
-     * Throw a InvalidParameterException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws InvalidParameterException one of the parameters is invalid
-     */
-    private void throwCapturedInvalidParameterException(InvalidParameterException   exception) throws InvalidParameterException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a TypeErrorException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws TypeErrorException the type definition of the instance is not known in any of the federated repositories
-     */
-    private void throwCapturedTypeErrorException(TypeErrorException   exception) throws TypeErrorException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a PropertyErrorException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws PropertyErrorException the properties are not valid for the call
-     */
-    private void throwCapturedPropertyErrorException(PropertyErrorException   exception) throws PropertyErrorException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a EntityNotKnownException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws EntityNotKnownException the entity is not known in any of the federated repositories
-     */
-    private void throwCapturedEntityNotKnownException(EntityNotKnownException   exception) throws EntityNotKnownException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a FunctionNotSupportedException if it was returned by all of the calls to the cohort connectors.
-     *
-     * @param exception captured exception
-     * @throws FunctionNotSupportedException the requested function is not supported in any of the federated repositories
-     */
-    private void throwCapturedFunctionNotSupportedException(FunctionNotSupportedException   exception) throws FunctionNotSupportedException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a UserNotAuthorizedException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws UserNotAuthorizedException the userId is not authorized in the server
-     */
-    private void throwCapturedUserNotAuthorizedException(UserNotAuthorizedException   exception) throws UserNotAuthorizedException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a RepositoryErrorException if it was returned by one of the calls to a cohort connector.
-     *
-     * @param exception captured exception
-     * @throws RepositoryErrorException there was an error in the repository
-     */
-    private void throwCapturedRepositoryErrorException(RepositoryErrorException   exception) throws RepositoryErrorException
-    {
-        if (exception != null)
-        {
-            throw exception;
-        }
-    }
-
-
-    /**
-     * Throw a RepositoryErrorException if an unexpected Throwable exception was returned by one of the calls
-     * to a cohort connector.
-     *
-     * @param exception captured exception
-     * @param methodName calling method
-     * @throws RepositoryErrorException there was an unexpected error in the repository
-     */
-    private void throwCapturedThrowableException(Throwable   exception,
-                                                 String      methodName) throws RepositoryErrorException
-    {
-        if (exception != null)
-        {
-            OMRSErrorCode errorCode = OMRSErrorCode.UNEXPECTED_EXCEPTION_FROM_COHORT;
-
-            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(methodName,
-                                                                                                     exception.getMessage());
-
-            throw new RepositoryErrorException(errorCode.getHTTPErrorCode(),
-                                                    this.getClass().getName(),
-                                                    methodName,
-                                                    errorMessage,
-                                                    errorCode.getSystemAction(),
-                                                    errorCode.getUserAction());
-        }
-    }
-
-
-    /**
-     * Return a validated, sorted list of search results.
-     *
-     * @param repositoryName name of this repository
-     * @param combinedResults results from all cohort repositories
-     * @param sequencingProperty String name of the property that is to be used to sequence the results.
-     *                           Null means do not sequence on a property name (see SequencingOrder).
-     * @param sequencingOrder Enum defining how the results should be ordered.
-     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
-     *                 unrestricted return results size.
-     * @param methodName name of method called
-     * @return list of entities
-     * @throws RepositoryErrorException there is a problem with the results
-     */
-    private List<EntityDetail> validatedEntityListResults(String                         repositoryName,
-                                                          Map<String, EntityDetail>      combinedResults,
-                                                          String                         sequencingProperty,
-                                                          SequencingOrder                sequencingOrder,
-                                                          int                            pageSize,
-                                                          String                         methodName) throws RepositoryErrorException
-    {
-        if (combinedResults.isEmpty())
-        {
-            return null;
-        }
-
-        List<EntityDetail>   actualResults = new ArrayList<>(combinedResults.values());
-
-        // todo: sort results and crop to max page size
-
-        return actualResults;
-    }
-
-
-    /**
-     * Return a validated InstanceGraph.
-     *
-     * @param repositoryName name of this repository
-     * @param accumulatedEntityResults list of returned entities
-     * @param accumulatedRelationshipResults list of returned relationships
-     * @param userNotAuthorizedException captured exception
-     * @param propertyErrorException captured exception
-     * @param functionNotSupportedException captured exception
-     * @param entityNotKnownException captured exception
-     * @param repositoryErrorException captured exception
-     * @param anotherException captured Throwable exception
-     * @param methodName name of calling method
-     * @return InstanceGraph
-     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
-     * @throws PropertyErrorException issue with a property value
-     * @throws FunctionNotSupportedException the repository does not support the requested method
-     * @throws EntityNotKnownException the requested entity is not known in the metadata collection
-     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
-     * the metadata collection is stored.
-     */
-    private InstanceGraph validatedInstanceGraphResults(String                        repositoryName,
-                                                        Map<String, EntityDetail>     accumulatedEntityResults,
-                                                        Map<String, Relationship>     accumulatedRelationshipResults,
-                                                        UserNotAuthorizedException    userNotAuthorizedException,
-                                                        PropertyErrorException        propertyErrorException,
-                                                        FunctionNotSupportedException functionNotSupportedException,
-                                                        EntityNotKnownException       entityNotKnownException,
-                                                        RepositoryErrorException      repositoryErrorException,
-                                                        Throwable                     anotherException,
-                                                        String                        methodName) throws UserNotAuthorizedException,
-                                                                                                         PropertyErrorException,
-                                                                                                         FunctionNotSupportedException,
-                                                                                                         EntityNotKnownException,
-                                                                                                         RepositoryErrorException
-    {
-        int  resultCount = (accumulatedEntityResults.size() + accumulatedRelationshipResults.size());
-
-        /*
-         * Return any results, or exception if nothing is found.
-         */
-        if (resultCount > 0)
-        {
-            InstanceGraph         instanceGraph = new InstanceGraph();
-            List<EntityDetail>    entityDetails = new ArrayList<>(accumulatedEntityResults.values());
-            List<Relationship>    relationships = new ArrayList<>(accumulatedRelationshipResults.values());
-
-            // todo Validate the entities and relationships
-
-            instanceGraph.setEntities(entityDetails);
-            instanceGraph.setRelationships(relationships);
-
-            return instanceGraph;
-        }
-        else
-        {
-            throwCapturedUserNotAuthorizedException(userNotAuthorizedException);
-            throwCapturedRepositoryErrorException(repositoryErrorException);
-            throwCapturedPropertyErrorException(propertyErrorException);
-            throwCapturedThrowableException(anotherException, methodName);
-            throwCapturedFunctionNotSupportedException(functionNotSupportedException);
-            throwCapturedEntityNotKnownException(entityNotKnownException);
-
-            /*
-             * Nothing went wrong, there are just no results.
-             */
-            return null;
-        }
-    }
-}
\ No newline at end of file
+}
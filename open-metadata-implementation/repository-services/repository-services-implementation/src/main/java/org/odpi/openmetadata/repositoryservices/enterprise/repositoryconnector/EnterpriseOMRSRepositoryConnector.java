@@ -21,7 +21,10 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeExcept
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * EnterpriseOMRSRepositoryConnector supports federating calls to multiple metadata repositories.  As a result,
@@ -47,7 +50,25 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     private String                              localMetadataCollectionId = null;
     private List<FederatedConnector>            remoteCohortConnectors    = new ArrayList<>();
 
-    private String callingServiceName = null;
+    private String          callingServiceName       = null;
+    private ExecutorService federationWorkers        = null;
+    private long            repositoryRequestTimeout = 0;
+
+    /*
+     * The paging cursors record the position reached in each repository by the last page of a federated query.
+     * They are keyed by the continuation token for the next page and the least recently used are discarded.
+     */
+    private static final int                  maxPagingCursors = 100;
+    private Map<String, Map<String, Integer>> pagingCursors    = new LinkedHashMap<String, Map<String, Integer>>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, Integer>> eldest)
+        {
+            return size() > maxPagingCursors;
+        }
+    };
 
     private static final Logger       log      = LoggerFactory.getLogger(EnterpriseOMRSRepositoryConnector.class);
 
@@ -128,6 +149,83 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Return the pool of threads used to issue requests to the repositories in parallel.
+     *
+     * @return executor service or null if requests are issued from the calling thread
+     */
+    ExecutorService getFederationWorkers()
+    {
+        return federationWorkers;
+    }
+
+
+    /**
+     * Set up the pool of threads used to issue requests to the repositories in parallel.  The pool is shared
+     * by all of the enterprise connectors in the server and is shut down by the repository services.
+     *
+     * @param federationWorkers executor service
+     */
+    public void setFederationWorkers(ExecutorService federationWorkers)
+    {
+        this.federationWorkers = federationWorkers;
+    }
+
+
+    /**
+     * Return the time that a federated query waits for each repository to respond.
+     *
+     * @return time in milliseconds (zero means wait forever)
+     */
+    long getRepositoryRequestTimeout()
+    {
+        return repositoryRequestTimeout;
+    }
+
+
+    /**
+     * Set up the time that a federated query waits for each repository to respond.
+     *
+     * @param repositoryRequestTimeout time in milliseconds (zero means wait forever)
+     */
+    public void setRepositoryRequestTimeout(long repositoryRequestTimeout)
+    {
+        this.repositoryRequestTimeout = repositoryRequestTimeout;
+    }
+
+
+    /**
+     * Save the position reached in each repository by a page of a federated query so the next page can
+     * continue from there rather than retrieving all of the earlier results again.
+     *
+     * @param continuationToken identifier of the query and the starting element of the next page
+     * @param memberPositions map of metadata collection id to starting element
+     */
+    void savePagingCursor(String               continuationToken,
+                          Map<String, Integer> memberPositions)
+    {
+        synchronized (pagingCursors)
+        {
+            pagingCursors.put(continuationToken, memberPositions);
+        }
+    }
+
+
+    /**
+     * Remove and return the position reached in each repository by the previous page of a federated query.
+     *
+     * @param continuationToken identifier of the query and the starting element of the requested page
+     * @return map of metadata collection id to starting element or null if the previous page is not known
+     */
+    Map<String, Integer> takePagingCursor(String continuationToken)
+    {
+        synchronized (pagingCursors)
+        {
+            return pagingCursors.remove(continuationToken);
+        }
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
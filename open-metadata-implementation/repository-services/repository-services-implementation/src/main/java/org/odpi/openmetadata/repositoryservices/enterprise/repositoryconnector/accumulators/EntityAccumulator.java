@@ -21,7 +21,8 @@ import java.util.Map;
  */
 public class EntityAccumulator extends QueryInstanceAccumulatorBase
 {
-    private volatile Map<String, EntityDetail> accumulatedEntities = new HashMap<>();
+    private volatile Map<String, EntityDetail>       accumulatedEntities = new HashMap<>();
+    private volatile Map<String, List<EntityDetail>> memberResults       = new HashMap<>();
 
 
     /**
@@ -86,6 +87,11 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addEntities(List<EntityDetail>   entities,
                                          String               metadataCollectionId)
     {
+        if (! isAccepting(metadataCollectionId))
+        {
+            return;
+        }
+
         if (entities != null)
         {
             for (EntityDetail entity : entities)
@@ -94,9 +100,11 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
             }
 
             /*
-             * Record that this repository has returned results from the request.
+             * Record that this repository has returned results from the request.  The results are also
+             * saved in the order that the repository returned them in case they need to be merged into a page.
              */
             super.setResultsReturned(metadataCollectionId, entities.size());
+            memberResults.put(metadataCollectionId, new ArrayList<>(entities));
         }
         else
         {
@@ -104,10 +112,27 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
              * Even though results were not found it was still a successful request.
              */
             super.setResultsReturned(metadataCollectionId, 0);
+            memberResults.put(metadataCollectionId, new ArrayList<>());
         }
     }
 
 
+    /**
+     * Return the entities received from each repository, in the order that each repository returned them,
+     * since the last call to this method.
+     *
+     * @return map of metadata collection id to list of entities
+     */
+    public synchronized Map<String, List<EntityDetail>> takeMemberResults()
+    {
+        Map<String, List<EntityDetail>> results = memberResults;
+
+        memberResults = new HashMap<>();
+
+        return results;
+    }
+
+
     /**
      * Extract the results - this will the a unique list of entities selected from the instances
      * supplied to this accumulator.  It should be called once all of the executors have completed processing
@@ -118,6 +143,8 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
      */
     public synchronized List<EntityDetail>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
+        super.closeAccumulation();
+
         if (accumulatedEntities.isEmpty())
         {
             return null;
@@ -0,0 +1,380 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * FederatedPageMerger builds a single page of results from the results returned by many repositories.
+ * Each repository is asked for results from its own position in its own results.  The results are merged
+ * according to the sequencing order using a priority queue that holds the next instance from each repository.
+ * When a repository runs out of results before the page is full, the merger requests more results from that
+ * repository before continuing.  Since each repository's results are consumed in the order they were returned,
+ * the position reached in each repository is exact and can be used to resume the query for the next page.
+ *
+ * Duplicate instances are removed from the page.  Reference copies are skipped if the repository that is the
+ * home of the instance is one of the repositories being queried since the home copy is the one merged into the page.
+ *
+ * This class is used by a single thread and so is not thread-safe.
+ *
+ * @param <T> type of instance
+ */
+public class FederatedPageMerger<T extends InstanceHeader>
+{
+    private List<String>          memberIds;
+    private Comparator<? super T> comparator;
+    private int                   pageSize;
+    private int                   elementsToSkip;
+
+    private Map<String, Integer>  memberPositions   = new HashMap<>();
+    private Map<String, Deque<T>> memberBuffers     = new HashMap<>();
+    private Set<String>           exhaustedMembers  = new HashSet<>();
+    private Set<String>           respondingMembers = new HashSet<>();
+    private Set<String>           mergedGUIDs       = new HashSet<>();
+    private List<T>               page              = new ArrayList<>();
+    private List<String>          membersToQuery;
+    private int                   memberPageSize;
+
+
+    /**
+     * Constructor for the merger.  If the positions from a previous page are supplied, the merge continues
+     * from those positions.  Otherwise, every repository is queried from its first result and the merged
+     * results up to the starting element are discarded.
+     *
+     * @param memberIds metadata collection ids of the repositories being queried, in the order they are called
+     * @param comparator ordering for the results
+     * @param startingElement starting element requested by the caller
+     * @param pageSize maximum number of elements requested by the caller
+     * @param memberPositions positions in each repository reached by the previous page (null for none)
+     */
+    public FederatedPageMerger(List<String>          memberIds,
+                               Comparator<? super T> comparator,
+                               int                   startingElement,
+                               int                   pageSize,
+                               Map<String, Integer>  memberPositions)
+    {
+        this.memberIds = memberIds;
+        this.comparator = comparator;
+        this.pageSize = pageSize;
+
+        if (memberPositions == null)
+        {
+            this.elementsToSkip = startingElement;
+        }
+        else
+        {
+            this.elementsToSkip = 0;
+        }
+
+        for (String memberId : memberIds)
+        {
+            int position = 0;
+
+            if ((memberPositions != null) && (memberPositions.get(memberId) != null))
+            {
+                position = memberPositions.get(memberId);
+            }
+
+            this.memberPositions.put(memberId, position);
+            this.memberBuffers.put(memberId, new ArrayDeque<>());
+        }
+
+        this.membersToQuery = new ArrayList<>(memberIds);
+        this.memberPageSize = elementsToSkip + pageSize;
+    }
+
+
+    /**
+     * Return the metadata collection ids of the repositories that need to be queried for more results.
+     *
+     * @return list of metadata collection ids
+     */
+    public List<String> getMembersToQuery()
+    {
+        return membersToQuery;
+    }
+
+
+    /**
+     * Return the starting element to request from each of the repositories that need to be queried.
+     *
+     * @return map of metadata collection id to starting element
+     */
+    public Map<String, Integer> getMemberStartingElements()
+    {
+        Map<String, Integer> startingElements = new HashMap<>();
+
+        for (String memberId : membersToQuery)
+        {
+            startingElements.put(memberId, memberPositions.get(memberId));
+        }
+
+        return startingElements;
+    }
+
+
+    /**
+     * Return the number of elements to request from each of the repositories that need to be queried.
+     * This is enough to fill the page (and any elements that still need to be skipped) from a single repository.
+     *
+     * @return page size for the repository requests
+     */
+    public int getMemberPageSize()
+    {
+        return memberPageSize;
+    }
+
+
+    /**
+     * Add the results from the latest request to the repositories and merge as many results into the page as possible.
+     * A repository that did not return results (because of an error or time out) is not queried again.
+     *
+     * @param memberResults map of metadata collection id to the results returned by the repository
+     * @return boolean flag - true means more results are needed from the repositories returned by getMembersToQuery()
+     */
+    public boolean addMemberResults(Map<String, List<T>> memberResults)
+    {
+        for (String memberId : membersToQuery)
+        {
+            List<T> results = null;
+
+            if (memberResults != null)
+            {
+                results = memberResults.get(memberId);
+            }
+
+            if (results == null)
+            {
+                exhaustedMembers.add(memberId);
+            }
+            else
+            {
+                respondingMembers.add(memberId);
+                memberBuffers.get(memberId).addAll(results);
+
+                if (results.size() < memberPageSize)
+                {
+                    exhaustedMembers.add(memberId);
+                }
+            }
+        }
+
+        membersToQuery = new ArrayList<>();
+        memberPageSize = elementsToSkip + pageSize;
+
+        return this.merge();
+    }
+
+
+    /**
+     * Merge results into the page until it is full, all of the results are consumed or a repository needs to
+     * be queried for more results.
+     *
+     * @return boolean flag - true means more results are needed before the merge can continue
+     */
+    private boolean merge()
+    {
+        for (String memberId : memberIds)
+        {
+            if ((memberBuffers.get(memberId).isEmpty()) && (! exhaustedMembers.contains(memberId)))
+            {
+                membersToQuery.add(memberId);
+            }
+        }
+
+        if (! membersToQuery.isEmpty())
+        {
+            return true;
+        }
+
+        /*
+         * The queue holds the repositories ordered by the next instance they have to offer.
+         * Ties are broken by the order of the repositories to keep the merge consistent from page to page.
+         */
+        PriorityQueue<String> nextInstances = new PriorityQueue<>(memberIds.size(), (member1, member2) ->
+        {
+            int result = comparator.compare(memberBuffers.get(member1).peekFirst(), memberBuffers.get(member2).peekFirst());
+
+            if (result == 0)
+            {
+                result = Integer.compare(memberIds.indexOf(member1), memberIds.indexOf(member2));
+            }
+
+            return result;
+        });
+
+        for (String memberId : memberIds)
+        {
+            if (! memberBuffers.get(memberId).isEmpty())
+            {
+                nextInstances.add(memberId);
+            }
+        }
+
+        while ((page.size() < pageSize) && (! nextInstances.isEmpty()))
+        {
+            String   memberId = nextInstances.poll();
+            Deque<T> buffer   = memberBuffers.get(memberId);
+            T        instance = buffer.pollFirst();
+
+            memberPositions.put(memberId, memberPositions.get(memberId) + 1);
+
+            if (this.isNewInstance(instance, memberId))
+            {
+                if (elementsToSkip > 0)
+                {
+                    elementsToSkip--;
+                }
+                else
+                {
+                    page.add(instance);
+                }
+            }
+
+            if (! buffer.isEmpty())
+            {
+                nextInstances.add(memberId);
+            }
+            else if ((page.size() < pageSize) && (! exhaustedMembers.contains(memberId)))
+            {
+                /*
+                 * The next instance from this repository could be ahead of the instances from the
+                 * other repositories so the merge cannot continue until it has been retrieved.
+                 */
+                membersToQuery.add(memberId);
+                return true;
+            }
+        }
+
+        if (page.size() >= pageSize)
+        {
+            this.skipMergedDuplicates();
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Once the page is full, move past any copies of instances already in the page that are next in the
+     * buffers of the other repositories.  Otherwise the next page, continuing from the positions reached,
+     * would start with a duplicate of the last instance in this page.
+     */
+    private void skipMergedDuplicates()
+    {
+        for (String memberId : memberIds)
+        {
+            Deque<T> buffer = memberBuffers.get(memberId);
+
+            while ((! buffer.isEmpty()) &&
+                   (buffer.peekFirst() != null) &&
+                   (mergedGUIDs.contains(buffer.peekFirst().getGUID())))
+            {
+                buffer.pollFirst();
+                memberPositions.put(memberId, memberPositions.get(memberId) + 1);
+            }
+        }
+    }
+
+
+    /**
+     * Determine whether an instance should be merged into the results.
+     *
+     * @param instance instance returned by a repository
+     * @param memberId metadata collection id of the repository that returned the instance
+     * @return boolean flag - false means the instance is a duplicate
+     */
+    private boolean isNewInstance(T      instance,
+                                  String memberId)
+    {
+        if ((instance == null) || (instance.getGUID() == null))
+        {
+            return false;
+        }
+
+        String homeMetadataCollectionId = instance.getMetadataCollectionId();
+
+        if ((homeMetadataCollectionId != null) &&
+            (! homeMetadataCollectionId.equals(memberId)) &&
+            (respondingMembers.contains(homeMetadataCollectionId)))
+        {
+            return false;
+        }
+
+        return mergedGUIDs.add(instance.getGUID());
+    }
+
+
+    /**
+     * Return the merged page.  Where the same instance was returned by more than one repository, the latest
+     * version from the supplied list is returned.
+     *
+     * @param latestVersions list of the latest version of each instance returned by the repositories
+     * @return list of instances or null if the page is empty
+     */
+    public List<T> getPage(List<T> latestVersions)
+    {
+        if (page.isEmpty())
+        {
+            return null;
+        }
+
+        Map<String, T> latestVersionMap = new HashMap<>();
+
+        if (latestVersions != null)
+        {
+            for (T instance : latestVersions)
+            {
+                if (instance != null)
+                {
+                    latestVersionMap.put(instance.getGUID(), instance);
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>(page.size());
+
+        for (T instance : page)
+        {
+            T latestVersion = latestVersionMap.get(instance.getGUID());
+
+            if (latestVersion != null)
+            {
+                results.add(latestVersion);
+            }
+            else
+            {
+                results.add(instance);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the position reached in each repository.  These are the starting elements for the next page.
+     *
+     * @return map of metadata collection id to starting element or null if there are no more results
+     */
+    public Map<String, Integer> getNextMemberPositions()
+    {
+        if ((page.size() < pageSize) || (elementsToSkip > 0))
+        {
+            return null;
+        }
+
+        return new HashMap<>(memberPositions);
+    }
+}
@@ -3,28 +3,181 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
 
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * InstanceGraphAccumulator provides the accumulator for
  * an instance graph - this is a collection of related
- * entities and relationships.
+ * entities and relationships.  It removes duplicates from the graphs returned by each repository by
+ * choosing the latest version of each instance.
+ *
+ * This class may be called simultaneously from many different threads so it must be thread-safe.
  */
-public class InstanceGraphAccumulator extends QueryAccumulatorBase
+public class InstanceGraphAccumulator extends QueryInstanceAccumulatorBase
 {
+    private Map<String, EntityDetail> accumulatedEntities      = new HashMap<>();
+    private Map<String, Relationship> accumulatedRelationships = new HashMap<>();
+
+
     /**
-     * Construct a query accumulator.  This base class manages the common variables needed to
+     * Construct an instance graph accumulator.  Its base class manages the common variables needed to
      * control the execution of requests across all members of the cohort(s).
      *
      * @param localMetadataCollectionId collection Id of local repository - null means no local repository
      * @param auditLog audit log provides destination for log messages
      * @param repositoryValidator validator provides common validation routines
      */
-    InstanceGraphAccumulator(String                            localMetadataCollectionId,
-                             OMRSAuditLog                      auditLog,
-                             OMRSRepositoryValidator           repositoryValidator)
+    public InstanceGraphAccumulator(String                            localMetadataCollectionId,
+                                    OMRSAuditLog                      auditLog,
+                                    OMRSRepositoryValidator           repositoryValidator)
     {
         super(localMetadataCollectionId, auditLog, repositoryValidator);
     }
+
+
+    /**
+     * Add the instance graph returned by a repository to the accumulator.
+     *
+     * @param instanceGraph graph of entities and relationships - null means nothing was found
+     * @param metadataCollectionId source metadata collection
+     */
+    public synchronized void addInstanceGraph(InstanceGraph instanceGraph,
+                                              String        metadataCollectionId)
+    {
+        if (! isAccepting(metadataCollectionId))
+        {
+            return;
+        }
+
+        int numberOfElements = 0;
+
+        if (instanceGraph != null)
+        {
+            List<EntityDetail> entities = instanceGraph.getEntities();
+            if (entities != null)
+            {
+                for (EntityDetail entity : entities)
+                {
+                    if ((entity != null) && (entity.getGUID() != null))
+                    {
+                        this.addInstance(accumulatedEntities, entity.getGUID(), entity, metadataCollectionId);
+                        numberOfElements++;
+                    }
+                }
+            }
+
+            List<Relationship> relationships = instanceGraph.getRelationships();
+            if (relationships != null)
+            {
+                for (Relationship relationship : relationships)
+                {
+                    if ((relationship != null) && (relationship.getGUID() != null))
+                    {
+                        this.addInstance(accumulatedRelationships, relationship.getGUID(), relationship, metadataCollectionId);
+                        numberOfElements++;
+                    }
+                }
+            }
+        }
+
+        /*
+         * Even though results may not have been found it was still a successful request.
+         */
+        super.setResultsReturned(metadataCollectionId, numberOfElements);
+    }
+
+
+    /**
+     * Save an instance unless a later version has already been received.
+     *
+     * @param accumulatedInstances instances received so far
+     * @param instanceGUID unique identifier of the incoming instance
+     * @param incomingInstance instance returned from an open metadata repository
+     * @param metadataCollectionId source metadata collection
+     * @param <T> type of instance
+     */
+    private <T extends InstanceHeader> void addInstance(Map<String, T> accumulatedInstances,
+                                                        String         instanceGUID,
+                                                        T              incomingInstance,
+                                                        String         metadataCollectionId)
+    {
+        if (! super.currentInstanceIsBest(accumulatedInstances.get(instanceGUID), incomingInstance))
+        {
+            accumulatedInstances.put(instanceGUID, incomingInstance);
+
+            if ((metadataCollectionId != null) && (metadataCollectionId.equals(localMetadataCollectionId)))
+            {
+                super.captureLocalInstance(instanceGUID);
+            }
+        }
+    }
+
+
+    /**
+     * Extract the results - this is the combined graph made from the unique entities and relationships
+     * supplied to this accumulator.  It should be called once all of the executors have completed processing
+     * their request(s).  Results that arrive after this call are ignored.
+     *
+     * @param repositoryConnector enterprise connector
+     * @return instance graph or null if nothing was found
+     */
+    public synchronized InstanceGraph getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
+    {
+        super.closeAccumulation();
+
+        if (accumulatedEntities.isEmpty() && accumulatedRelationships.isEmpty())
+        {
+            return null;
+        }
+
+        this.makeRefreshRecommendations(repositoryConnector);
+
+        InstanceGraph instanceGraph = new InstanceGraph();
+
+        instanceGraph.setEntities(new ArrayList<>(accumulatedEntities.values()));
+        instanceGraph.setRelationships(new ArrayList<>(accumulatedRelationships.values()));
+
+        return instanceGraph;
+    }
+
+
+    /**
+     * Request a refresh of the instances that were retrieved from other repositories and not stored in the
+     * local repository.  This call should be made once all processing has stopped.
+     *
+     * @param repositoryConnector enterprise connector
+     */
+    private void makeRefreshRecommendations(EnterpriseOMRSRepositoryConnector repositoryConnector)
+    {
+        if ((localMetadataCollectionId == null) || (repositoryConnector == null))
+        {
+            return;
+        }
+
+        for (EntityDetail accumulatedEntity : accumulatedEntities.values())
+        {
+            if (super.notLocal(accumulatedEntity.getGUID()))
+            {
+                repositoryConnector.requestRefreshOfEntity(accumulatedEntity);
+            }
+        }
+
+        for (Relationship accumulatedRelationship : accumulatedRelationships.values())
+        {
+            if (super.notLocal(accumulatedRelationship.getGUID()))
+            {
+                repositoryConnector.requestRefreshOfRelationship(accumulatedRelationship);
+            }
+        }
+    }
 }
@@ -20,7 +20,8 @@ import java.util.Map;
  */
 public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
 {
-    private volatile Map<String, Relationship> accumulatedRelationships   = new HashMap<>();
+    private volatile Map<String, Relationship>       accumulatedRelationships = new HashMap<>();
+    private volatile Map<String, List<Relationship>> memberResults            = new HashMap<>();
 
 
     /**
@@ -85,6 +86,11 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addRelationships(List<Relationship>   relationships,
                                               String               metadataCollectionId)
     {
+        if (! isAccepting(metadataCollectionId))
+        {
+            return;
+        }
+
         if (relationships != null)
         {
             for (Relationship relationship : relationships)
@@ -93,9 +99,11 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
             }
 
             /*
-             * Record that this repository has returned results from the request.
+             * Record that this repository has returned results from the request.  The results are also
+             * saved in the order that the repository returned them in case they need to be merged into a page.
              */
             super.setResultsReturned(metadataCollectionId, relationships.size());
+            memberResults.put(metadataCollectionId, new ArrayList<>(relationships));
         }
         else
         {
@@ -103,10 +111,27 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
              * Even though results were not found it was still a successful request.
              */
             super.setResultsReturned(metadataCollectionId, 0);
+            memberResults.put(metadataCollectionId, new ArrayList<>());
         }
     }
 
 
+    /**
+     * Return the relationships received from each repository, in the order that each repository returned them,
+     * since the last call to this method.
+     *
+     * @return map of metadata collection id to list of relationships
+     */
+    public synchronized Map<String, List<Relationship>> takeMemberResults()
+    {
+        Map<String, List<Relationship>> results = memberResults;
+
+        memberResults = new HashMap<>();
+
+        return results;
+    }
+
+
     /**
      * Extract the results - this will the a unique list of relationships selected from the instances
      * supplied to this accumulator.  It should be called once all of the executors have completed processing
@@ -117,6 +142,8 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
      */
     public synchronized List<Relationship>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
+        super.closeAccumulation();
+
         if (accumulatedRelationships.isEmpty())
         {
             return null;
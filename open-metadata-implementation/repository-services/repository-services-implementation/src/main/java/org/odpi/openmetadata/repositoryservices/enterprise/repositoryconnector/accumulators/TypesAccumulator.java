@@ -104,6 +104,11 @@ public class TypesAccumulator extends QueryAccumulatorBase
     public synchronized void addTypeDefGallery(TypeDefGallery types,
                                                String         metadataCollectionId)
     {
+        if (! isAccepting(metadataCollectionId))
+        {
+            return;
+        }
+
         int numberOrAttributeTypeDefs = 0;
         int numberOfTypeDefs = 0;
 
@@ -141,6 +146,8 @@ public class TypesAccumulator extends QueryAccumulatorBase
      */
     public synchronized TypeDefGallery  getResults()
     {
+        super.closeAccumulation();
+
         if (accumulatedAttributeTypeDefs.isEmpty() && (accumulatedTypeDefs.isEmpty()))
         {
             return null;
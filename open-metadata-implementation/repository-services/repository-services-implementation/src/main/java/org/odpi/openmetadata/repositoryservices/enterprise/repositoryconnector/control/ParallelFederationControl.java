@@ -2,20 +2,58 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
 
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * The executor is called once for each repository from a worker thread supplied by the enterprise connector.
+ * The executors gather their results into a shared accumulator, which is thread-safe.
+ *
+ * Each repository has the same amount of time to respond.  The requests to repositories that do not respond
+ * in time are cancelled and the query completes with the results from the other repositories.  Since a
+ * repository call may not respond to the interrupt, the executor is also told to ignore any response from the
+ * abandoned repository so the worker thread can not change the accumulated results after they have been read.
+ * Both slow and timed out repositories are recorded in the audit log.
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses a sequential since the
-    // todo worker threads are not implemented.
+    private static final Logger log = LoggerFactory.getLogger(ParallelFederationControl.class);
+
+    private ExecutorService workers;
+    private long            repositoryRequestTimeout;
+    private OMRSAuditLog    auditLog;
+
+
+    /**
+     * Constructor for a federated query that calls each repository in turn from the calling thread.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     String                        methodName)
+    {
+        this(userId, cohortConnectors, null, 0, null, methodName);
+    }
 
 
     /**
@@ -23,14 +61,23 @@ public class ParallelFederationControl extends FederationControlBase
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
+     * @param workers pool of threads to issue the requests to the repositories (null means use the calling thread)
+     * @param repositoryRequestTimeout time in milliseconds to wait for each repository (zero or less means wait forever)
+     * @param auditLog audit log for slow and timed out repositories
      * @param methodName calling method
      */
     public ParallelFederationControl(String                        userId,
                                      List<OMRSRepositoryConnector> cohortConnectors,
+                                     ExecutorService               workers,
+                                     long                          repositoryRequestTimeout,
+                                     OMRSAuditLog                  auditLog,
                                      String                        methodName)
     {
         super(userId, cohortConnectors, methodName);
 
+        this.workers = workers;
+        this.repositoryRequestTimeout = repositoryRequestTimeout;
+        this.auditLog = auditLog;
     }
 
 
@@ -45,17 +92,256 @@ public class ParallelFederationControl extends FederationControlBase
     {
         if (super.cohortConnectors != null)
         {
+            List<RepositoryRequest> requests = new ArrayList<>();
+
             for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
             {
                 if (cohortConnector != null)
                 {
-                    OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                    requests.add(new RepositoryRequest(cohortConnector, executor));
+                }
+            }
+
+            /*
+             * There is no value in passing a single request to another thread.  This is the usual case for
+             * a server that is not connected to a cohort.
+             */
+            if ((workers == null) || (requests.size() == 1))
+            {
+                for (RepositoryRequest request : requests)
+                {
+                    request.call();
+                    this.checkElapsedTime(request);
+                }
+
+                return;
+            }
+
+            this.executeInParallel(requests);
+        }
+    }
+
+
+    /**
+     * Pass the requests to the worker threads and wait for them to complete.  The timeout is measured from
+     * the start of the query so the wait is no longer than the timeout even though each request is waited
+     * for in turn.
+     *
+     * @param requests requests for each repository
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     */
+    private void executeInParallel(List<RepositoryRequest> requests) throws RepositoryErrorException
+    {
+        List<Future<Void>> responses = new ArrayList<>(requests.size());
+
+        for (RepositoryRequest request : requests)
+        {
+            try
+            {
+                responses.add(workers.submit(request));
+            }
+            catch (RejectedExecutionException error)
+            {
+                /*
+                 * Either the queue of work for the worker threads is full or the worker threads have been
+                 * shut down because the server is stopping.  Running the request in the calling thread
+                 * slows down the callers while the workers are saturated rather than queuing without limit.
+                 */
+                log.debug("Request to repository run in calling thread", error);
+                request.call();
+                responses.add(null);
+            }
+        }
+
+        long                     deadline             = System.currentTimeMillis() + repositoryRequestTimeout;
+        RepositoryErrorException firstRepositoryError = null;
+
+        for (int i = 0; i < requests.size(); i++)
+        {
+            RepositoryRequest request  = requests.get(i);
+            Future<Void>      response = responses.get(i);
+
+            try
+            {
+                if (response != null)
+                {
+                    if (repositoryRequestTimeout > 0)
+                    {
+                        response.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                    }
+                    else
+                    {
+                        response.get();
+                    }
+                }
+
+                this.checkElapsedTime(request);
+            }
+            catch (TimeoutException error)
+            {
+                this.abandonRequest(request, response);
+                this.logTimeout(request);
+            }
+            catch (ExecutionException error)
+            {
+                if ((error.getCause() instanceof RepositoryErrorException) && (firstRepositoryError == null))
+                {
+                    firstRepositoryError = (RepositoryErrorException) error.getCause();
+                }
+            }
+            catch (InterruptedException error)
+            {
+                /*
+                 * The calling thread is being stopped so the outstanding requests are abandoned.
+                 */
+                for (int j = i; j < responses.size(); j++)
+                {
+                    this.abandonRequest(requests.get(j), responses.get(j));
+                }
+
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (firstRepositoryError != null)
+        {
+            throw firstRepositoryError;
+        }
+    }
 
-                    String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
 
-                    executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+    /**
+     * Stop waiting for a request.  The executor ignores any response that arrives from the repository
+     * after this call and then the worker thread is interrupted (or the request removed from the queue
+     * if it has not started).
+     *
+     * @param request request to abandon
+     * @param response future for the request (null if the request ran in the calling thread)
+     */
+    private void abandonRequest(RepositoryRequest request,
+                                Future<Void>      response)
+    {
+        if (response != null)
+        {
+            request.executor.abandonRequestToRepository(request.metadataCollectionId);
+            response.cancel(true);
+        }
+    }
+
+
+    /**
+     * Record a repository that took more than half of the timeout to respond.
+     *
+     * @param request completed request
+     */
+    private void checkElapsedTime(RepositoryRequest request)
+    {
+        if ((auditLog != null) && (repositoryRequestTimeout > 0) && (request.elapsedTime > repositoryRequestTimeout / 2))
+        {
+            final String actionDescription = "Federated query";
+
+            OMRSAuditCode auditCode = OMRSAuditCode.SLOW_FEDERATED_REQUEST;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(methodName,
+                                                                request.metadataCollectionId,
+                                                                Long.toString(request.elapsedTime),
+                                                                Long.toString(repositoryRequestTimeout)),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Record a repository that did not respond in time.
+     *
+     * @param request cancelled request
+     */
+    private void logTimeout(RepositoryRequest request)
+    {
+        if (auditLog != null)
+        {
+            final String actionDescription = "Federated query";
+
+            OMRSAuditCode auditCode = OMRSAuditCode.FEDERATED_REQUEST_TIMED_OUT;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(methodName,
+                                                                request.metadataCollectionId,
+                                                                Long.toString(repositoryRequestTimeout)),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * RepositoryRequest issues the federated command to a single repository and records how long it took.
+     * The metadata collection id is retrieved in the worker thread since it may need a call to a remote server.
+     */
+    private class RepositoryRequest implements Callable<Void>
+    {
+        private final OMRSRepositoryConnector cohortConnector;
+        private final RepositoryExecutor      executor;
+
+        private volatile String metadataCollectionId;
+        private volatile long   elapsedTime = 0;
+
+
+        /**
+         * Constructor for a request to a single repository.
+         *
+         * @param cohortConnector connector to the repository
+         * @param executor command to execute
+         */
+        RepositoryRequest(OMRSRepositoryConnector cohortConnector,
+                          RepositoryExecutor      executor)
+        {
+            this.cohortConnector = cohortConnector;
+            this.executor = executor;
+            this.metadataCollectionId = cohortConnector.getMetadataCollectionId();
+        }
+
+
+        /**
+         * Issue the command to the repository.
+         *
+         * @return null
+         * @throws RepositoryErrorException the repository has no metadata collection
+         */
+        public Void call() throws RepositoryErrorException
+        {
+            long startTime = System.currentTimeMillis();
+
+            try
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                String validatedMetadataCollectionId = validateMetadataCollection(metadataCollection, methodName);
+
+                /*
+                 * The identifier from the connector is kept if the metadata collection can not supply one
+                 * so that the executor can still ignore the response if the request is abandoned.
+                 */
+                if (validatedMetadataCollectionId != null)
+                {
+                    metadataCollectionId = validatedMetadataCollectionId;
                 }
+
+                executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
             }
+            finally
+            {
+                elapsedTime = System.currentTimeMillis() - startTime;
+            }
+
+            return null;
         }
     }
 }
@@ -12,6 +12,8 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.a
  */
 abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase implements CloneableRepositoryExecutor
 {
+    private QueryAccumulatorBase queryAccumulator;
+
     CloneableRepositoryExecutorBase(String               userId,
                                     String               methodName,
                                     QueryAccumulatorBase accumulator)
@@ -19,5 +21,20 @@ abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase im
         super(userId, methodName);
 
         accumulator.registerExecutor();
+
+        this.queryAccumulator = accumulator;
+    }
+
+
+    /**
+     * Ignore any results or exceptions from the repository that arrive after this call.  This prevents a
+     * worker thread that is still waiting for a repository that has timed out from changing the results
+     * of the query.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     */
+    public void abandonRequestToRepository(String metadataCollectionId)
+    {
+        queryAccumulator.abandonMember(metadataCollectionId);
     }
 }
@@ -16,12 +16,13 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FindEntitiesByClassificationExecutor is the executor for the findEntitiesByClassification request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindEntitiesByClassificationExecutor extends PageableRepositoryExecutorBase
+public class FindEntitiesByClassificationExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<EntityDetail>
 {
     private String             classificationName;
     private InstanceProperties matchClassificationProperties;
@@ -191,12 +192,12 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         this.getStartingElement(metadataCollectionId),
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
                                                                                          sequencingOrder,
-                                                                                         pageSize);
+                                                                                         this.getPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
 
@@ -242,6 +243,17 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of entities that the repository returned
+     */
+    public Map<String, List<EntityDetail>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results or exception.
      *
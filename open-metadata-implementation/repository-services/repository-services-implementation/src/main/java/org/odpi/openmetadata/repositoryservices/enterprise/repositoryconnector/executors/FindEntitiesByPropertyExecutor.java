@@ -16,12 +16,13 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FindEntitiesByPropertyExecutor is the executor for the findEntitiesByProperty request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBase
+public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<EntityDetail>
 {
     private InstanceProperties matchProperties;
     private MatchCriteria      matchCriteria;
@@ -189,13 +190,13 @@ public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBa
                                                                                    instanceTypeGUID,
                                                                                    matchProperties,
                                                                                    matchCriteria,
-                                                                                   startingElement,
+                                                                                   this.getStartingElement(metadataCollectionId),
                                                                                    limitResultsByStatus,
                                                                                    limitResultsByClassification,
                                                                                    asOfTime,
                                                                                    sequencingProperty,
                                                                                    sequencingOrder,
-                                                                                   pageSize);
+                                                                                   this.getPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -236,6 +237,17 @@ public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBa
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of entities that the repository returned
+     */
+    public Map<String, List<EntityDetail>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results or exception.
      *
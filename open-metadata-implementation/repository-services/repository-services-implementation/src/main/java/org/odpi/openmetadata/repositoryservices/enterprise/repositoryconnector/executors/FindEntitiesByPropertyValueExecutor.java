@@ -14,12 +14,13 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FindEntitiesByPropertyValueExecutor is the executor for the findEntitiesByPropertyValue request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecutorBase
+public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<EntityDetail>
 {
     private String             searchCriteria;
     private List<String>       limitResultsByClassification;
@@ -181,13 +182,13 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
             List<EntityDetail> results = metadataCollection.findEntitiesByPropertyValue(userId,
                                                                                         instanceTypeGUID,
                                                                                         searchCriteria,
-                                                                                        startingElement,
+                                                                                        this.getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        this.getPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -228,6 +229,17 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of entities that the repository returned
+     */
+    public Map<String, List<EntityDetail>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results or exception.
      *
@@ -16,13 +16,14 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * FindRelationshipsByPropertyExecutor is the executor for the findRelationshipsByProperty request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecutorBase
+public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<Relationship>
 {
     private InstanceProperties matchProperties;
     private MatchCriteria      matchCriteria;
@@ -188,12 +189,12 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
                                                                                         instanceTypeGUID,
                                                                                         matchProperties,
                                                                                         matchCriteria,
-                                                                                        startingElement,
+                                                                                        this.getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        this.getPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -234,6 +235,17 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of relationships that the repository returned
+     */
+    public Map<String, List<Relationship>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results of the combined requests.
      *
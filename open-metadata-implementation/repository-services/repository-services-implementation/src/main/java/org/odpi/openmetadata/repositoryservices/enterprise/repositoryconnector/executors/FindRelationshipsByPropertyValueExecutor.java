@@ -14,13 +14,14 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * FindRelationshipsByPropertyValueExecutor is the executor for the findRelationshipsByPropertyValue request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindRelationshipsByPropertyValueExecutor extends PageableRepositoryExecutorBase
+public class FindRelationshipsByPropertyValueExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<Relationship>
 {
     private String searchCriteria;
 
@@ -176,12 +177,12 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
             List<Relationship> results = metadataCollection.findRelationshipsByPropertyValue(userId,
                                                                                              instanceTypeGUID,
                                                                                              searchCriteria,
-                                                                                             startingElement,
+                                                                                             this.getStartingElement(metadataCollectionId),
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
                                                                                              sequencingOrder,
-                                                                                             pageSize);
+                                                                                             this.getPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -222,6 +223,17 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of relationships that the repository returned
+     */
+    public Map<String, List<Relationship>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results of the combined requests.
      *
@@ -0,0 +1,214 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.InstanceGraphAccumulator;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * GetLinkingEntitiesExecutor is the executor for the getLinkingEntities request.
+ * This request can be issued in parallel - the call to each request potentially running in a different thread.
+ */
+public class GetLinkingEntitiesExecutor extends CloneableRepositoryExecutorBase
+{
+    private String                   startEntityGUID;
+    private String                   endEntityGUID;
+    private List<InstanceStatus>     limitResultsByStatus;
+    private Date                     asOfTime;
+    private InstanceGraphAccumulator accumulator;
+
+
+    /**
+     * Create the executor.  The parameters provide the parameters for issuing the requests and
+     * combining the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param startEntityGUID The entity that is used to anchor the query.
+     * @param endEntityGUID the other entity that defines the scope of the query.
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param localMetadataCollectionId unique identifier for the local repository - may be null if no local repository
+     * @param auditLog logging destination
+     * @param repositoryValidator validator for resulting instances
+     * @param methodName calling method
+     */
+    public GetLinkingEntitiesExecutor(String                  userId,
+                                      String                  startEntityGUID,
+                                      String                  endEntityGUID,
+                                      List<InstanceStatus>    limitResultsByStatus,
+                                      Date                    asOfTime,
+                                      String                  localMetadataCollectionId,
+                                      OMRSAuditLog            auditLog,
+                                      OMRSRepositoryValidator repositoryValidator,
+                                      String                  methodName)
+    {
+        this(userId,
+             startEntityGUID,
+             endEntityGUID,
+             limitResultsByStatus,
+             asOfTime,
+             new InstanceGraphAccumulator(localMetadataCollectionId, auditLog, repositoryValidator),
+             methodName);
+    }
+
+
+    /**
+     * Create the executor.  The parameters provide the parameters for issuing the requests and
+     * combining the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param startEntityGUID The entity that is used to anchor the query.
+     * @param endEntityGUID the other entity that defines the scope of the query.
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param accumulator location for results and returned exceptions
+     * @param methodName calling method
+     */
+    private GetLinkingEntitiesExecutor(String                   userId,
+                                       String                   startEntityGUID,
+                                       String                   endEntityGUID,
+                                       List<InstanceStatus>     limitResultsByStatus,
+                                       Date                     asOfTime,
+                                       InstanceGraphAccumulator accumulator,
+                                       String                   methodName)
+    {
+        super(userId, methodName, accumulator);
+
+        this.startEntityGUID = startEntityGUID;
+        this.endEntityGUID = endEntityGUID;
+        this.limitResultsByStatus = limitResultsByStatus;
+        this.asOfTime = asOfTime;
+        this.accumulator = accumulator;
+    }
+
+
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     * This is used when setting up the parallel execution of the work.  Each clone executes
+     * the calls to a single open metadata repository.
+     *
+     * @return clone of this executor
+     */
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetLinkingEntitiesExecutor(userId,
+                                              startEntityGUID,
+                                              endEntityGUID,
+                                              limitResultsByStatus,
+                                              asOfTime,
+                                              accumulator,
+                                              methodName);
+    }
+
+
+    /**
+     * Perform the required action for the supplied repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @return boolean true means that the required results have been achieved
+     */
+    public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                            OMRSMetadataCollection metadataCollection)
+    {
+        try
+        {
+            /*
+             * Issue the request
+             */
+            InstanceGraph results = metadataCollection.getLinkingEntities(userId,
+                                                                          startEntityGUID,
+                                                                          endEntityGUID,
+                                                                          limitResultsByStatus,
+                                                                          asOfTime);
+
+            accumulator.addInstanceGraph(results, metadataCollectionId);
+        }
+        catch (InvalidParameterException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (EntityNotKnownException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (RepositoryErrorException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            accumulator.captureException(metadataCollectionId, error);
+        }
+        catch (Throwable error)
+        {
+            accumulator.captureGenericException(metadataCollectionId, error);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the results or exception.  Responses that arrive after this call are ignored.
+     *
+     * @param repositoryConnector enterprise connector
+     * @return the sub-graph that represents the returned linked entities and their relationships.  Null means
+     * nothing was found.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws EntityNotKnownException the entity identified by either the startEntityGUID or the endEntityGUID
+     *                                   is not found in the metadata collection.
+     * @throws PropertyErrorException there is a problem with one of the other parameters.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public InstanceGraph getResults(EnterpriseOMRSRepositoryConnector repositoryConnector) throws InvalidParameterException,
+                                                                                                  RepositoryErrorException,
+                                                                                                  EntityNotKnownException,
+                                                                                                  PropertyErrorException,
+                                                                                                  FunctionNotSupportedException,
+                                                                                                  UserNotAuthorizedException
+    {
+        InstanceGraph results = accumulator.getResults(repositoryConnector);
+
+        if (results != null)
+        {
+            return results;
+        }
+
+        accumulator.throwCapturedUserNotAuthorizedException();
+        accumulator.throwCapturedRepositoryErrorException();
+        accumulator.throwCapturedPropertyErrorException();
+        accumulator.throwCapturedThrowableException(methodName);
+        accumulator.throwCapturedInvalidParameterException();
+        accumulator.throwCapturedFunctionNotSupportedException();
+        accumulator.throwCapturedEntityNotKnownException();
+
+        return null;
+    }
+}
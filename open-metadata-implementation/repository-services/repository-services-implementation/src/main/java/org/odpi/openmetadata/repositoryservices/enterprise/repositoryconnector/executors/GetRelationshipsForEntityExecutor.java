@@ -14,13 +14,14 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * GetRelationshipsForEntityExecutor is the executor for the getRelationshipsForEntity request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecutorBase
+public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecutorBase implements PageableRepositoryExecutor<Relationship>
 {
     private String                  entityGUID;
     private RelationshipAccumulator accumulator;
@@ -171,12 +172,12 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
             List<Relationship> results = metadataCollection.getRelationshipsForEntity(userId,
                                                                                       entityGUID,
                                                                                       instanceTypeGUID,
-                                                                                      startingElement,
+                                                                                      this.getStartingElement(metadataCollectionId),
                                                                                       limitResultsByStatus,
                                                                                       asOfTime,
                                                                                       sequencingProperty,
                                                                                       sequencingOrder,
-                                                                                      pageSize);
+                                                                                      this.getPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -221,6 +222,17 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
     }
 
 
+    /**
+     * Return the results received from each repository since the last call to this method.
+     *
+     * @return map of metadata collection id to the list of relationships that the repository returned
+     */
+    public Map<String, List<Relationship>> takeMemberResults()
+    {
+        return accumulator.takeMemberResults();
+    }
+
+
     /**
      * Return the results of the combined requests.
      *
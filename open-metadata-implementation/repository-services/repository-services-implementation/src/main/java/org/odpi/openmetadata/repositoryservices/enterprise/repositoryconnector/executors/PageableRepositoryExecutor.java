@@ -0,0 +1,37 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageableRepositoryExecutor describes the interface for a repository executor that returns pages of instances.
+ * It allows the enterprise connector to request a different part of the results from each repository and
+ * retrieve the results from each repository in the order that the repository returned them.  This is needed
+ * to merge the results into a single page.
+ *
+ * @param <T> type of instance returned
+ */
+public interface PageableRepositoryExecutor<T extends InstanceHeader> extends RepositoryExecutor, CloneableRepositoryExecutor
+{
+    /**
+     * Set up the starting element for each repository and the page size to request from them.
+     *
+     * @param memberStartingElements map of metadata collection id to starting element for that repository
+     * @param memberPageSize maximum number of elements to request from each repository
+     */
+    void setMemberPaging(Map<String, Integer> memberStartingElements,
+                         int                  memberPageSize);
+
+
+    /**
+     * Return the results received from each repository since the last call to this method.
+     * The repositories that did not return results are not included in the map.
+     *
+     * @return map of metadata collection id to the list of instances that the repository returned
+     */
+    Map<String, List<T>> takeMemberResults();
+}
@@ -10,10 +10,12 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
- * CloneableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
- * parallel so the call to each repository runs in a different thread.
+ * PageableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
+ * parallel so the call to each repository runs in a different thread.  It also supports federated paging
+ * where each repository is called with its own starting element.
  */
 abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecutorBase
 {
@@ -28,6 +30,9 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
 
     private QueryInstanceAccumulatorBase queryInstanceAccumulator;
 
+    private volatile Map<String, Integer> memberStartingElements = null;
+    private volatile int                  memberPageSize         = 0;
+
     /**
      * Create the executor.  The parameters provide the parameters for issuing the requests and
      * combining the results.
@@ -68,6 +73,57 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
     }
 
 
+    /**
+     * Set up the starting element for each repository and the page size to request from them.  This is used when
+     * the enterprise connector merges the results from many repositories into a single page.  The original
+     * starting element is used for any repository that is not in the map.
+     *
+     * @param memberStartingElements map of metadata collection id to starting element for that repository
+     * @param memberPageSize maximum number of elements to request from each repository
+     */
+    public void setMemberPaging(Map<String, Integer> memberStartingElements,
+                                int                  memberPageSize)
+    {
+        this.memberPageSize = memberPageSize;
+        this.memberStartingElements = memberStartingElements;
+    }
+
+
+    /**
+     * Return the starting element to request from a specific repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @return page start pointer
+     */
+    int getStartingElement(String metadataCollectionId)
+    {
+        Map<String, Integer> startingElements = memberStartingElements;
+
+        if ((startingElements != null) && (startingElements.get(metadataCollectionId) != null))
+        {
+            return startingElements.get(metadataCollectionId);
+        }
+
+        return startingElement;
+    }
+
+
+    /**
+     * Return the maximum number of elements to request from each repository.
+     *
+     * @return page size
+     */
+    int getPageSize()
+    {
+        if (memberStartingElements != null)
+        {
+            return memberPageSize;
+        }
+
+        return pageSize;
+    }
+
+
     /**
      * Return any of the exceptions that are common to paging requests.
      *
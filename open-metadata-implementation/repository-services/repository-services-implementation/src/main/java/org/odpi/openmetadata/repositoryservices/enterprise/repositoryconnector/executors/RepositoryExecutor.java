@@ -16,4 +16,13 @@ public interface RepositoryExecutor
      */
     boolean issueRequestToRepository(String                 metadataCollectionId,
                                      OMRSMetadataCollection metadataCollection);
+
+
+    /**
+     * Ignore any response from the repository that arrives after this call.  This is used when the request
+     * to the repository has timed out and the thread calling the repository can not be stopped.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     */
+    void abandonRequestToRepository(String metadataCollectionId);
 }
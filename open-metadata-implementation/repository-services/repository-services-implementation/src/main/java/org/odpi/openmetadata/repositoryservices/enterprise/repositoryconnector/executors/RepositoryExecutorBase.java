@@ -33,6 +33,17 @@ public abstract class RepositoryExecutorBase implements RepositoryExecutor
     }
 
 
+    /**
+     * Ignore any response from the repository that arrives after this call.  The executors that
+     * are not run in parallel do not need to do anything.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     */
+    public void abandonRequestToRepository(String metadataCollectionId)
+    {
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
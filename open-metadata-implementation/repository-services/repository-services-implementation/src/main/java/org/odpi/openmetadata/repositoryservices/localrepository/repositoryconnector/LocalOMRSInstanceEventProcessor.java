@@ -19,6 +19,8 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.eventmanagement.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -1352,14 +1354,139 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                           String         originatorOrganizationName,
                                           InstanceGraph  instances)
     {
-        final String methodName = "processInstanceBatchEvent";
+        final String methodName                = "processInstanceBatchEvent";
+        final String entityParameterName       = "entity";
+        final String relationshipParameterName = "relationship";
 
         try
         {
             verifyEventProcessor(methodName);
 
-            localMetadataCollection.saveInstanceReferenceCopies(localRepositoryConnector.getServerUserId(),
-                                                                instances);
+            if (instances == null)
+            {
+                return;
+            }
+
+            /*
+             * Each instance is checked in the same way as it would be if it arrived in its own event.
+             * The instances that pass are saved in a single request so the repository can store them together.
+             */
+            List<EntityDetail> entities      = new ArrayList<>();
+            List<Relationship> relationships = new ArrayList<>();
+
+            if (instances.getEntities() != null)
+            {
+                for (EntityDetail entity : instances.getEntities())
+                {
+                    if ((entity == null) || (localMetadataCollectionId.equals(entity.getMetadataCollectionId())))
+                    {
+                        continue;
+                    }
+
+                    try
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(sourceName,
+                                                                            localMetadataCollectionId,
+                                                                            entityParameterName,
+                                                                            entity,
+                                                                            methodName);
+
+                        EntityDetail storedEntity = localMetadataCollection.isEntityKnown(localRepositoryConnector.getServerUserId(),
+                                                                                          entity.getGUID());
+
+                        if ((compareAndValidateReferenceInstance(originatorServerName, entity, storedEntity, methodName)) &&
+                            (verifyEventToSave(sourceName, entity)))
+                        {
+                            entities.add(entity);
+                        }
+                    }
+                    catch (Throwable error)
+                    {
+                        handleUnexpectedErrorFromEvent(error,
+                                                       methodName,
+                                                       originatorServerName,
+                                                       originatorMetadataCollectionId);
+                    }
+                }
+            }
+
+            if (instances.getRelationships() != null)
+            {
+                for (Relationship relationship : instances.getRelationships())
+                {
+                    if ((relationship == null) || (localMetadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                    {
+                        continue;
+                    }
+
+                    try
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(sourceName,
+                                                                            localMetadataCollectionId,
+                                                                            relationshipParameterName,
+                                                                            relationship,
+                                                                            methodName);
+
+                        if (verifyEventToSave(sourceName, relationship))
+                        {
+                            relationships.add(relationship);
+                        }
+                    }
+                    catch (Throwable error)
+                    {
+                        handleUnexpectedErrorFromEvent(error,
+                                                       methodName,
+                                                       originatorServerName,
+                                                       originatorMetadataCollectionId);
+                    }
+                }
+            }
+
+            if ((! entities.isEmpty()) || (! relationships.isEmpty()))
+            {
+                try
+                {
+                    localMetadataCollection.saveInstanceReferenceCopies(localRepositoryConnector.getServerUserId(),
+                                                                        new InstanceGraph(entities, relationships));
+                }
+                catch (Throwable error)
+                {
+                    /*
+                     * A repository may stop at the first instance it can not save.  Saving the instances one at
+                     * a time means the error is reported against the instance that caused it and the rest are saved.
+                     */
+                    for (EntityDetail entity : entities)
+                    {
+                        try
+                        {
+                            localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
+                        }
+                        catch (Throwable entityError)
+                        {
+                            handleUnexpectedErrorFromEvent(entityError,
+                                                           methodName,
+                                                           originatorServerName,
+                                                           originatorMetadataCollectionId);
+                        }
+                    }
+
+                    for (Relationship relationship : relationships)
+                    {
+                        try
+                        {
+                            localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
+                                                                                  relationship);
+                        }
+                        catch (Throwable relationshipError)
+                        {
+                            handleUnexpectedErrorFromEvent(relationshipError,
+                                                           methodName,
+                                                           originatorServerName,
+                                                           originatorMetadataCollectionId);
+                        }
+                    }
+                }
+            }
         }
         catch (Throwable error)
         {
@@ -1304,6 +1304,47 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return the header, classifications and properties of a batch of entities.  Entities that are not known,
+     * or are only proxies, are left out of the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return list of EntityDetail structures.  Null means none of the entities are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> getEntitiesDetail(String       userId,
+                                                List<String> guids) throws InvalidParameterException,
+                                                                           RepositoryErrorException,
+                                                                           UserNotAuthorizedException
+    {
+        final String  methodName        = "getEntitiesDetail";
+
+        /*
+         * Validate parameters
+         */
+        if (guids == null)
+        {
+            return null;
+        }
+
+        for (String guid : guids)
+        {
+            super.getInstanceParameterValidation(userId, guid, methodName);
+        }
+
+        /*
+         * Perform operation
+         */
+        List<EntityDetail>  resultList = realMetadataCollection.getEntitiesDetail(userId, guids);
+
+        return setLocalProvenanceInEntityList(resultList);
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -1382,6 +1423,75 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return the relationships for a batch of entities.  Each relationship is returned once, even if it links
+     * two of the requested entities.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers for the entities.
+     * @param relationshipTypeGUID String GUID of the the type of relationship required (null for all).
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entities.  Null means return the
+     *                 present values.
+     * @return Relationships list.  Null means no relationships associated with the entities.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws PropertyErrorException the relationships could not be sequenced.
+     * @throws PagingErrorException the paging parameters used to retrieve the relationships were rejected.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationshipsForEntities(String                     userId,
+                                                          List<String>               entityGUIDs,
+                                                          String                     relationshipTypeGUID,
+                                                          List<InstanceStatus>       limitResultsByStatus,
+                                                          Date                       asOfTime) throws InvalidParameterException,
+                                                                                                      TypeErrorException,
+                                                                                                      RepositoryErrorException,
+                                                                                                      PropertyErrorException,
+                                                                                                      PagingErrorException,
+                                                                                                      FunctionNotSupportedException,
+                                                                                                      UserNotAuthorizedException
+    {
+        /*
+         * Validate parameters
+         */
+        if (entityGUIDs == null)
+        {
+            return null;
+        }
+
+        for (String entityGUID : entityGUIDs)
+        {
+            super.getRelationshipsForEntityParameterValidation(userId,
+                                                               entityGUID,
+                                                               relationshipTypeGUID,
+                                                               0,
+                                                               limitResultsByStatus,
+                                                               asOfTime,
+                                                               null,
+                                                               null,
+                                                               0);
+        }
+
+        /*
+         * Perform operation
+         */
+        List<Relationship>  resultList = realMetadataCollection.getRelationshipsForEntities(userId,
+                                                                                            entityGUIDs,
+                                                                                            relationshipTypeGUID,
+                                                                                            limitResultsByStatus,
+                                                                                            asOfTime);
+
+        return setLocalProvenanceInRelationshipList(resultList);
+    }
+
+
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
      * can be returned over many pages.
@@ -1760,6 +1870,47 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return the current version of a batch of relationships.  Relationships that are not known are left out
+     * of the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return list of relationship structures.  Null means none of the relationships are known.
+     * @throws InvalidParameterException one of the guids is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> getRelationships(String       userId,
+                                               List<String> guids) throws InvalidParameterException,
+                                                                          RepositoryErrorException,
+                                                                          UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationships";
+
+        /*
+         * Validate parameters
+         */
+        if (guids == null)
+        {
+            return null;
+        }
+
+        for (String guid : guids)
+        {
+            super.getInstanceParameterValidation(userId, guid, methodName);
+        }
+
+        /*
+         * Process operation
+         */
+        List<Relationship>  resultList = realMetadataCollection.getRelationships(userId, guids);
+
+        return setLocalProvenanceInRelationshipList(resultList);
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be received as a series of pages.
@@ -4280,6 +4431,94 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Save the entities and relationships supplied in the instance graph as a reference copies.
+     * The id of the home metadata collection is already set up in the instances.
+     * Any instances from the home metadata collection are ignored.  The remaining instances are validated
+     * and passed to the real repository in a single call so that it can save them together.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param instances instances to save.
+     * @throws InvalidParameterException one of the instances is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by the relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for this relationship's type.
+     * @throws EntityConflictException the new entity conflicts with an existing entity.
+     * @throws InvalidEntityException the new entity has invalid contents.
+     * @throws RelationshipConflictException the new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException the new relationship has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              EntityNotKnownException,
+                                                                              PropertyErrorException,
+                                                                              EntityConflictException,
+                                                                              RelationshipConflictException,
+                                                                              InvalidEntityException,
+                                                                              InvalidRelationshipException,
+                                                                              FunctionNotSupportedException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName                = "saveInstanceReferenceCopies";
+        final String  entityParameterName       = "entity";
+        final String  relationshipParameterName = "relationship";
+
+        if (instances == null)
+        {
+            return;
+        }
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        /*
+         * Validate parameters
+         */
+        if (instances.getEntities() != null)
+        {
+            for (EntityDetail entity : instances.getEntities())
+            {
+                if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
+                {
+                    super.saveReferenceInstanceParameterValidation(userId, entity, entityParameterName, methodName);
+                    entities.add(entity);
+                }
+            }
+        }
+
+        if (instances.getRelationships() != null)
+        {
+            for (Relationship relationship : instances.getRelationships())
+            {
+                if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                {
+                    super.saveReferenceInstanceParameterValidation(userId, relationship, relationshipParameterName, methodName);
+                    relationships.add(relationship);
+                }
+            }
+        }
+
+        if (entities.isEmpty() && relationships.isEmpty())
+        {
+            return;
+        }
+
+        /*
+         * Save instances
+         */
+        realMetadataCollection.saveInstanceReferenceCopies(userId, new InstanceGraph(entities, relationships));
+    }
+
+
     /**
      * The local server has requested that the repository that hosts the home metadata collection for the
      * specified relationship sends out the details of this relationship so the local repository can create a
@@ -7,6 +7,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.InstanceSequencingComparator;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
@@ -650,6 +651,24 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
     }
 
 
+    /**
+     * Return the names of all of the types that inherit from the named type, directly or indirectly.
+     *
+     * @param sourceName source of the request (used for logging)
+     * @param superTypeName name of the super type
+     * @return list of type names or null if the type has no subtypes
+     */
+    public List<String> getSubTypesOf(String sourceName,
+                                      String superTypeName)
+    {
+        final String  methodName = "getSubTypesOf";
+
+        validateRepositoryContentManager(methodName);
+
+        return repositoryContentManager.getSubTypesOf(sourceName, superTypeName);
+    }
+
+
     /**
      * Remember the metadata collection name for this metadata collection Id. If the metadata collection id
      * is null, it is ignored.
@@ -3163,28 +3182,7 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
                                                    int                  pageSize) throws PagingErrorException,
                                                                                          PropertyErrorException
     {
-        if (fullResults == null)
-        {
-            return null;
-        }
-
-        if (fullResults.isEmpty())
-        {
-            return null;
-        }
-
-        int fullResultsSize =fullResults.size();
-
-        List<EntityDetail>  sortedResults = fullResults;
-        // todo sort list according to properties
-
-        if ((pageSize == 0) || (pageSize > sortedResults.size()))
-        {
-            return sortedResults;
-        }
-
-        int toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        return this.formatInstanceResults(fullResults, fromElement, sequencingProperty, sequencingOrder, pageSize);
     }
 
 
@@ -3212,33 +3210,64 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
                                                          int                  pageSize) throws PagingErrorException,
                                                                                                PropertyErrorException
     {
-        if (fullResults == null)
-        {
-            return null;
-        }
+        return this.formatInstanceResults(fullResults, fromElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
 
-        if (fullResults.isEmpty())
+    /**
+     * Sequence the full list of results and extract the requested page.  When only the first part of a large
+     * result set is needed, the instances that belong on or before the requested page are selected with a bounded
+     * heap rather than by sorting the whole list.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param fromElement the starting element number of the instances to return. Zero means start from the first element.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of results that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @param <T> type of instance
+     * @return results array as requested or null if there are no results on the requested page
+     */
+    private <T extends InstanceHeader> List<T> formatInstanceResults(List<T>         fullResults,
+                                                                      int             fromElement,
+                                                                      String          sequencingProperty,
+                                                                      SequencingOrder sequencingOrder,
+                                                                      int             pageSize)
+    {
+        if ((fullResults == null) || (fullResults.isEmpty()))
         {
             return null;
         }
-        int fullResultsSize =fullResults.size();
 
-        if (fromElement > fullResultsSize)
+        int fullResultsSize = fullResults.size();
+        int startElement    = Math.max(fromElement, 0);
+
+        if (startElement >= fullResultsSize)
         {
             return null;
         }
 
+        InstanceSequencingComparator comparator = new InstanceSequencingComparator(sequencingOrder, sequencingProperty);
+        int                          toIndex    = fullResultsSize;
 
-        List<Relationship>  sortedResults = fullResults;
-        // todo sort list according to properties
+        if (pageSize > 0)
+        {
+            toIndex = getToIndex(startElement, pageSize, fullResultsSize);
+        }
 
-        if ((pageSize == 0) || (pageSize > sortedResults.size()))
+        if (! comparator.isOrdered())
         {
-            return sortedResults;
+            if ((startElement == 0) && (toIndex == fullResultsSize))
+            {
+                return fullResults;
+            }
+
+            return new ArrayList<>(fullResults.subList(startElement, toIndex));
         }
 
-        int toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        List<T> sortedResults = comparator.getFirstInstances(fullResults, toIndex);
+
+        return new ArrayList<>(sortedResults.subList(startElement, toIndex));
     }
 
     /**
@@ -3252,7 +3281,7 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
      */
     private int getToIndex(int fromIndex, int pageSize, int totalSize) {
         int toIndex = 0;
-        if (totalSize < fromIndex + pageSize)
+        if (totalSize < (long) fromIndex + pageSize)
         {
             toIndex = totalSize;
         } else
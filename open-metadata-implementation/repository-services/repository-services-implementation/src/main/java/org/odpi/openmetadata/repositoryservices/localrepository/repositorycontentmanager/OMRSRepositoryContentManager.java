@@ -18,6 +18,8 @@ import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnec
 import org.odpi.openmetadata.repositoryservices.rest.server.OMRSRepositoryRESTServices;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * OMRSRepositoryContentManager supports an in-memory cache of TypeDefs for the local server.  It is used by the OMRS
@@ -46,18 +48,25 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     private String                          localServerName                = null;
     private OMRSRepositoryEventManager      outboundRepositoryEventManager = null;
     private String                          openTypesOriginGUID            = null;
-    private Map<String, TypeDef>            knownTypeDefGUIDs              = new HashMap<>();
-    private Map<String, TypeDef>            knownTypeDefNames              = new HashMap<>();
-    private Map<String, AttributeTypeDef>   knownAttributeTypeDefGUIDs     = new HashMap<>();
-    private Map<String, AttributeTypeDef>   knownAttributeTypeDefNames     = new HashMap<>();
-    private Map<String, TypeDef>            activeTypeDefGUIDs             = new HashMap<>();
-    private Map<String, TypeDef>            activeTypeDefNames             = new HashMap<>();
-    private Map<String, AttributeTypeDef>   activeAttributeTypeDefGUIDs    = new HashMap<>();
-    private Map<String, AttributeTypeDef>   activeAttributeTypeDefNames    = new HashMap<>();
-    private Map<String, List<TypeDefLink>>  typeDefSuperTypes              = new HashMap<>();
-    private Map<String, InstanceType>       knownInstanceTypes             = new HashMap<>();
+    private Map<String, TypeDef>            knownTypeDefGUIDs              = new ConcurrentHashMap<>();
+    private Map<String, TypeDef>            knownTypeDefNames              = new ConcurrentHashMap<>();
+    private Map<String, AttributeTypeDef>   knownAttributeTypeDefGUIDs     = new ConcurrentHashMap<>();
+    private Map<String, AttributeTypeDef>   knownAttributeTypeDefNames     = new ConcurrentHashMap<>();
+    private Map<String, TypeDef>            activeTypeDefGUIDs             = new ConcurrentHashMap<>();
+    private Map<String, TypeDef>            activeTypeDefNames             = new ConcurrentHashMap<>();
+    private Map<String, AttributeTypeDef>   activeAttributeTypeDefGUIDs    = new ConcurrentHashMap<>();
+    private Map<String, AttributeTypeDef>   activeAttributeTypeDefNames    = new ConcurrentHashMap<>();
+    private Map<String, InstanceType>       knownInstanceTypes             = new ConcurrentHashMap<>();
     private Map<String, String>             metadataCollectionNames        = new HashMap<>();
 
+    /*
+     * The type hierarchy and the lists of active types are derived from the maps above into an immutable snapshot
+     * that request threads read without locking.  Every change to the cached types increments typeDefsVersion and the
+     * snapshot is rebuilt the next time it is needed.
+     */
+    private final AtomicLong                typeDefsVersion                = new AtomicLong(0);
+    private volatile OMRSTypeDefSnapshot    typeDefSnapshot                = null;
+
 
     /*
      * The audit log provides a verifiable record of the open metadata archives that have been loaded into
@@ -156,6 +165,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             {
                 log.debug("New Known Type " + newTypeDef.getName() + " from " + sourceName + ". Full TypeDef: " + newTypeDef);
             }
+
+            this.typeDefsChanged();
         }
     }
 
@@ -202,6 +213,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                     log.debug("New Known Attribute Type " + newAttributeTypeDef.getName() + " from " + sourceName+ ". Full AttributeTypeDef: " + newAttributeTypeDef);
                 }
             }
+
+            this.typeDefsChanged();
         }
     }
 
@@ -227,6 +240,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
                 log.debug("Updated Active Type " + typeDef.getName() + " from " + sourceName + ". Full TypeDef: " + typeDef);
             }
+
+            this.typeDefsChanged();
         }
     }
 
@@ -254,6 +269,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
                 log.debug("Deleted Active TypeDef " + obsoleteTypeDefName + " from " + sourceName);
             }
+
+            this.typeDefsChanged();
         }
     }
 
@@ -284,6 +301,8 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                     log.debug("Deleted Active AttributeTypeDef " + obsoleteAttributeTypeDefName + " from " + sourceName);
                 }
             }
+
+            this.typeDefsChanged();
         }
     }
 
@@ -414,7 +433,46 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
 
     /**
-     * Evaluate the superTypes for a type.  The results are cached in typeDefSuperTypes.
+     * Record that the cached types have changed so that the type snapshot is rebuilt when it is next used.
+     */
+    private void typeDefsChanged()
+    {
+        typeDefsVersion.incrementAndGet();
+        knownInstanceTypes.clear();
+    }
+
+
+    /**
+     * Return the snapshot of the type hierarchy and active types, rebuilding it if the cached types have changed
+     * since it was built.  The snapshot is immutable so the one returned can be used for the rest of the request
+     * even if another thread replaces it.
+     *
+     * @return current type snapshot
+     */
+    private OMRSTypeDefSnapshot getTypeDefSnapshot()
+    {
+        OMRSTypeDefSnapshot snapshot = typeDefSnapshot;
+        long                version  = typeDefsVersion.get();
+
+        if ((snapshot == null) || (snapshot.getTypeDefsVersion() != version))
+        {
+            /*
+             * The version is read before the maps are copied.  If the types change while the snapshot is being
+             * built, the version will have moved on and the snapshot will be rebuilt on the next call.
+             */
+            snapshot = new OMRSTypeDefSnapshot(version,
+                                               knownTypeDefNames.values(),
+                                               activeTypeDefNames.values(),
+                                               activeAttributeTypeDefNames.values());
+            typeDefSnapshot = snapshot;
+        }
+
+        return snapshot;
+    }
+
+
+    /**
+     * Return the superTypes for a type from the type snapshot.
      *
      * @param sourceName source of the request (used for logging)
      * @param typeName name of type to process
@@ -427,66 +485,15 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         final String  thisMethodName = "getSuperTypes";
 
-        List<TypeDefLink>   typeHierarchy = typeDefSuperTypes.get(typeName);
+        List<TypeDefLink>   typeHierarchy = this.getTypeDefSnapshot().getSuperTypeLinks(typeName);
 
         if (typeHierarchy == null)
         {
             /*
-             * The type hierarchy is not known at this time (it is evaluated lazily).
+             * Either the type is not known or one of its supertypes is missing from the cache.
              */
-            typeHierarchy = new ArrayList<>();
-
-            TypeDef typeDef = knownTypeDefNames.get(typeName);
-
-            if (typeDef != null)
-            {
-                TypeDefLink superTypeLink = typeDef.getSuperType();
-
-                while (superTypeLink != null)
-                {
-                    String superTypeName = superTypeLink.getName();
-
-                    if (superTypeName != null)
-                    {
-                        log.debug(typeName + " has super type " + superTypeName);
-
-                        typeHierarchy.add(superTypeLink);
-
-                        /*
-                         * Retrieve the TypeDef for this super type
-                         */
-                        TypeDef superTypeDef = knownTypeDefNames.get(superTypeName);
-
-                        if (superTypeDef != null)
-                        {
-                            /*
-                             * Retrieve the super type for this super typeDef.  It will be null if the type is top-level.
-                             */
-                            superTypeLink = superTypeDef.getSuperType();
-                        }
-                        else
-                        {
-                            log.error(superTypeName + " supertype is not known in TypeDef cache");
-                            throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-                        }
-                    }
-                    else
-                    {
-                        log.error("Corrupted TypeDef cache, no name for " + superTypeLink.toString());
-                        throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-                    }
-                }
-
-                /*
-                 * Cache the resulting superType list
-                 */
-                typeDefSuperTypes.put(typeName, typeHierarchy);
-            }
-            else
-            {
-                log.error(typeName + " type is not known in TypeDef cache");
-                throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-            }
+            log.error(typeName + " type hierarchy is not known in TypeDef cache");
+            throwContentManagerLogicError(sourceName, methodName, thisMethodName);
         }
 
         if (typeHierarchy.isEmpty())
@@ -498,9 +505,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         }
         else
         {
-            /*
-             * The type hierarchy is known and can be returned directly.
-             */
             return typeHierarchy;
         }
     }
@@ -537,23 +541,14 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             /*
              * Looking for a match in the superTypes.
              */
-            List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
+            OMRSTypeDefSnapshot snapshot = this.getTypeDefSnapshot();
 
-            if (typeHierarchy != null)
+            if (! snapshot.hasTypeHierarchy(actualTypeName))
             {
-                for (TypeDefLink superType : typeHierarchy)
-                {
-                    if (superType != null)
-                    {
-                        if (expectedTypeName.equals(superType.getName()))
-                        {
-                            log.debug("SuperType match success");
-                            return true;
-                        }
-                        log.debug("No match with " + superType.getName());
-                    }
-                }
+                this.getSuperTypes(sourceName, actualTypeName, methodName);
             }
+
+            return snapshot.hasSuperTypeName(actualTypeName, expectedTypeName);
         }
 
         return false;
@@ -593,29 +588,46 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             /*
              * Looking for a match in the superTypes.
              */
-           List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
+            OMRSTypeDefSnapshot snapshot = this.getTypeDefSnapshot();
 
-            if (typeHierarchy != null)
+            if (! snapshot.hasTypeHierarchy(actualTypeName))
             {
-                for (TypeDefLink superType : typeHierarchy)
-                {
-                    if (superType != null)
-                    {
-                        if (expectedTypeGUID.equals(superType.getGUID()))
-                        {
-                            log.debug("SuperType match success");
-                            return true;
-                        }
-                        log.debug("No match with " + superType.getGUID());
-                    }
-                }
+                this.getSuperTypes(sourceName, actualTypeName, methodName);
             }
+
+            return snapshot.hasSuperTypeGUID(actualTypeName, expectedTypeGUID);
         }
 
         return false;
     }
 
 
+    /**
+     * Return the names of all of the types that inherit from the named type, directly or indirectly.
+     *
+     * @param sourceName source of the request (used for logging)
+     * @param superTypeName name of the super type
+     * @return list of type names or null if the type has no subtypes
+     */
+    public List<String>  getSubTypesOf(String   sourceName,
+                                       String   superTypeName)
+    {
+        if (superTypeName == null)
+        {
+            return null;
+        }
+
+        List<String> subTypeNames = this.getTypeDefSnapshot().getSubTypeNames(superTypeName);
+
+        if (subTypeNames == null)
+        {
+            return null;
+        }
+
+        return new ArrayList<>(subTypeNames);
+    }
+
+
     /**
      * Return the InstanceType that matches the supplied type name.  If the type name is not recognized,
      * of the category is incorrect, a logic exception is thrown.
@@ -1039,15 +1051,19 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     public TypeDefGallery   getActiveTypeDefGallery()
     {
         TypeDefGallery               typeDefGallery               = new TypeDefGallery();
+        OMRSTypeDefSnapshot          snapshot                     = this.getTypeDefSnapshot();
 
-        if (! activeAttributeTypeDefNames.isEmpty())
+        /*
+         * The gallery's getters return copies so it can share the snapshot's unmodifiable lists.
+         */
+        if (! snapshot.getActiveAttributeTypeDefs().isEmpty())
         {
-            typeDefGallery.setAttributeTypeDefs(new ArrayList<>(activeAttributeTypeDefNames.values()));
+            typeDefGallery.setAttributeTypeDefs(snapshot.getActiveAttributeTypeDefs());
         }
 
-        if (! activeTypeDefNames.isEmpty())
+        if (! snapshot.getActiveTypeDefs().isEmpty())
         {
-            typeDefGallery.setTypeDefs(new ArrayList<>(activeTypeDefNames.values()));
+            typeDefGallery.setTypeDefs(snapshot.getActiveTypeDefs());
         }
 
         return typeDefGallery;
@@ -1125,6 +1141,11 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     public TypeDef  getTypeDefByName (String    sourceName,
                                       String    typeDefName)
     {
+        if (typeDefName == null)
+        {
+            return null;
+        }
+
         return knownTypeDefNames.get(typeDefName);
     }
 
@@ -1141,6 +1162,11 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     public AttributeTypeDef getAttributeTypeDefByName (String    sourceName,
                                                        String    attributeTypeDefName)
     {
+        if (attributeTypeDefName == null)
+        {
+            return null;
+        }
+
         return knownAttributeTypeDefNames.get(attributeTypeDefName);
     }
 
@@ -1326,6 +1352,16 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             throwContentManagerLogicError(sourceName, methodName, thisMethodName);
         }
 
+        /*
+         * The flattened list is prebuilt for the TypeDefs in the cache.
+         */
+        List<TypeDefAttribute>    allProperties = this.getTypeDefSnapshot().getAllProperties(typeDef);
+
+        if (allProperties != null)
+        {
+            return new ArrayList<>(allProperties);
+        }
+
         List<TypeDefAttribute>    propertiesDefinition = typeDef.getPropertiesDefinition();
 
         /*
@@ -1382,6 +1418,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                 if (!isKnownType(sourceName, typeDef.getGUID(), typeDef.getName()))
                 {
                     knownTypeDefNames.put(typeDef.getName(), typeDef);
+                    this.typeDefsChanged();
                 }
             }
             else
@@ -1423,6 +1460,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                 if (!isKnownType(sourceName, attributeTypeDef.getGUID(), attributeTypeDef.getName()))
                 {
                     knownAttributeTypeDefNames.put(attributeTypeDef.getName(), attributeTypeDef);
+                    this.typeDefsChanged();
                 }
             }
             else
@@ -2341,6 +2379,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                      * Update the active TypeDefs as this new TypeDef has been accepted by the local repository.
                      */
                     activeAttributeTypeDefNames.put(attributeTypeDef.getName(), attributeTypeDef);
+                    this.typeDefsChanged();
 
                     OMRSAuditCode auditCode = OMRSAuditCode.NEW_TYPE_ADDED;
                     auditLog.logRecord(actionDescription,
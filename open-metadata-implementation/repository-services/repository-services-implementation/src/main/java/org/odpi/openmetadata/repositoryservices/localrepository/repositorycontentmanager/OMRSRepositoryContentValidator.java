@@ -9,6 +9,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.SearchPatternMatcher;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.*;
@@ -3184,8 +3185,9 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                     if (matchPropertyValue != null)
                     {
-                        String           matchPropertyValueString = this.getStringFromPropertyValue(matchPropertyValue);
-                        Iterator<String> instancePropertyNames    = instanceProperties.getPropertyNames();
+                        String               matchPropertyValueString = this.getStringFromPropertyValue(matchPropertyValue);
+                        SearchPatternMatcher matchPropertyValueMatcher = SearchPatternMatcher.getMatcher(matchPropertyValueString);
+                        Iterator<String>     instancePropertyNames    = instanceProperties.getPropertyNames();
 
                         while (instancePropertyNames.hasNext())
                         {
@@ -3220,8 +3222,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                                             {
                                                 try
                                                 {
-                                                    if ((instancePropertyValueString.contains(matchPropertyValueString)) ||
-                                                        (instancePropertyValueString.matches(matchPropertyValueString)))
+                                                    if (matchPropertyValueMatcher.containedIn(instancePropertyValueString))
                                                     {
                                                         matchingProperties++;
                                                     }
@@ -3294,7 +3295,12 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                         }
                         else
                         {
-                            if (matchValue.matches(expectedValue))
+                            /*
+                             * The header value is the pattern here.  Header values (type names, metadata collection
+                             * ids, user ids) repeat across the instances being searched so the matchers come from
+                             * the shared cache rather than being compiled for each comparison.
+                             */
+                            if (SearchPatternMatcher.getMatcher(expectedValue).matches(matchValue))
                             {
                                 result = true;
                             }
@@ -3608,6 +3614,29 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                                                                InstanceProperties  properties,
                                                                String              searchCriteria,
                                                                String              methodName) throws RepositoryErrorException
+    {
+        return this.verifyInstancePropertiesMatchSearchCriteria(sourceName,
+                                                                properties,
+                                                                SearchPatternMatcher.getMatcher(searchCriteria),
+                                                                methodName);
+    }
+
+
+    /**
+     * Search for property values matching the search criteria that has already been compiled into a matcher.
+     * The same matcher is used for nested properties in structs, arrays and maps.
+     *
+     * @param sourceName source of the request (used for logging)
+     * @param properties list of properties associated with the in instance
+     * @param searchCriteriaMatcher matcher for the search criteria
+     * @param methodName name of the method requiring the search.
+     * @return boolean indicating whether the search criteria is located in any of the string parameter values.
+     * @throws RepositoryErrorException the properties are not properly set up in the instance
+     */
+    private boolean verifyInstancePropertiesMatchSearchCriteria(String               sourceName,
+                                                                InstanceProperties   properties,
+                                                                SearchPatternMatcher searchCriteriaMatcher,
+                                                                String               methodName) throws RepositoryErrorException
     {
         if (properties == null)
         {
@@ -3632,7 +3661,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                             if (stringProperty != null)
                             {
-                                if (stringProperty.matches(searchCriteria))
+                                if (searchCriteriaMatcher.matches(stringProperty))
                                 {
                                     return true;
                                 }
@@ -3646,7 +3675,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                         String  enumValue = enumPropertyValue.getSymbolicName();
                         if (enumValue != null)
                         {
-                            if (enumValue.matches(searchCriteria))
+                            if (searchCriteriaMatcher.matches(enumValue))
                             {
                                 return true;
                             }
@@ -3658,7 +3687,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         structPropertyValue.getAttributes(),
-                                                                        searchCriteria,
+                                                                        searchCriteriaMatcher,
                                                                         methodName))
                         {
                             return true;
@@ -3670,7 +3699,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         arrayPropertyValue.getArrayValues(),
-                                                                        searchCriteria,
+                                                                        searchCriteriaMatcher,
                                                                         methodName))
                         {
                             return true;
@@ -3682,7 +3711,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         mapPropertyValue.getMapValues(),
-                                                                        searchCriteria,
+                                                                        searchCriteriaMatcher,
                                                                         methodName))
                         {
                             return true;
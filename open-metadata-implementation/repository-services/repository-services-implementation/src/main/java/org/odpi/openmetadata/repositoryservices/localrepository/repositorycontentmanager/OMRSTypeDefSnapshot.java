@@ -0,0 +1,250 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+
+import java.util.*;
+
+/**
+ * OMRSTypeDefSnapshot is an immutable view of the TypeDefs cached by the OMRSRepositoryContentManager.  It holds
+ * the information that is derived from the type hierarchy - the transitive super types and sub types of each type and
+ * the properties each type inherits - together with the lists of active types.  It is built once each time the
+ * cached types change and then shared by every request thread without locking.
+ */
+class OMRSTypeDefSnapshot
+{
+    private long                                  typeDefsVersion;
+    private Map<String, TypeDef>                  typeDefs                = new HashMap<>();
+    private Map<String, List<TypeDefLink>>        superTypeLinks          = new HashMap<>();
+    private Map<String, Set<String>>              superTypeNames          = new HashMap<>();
+    private Map<String, Set<String>>              superTypeGUIDs          = new HashMap<>();
+    private Map<String, List<String>>             subTypeNames            = new HashMap<>();
+    private Map<String, List<TypeDefAttribute>>   allProperties           = new HashMap<>();
+    private List<TypeDef>                         activeTypeDefs;
+    private List<AttributeTypeDef>                activeAttributeTypeDefs;
+
+
+    /**
+     * Build the snapshot from the current contents of the cache.
+     *
+     * @param typeDefsVersion version of the cache contents used to detect when the snapshot is out of date
+     * @param knownTypeDefs all of the TypeDefs known to the local server
+     * @param activeTypeDefs TypeDefs supported by the local repository
+     * @param activeAttributeTypeDefs AttributeTypeDefs supported by the local repository
+     */
+    OMRSTypeDefSnapshot(long                         typeDefsVersion,
+                        Collection<TypeDef>          knownTypeDefs,
+                        Collection<TypeDef>          activeTypeDefs,
+                        Collection<AttributeTypeDef> activeAttributeTypeDefs)
+    {
+        this.typeDefsVersion = typeDefsVersion;
+        this.activeTypeDefs = Collections.unmodifiableList(new ArrayList<>(activeTypeDefs));
+        this.activeAttributeTypeDefs = Collections.unmodifiableList(new ArrayList<>(activeAttributeTypeDefs));
+
+        for (TypeDef typeDef : knownTypeDefs)
+        {
+            typeDefs.put(typeDef.getName(), typeDef);
+        }
+
+        for (TypeDef typeDef : typeDefs.values())
+        {
+            this.addTypeHierarchy(typeDef);
+        }
+
+        for (String typeName : superTypeNames.keySet())
+        {
+            for (String superTypeName : superTypeNames.get(typeName))
+            {
+                List<String> subTypes = subTypeNames.computeIfAbsent(superTypeName, k -> new ArrayList<>());
+
+                subTypes.add(typeName);
+            }
+        }
+
+        for (String superTypeName : subTypeNames.keySet())
+        {
+            subTypeNames.put(superTypeName, Collections.unmodifiableList(subTypeNames.get(superTypeName)));
+        }
+    }
+
+
+    /**
+     * Walk up the super type links of a TypeDef recording the super types and properties it inherits.  A type whose
+     * hierarchy refers to an unknown type (or loops) is left out so that the content manager can report it.
+     *
+     * @param typeDef type to process
+     */
+    private void addTypeHierarchy(TypeDef typeDef)
+    {
+        List<TypeDefLink>      links      = new ArrayList<>();
+        Set<String>            names      = new HashSet<>();
+        Set<String>            guids      = new HashSet<>();
+        List<TypeDefAttribute> properties = new ArrayList<>();
+
+        addProperties(properties, typeDef);
+
+        TypeDefLink superTypeLink = typeDef.getSuperType();
+
+        while (superTypeLink != null)
+        {
+            String  superTypeName = superTypeLink.getName();
+            TypeDef superTypeDef  = (superTypeName == null) ? null : typeDefs.get(superTypeName);
+
+            if ((superTypeDef == null) || (superTypeName.equals(typeDef.getName())) || (! names.add(superTypeName)))
+            {
+                return;
+            }
+
+            links.add(superTypeLink);
+
+            if (superTypeLink.getGUID() != null)
+            {
+                guids.add(superTypeLink.getGUID());
+            }
+
+            addProperties(properties, superTypeDef);
+
+            superTypeLink = superTypeDef.getSuperType();
+        }
+
+        superTypeLinks.put(typeDef.getName(), Collections.unmodifiableList(links));
+        superTypeNames.put(typeDef.getName(), Collections.unmodifiableSet(names));
+        superTypeGUIDs.put(typeDef.getName(), Collections.unmodifiableSet(guids));
+        allProperties.put(typeDef.getName(), Collections.unmodifiableList(properties));
+    }
+
+
+    /**
+     * Add the properties defined directly in a TypeDef to a list.
+     *
+     * @param properties accumulated list of properties
+     * @param typeDef type to add
+     */
+    private void addProperties(List<TypeDefAttribute> properties, TypeDef typeDef)
+    {
+        List<TypeDefAttribute> propertiesDefinition = typeDef.getPropertiesDefinition();
+
+        if (propertiesDefinition != null)
+        {
+            properties.addAll(propertiesDefinition);
+        }
+    }
+
+
+    /**
+     * Return the version of the cache contents that this snapshot was built from.
+     *
+     * @return version number
+     */
+    long getTypeDefsVersion()
+    {
+        return typeDefsVersion;
+    }
+
+
+    /**
+     * Return whether the type hierarchy of the named type is complete in this snapshot.
+     *
+     * @param typeName name of type
+     * @return boolean flag
+     */
+    boolean hasTypeHierarchy(String typeName)
+    {
+        return superTypeLinks.containsKey(typeName);
+    }
+
+
+    /**
+     * Return the links to the super types of the named type, nearest first.
+     *
+     * @param typeName name of type
+     * @return list of links (empty for a top level type) or null if the type hierarchy is not known
+     */
+    List<TypeDefLink> getSuperTypeLinks(String typeName)
+    {
+        return superTypeLinks.get(typeName);
+    }
+
+
+    /**
+     * Return whether a type has the named super type.
+     *
+     * @param typeName name of type
+     * @param superTypeName name of the potential super type
+     * @return boolean flag
+     */
+    boolean hasSuperTypeName(String typeName, String superTypeName)
+    {
+        Set<String> names = superTypeNames.get(typeName);
+
+        return (names != null) && (names.contains(superTypeName));
+    }
+
+
+    /**
+     * Return whether a type has the super type with the supplied identifier.
+     *
+     * @param typeName name of type
+     * @param superTypeGUID unique identifier of the potential super type
+     * @return boolean flag
+     */
+    boolean hasSuperTypeGUID(String typeName, String superTypeGUID)
+    {
+        Set<String> guids = superTypeGUIDs.get(typeName);
+
+        return (guids != null) && (guids.contains(superTypeGUID));
+    }
+
+
+    /**
+     * Return the names of all of the types that inherit from the named type, directly or indirectly.
+     *
+     * @param typeName name of type
+     * @return list of type names or null if there are none
+     */
+    List<String> getSubTypeNames(String typeName)
+    {
+        return subTypeNames.get(typeName);
+    }
+
+
+    /**
+     * Return the properties defined in a TypeDef and all of its super types.  The list is only returned
+     * if the TypeDef is the one in the cache.
+     *
+     * @param typeDef type to query
+     * @return unmodifiable list of property definitions or null if the TypeDef is not the cached one
+     */
+    List<TypeDefAttribute> getAllProperties(TypeDef typeDef)
+    {
+        if (typeDefs.get(typeDef.getName()) == typeDef)
+        {
+            return allProperties.get(typeDef.getName());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the TypeDefs supported by the local repository.
+     *
+     * @return unmodifiable list
+     */
+    List<TypeDef> getActiveTypeDefs()
+    {
+        return activeTypeDefs;
+    }
+
+
+    /**
+     * Return the AttributeTypeDefs supported by the local repository.
+     *
+     * @return unmodifiable list
+     */
+    List<AttributeTypeDef> getActiveAttributeTypeDefs()
+    {
+        return activeAttributeTypeDefs;
+    }
+}
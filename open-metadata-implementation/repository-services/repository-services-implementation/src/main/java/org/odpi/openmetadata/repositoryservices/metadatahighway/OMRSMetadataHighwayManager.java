@@ -492,6 +492,10 @@ public class OMRSMetadataHighwayManager
             {
                 topicConnector.setEventProtocolLevel(OMRSEventProtocolVersion.V1);
             }
+            else if (protocolVersion == OpenMetadataEventProtocolVersion.V1_COMPACT)
+            {
+                topicConnector.setEventProtocolLevel(OMRSEventProtocolVersion.V1_COMPACT);
+            }
 
             return topicConnector;
         }
@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.rest.server;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.adminservices.configuration.registration.CommonServicesDescription;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
@@ -19,6 +18,7 @@ import org.odpi.openmetadata.repositoryservices.metadatahighway.OMRSMetadataHigh
 import org.odpi.openmetadata.repositoryservices.rest.properties.*;
 import org.odpi.openmetadata.repositoryservices.rest.services.OMRSRepositoryServicesInstance;
 import org.odpi.openmetadata.repositoryservices.rest.services.OMRSRepositoryServicesInstanceHandler;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -1932,6 +1932,66 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return the header, classifications and properties of a batch of entities.  Entities that are not known,
+     * or are only proxies, are left out of the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return EntityListResponse:
+     * list of EntityDetail structures or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public EntityListResponse getEntitiesDetail(String                  serverName,
+                                                String                  userId,
+                                                InstanceGUIDListRequest guids)
+    {
+        final  String   methodName = "getEntitiesDetail";
+
+        log.debug("Calling method: " + methodName);
+
+        EntityListResponse response = new EntityListResponse();
+
+        try
+        {
+            OMRSMetadataCollection localMetadataCollection = validateRepository(userId, serverName, methodName);
+
+            List<String> entityGUIDs = null;
+
+            if (guids != null)
+            {
+                entityGUIDs = guids.getGUIDs();
+            }
+
+            response.setEntities(localMetadataCollection.getEntitiesDetail(userId, entityGUIDs));
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (Throwable error)
+        {
+            captureThrowable(response, error, methodName, instanceHandler.getAuditLog(userId, serverName, methodName));
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -2186,6 +2246,96 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return the relationships for a batch of entities.  Each relationship is returned once, even if it links
+     * two of the requested entities.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param findRequestParameters entities and find parameters used to limit the returned results.
+     * @return RelationshipListResponse:
+     * Relationships list.  Null means no relationships associated with the entities or
+     * InvalidParameterException a parameter is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored or
+     * PropertyErrorException the relationships could not be sequenced or
+     * PagingErrorException the paging parameters used to retrieve the relationships were rejected or
+     * FunctionNotSupportedException the repository does not support asOfTime parameter or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public RelationshipListResponse getRelationshipsForEntities(String                          serverName,
+                                                                String                          userId,
+                                                                EntityRelationshipsFindRequest  findRequestParameters)
+    {
+        final  String   methodName = "getRelationshipsForEntities";
+
+        log.debug("Calling method: " + methodName);
+
+        List<String>         entityGUIDs          = null;
+        String               relationshipTypeGUID = null;
+        List<InstanceStatus> limitResultsByStatus = null;
+        Date                 asOfTime             = null;
+
+        RelationshipListResponse response = new RelationshipListResponse();
+
+        if (findRequestParameters != null)
+        {
+            entityGUIDs          = findRequestParameters.getEntityGUIDs();
+            relationshipTypeGUID = findRequestParameters.getTypeGUID();
+            limitResultsByStatus = findRequestParameters.getLimitResultsByStatus();
+            asOfTime             = findRequestParameters.getAsOfTime();
+        }
+
+        try
+        {
+            OMRSMetadataCollection localMetadataCollection = validateRepository(userId, serverName, methodName);
+
+            response.setRelationships(localMetadataCollection.getRelationshipsForEntities(userId,
+                                                                                          entityGUIDs,
+                                                                                          relationshipTypeGUID,
+                                                                                          limitResultsByStatus,
+                                                                                          asOfTime));
+        }
+        catch (RepositoryErrorException error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (FunctionNotSupportedException error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (TypeErrorException error)
+        {
+            captureTypeErrorException(response, error);
+        }
+        catch (PagingErrorException error)
+        {
+            capturePagingErrorException(response, error);
+        }
+        catch (Throwable error)
+        {
+            captureThrowable(response, error, methodName, instanceHandler.getAuditLog(userId, serverName, methodName));
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
      * can be returned over many pages.
@@ -3162,6 +3312,66 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return the current version of a batch of relationships.  Relationships that are not known are left out
+     * of the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return RelationshipListResponse:
+     * list of relationship structures or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public RelationshipListResponse getRelationships(String                  serverName,
+                                                     String                  userId,
+                                                     InstanceGUIDListRequest guids)
+    {
+        final  String   methodName = "getRelationships";
+
+        log.debug("Calling method: " + methodName);
+
+        RelationshipListResponse response = new RelationshipListResponse();
+
+        try
+        {
+            OMRSMetadataCollection localMetadataCollection = validateRepository(userId, serverName, methodName);
+
+            List<String> relationshipGUIDs = null;
+
+            if (guids != null)
+            {
+                relationshipGUIDs = guids.getGUIDs();
+            }
+
+            response.setRelationships(localMetadataCollection.getRelationships(userId, relationshipGUIDs));
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (Throwable error)
+        {
+            captureThrowable(response, error, methodName, instanceHandler.getAuditLog(userId, serverName, methodName));
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be broken into pages.
@@ -7613,8 +7823,7 @@ public class OMRSRepositoryRESTServices
             {
                 try
                 {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    String       jsonString = objectMapper.writeValueAsString(requestBody);
+                    String       jsonString = OMRSJSONSerializer.writeValueAsString(requestBody);
 
                     String serverURLRoot = instance.getLocalServerURL();
 
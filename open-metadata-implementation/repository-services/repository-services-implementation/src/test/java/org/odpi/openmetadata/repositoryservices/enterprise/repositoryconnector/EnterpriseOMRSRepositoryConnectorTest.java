@@ -0,0 +1,220 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
+import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedPageMerger;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify that EnterpriseOMRSRepositoryConnector keeps the paging cursors of federated queries so that each
+ * page continues from the positions reached by the previous page, and that it discards the least recently used.
+ */
+public class EnterpriseOMRSRepositoryConnectorTest
+{
+    private static final String queryKey = "findEntitiesByProperty:testUser:3:ANY:null:[A, B, C]:[]:";
+
+
+    /**
+     * Validate that a cursor is returned once and then removed.
+     */
+    @Test public void testCursorTakenOnce()
+    {
+        EnterpriseOMRSRepositoryConnector connector = getConnector();
+        Map<String, Integer>              positions = Collections.singletonMap("A", 3);
+
+        connector.savePagingCursor(queryKey + 3, positions);
+
+        assertNull(connector.takePagingCursor(queryKey + 0));
+        assertEquals(connector.takePagingCursor(queryKey + 3), positions);
+        assertNull(connector.takePagingCursor(queryKey + 3));
+    }
+
+
+    /**
+     * Validate that when the cache is full the least recently saved cursor is discarded and that saving
+     * a cursor again makes it the most recently used.
+     */
+    @Test public void testLeastRecentlyUsedCursorEvicted()
+    {
+        EnterpriseOMRSRepositoryConnector connector = getConnector();
+
+        for (int i = 0; i < 100; i++)
+        {
+            connector.savePagingCursor(queryKey + i, Collections.singletonMap("A", i));
+        }
+
+        connector.savePagingCursor(queryKey + 0, Collections.singletonMap("A", 0));
+        connector.savePagingCursor(queryKey + 100, Collections.singletonMap("A", 100));
+
+        assertNull(connector.takePagingCursor(queryKey + 1));
+        assertEquals(connector.takePagingCursor(queryKey + 0), Collections.singletonMap("A", 0));
+        assertEquals(connector.takePagingCursor(queryKey + 2), Collections.singletonMap("A", 2));
+        assertEquals(connector.takePagingCursor(queryKey + 100), Collections.singletonMap("A", 100));
+    }
+
+
+    /**
+     * Validate that successive pages requested with fromElement each pick up the cursor saved by the previous
+     * page, that the pages hold every result exactly once, and that a page requested out of sequence is
+     * built without a cursor.
+     */
+    @Test public void testCursorReusedAcrossPages()
+    {
+        EnterpriseOMRSRepositoryConnector connector = getConnector();
+
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", getEntities("01", "04", "07", "10"));
+        members.put("B", getEntities("02", "05", "08"));
+        members.put("C", getEntities("03", "06", "09"));
+
+        List<String> allResults = new ArrayList<>();
+
+        for (int fromElement = 0; fromElement < 12; fromElement += 3)
+        {
+            Map<String, Integer> memberPositions = connector.takePagingCursor(queryKey + fromElement);
+
+            if (fromElement == 0)
+            {
+                assertNull(memberPositions);
+            }
+            else
+            {
+                assertNotNull(memberPositions);
+            }
+
+            allResults.addAll(getPage(connector, members, fromElement, memberPositions));
+        }
+
+        assertEquals(allResults, Arrays.asList("01", "02", "03", "04", "05", "06", "07", "08", "09", "10"));
+
+        /*
+         * The last page was short so there is no cursor after it.  A page requested again is built by
+         * skipping the earlier results.
+         */
+        assertNull(connector.takePagingCursor(queryKey + 12));
+        assertNull(connector.takePagingCursor(queryKey + 3));
+        assertEquals(getPage(connector, members, 3, null), Arrays.asList("04", "05", "06"));
+    }
+
+
+    /**
+     * Build a page in the same way as the enterprise metadata collection, saving the cursor for the next page.
+     *
+     * @param connector enterprise connector
+     * @param members map of metadata collection id to all of the results in the repository
+     * @param fromElement starting element requested by the caller
+     * @param memberPositions positions from the previous page
+     * @return list of GUIDs in the page
+     */
+    private List<String> getPage(EnterpriseOMRSRepositoryConnector connector,
+                                 Map<String, List<EntityDetail>>   members,
+                                 int                               fromElement,
+                                 Map<String, Integer>              memberPositions)
+    {
+        FederatedPageMerger<EntityDetail> merger = new FederatedPageMerger<>(new ArrayList<>(members.keySet()),
+                                                                             Comparator.comparing(InstanceHeader::getGUID),
+                                                                             fromElement,
+                                                                             3,
+                                                                             memberPositions);
+        boolean moreResultsNeeded = true;
+
+        while (moreResultsNeeded)
+        {
+            Map<String, Integer>            startingElements = merger.getMemberStartingElements();
+            Map<String, List<EntityDetail>> results          = new HashMap<>();
+
+            for (String memberId : merger.getMembersToQuery())
+            {
+                List<EntityDetail> memberResults = members.get(memberId);
+                int                fromIndex     = Math.min(startingElements.get(memberId), memberResults.size());
+                int                toIndex       = Math.min(fromIndex + merger.getMemberPageSize(), memberResults.size());
+
+                results.put(memberId, new ArrayList<>(memberResults.subList(fromIndex, toIndex)));
+            }
+
+            moreResultsNeeded = merger.addMemberResults(results);
+        }
+
+        Map<String, Integer> nextMemberPositions = merger.getNextMemberPositions();
+
+        if (nextMemberPositions != null)
+        {
+            connector.savePagingCursor(queryKey + (fromElement + 3), nextMemberPositions);
+        }
+
+        List<String>       guids = new ArrayList<>();
+        List<EntityDetail> page  = merger.getPage(null);
+
+        if (page != null)
+        {
+            for (EntityDetail entity : page)
+            {
+                guids.add(entity.getGUID());
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Create a list of entities.
+     *
+     * @param guids unique identifiers for the entities
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntities(String... guids)
+    {
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID(guid);
+            entity.setVersion(1);
+            entities.add(entity);
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * Create an enterprise connector with a connector manager that accepts the registration.
+     *
+     * @return enterprise connector
+     */
+    private EnterpriseOMRSRepositoryConnector getConnector()
+    {
+        return new EnterpriseOMRSRepositoryConnector(new OMRSConnectorManager()
+        {
+            public String registerConnectorConsumer(OMRSConnectorConsumer connectorConsumer)
+            {
+                return "testConsumer";
+            }
+
+            public void unregisterConnectorConsumer(String connectorConsumerId)
+            {
+            }
+        });
+    }
+}
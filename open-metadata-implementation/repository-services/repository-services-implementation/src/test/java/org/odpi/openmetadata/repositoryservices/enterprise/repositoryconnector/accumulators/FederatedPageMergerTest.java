@@ -0,0 +1,334 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that FederatedPageMerger merges the results from many repositories into a single page in sequence,
+ * removes duplicates and reference copies, and reports the position reached in each repository.
+ */
+public class FederatedPageMergerTest
+{
+    private static final Comparator<InstanceHeader> byGUID = Comparator.comparing(InstanceHeader::getGUID);
+
+
+    /**
+     * Validate that the results from three repositories are interleaved in sequence and that the positions
+     * reached in each repository are the number of results taken from it.
+     */
+    @Test public void testInterleavedMerge()
+    {
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", getEntities("A", "01", "04", "07"));
+        members.put("B", getEntities("B", "02", "05", "08"));
+        members.put("C", getEntities("C", "03", "06", "09"));
+
+        FederatedPageMerger<EntityDetail> merger = getMerger(members, 0, 5, null);
+
+        assertEquals(runQuery(merger, members), 1);
+        assertEquals(getGUIDs(merger.getPage(null)), Arrays.asList("01", "02", "03", "04", "05"));
+
+        Map<String, Integer> expectedPositions = new HashMap<>();
+        expectedPositions.put("A", 2);
+        expectedPositions.put("B", 2);
+        expectedPositions.put("C", 1);
+
+        assertEquals(merger.getNextMemberPositions(), expectedPositions);
+    }
+
+
+    /**
+     * Validate that an instance returned by more than one repository appears once in the page and that the
+     * latest version supplied by the accumulator replaces the copy that was merged.
+     */
+    @Test public void testDuplicateGUIDs()
+    {
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", getEntities(null, "01", "02", "04"));
+        members.put("B", getEntities(null, "02", "03", "04"));
+        members.put("C", getEntities(null, "02", "05"));
+
+        FederatedPageMerger<EntityDetail> merger = getMerger(members, 0, 10, null);
+
+        runQuery(merger, members);
+
+        EntityDetail latestVersion = getEntity(null, "02");
+        latestVersion.setVersion(5);
+
+        List<EntityDetail> page = merger.getPage(Collections.singletonList(latestVersion));
+
+        assertEquals(getGUIDs(page), Arrays.asList("01", "02", "03", "04", "05"));
+        assertSame(page.get(1), latestVersion);
+    }
+
+
+    /**
+     * Validate that a reference copy is skipped when its home repository is one of the repositories that
+     * responded, even when the reference copy is merged first, and is kept when the home repository is not queried.
+     */
+    @Test public void testReferenceCopySuppressedByHome()
+    {
+        EntityDetail homeCopy      = getEntity("A", "02");
+        EntityDetail referenceCopy = getEntity("A", "02");
+        EntityDetail orphanCopy    = getEntity("Z", "03");
+
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("B", Arrays.asList(getEntity("B", "01"), referenceCopy, orphanCopy));
+        members.put("A", Collections.singletonList(homeCopy));
+
+        FederatedPageMerger<EntityDetail> merger = getMerger(members, 0, 10, null);
+
+        runQuery(merger, members);
+
+        List<EntityDetail> page = merger.getPage(null);
+
+        assertEquals(getGUIDs(page), Arrays.asList("01", "02", "03"));
+        assertSame(page.get(1), homeCopy);
+        assertSame(page.get(2), orphanCopy);
+    }
+
+
+    /**
+     * Validate that when the repositories run out of results before the page is full, the page holds
+     * what was found and there are no positions for a next page.
+     */
+    @Test public void testShortMemberPage()
+    {
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", getEntities("A", "01", "03"));
+        members.put("B", getEntities("B", "02"));
+        members.put("C", new ArrayList<>());
+
+        FederatedPageMerger<EntityDetail> merger = getMerger(members, 0, 5, null);
+
+        assertEquals(runQuery(merger, members), 1);
+        assertEquals(getGUIDs(merger.getPage(null)), Arrays.asList("01", "02", "03"));
+        assertNull(merger.getNextMemberPositions());
+    }
+
+
+    /**
+     * Validate that a repository that did not respond is not queried again and does not stop the page
+     * being built from the other repositories.
+     */
+    @Test public void testMissingMemberResults()
+    {
+        FederatedPageMerger<EntityDetail> merger = new FederatedPageMerger<>(Arrays.asList("A", "B"), byGUID, 0, 2, null);
+
+        Map<String, List<EntityDetail>> results = new HashMap<>();
+        results.put("A", getEntities("A", "01", "02"));
+
+        assertFalse(merger.addMemberResults(results));
+        assertTrue(merger.getMembersToQuery().isEmpty());
+        assertEquals(getGUIDs(merger.getPage(null)), Arrays.asList("01", "02"));
+    }
+
+
+    /**
+     * Validate that a repository that returns a full page and runs out of buffered results part way through
+     * the merge is queried again from the position it reached.  Here its first results are reference copies
+     * whose home repository responded without them, so none of them are used.
+     */
+    @Test public void testMemberQueriedAgain()
+    {
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", Arrays.asList(getEntity("B", "01"), getEntity("B", "02"), getEntity("A", "03"), getEntity("A", "04")));
+        members.put("B", new ArrayList<>());
+
+        FederatedPageMerger<EntityDetail> merger = getMerger(members, 0, 2, null);
+
+        Map<String, List<EntityDetail>> firstResults = new HashMap<>();
+        firstResults.put("A", members.get("A").subList(0, 2));
+        firstResults.put("B", members.get("B"));
+
+        assertTrue(merger.addMemberResults(firstResults));
+        assertEquals(merger.getMembersToQuery(), Collections.singletonList("A"));
+        assertEquals(merger.getMemberStartingElements(), Collections.singletonMap("A", 2));
+
+        Map<String, List<EntityDetail>> secondResults = new HashMap<>();
+        secondResults.put("A", members.get("A").subList(2, 4));
+
+        assertFalse(merger.addMemberResults(secondResults));
+        assertEquals(getGUIDs(merger.getPage(null)), Arrays.asList("03", "04"));
+
+        Map<String, Integer> expectedPositions = new HashMap<>();
+        expectedPositions.put("A", 4);
+        expectedPositions.put("B", 0);
+
+        assertEquals(merger.getNextMemberPositions(), expectedPositions);
+    }
+
+
+    /**
+     * Validate that successive pages built from the positions of the previous page match the pages built by
+     * skipping the earlier results, and that they hold every result exactly once - including an instance
+     * returned by two repositories at the end of a page.
+     */
+    @Test public void testSuccessivePages()
+    {
+        Map<String, List<EntityDetail>> members = new LinkedHashMap<>();
+        members.put("A", getEntities("A", "01", "04", "05", "09", "11"));
+        members.put("B", getEntities("B", "02", "06", "07", "10"));
+        members.put("C", getEntities("C", "03", "05", "08", "12"));
+
+        List<String>         allResults = new ArrayList<>();
+        Map<String, Integer> positions  = null;
+
+        for (int startingElement = 0; startingElement < 15; startingElement += 5)
+        {
+            FederatedPageMerger<EntityDetail> continuedMerger = getMerger(members, startingElement, 5, positions);
+            FederatedPageMerger<EntityDetail> skippingMerger  = getMerger(members, startingElement, 5, null);
+
+            runQuery(continuedMerger, members);
+            runQuery(skippingMerger, members);
+
+            List<String> page = getGUIDs(continuedMerger.getPage(null));
+
+            assertEquals(page, getGUIDs(skippingMerger.getPage(null)));
+            allResults.addAll(page);
+
+            positions = continuedMerger.getNextMemberPositions();
+        }
+
+        assertEquals(allResults, Arrays.asList("01", "02", "03", "04", "05", "06", "07", "08", "09", "10", "11", "12"));
+        assertNull(positions);
+    }
+
+
+    /**
+     * Create a merger for the repositories.
+     *
+     * @param members map of metadata collection id to all of the results in the repository
+     * @param startingElement starting element requested by the caller
+     * @param pageSize maximum number of elements requested by the caller
+     * @param memberPositions positions from the previous page
+     * @return merger
+     */
+    private FederatedPageMerger<EntityDetail> getMerger(Map<String, List<EntityDetail>> members,
+                                                        int                             startingElement,
+                                                        int                             pageSize,
+                                                        Map<String, Integer>            memberPositions)
+    {
+        return new FederatedPageMerger<>(new ArrayList<>(members.keySet()), byGUID, startingElement, pageSize, memberPositions);
+    }
+
+
+    /**
+     * Issue the requests to the repositories until the merger has the results it needs.  Each repository
+     * returns the results from the starting element it is given.
+     *
+     * @param merger merger for the page
+     * @param members map of metadata collection id to all of the results in the repository
+     * @return number of rounds of requests
+     */
+    private int runQuery(FederatedPageMerger<EntityDetail> merger,
+                         Map<String, List<EntityDetail>>   members)
+    {
+        int     requestCount      = 0;
+        boolean moreResultsNeeded = true;
+
+        while (moreResultsNeeded)
+        {
+            Map<String, Integer>            startingElements = merger.getMemberStartingElements();
+            Map<String, List<EntityDetail>> results          = new HashMap<>();
+
+            for (String memberId : merger.getMembersToQuery())
+            {
+                List<EntityDetail> memberResults = members.get(memberId);
+                int                fromIndex     = Math.min(startingElements.get(memberId), memberResults.size());
+                int                toIndex       = Math.min(fromIndex + merger.getMemberPageSize(), memberResults.size());
+
+                results.put(memberId, new ArrayList<>(memberResults.subList(fromIndex, toIndex)));
+            }
+
+            requestCount++;
+            moreResultsNeeded = merger.addMemberResults(results);
+
+            assertTrue(requestCount < 20);
+        }
+
+        return requestCount;
+    }
+
+
+    /**
+     * Create a list of entities.
+     *
+     * @param homeMetadataCollectionId metadata collection id of the home repository
+     * @param guids unique identifiers for the entities
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntities(String    homeMetadataCollectionId,
+                                           String... guids)
+    {
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            entities.add(getEntity(homeMetadataCollectionId, guid));
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * Create an entity.
+     *
+     * @param homeMetadataCollectionId metadata collection id of the home repository
+     * @param guid unique identifier for the entity
+     * @return entity
+     */
+    private EntityDetail getEntity(String homeMetadataCollectionId,
+                                   String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(homeMetadataCollectionId);
+        entity.setVersion(1);
+
+        return entity;
+    }
+
+
+    /**
+     * Return the GUIDs of a list of instances.
+     *
+     * @param instances list of instances
+     * @return list of GUIDs
+     */
+    private List<String> getGUIDs(List<EntityDetail> instances)
+    {
+        List<String> guids = new ArrayList<>();
+
+        if (instances != null)
+        {
+            for (EntityDetail instance : instances)
+            {
+                guids.add(instance.getGUID());
+            }
+        }
+
+        return guids;
+    }
+}
@@ -0,0 +1,247 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.GetLinkingEntitiesExecutor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that ParallelFederationControl completes a query when a repository times out or the worker queue is
+ * full, and that responses arriving after a repository is abandoned, or after the results are read, are ignored.
+ */
+public class ParallelFederationControlTest
+{
+    private static final String methodName = "getLinkingEntities";
+
+
+    /**
+     * Validate that a repository that does not respond in time can not add to the results, even when its
+     * worker thread ignores the interrupt and returns later.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testTimedOutRepositoryIsFenced() throws Exception
+    {
+        CountDownLatch  release = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            List<OMRSRepositoryConnector> connectors = new ArrayList<>();
+            connectors.add(new TestRepositoryConnector("fast", "fast-entity", null));
+            connectors.add(new TestRepositoryConnector("slow", "slow-entity", release));
+
+            GetLinkingEntitiesExecutor executor = getExecutor();
+
+            new ParallelFederationControl("testUser", connectors, workers, 200, null, methodName).executeCommand(executor);
+
+            /*
+             * Let the slow repository respond and wait for its worker thread to add its results.
+             */
+            release.countDown();
+            workers.shutdown();
+            assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(getEntityGUIDs(executor.getResults(null)), Collections.singletonList("fast-entity"));
+        }
+        finally
+        {
+            release.countDown();
+            workers.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Validate that a response that arrives after the results have been read is ignored.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testLateResponseAfterResultsRead() throws Exception
+    {
+        TestRepositoryConnector first  = new TestRepositoryConnector("first", "first-entity", null);
+        TestRepositoryConnector second = new TestRepositoryConnector("second", "second-entity", null);
+
+        GetLinkingEntitiesExecutor executor = getExecutor();
+
+        new ParallelFederationControl("testUser", Collections.singletonList(first), methodName).executeCommand(executor);
+
+        InstanceGraph results = executor.getResults(null);
+
+        executor.issueRequestToRepository("second", second.getMetadataCollection());
+
+        assertEquals(getEntityGUIDs(results), Collections.singletonList("first-entity"));
+        assertEquals(getEntityGUIDs(executor.getResults(null)), Collections.singletonList("first-entity"));
+    }
+
+
+    /**
+     * Validate that requests that can not be queued for the worker threads run in the calling thread.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test public void testFullQueueRunsInCallingThread() throws Exception
+    {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+
+        try
+        {
+            List<OMRSRepositoryConnector> connectors = new ArrayList<>();
+            List<String>                  expected   = new ArrayList<>();
+
+            for (int i = 0; i < 6; i++)
+            {
+                connectors.add(new TestRepositoryConnector("member" + i, "entity" + i, null));
+                expected.add("entity" + i);
+            }
+
+            GetLinkingEntitiesExecutor executor = getExecutor();
+
+            new ParallelFederationControl("testUser", connectors, workers, 10000, null, methodName).executeCommand(executor);
+
+            List<String> results = getEntityGUIDs(executor.getResults(null));
+
+            Collections.sort(results);
+            assertEquals(results, expected);
+        }
+        finally
+        {
+            workers.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Return an executor for a getLinkingEntities request.
+     *
+     * @return executor
+     */
+    private GetLinkingEntitiesExecutor getExecutor()
+    {
+        return new GetLinkingEntitiesExecutor("testUser",
+                                              "start",
+                                              "end",
+                                              null,
+                                              null,
+                                              null,
+                                              null,
+                                              null,
+                                              methodName);
+    }
+
+
+    /**
+     * Return the GUIDs of the entities in an instance graph.
+     *
+     * @param instanceGraph results
+     * @return list of GUIDs
+     */
+    private List<String> getEntityGUIDs(InstanceGraph instanceGraph)
+    {
+        assertNotNull(instanceGraph);
+
+        List<String> guids = new ArrayList<>();
+
+        for (EntityDetail entity : instanceGraph.getEntities())
+        {
+            guids.add(entity.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Repository connector for a test repository.
+     */
+    private static class TestRepositoryConnector extends OMRSRepositoryConnector
+    {
+        TestRepositoryConnector(String         metadataCollectionId,
+                                String         entityGUID,
+                                CountDownLatch release)
+        {
+            super.setMetadataCollectionId(metadataCollectionId);
+            super.metadataCollection = new TestMetadataCollection(metadataCollectionId, entityGUID, release);
+        }
+    }
+
+
+    /**
+     * Metadata collection that returns a single entity from getLinkingEntities.  When it is given a latch,
+     * it waits for the latch before responding and ignores any interrupt, like a remote call that can not
+     * be stopped.
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        private String         entityGUID;
+        private CountDownLatch release;
+
+
+        TestMetadataCollection(String         metadataCollectionId,
+                               String         entityGUID,
+                               CountDownLatch release)
+        {
+            super(metadataCollectionId);
+
+            this.entityGUID = entityGUID;
+            this.release = release;
+        }
+
+
+        @Override
+        public InstanceGraph getLinkingEntities(String               userId,
+                                                String               startEntityGUID,
+                                                String               endEntityGUID,
+                                                List<InstanceStatus> limitResultsByStatus,
+                                                Date                 asOfTime)
+        {
+            if (release != null)
+            {
+                boolean released = false;
+
+                while (! released)
+                {
+                    try
+                    {
+                        released = release.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException error)
+                    {
+                        /*
+                         * Ignore the interrupt.
+                         */
+                    }
+                }
+            }
+
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID(entityGUID);
+
+            InstanceGraph instanceGraph = new InstanceGraph();
+            instanceGraph.setEntities(Collections.singletonList(entity));
+
+            return instanceGraph;
+        }
+    }
+}
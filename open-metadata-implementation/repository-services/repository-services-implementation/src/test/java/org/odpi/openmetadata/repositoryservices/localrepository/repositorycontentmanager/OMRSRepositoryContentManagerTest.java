@@ -0,0 +1,139 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.archivemanager.opentypes.OpenMetadataTypesArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the type hierarchy information that the repository content manager derives from the cached types.
+ */
+public class OMRSRepositoryContentManagerTest
+{
+    private static final String sourceName = "OMRSRepositoryContentManagerTest";
+
+
+    /**
+     * Validate supertype and subtype checks against the open metadata types.
+     */
+    @Test public void testTypeHierarchy()
+    {
+        OMRSRepositoryContentManager contentManager = createContentManager();
+
+        assertTrue(contentManager.isTypeOf(sourceName, "GlossaryTerm", "GlossaryTerm"));
+        assertTrue(contentManager.isTypeOf(sourceName, "GlossaryTerm", "Referenceable"));
+        assertTrue(contentManager.isTypeOf(sourceName, "DataSet", "Asset"));
+        assertFalse(contentManager.isTypeOf(sourceName, "Asset", "DataSet"));
+        assertFalse(contentManager.isTypeOf(sourceName, "GlossaryTerm", "Asset"));
+
+        TypeDef referenceable = contentManager.getTypeDefByName(sourceName, "Referenceable");
+        TypeDef glossaryTerm  = contentManager.getTypeDefByName(sourceName, "GlossaryTerm");
+
+        assertTrue(contentManager.isTypeOfByGUID(sourceName, glossaryTerm.getGUID(), glossaryTerm.getName(), referenceable.getGUID()));
+
+        List<String> subTypes = contentManager.getSubTypesOf(sourceName, "Asset");
+
+        assertTrue(subTypes.contains("DataSet"));
+        assertTrue(subTypes.contains("Database"));
+        assertFalse(subTypes.contains("Asset"));
+        assertNull(contentManager.getSubTypesOf(sourceName, "ControlledGlossaryTerm"));
+    }
+
+
+    /**
+     * Validate that inherited properties and subtypes reflect changes to the cached types.
+     */
+    @Test public void testTypeChanges()
+    {
+        OMRSRepositoryContentManager contentManager = createContentManager();
+
+        TypeDef                glossaryTerm = contentManager.getTypeDefByName(sourceName, "GlossaryTerm");
+        List<TypeDefAttribute> properties   = contentManager.getAllPropertiesForTypeDef(sourceName, glossaryTerm, sourceName);
+
+        assertTrue(containsProperty(properties, "displayName"));
+        assertTrue(containsProperty(properties, "qualifiedName"));
+
+        /*
+         * A new version of Referenceable with an extra property is visible in its subtypes.
+         */
+        TypeDef                updatedReferenceable = contentManager.getTypeDefByName(sourceName, "Referenceable").cloneFromSubclass();
+        List<TypeDefAttribute> updatedProperties    = new ArrayList<>(updatedReferenceable.getPropertiesDefinition());
+        TypeDefAttribute       newProperty          = new TypeDefAttribute();
+
+        newProperty.setAttributeName("extraProperty");
+        updatedProperties.add(newProperty);
+        updatedReferenceable.setPropertiesDefinition(updatedProperties);
+        contentManager.updateTypeDef(sourceName, updatedReferenceable);
+
+        properties = contentManager.getAllPropertiesForTypeDef(sourceName, glossaryTerm, sourceName);
+        assertTrue(containsProperty(properties, "extraProperty"));
+
+        /*
+         * Deleting the only subtype of GlossaryTerm removes it from the subtypes.
+         */
+        TypeDef controlledGlossaryTerm = contentManager.getTypeDefByName(sourceName, "ControlledGlossaryTerm");
+
+        assertEquals(contentManager.getSubTypesOf(sourceName, "GlossaryTerm").size(), 1);
+        contentManager.deleteTypeDef(sourceName, controlledGlossaryTerm.getGUID(), controlledGlossaryTerm.getName());
+        assertNull(contentManager.getSubTypesOf(sourceName, "GlossaryTerm"));
+        assertNull(contentManager.getTypeDefByName(sourceName, "ControlledGlossaryTerm"));
+    }
+
+
+    /**
+     * Create a content manager loaded with the open metadata types.
+     *
+     * @return content manager
+     */
+    private OMRSRepositoryContentManager createContentManager()
+    {
+        OMRSRepositoryContentManager contentManager = new OMRSRepositoryContentManager(null);
+        OpenMetadataArchiveTypeStore typeStore      = new OpenMetadataTypesArchive().getOpenMetadataArchive().getArchiveTypeStore();
+
+        for (AttributeTypeDef attributeTypeDef : typeStore.getAttributeTypeDefs())
+        {
+            contentManager.addAttributeTypeDef(sourceName, attributeTypeDef);
+        }
+
+        for (TypeDef typeDef : typeStore.getNewTypeDefs())
+        {
+            contentManager.addTypeDef(sourceName, typeDef);
+        }
+
+        return contentManager;
+    }
+
+
+    /**
+     * Return whether the named property is in the list.
+     *
+     * @param properties list of property definitions
+     * @param propertyName name to look for
+     * @return boolean flag
+     */
+    private boolean containsProperty(List<TypeDefAttribute> properties,
+                                     String                 propertyName)
+    {
+        for (TypeDefAttribute property : properties)
+        {
+            if (propertyName.equals(property.getAttributeName()))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -3,16 +3,23 @@
 package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class OMRSRepositoryHelperTest
@@ -112,6 +119,61 @@ public class OMRSRepositoryHelperTest
 
 
     }
+    @Test
+    void testformatEntityResultsPaging() throws PropertyErrorException, PagingErrorException {
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            fullResults.add(createEntity("guid" + i, i, i));
+        }
+
+        // page size larger than the results still starts from the requested element
+        List<EntityDetail> entities = createHelper().formatEntityResults(fullResults, 2, null, SequencingOrder.ANY, 10);
+        assertEquals(entities.size(), 2);
+        assertEquals(entities.get(0).getGUID(), "guid2");
+
+        // starting beyond the results
+        assertNull(createHelper().formatEntityResults(fullResults, 4, null, SequencingOrder.ANY, 3));
+    }
+
+    @Test
+    void testformatEntityResultsSequencing() throws PropertyErrorException, PagingErrorException {
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fullResults.add(createEntity("guid" + (100 + i), (i * 37) % 100, i));
+        }
+        Collections.shuffle(fullResults);
+
+        // pages selected with the bounded heap match the fully sorted list
+        List<EntityDetail> allEntities = createHelper().formatEntityResults(fullResults, 0, "size", SequencingOrder.PROPERTY_DESCENDING, 0);
+        assertEquals(allEntities.size(), 100);
+        for (int from = 0; from < 100; from += 7) {
+            List<EntityDetail> page = createHelper().formatEntityResults(fullResults, from, "size", SequencingOrder.PROPERTY_DESCENDING, 7);
+            assertEquals(page, allEntities.subList(from, Math.min(from + 7, 100)));
+        }
+        assertEquals(allEntities.get(0).getProperties().getPropertyValue("size").valueAsString(), "99");
+
+        List<EntityDetail> oldest = createHelper().formatEntityResults(fullResults, 0, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+        assertEquals(oldest.get(0).getGUID(), "guid100");
+        assertEquals(oldest.get(2).getGUID(), "guid102");
+
+        List<EntityDetail> byGUID = createHelper().formatEntityResults(fullResults, 10, null, SequencingOrder.GUID, 1);
+        assertEquals(byGUID.get(0).getGUID(), "guid110");
+    }
+
+    private EntityDetail createEntity(String guid, int size, long createTime) {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setCreateTime(new Date(createTime));
+
+        InstanceProperties properties = new InstanceProperties();
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+        propertyValue.setPrimitiveValue(size);
+        properties.setProperty("size", propertyValue);
+        entity.setProperties(properties);
+        return entity;
+    }
+
     private OMRSRepositoryHelper createHelper() {
         return new OMRSRepositoryContentHelper(null);
     }
@@ -712,6 +712,30 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Return the header, classifications and properties of a batch of entities.  Entities that are not known,
+     * or are only proxies, are left out of the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the entities.
+     * @return EntityListResponse:
+     * list of EntityDetail structures or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/instances/entities/by-guids")
+
+    public EntityListResponse getEntitiesDetail(@PathVariable String                   serverName,
+                                                @PathVariable String                   userId,
+                                                @RequestBody  InstanceGUIDListRequest  guids)
+    {
+        return restAPI.getEntitiesDetail(serverName, userId, guids);
+    }
+
+
     /**
      * Return the relationships for a specific entity.
      *
@@ -776,6 +800,34 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Return the relationships for a batch of entities.  Each relationship is returned once, even if it links
+     * two of the requested entities.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param findRequestParameters entities and find parameters used to limit the returned results.
+     * @return RelationshipListResponse:
+     * Relationships list.  Null means no relationships associated with the entities or
+     * InvalidParameterException a parameter is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored or
+     * PropertyErrorException the relationships could not be sequenced or
+     * PagingErrorException the paging parameters used to retrieve the relationships were rejected or
+     * FunctionNotSupportedException the repository does not support asOfTime parameter or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/instances/entities/relationships")
+
+    public RelationshipListResponse getRelationshipsForEntities(@PathVariable String                          serverName,
+                                                                @PathVariable String                          userId,
+                                                                @RequestBody  EntityRelationshipsFindRequest  findRequestParameters)
+    {
+        return restAPI.getRelationshipsForEntities(serverName, userId, findRequestParameters);
+    }
+
+
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
      * can be returned over many pages.
@@ -1040,6 +1092,30 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Return the current version of a batch of relationships.  Relationships that are not known are left out
+     * of the results.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param guids list of unique identifiers for the relationships.
+     * @return RelationshipListResponse:
+     * list of relationship structures or
+     * InvalidParameterException one of the guids is null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/instances/relationships/by-guids")
+
+    public RelationshipListResponse getRelationships(@PathVariable String                   serverName,
+                                                     @PathVariable String                   userId,
+                                                     @RequestBody  InstanceGUIDListRequest  guids)
+    {
+        return restAPI.getRelationships(serverName, userId, guids);
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be broken into pages.